@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.benchmark;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import io.easybest.mybatis.benchmark.domain.Person;
+import io.easybest.mybatis.benchmark.domain.PersonRepository;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.mapping.NamingStrategy;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+
+/**
+ * Spring configuration shared by the benchmarks. The embedded database type is taken
+ * from the {@code benchmark.database} property ({@code HSQL} or {@code H2}).
+ *
+ * @author Jarvis Song
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableMybatisRepositories(basePackageClasses = PersonRepository.class)
+public class BenchmarkConfiguration {
+
+	/**
+	 * Property selecting the embedded database.
+	 */
+	public static final String DATABASE_PROPERTY = "benchmark.database";
+
+	@Bean
+	public DataSource dataSource(@Value("${" + DATABASE_PROPERTY + ":HSQL}") EmbeddedDatabaseType type) {
+
+		String script = (type == EmbeddedDatabaseType.H2) ? "scripts/h2-init.sql" : "scripts/hsqldb-init.sql";
+
+		return new EmbeddedDatabaseBuilder().setType(type).generateUniqueName(true).addScript(script).build();
+	}
+
+	@Bean
+	public SqlSessionFactoryBean sqlSessionFactory(DataSource dataSource) {
+
+		org.apache.ibatis.session.Configuration configuration = new org.apache.ibatis.session.Configuration();
+		configuration.setCallSettersOnNulls(true);
+
+		SqlSessionFactoryBean factory = new SqlSessionFactoryBean();
+		factory.setDataSource(dataSource);
+		factory.setConfiguration(configuration);
+		return factory;
+	}
+
+	@Bean
+	public SqlSessionTemplate sqlSessionTemplate(SqlSessionFactory sqlSessionFactory) {
+		return new SqlSessionTemplate(sqlSessionFactory);
+	}
+
+	@Bean
+	public PlatformTransactionManager transactionManager(DataSource dataSource) {
+		return new DataSourceTransactionManager(dataSource);
+	}
+
+	@Bean
+	public DefaultEntityManager entityManager(SqlSessionTemplate sqlSessionTemplate) {
+
+		DefaultEntityManager entityManager = new DefaultEntityManager(sqlSessionTemplate);
+		entityManager.setEntityPackages(new String[] { Person.class.getPackage().getName() });
+		entityManager.setNamingStrategy(NamingStrategy.AS_IS);
+		return entityManager;
+	}
+
+}
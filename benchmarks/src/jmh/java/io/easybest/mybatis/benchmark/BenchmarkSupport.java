@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import io.easybest.mybatis.benchmark.domain.Person;
+import io.easybest.mybatis.benchmark.domain.PersonRepository;
+
+/**
+ * Bootstraps the benchmark application context and seeds it with data.
+ *
+ * @author Jarvis Song
+ */
+final class BenchmarkSupport {
+
+	static final String[] LASTNAMES = { "Matthews", "Gierke", "Arrasz", "Song", "Darimont", "Strobl", "Paluch",
+			"Schauder" };
+
+	private BenchmarkSupport() {
+	}
+
+	static AnnotationConfigApplicationContext start(String database) {
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark",
+				Collections.singletonMap(BenchmarkConfiguration.DATABASE_PROPERTY, database)));
+		context.register(BenchmarkConfiguration.class);
+		context.refresh();
+		return context;
+	}
+
+	static List<Person> people(int size, int offset) {
+
+		List<Person> people = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			people.add(new Person("first" + (offset + i), LASTNAMES[(offset + i) % LASTNAMES.length], (offset + i) % 90));
+		}
+		return people;
+	}
+
+	static List<Long> seed(PersonRepository repository, int rows) {
+
+		List<Long> ids = new ArrayList<>(rows);
+		for (Person person : repository.saveAll(people(rows, 0))) {
+			ids.add(person.getId());
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.benchmark.domain.Person;
+import io.easybest.mybatis.benchmark.domain.PersonRepository;
+import io.easybest.mybatis.repository.query.criteria.CriteriaQuery;
+
+/**
+ * End-to-end repository benchmarks against an embedded database.
+ *
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:jmh}, optionally narrowed with
+ * {@code -PjmhIncludes=RepositoryBenchmarks.findById}.
+ *
+ * @author Jarvis Song
+ */
+@State(Scope.Benchmark)
+public class RepositoryBenchmarks {
+
+	private static final int ROWS = 1000;
+
+	private static final int BATCH = 50;
+
+	@Param({ "HSQL", "H2" })
+	private String database;
+
+	private AnnotationConfigApplicationContext context;
+
+	private PersonRepository repository;
+
+	private TransactionTemplate transactionTemplate;
+
+	private List<Long> ids;
+
+	private Example<Person> example;
+
+	private List<Person> batch;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		this.context = BenchmarkSupport.start(this.database);
+		this.repository = this.context.getBean(PersonRepository.class);
+		this.transactionTemplate = new TransactionTemplate(this.context.getBean(PlatformTransactionManager.class));
+		this.ids = BenchmarkSupport.seed(this.repository, ROWS);
+
+		Person probe = new Person();
+		probe.setLastname("Song");
+		probe.setActive(true);
+		this.example = Example.of(probe);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareBatch() {
+		this.batch = BenchmarkSupport.people(BATCH, ROWS);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public Optional<Person> findById() {
+		return this.repository.findById(this.ids.get(ThreadLocalRandom.current().nextInt(this.ids.size())));
+	}
+
+	@Benchmark
+	public List<Person> findAllByExample() {
+		return this.repository.findAll(this.example);
+	}
+
+	@Benchmark
+	public Page<Person> findAllPaged() {
+		return this.repository.findAll(PageRequest.of(3, 20, Sort.by("lastname", "id")));
+	}
+
+	@Benchmark
+	public List<Person> derivedQuery() {
+		return this.repository.findByLastnameAndAgeGreaterThan("Gierke", 40);
+	}
+
+	@Benchmark
+	public List<Person> criteriaQuery() {
+		return this.repository
+				.findAll(CriteriaQuery.create(Person.class).eq("lastname", "Paluch").between("age", 20, 60));
+	}
+
+	@Benchmark
+	public List<Person> saveAll() {
+
+		return this.transactionTemplate.execute(status -> {
+			List<Person> saved = this.repository.saveAll(this.batch);
+			status.setRollbackOnly();
+			return saved;
+		});
+	}
+
+}
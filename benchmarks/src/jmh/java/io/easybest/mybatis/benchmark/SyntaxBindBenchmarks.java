@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.benchmark;
+
+import java.util.Collections;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Sort;
+
+import io.easybest.mybatis.auxiliary.SQLResult;
+import io.easybest.mybatis.auxiliary.Syntax;
+import io.easybest.mybatis.benchmark.domain.Person;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.repository.query.criteria.CriteriaQuery;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+/**
+ * Measures {@link Syntax#bind(MybatisContext)} in isolation, without any JDBC round
+ * trip.
+ *
+ * @author Jarvis Song
+ */
+@State(Scope.Benchmark)
+public class SyntaxBindBenchmarks {
+
+	private AnnotationConfigApplicationContext context;
+
+	private MybatisContext<Person, Long> sortContext;
+
+	private MybatisContext<Person, Long> exampleContext;
+
+	private MybatisContext<Person, Long> criteriaContext;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+
+		this.context = BenchmarkSupport.start("HSQL");
+		EntityManager entityManager = this.context.getBean(EntityManager.class);
+
+		Sort sort = Sort.by(Sort.Order.asc("lastname"), Sort.Order.desc("age"));
+
+		Person probe = new Person();
+		probe.setFirstname("first");
+		probe.setLastname("Song");
+		probe.setActive(true);
+		Example<Person> example = Example.of(probe,
+				ExampleMatcher.matching().withMatcher("firstname", ExampleMatcher.GenericPropertyMatcher::startsWith));
+
+		this.sortContext = new MybatisContext<>(null, null, Person.class, Collections.emptyMap(), null, sort,
+				entityManager, false);
+		this.exampleContext = new MybatisContext<>(null, null, Person.class, Collections.emptyMap(), null, sort,
+				example, entityManager, false);
+		this.criteriaContext = new MybatisContext<>(null, Person.class, Collections.emptyMap(), false, entityManager,
+				CriteriaQuery.create(Person.class).eq("lastname", "Paluch").between("age", 20, 60));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public SQLResult bindSort() {
+		return Syntax.bind(this.sortContext);
+	}
+
+	@Benchmark
+	public SQLResult bindExample() {
+		return Syntax.bind(this.exampleContext);
+	}
+
+	@Benchmark
+	public SQLResult bindCriteria() {
+		return Syntax.bind(this.criteriaContext);
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.benchmark.domain;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat entity used by the benchmarks.
+ *
+ * @author Jarvis Song
+ */
+@Data
+@NoArgsConstructor
+@Entity
+public class Person {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
+	private Long id;
+
+	private String firstname;
+
+	private String lastname;
+
+	private Integer age;
+
+	private String emailAddress;
+
+	private Boolean active;
+
+	public Person(String firstname, String lastname, Integer age) {
+
+		this.firstname = firstname;
+		this.lastname = lastname;
+		this.age = age;
+		this.emailAddress = firstname + '.' + lastname + "@easybest.io";
+		this.active = true;
+	}
+
+}
@@ -0,0 +1,16 @@
+create
+	sequence SEQ_MYBATIS start
+	with 1 increment by 1;
+
+create table Person
+(
+	id           bigint not null,
+	firstname    varchar(255),
+	lastname     varchar(255),
+	age          integer,
+	emailAddress varchar(255),
+	active       boolean,
+	primary key (id)
+);
+
+create index idx_person_lastname on Person (lastname);
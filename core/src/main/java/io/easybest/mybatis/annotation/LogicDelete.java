@@ -40,4 +40,12 @@ public @interface LogicDelete {
 	 */
 	String value() default "deleted";
 
+	/**
+	 * Table the purged rows are copied to before they are physically deleted. The table
+	 * must have the columns of the entity table in the same order. Purged rows are not
+	 * archived by default.
+	 * @return archive table name
+	 */
+	String archiveTable() default "";
+
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Allocates the ids of a sequence generated id in blocks of the
+ * {@link javax.persistence.SequenceGenerator#allocationSize()} instead of selecting the
+ * next value of the sequence before every insert. Each value of the sequence is the
+ * first id of its block (pooled-lo), so the sequence must be incremented by the
+ * allocation size, e.g. <code>create sequence seq_entry start with 1 increment by
+ * 50</code>. Sequences incremented by {@code 1} would hand out overlapping blocks.
+ *
+ * @author Jarvis Song
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD, ElementType.ANNOTATION_TYPE })
+public @interface PooledAllocation {
+
+}
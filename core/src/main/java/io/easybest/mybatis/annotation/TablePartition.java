@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Spreads the rows of an entity over tables named after its table and a suffix
+ * determined by the value of a property, e.g. {@code orders_202610} for the month of an
+ * order date or {@code events_07} for the hash of a key.
+ *
+ * @author Jarvis Song
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TablePartition {
+
+	/**
+	 * Name of the property whose value selects the table.
+	 * @return property name
+	 */
+	String property();
+
+	/**
+	 * Scheme deriving the suffix from the property value, ignored if a
+	 * {@link #partitioner()} is set.
+	 * @return scheme
+	 */
+	Scheme scheme() default Scheme.MONTH;
+
+	/**
+	 * Number of tables of the {@link Scheme#HASH} scheme.
+	 * @return number of tables
+	 */
+	int partitions() default 0;
+
+	/**
+	 * Custom {@code io.easybest.mybatis.partition.TablePartitioner} with a public no-arg
+	 * constructor.
+	 * @return partitioner type
+	 */
+	Class<?> partitioner() default void.class;
+
+	/**
+	 * Built-in partitioning schemes.
+	 */
+	enum Scheme {
+
+		/**
+		 * One table per day of a date property, {@code _yyyyMMdd}.
+		 */
+		DAY,
+
+		/**
+		 * One table per month of a date property, {@code _yyyyMM}.
+		 */
+		MONTH,
+
+		/**
+		 * One table per year of a date property, {@code _yyyy}.
+		 */
+		YEAR,
+
+		/**
+		 * A fixed number of tables, {@code _00} to {@code _nn}, by the hash of the
+		 * property value.
+		 */
+		HASH
+
+	}
+
+}
@@ -57,6 +57,7 @@ import io.easybest.mybatis.repository.query.criteria.CriteriaQuery;
 import io.easybest.mybatis.repository.query.criteria.PredicateResult;
 import io.easybest.mybatis.repository.query.criteria.impl.CriteriaQueryImpl;
 import io.easybest.mybatis.repository.support.MybatisContext;
+import io.easybest.mybatis.tenant.TenantInterceptor;
 
 /**
  * .
@@ -71,6 +72,16 @@ public class Syntax {
 			return SQLResult.EMPTY;
 		}
 
+		EntityManager entityManager = context.getEntityManager();
+		if (null == entityManager) {
+			return doBind(context);
+		}
+
+		return entityManager.getMetrics().recordSqlGeneration(context.getRequiredDomainType(), () -> doBind(context));
+	}
+
+	private static SQLResult doBind(MybatisContext<?, ?> context) {
+
 		EntityManager entityManager = context.getEntityManager();
 		Class<?> domainType = context.getRequiredDomainType();
 		boolean basic = context.isBasic();
@@ -407,6 +418,10 @@ public class Syntax {
 								.collect(Collectors.joining(" AND "));
 
 					}
+					if (targetEntity.getTenantColumn().isPresent()) {
+						sql += " AND " + alias + "." + targetEntity.getTenantColumn().get() + " = "
+								+ Parameter.bindValue(TenantInterceptor.TENANT);
+					}
 					connectors.add(sql);
 
 					examples(conditions, connectors, entityManager, context, basic, matcher, matcherAccessor, path,
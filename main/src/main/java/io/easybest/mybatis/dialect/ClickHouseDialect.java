@@ -16,6 +16,12 @@
 
 package io.easybest.mybatis.dialect;
 
+import java.util.Map;
+
+import org.apache.ibatis.type.TypeHandler;
+
+import io.easybest.mybatis.mapping.TypeRegistry;
+
 /**
  * .
  *
@@ -23,4 +29,9 @@ package io.easybest.mybatis.dialect;
  */
 public class ClickHouseDialect extends MySQLDialect {
 
+	@Override
+	public Map<Class<?>, Class<? extends TypeHandler<?>>> getTypeHandlers() {
+		return TypeRegistry.typeHandlers();
+	}
+
 }
@@ -34,4 +34,14 @@ public class DB2400Dialect extends DB2Dialect {
 		return "select identity_val_local() from sysibm.sysdummy1";
 	}
 
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.NONE;
+	}
+
+	@Override
+	public boolean supportsGeneratedKeyColumns() {
+		return false;
+	}
+
 }
@@ -73,4 +73,14 @@ public class DB2Dialect extends AbstractDialect {
 		return "default";
 	}
 
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.DATA_CHANGE_TABLE;
+	}
+
+	@Override
+	public boolean supportsGeneratedKeyColumns() {
+		return true;
+	}
+
 }
@@ -29,4 +29,9 @@ public class DMDialect extends Oracle12cDialect {
 		return "REGEXP_LIKE(" + column + "," + pattern + ")";
 	}
 
+	@Override
+	public boolean supportsGeneratedKeyColumns() {
+		return false;
+	}
+
 }
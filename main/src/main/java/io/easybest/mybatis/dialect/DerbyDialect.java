@@ -90,6 +90,11 @@ public class DerbyDialect extends SQLServer2012Dialect {
 		return "values identity_val_local()";
 	}
 
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.NONE;
+	}
+
 	private static final class DerbyLimitHandler extends AbstractPaginationHandler {
 
 	}
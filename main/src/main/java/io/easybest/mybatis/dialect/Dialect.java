@@ -16,11 +16,17 @@
 
 package io.easybest.mybatis.dialect;
 
+import java.util.Map;
+
 import javax.persistence.GenerationType;
 
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.mapping.MappingException;
+import org.springframework.lang.Nullable;
 
+import io.easybest.mybatis.mapping.TypeRegistry;
 import io.easybest.mybatis.mapping.sql.IdentifierProcessing;
 
 /**
@@ -59,6 +65,15 @@ public interface Dialect {
 		return null;
 	}
 
+	/**
+	 * Whether the driver hands back any named column, not only identity columns, as a
+	 * generated key of an {@code INSERT}.
+	 * @return {@literal true} if database defaults can be read back by the insert
+	 */
+	default boolean supportsGeneratedKeyColumns() {
+		return false;
+	}
+
 	default String getSequenceNextValString(String sequenceName) {
 		throw new MappingException(this.getClass().getName() + " does not support sequences");
 	}
@@ -67,8 +82,38 @@ public interface Dialect {
 		return "";
 	}
 
+	/**
+	 * Clause limiting the rows removed by a {@code DELETE}.
+	 * @param n expression of the number of rows
+	 * @return clause, {@literal null} if deletes can not be limited
+	 */
+	@Nullable
+	default String deleteLimit(String n) {
+		return null;
+	}
+
+	/**
+	 * How {@code DELETE} and {@code UPDATE} statements return the rows they touched.
+	 * @return returning support
+	 */
+	default DmlReturning getDmlReturning() {
+		return DmlReturning.NONE;
+	}
+
+	/**
+	 * JDBC type REF CURSOR output parameters of procedures are registered with.
+	 * @return {@link JdbcType#CURSOR} by default
+	 */
+	default JdbcType getRefCursorJdbcType() {
+		return JdbcType.CURSOR;
+	}
+
 	default boolean supportsBoolean() {
 		return true;
 	}
 
+	default Map<Class<?>, Class<? extends TypeHandler<?>>> getTypeHandlers() {
+		return TypeRegistry.typeHandlers();
+	}
+
 }
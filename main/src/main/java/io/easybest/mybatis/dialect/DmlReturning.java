@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.dialect;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.mapping.precompile.Composite;
+import io.easybest.mybatis.mapping.precompile.SQL;
+import io.easybest.mybatis.mapping.precompile.Segment;
+
+/**
+ * How a database hands back the rows touched by a {@code DELETE} or {@code UPDATE}
+ * within the same statement.
+ *
+ * @author Jarvis Song
+ */
+public enum DmlReturning {
+
+	/**
+	 * Affected rows can not be returned.
+	 */
+	NONE(false, false),
+
+	/**
+	 * {@code DELETE ... RETURNING *} and {@code UPDATE ... RETURNING *}.
+	 */
+	RETURNING(true, true),
+
+	/**
+	 * {@code DELETE ... RETURNING *} only.
+	 */
+	DELETE_RETURNING(true, false),
+
+	/**
+	 * {@code DELETE FROM t OUTPUT DELETED.* WHERE ...} and
+	 * {@code UPDATE t SET ... OUTPUT INSERTED.* WHERE ...}.
+	 */
+	OUTPUT(true, true),
+
+	/**
+	 * {@code SELECT * FROM OLD TABLE (DELETE ...)} and
+	 * {@code SELECT * FROM FINAL TABLE (UPDATE ...)}.
+	 */
+	DATA_CHANGE_TABLE(true, true);
+
+	private static final Pattern WHERE = Pattern.compile("\\sWHERE\\s", Pattern.CASE_INSENSITIVE);
+
+	private final boolean delete;
+
+	private final boolean update;
+
+	DmlReturning(boolean delete, boolean update) {
+		this.delete = delete;
+		this.update = update;
+	}
+
+	public boolean supports(SqlCommandType type) {
+
+		if (SqlCommandType.DELETE == type) {
+			return this.delete;
+		}
+		if (SqlCommandType.UPDATE == type) {
+			return this.update;
+		}
+		return false;
+	}
+
+	/**
+	 * Turn a modifying statement into a query of the rows it touched.
+	 * @param type {@link SqlCommandType#DELETE} or {@link SqlCommandType#UPDATE}
+	 * @param statement statement up to the conditions, such as
+	 * {@code DELETE FROM t}
+	 * @param conditions the {@code WHERE} part, may be empty
+	 * @return returning statement
+	 */
+	public Segment apply(SqlCommandType type, Segment statement, Segment conditions) {
+
+		Assert.isTrue(this.supports(type), this.name() + " does not support returning from " + type);
+
+		boolean delete = SqlCommandType.DELETE == type;
+
+		switch (this) {
+
+		case OUTPUT:
+			return Composite.of(statement, SQL.of("OUTPUT " + (delete ? "DELETED" : "INSERTED") + ".*"), conditions);
+		case DATA_CHANGE_TABLE:
+			return Composite.of(SQL.of("SELECT * FROM " + (delete ? "OLD" : "FINAL") + " TABLE ("), statement,
+					conditions, SQL.of(")"));
+		default:
+			return Composite.of(statement, conditions, SQL.of("RETURNING *"));
+		}
+	}
+
+	/**
+	 * Turn a modifying statement written by hand into a query of the rows it touched.
+	 * The conditions start at the first {@code WHERE} outside parentheses.
+	 * @param type {@link SqlCommandType#DELETE} or {@link SqlCommandType#UPDATE}
+	 * @param statement statement
+	 * @return returning statement
+	 */
+	public Segment apply(SqlCommandType type, String statement) {
+
+		Matcher matcher = WHERE.matcher(statement);
+		while (matcher.find()) {
+
+			String head = statement.substring(0, matcher.start());
+			if (head.chars().filter(c -> c == '(').count() == head.chars().filter(c -> c == ')').count()) {
+				return this.apply(type, SQL.of(head), SQL.of(statement.substring(matcher.start()).trim()));
+			}
+		}
+
+		return this.apply(type, SQL.of(statement), SQL.EMPTY);
+	}
+
+}
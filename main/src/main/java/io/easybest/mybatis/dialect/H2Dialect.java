@@ -16,6 +16,13 @@
 
 package io.easybest.mybatis.dialect;
 
+import java.util.Map;
+
+import org.apache.ibatis.type.TypeHandler;
+
+import io.easybest.mybatis.mapping.TypeRegistry;
+import io.easybest.mybatis.mapping.handler.NativeUUIDTypeHandler;
+
 import static javax.persistence.GenerationType.SEQUENCE;
 
 /**
@@ -25,12 +32,27 @@ import static javax.persistence.GenerationType.SEQUENCE;
  */
 public class H2Dialect extends HsqlDbDialect {
 
+	private static final Map<Class<?>, Class<? extends TypeHandler<?>>> NATIVE_UUID_TYPE_HANDLERS = TypeRegistry
+			.typeHandlers(NativeUUIDTypeHandler.class);
+
+	private boolean nativeUuid;
+
 	public H2Dialect() {
 
 		super();
 
 	}
 
+	/**
+	 * Bind {@link java.util.UUID UUIDs} natively, for schemas keyed by {@code UUID}
+	 * columns. Off by default, UUIDs are stored as 36 characters unless a property
+	 * declares the {@code OTHER} {@link io.easybest.mybatis.annotation.JdbcType}.
+	 * @param nativeUuid whether to bind UUIDs natively
+	 */
+	public void setNativeUuid(boolean nativeUuid) {
+		this.nativeUuid = nativeUuid;
+	}
+
 	@Override
 	public String getIdentitySelectString(String table, String column, int type) {
 		return "CALL IDENTITY()";
@@ -61,4 +83,24 @@ public class H2Dialect extends HsqlDbDialect {
 		return "LIMIT " + n;
 	}
 
+	@Override
+	public String deleteLimit(String n) {
+		return "FETCH FIRST " + n + " ROWS ONLY";
+	}
+
+	@Override
+	public Map<Class<?>, Class<? extends TypeHandler<?>>> getTypeHandlers() {
+		return this.nativeUuid ? NATIVE_UUID_TYPE_HANDLERS : super.getTypeHandlers();
+	}
+
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.DATA_CHANGE_TABLE;
+	}
+
+	@Override
+	public boolean supportsGeneratedKeyColumns() {
+		return true;
+	}
+
 }
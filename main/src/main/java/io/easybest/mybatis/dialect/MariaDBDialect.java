@@ -28,4 +28,9 @@ public class MariaDBDialect extends MySQLDialect {
 		super();
 	}
 
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.DELETE_RETURNING;
+	}
+
 }
@@ -16,6 +16,12 @@
 
 package io.easybest.mybatis.dialect;
 
+import java.util.Map;
+
+import org.apache.ibatis.type.TypeHandler;
+
+import io.easybest.mybatis.mapping.TypeRegistry;
+import io.easybest.mybatis.mapping.handler.BinaryUUIDTypeHandler;
 import io.easybest.mybatis.mapping.precompile.Segment;
 import io.easybest.mybatis.mapping.sql.IdentifierProcessing;
 
@@ -31,6 +37,9 @@ public class MySQLDialect extends AbstractDialect {
 	private static final IdentifierProcessing MYSQL_IDENTIFIER_PROCESSING = IdentifierProcessing
 			.create(new IdentifierProcessing.Quoting("`"), IdentifierProcessing.LetterCasing.LOWER_CASE);
 
+	private static final Map<Class<?>, Class<? extends TypeHandler<?>>> BINARY_UUID_TYPE_HANDLERS = TypeRegistry
+			.typeHandlers(BinaryUUIDTypeHandler.class);
+
 	private static final PaginationHandler PAGINATION_HANDLER = new AbstractPaginationHandler() {
 
 		@Override
@@ -42,11 +51,23 @@ public class MySQLDialect extends AbstractDialect {
 		}
 	};
 
+	private boolean binaryUuid;
+
 	public MySQLDialect() {
 
 		super();
 	}
 
+	/**
+	 * Store {@link java.util.UUID UUIDs} as 16 bytes, for schemas keyed by
+	 * {@code BINARY(16)} columns. Off by default, UUIDs are stored as 36 characters
+	 * unless a property declares a binary {@link io.easybest.mybatis.annotation.JdbcType}.
+	 * @param binaryUuid whether to store UUIDs as bytes
+	 */
+	public void setBinaryUuid(boolean binaryUuid) {
+		this.binaryUuid = binaryUuid;
+	}
+
 	@Override
 	public IdentifierProcessing getIdentifierProcessing() {
 		return MYSQL_IDENTIFIER_PROCESSING;
@@ -62,6 +83,11 @@ public class MySQLDialect extends AbstractDialect {
 		return PAGINATION_HANDLER;
 	}
 
+	@Override
+	public Map<Class<?>, Class<? extends TypeHandler<?>>> getTypeHandlers() {
+		return this.binaryUuid ? BINARY_UUID_TYPE_HANDLERS : super.getTypeHandlers();
+	}
+
 	@Override
 	public String getNativeIdentifierGeneratorStrategy() {
 		return IDENTITY.name().toLowerCase();
@@ -77,4 +103,9 @@ public class MySQLDialect extends AbstractDialect {
 		return "LIMIT " + n;
 	}
 
+	@Override
+	public String deleteLimit(String n) {
+		return "LIMIT " + n;
+	}
+
 }
@@ -83,4 +83,9 @@ public class Oracle8iDialect extends AbstractDialect {
 		return false;
 	}
 
+	@Override
+	public boolean supportsGeneratedKeyColumns() {
+		return true;
+	}
+
 }
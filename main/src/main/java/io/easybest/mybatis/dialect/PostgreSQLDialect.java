@@ -16,6 +16,13 @@
 
 package io.easybest.mybatis.dialect;
 
+import java.util.Map;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+import io.easybest.mybatis.mapping.TypeRegistry;
+import io.easybest.mybatis.mapping.handler.NativeUUIDTypeHandler;
 import io.easybest.mybatis.mapping.precompile.Segment;
 
 import static javax.persistence.GenerationType.SEQUENCE;
@@ -39,11 +46,31 @@ public class PostgreSQLDialect extends AbstractDialect {
 		}
 	};
 
+	private static final Map<Class<?>, Class<? extends TypeHandler<?>>> NATIVE_UUID_TYPE_HANDLERS = TypeRegistry
+			.typeHandlers(NativeUUIDTypeHandler.class);
+
+	private boolean nativeUuid;
+
+	/**
+	 * Bind {@link java.util.UUID UUIDs} natively, for schemas keyed by {@code UUID}
+	 * columns. Off by default, UUIDs are stored as 36 characters unless a property
+	 * declares the {@code OTHER} {@link io.easybest.mybatis.annotation.JdbcType}.
+	 * @param nativeUuid whether to bind UUIDs natively
+	 */
+	public void setNativeUuid(boolean nativeUuid) {
+		this.nativeUuid = nativeUuid;
+	}
+
 	@Override
 	public PaginationHandler getPaginationHandler() {
 		return PAGINATION_HANDLER;
 	}
 
+	@Override
+	public Map<Class<?>, Class<? extends TypeHandler<?>>> getTypeHandlers() {
+		return this.nativeUuid ? NATIVE_UUID_TYPE_HANDLERS : super.getTypeHandlers();
+	}
+
 	@Override
 	public String getNativeIdentifierGeneratorStrategy() {
 
@@ -60,6 +87,11 @@ public class PostgreSQLDialect extends AbstractDialect {
 		return "NEXTVAL ('" + sequenceName + "')";
 	}
 
+	@Override
+	public JdbcType getRefCursorJdbcType() {
+		return JdbcType.OTHER;
+	}
+
 	@Override
 	public String limitN(int n) {
 		return "LIMIT " + n;
@@ -70,4 +102,14 @@ public class PostgreSQLDialect extends AbstractDialect {
 		return column + " ~ " + pattern;
 	}
 
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.RETURNING;
+	}
+
+	@Override
+	public boolean supportsGeneratedKeyColumns() {
+		return true;
+	}
+
 }
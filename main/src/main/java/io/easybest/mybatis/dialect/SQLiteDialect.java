@@ -57,4 +57,9 @@ public class SQLiteDialect extends AbstractDialect {
 		return column + " regexp " + pattern;
 	}
 
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.RETURNING;
+	}
+
 }
@@ -49,4 +49,9 @@ public class SqlServerDialect extends AbstractDialect {
 		return "select @@identity";
 	}
 
+	@Override
+	public DmlReturning getDmlReturning() {
+		return DmlReturning.OUTPUT;
+	}
+
 }
@@ -23,4 +23,9 @@ package io.easybest.mybatis.dialect;
  */
 public class XuguDialect extends Oracle12cDialect {
 
+	@Override
+	public boolean supportsGeneratedKeyColumns() {
+		return false;
+	}
+
 }
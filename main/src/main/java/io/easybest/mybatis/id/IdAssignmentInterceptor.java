@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.id;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DOT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.SEQUENCE_NEXT_VAL;
+
+/**
+ * Assigns the ids of inserted entities before the statement, so inserts need no select
+ * key. Ids come from
+ * <ul>
+ * <li>the {@link IdGenerator} named by the {@link javax.persistence.GeneratedValue} of
+ * the id, or</li>
+ * <li>a {@link PooledSequence} if the sequence generator of the id allocates more than
+ * one id per value, entities sharing a sequence share its blocks</li>
+ * </ul>
+ * Ids that are already assigned are kept.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }))
+public class IdAssignmentInterceptor implements Interceptor {
+
+	private final Map<Class<?>, IdGenerator> generators = new HashMap<>();
+
+	private final Map<Class<?>, PooledSequence> sequences = new HashMap<>();
+
+	private final Map<Class<?>, MybatisPersistentEntityImpl<?>> entities = new HashMap<>();
+
+	public IdAssignmentInterceptor(EntityManager entityManager) {
+
+		Map<String, PooledSequence> byName = new HashMap<>();
+		for (MybatisPersistentEntityImpl<?> entity : entityManager.getPersistentEntities()) {
+
+			IdGenerator generator = entity.getIdGenerator();
+			if (null != generator) {
+				this.generators.put(entity.getType(), generator);
+				this.entities.put(entity.getType(), entity);
+				continue;
+			}
+
+			int allocationSize = entity.getSequenceAllocationSize();
+			if (allocationSize <= 1) {
+				continue;
+			}
+
+			PooledSequence sequence = byName.computeIfAbsent(entity.getSequenceName(),
+					name -> new PooledSequence(name, allocationSize));
+			Assert.state(sequence.getAllocationSize() == allocationSize, "Entities sharing the sequence "
+					+ sequence.getSequenceName() + " must have the same allocation size!");
+			this.sequences.put(entity.getType(), sequence);
+			this.entities.put(entity.getType(), entity);
+		}
+	}
+
+	/**
+	 * Whether the ids of any entity are assigned before the insert.
+	 * @return {@literal true} if there are such entities
+	 */
+	public boolean hasAssignments() {
+		return !this.entities.isEmpty();
+	}
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+		Object parameter = invocation.getArgs()[1];
+		if (ms.getSqlCommandType() != SqlCommandType.INSERT || !(parameter instanceof MybatisContext)) {
+			return invocation.proceed();
+		}
+
+		MybatisContext<?, ?> context = (MybatisContext<?, ?>) parameter;
+		MybatisPersistentEntityImpl<?> entity = null == context.getDomainType() ? null
+				: this.entities.get(context.getDomainType());
+		if (null == entity || null == context.getInstance()) {
+			return invocation.proceed();
+		}
+
+		MybatisPersistentPropertyImpl idProperty = entity.getRequiredIdProperty();
+		PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(context.getInstance());
+		if (null == accessor.getProperty(idProperty)) {
+
+			IdGenerator generator = this.generators.get(entity.getType());
+			Object id = null != generator ? generator.generate()
+					: this.sequences.get(entity.getType())
+							.next(() -> this.nextValue(ms, (Executor) invocation.getTarget(), entity));
+			accessor.setProperty(idProperty, DefaultConversionService.getSharedInstance().convert(id,
+					idProperty.getType()));
+		}
+
+		return invocation.proceed();
+	}
+
+	private long nextValue(MappedStatement ms, Executor executor, MybatisPersistentEntityImpl<?> entity) {
+
+		MappedStatement nextVal = ms.getConfiguration()
+				.getMappedStatement(entity.getType().getName() + DOT + SEQUENCE_NEXT_VAL, false);
+		// like the select key generator, do not mix the select into a batch of inserts
+		Executor simple = ms.getConfiguration().newExecutor(executor.getTransaction(), ExecutorType.SIMPLE);
+		try {
+			List<Object> values = simple.query(nextVal, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+			return ((Number) values.get(0)).longValue();
+		}
+		catch (SQLException ex) {
+			throw new DataAccessResourceFailureException(
+					"Could not fetch the next value of the sequence " + entity.getSequenceName(), ex);
+		}
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.id;
+
+/**
+ * Generates ids in process, before the insert of an entity. Entities use a generator by
+ * naming it in the {@link javax.persistence.GeneratedValue#generator() generator} of
+ * their id.
+ *
+ * @author Jarvis Song
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+	/**
+	 * Name of the {@link UuidV7Generator} registered by default.
+	 */
+	String UUID_V7 = "uuid7";
+
+	/**
+	 * Name of the {@link SnowflakeIdGenerator} registered by default.
+	 */
+	String SNOWFLAKE = "snowflake";
+
+	/**
+	 * Generate an id. It is converted to the type of the id property.
+	 * @return id, never {@literal null}
+	 */
+	Object generate();
+
+}
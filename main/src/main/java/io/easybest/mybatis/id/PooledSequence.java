@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.id;
+
+import java.util.function.LongSupplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * Hands out ids from blocks of a database sequence incremented by the allocation size.
+ * Each value of the sequence is the first id of a block of {@code allocationSize} ids,
+ * so one round trip serves that many inserts.
+ *
+ * @author Jarvis Song
+ */
+public class PooledSequence {
+
+	private final String sequenceName;
+
+	private final int allocationSize;
+
+	private long next;
+
+	private long limit;
+
+	public PooledSequence(String sequenceName, int allocationSize) {
+
+		Assert.hasText(sequenceName, "Sequence name must not be empty!");
+		Assert.isTrue(allocationSize > 0, "Allocation size must be greater than 0!");
+
+		this.sequenceName = sequenceName;
+		this.allocationSize = allocationSize;
+	}
+
+	/**
+	 * Next id of the current block, fetching a new block if it is exhausted.
+	 * @param nextValue fetches the next value of the sequence
+	 * @return id
+	 */
+	public synchronized long next(LongSupplier nextValue) {
+
+		if (this.next >= this.limit) {
+			long value = nextValue.getAsLong();
+			this.next = value;
+			this.limit = value + this.allocationSize;
+		}
+		return this.next++;
+	}
+
+	public String getSequenceName() {
+		return this.sequenceName;
+	}
+
+	public int getAllocationSize() {
+		return this.allocationSize;
+	}
+
+}
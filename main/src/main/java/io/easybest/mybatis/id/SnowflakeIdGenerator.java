@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.id;
+
+import org.springframework.util.Assert;
+
+/**
+ * Generates time-ordered {@code long} ids: 41 bits of milliseconds since an epoch,
+ * followed by 10 bits of node id and a 12 bit sequence within the millisecond. Nodes
+ * generating ids for the same tables need distinct node ids.
+ *
+ * @author Jarvis Song
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+	/**
+	 * Epoch of the generated ids by default, 2020-01-01T00:00:00Z.
+	 */
+	public static final long DEFAULT_EPOCH = 1577836800000L;
+
+	/**
+	 * Greatest node id.
+	 */
+	public static final int MAX_NODE_ID = 1023;
+
+	private static final int NODE_BITS = 10;
+
+	private static final int SEQUENCE_BITS = 12;
+
+	private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+	private final long node;
+
+	private final long epoch;
+
+	private long lastMillis;
+
+	private long sequence;
+
+	public SnowflakeIdGenerator(int nodeId) {
+		this(nodeId, DEFAULT_EPOCH);
+	}
+
+	public SnowflakeIdGenerator(int nodeId, long epoch) {
+
+		Assert.isTrue(nodeId >= 0 && nodeId <= MAX_NODE_ID, "Node id must be between 0 and " + MAX_NODE_ID + "!");
+		Assert.isTrue(epoch <= System.currentTimeMillis(), "Epoch must not be in the future!");
+
+		this.node = (long) nodeId << SEQUENCE_BITS;
+		this.epoch = epoch;
+	}
+
+	@Override
+	public synchronized Long generate() {
+
+		long millis = System.currentTimeMillis();
+		if (millis > this.lastMillis) {
+			this.lastMillis = millis;
+			this.sequence = 0;
+		}
+		else {
+			this.sequence = (this.sequence + 1) & SEQUENCE_MASK;
+			if (this.sequence == 0) {
+				// borrow the next millisecond, also if the clock moved back
+				this.lastMillis++;
+			}
+		}
+
+		return ((this.lastMillis - this.epoch) << (NODE_BITS + SEQUENCE_BITS)) | this.node | this.sequence;
+	}
+
+}
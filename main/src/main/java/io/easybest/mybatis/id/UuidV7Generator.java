@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered version 7 {@link UUID}s: 48 bits of Unix epoch milliseconds,
+ * followed by a 12 bit counter seeded randomly each millisecond and 62 random bits. Ids
+ * of one generator increase strictly, ids of several generators are ordered by their
+ * millisecond.
+ *
+ * @author Jarvis Song
+ */
+public class UuidV7Generator implements IdGenerator {
+
+	private static final int COUNTER_MASK = 0xFFF;
+
+	private long lastMillis;
+
+	private int counter;
+
+	@Override
+	public synchronized UUID generate() {
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long millis = System.currentTimeMillis();
+		if (millis > this.lastMillis) {
+			this.lastMillis = millis;
+			// leave room to count within the millisecond
+			this.counter = random.nextInt(COUNTER_MASK >> 1);
+		}
+		else if (++this.counter > COUNTER_MASK) {
+			// borrow the next millisecond, also if the clock moved back
+			this.lastMillis++;
+			this.counter = 0;
+		}
+
+		long msb = (this.lastMillis << 16) | (0x7L << 12) | this.counter;
+		long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+		return new UUID(msb, lsb);
+	}
+
+}
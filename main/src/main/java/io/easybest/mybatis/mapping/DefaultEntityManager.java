@@ -20,7 +20,10 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import javax.persistence.Entity;
@@ -33,18 +36,39 @@ import lombok.extern.slf4j.Slf4j;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.data.mapping.context.AbstractMappingContext;
 import org.springframework.data.mapping.model.Property;
 import org.springframework.data.mapping.model.SimpleTypeHolder;
 import org.springframework.data.util.AnnotatedTypeScanner;
 import org.springframework.data.util.TypeInformation;
+import org.springframework.util.Assert;
 import org.springframework.util.StopWatch;
 
 import io.easybest.mybatis.dialect.Dialect;
+import io.easybest.mybatis.id.IdAssignmentInterceptor;
+import io.easybest.mybatis.id.IdGenerator;
+import io.easybest.mybatis.id.SnowflakeIdGenerator;
+import io.easybest.mybatis.id.UuidV7Generator;
+import io.easybest.mybatis.mapping.handler.GeneratedRowMappingInterceptor;
+import io.easybest.mybatis.mapping.precompile.PrecompileReport;
 import io.easybest.mybatis.mapping.precompile.StagingMappers;
+import io.easybest.mybatis.metrics.MybatisMetrics;
+import io.easybest.mybatis.partition.TablePartitionInterceptor;
 import io.easybest.mybatis.repository.config.DialectResolver;
+import io.easybest.mybatis.repository.query.DeferredStatementInterceptor;
 import io.easybest.mybatis.repository.query.EscapeCharacter;
+import io.easybest.mybatis.repository.query.QueryCompilationMode;
+import io.easybest.mybatis.repository.query.RefCursorInterceptor;
+import io.easybest.mybatis.repository.support.AsyncExecutors;
 import io.easybest.mybatis.repository.support.MybatisContext;
+import io.easybest.mybatis.sharding.Shards;
+import io.easybest.mybatis.snapshot.EntitySnapshots;
+import io.easybest.mybatis.snapshot.SnapshotInterceptor;
+import io.easybest.mybatis.tenant.TenantInterceptor;
+import io.easybest.mybatis.writebehind.WriteBehind;
+import io.easybest.mybatis.writebehind.WriteBehindInterceptor;
+import io.easybest.mybatis.tenant.TenantResolver;
 
 import static io.easybest.mybatis.mapping.precompile.MybatisAggregateRootPrecompile.compile;
 
@@ -56,7 +80,9 @@ import static io.easybest.mybatis.mapping.precompile.MybatisAggregateRootPrecomp
 @Slf4j
 public class DefaultEntityManager
 		extends AbstractMappingContext<MybatisPersistentEntityImpl<?>, MybatisPersistentPropertyImpl>
-		implements EntityManager, InitializingBean, DisposableBean {
+		implements EntityManager, InitializingBean, SmartInitializingSingleton, DisposableBean {
+
+	private static final int PRECOMPILE_REPORT_LIMIT = 10;
 
 	private final SqlSessionTemplate sqlSessionTemplate;
 
@@ -72,8 +98,42 @@ public class DefaultEntityManager
 
 	private EscapeCharacter escapeCharacter = EscapeCharacter.DEFAULT;
 
+	private MybatisMetrics metrics = MybatisMetrics.NOOP;
+
+	private QueryCompilationMode queryCompilationMode = QueryCompilationMode.EAGER;
+
+	private boolean generatedRowMapping;
+
+	private Executor asyncExecutor;
+
+	private ExecutorService defaultAsyncExecutor;
+
+	private Shards shards;
+
+	private TenantResolver tenantResolver;
+
+	private EntitySnapshots entitySnapshots;
+
+	private boolean writeBehindEnabled;
+
+	private WriteBehind writeBehind;
+
+	private final Map<String, IdGenerator> idGenerators = new HashMap<>();
+
+	private final PrecompileReport precompileReport = new PrecompileReport();
+
+	/**
+	 * Nanoseconds spent mapping the entities nested in the entity being mapped on the
+	 * current thread.
+	 */
+	private final ThreadLocal<long[]> nestedMappingNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+	private MappingObjectFactory objectFactory;
+
 	public DefaultEntityManager(SqlSessionTemplate sqlSessionTemplate) {
 		this.sqlSessionTemplate = sqlSessionTemplate;
+		this.idGenerators.put(IdGenerator.UUID_V7, new UuidV7Generator());
+		this.idGenerators.put(IdGenerator.SNOWFLAKE, new SnowflakeIdGenerator(0));
 	}
 
 	@Override
@@ -89,6 +149,21 @@ public class DefaultEntityManager
 			log.info("Auto detected dialect " + this.dialect.getClass().getSimpleName());
 		}
 
+		if (null == this.asyncExecutor) {
+			this.defaultAsyncExecutor = AsyncExecutors.createDefault();
+			this.asyncExecutor = this.defaultAsyncExecutor;
+		}
+
+		if (null != this.shards) {
+			Assert.isTrue(
+					this.shards.getTemplates().stream().allMatch(template -> template
+							.getConfiguration() == this.sqlSessionTemplate.getConfiguration()),
+					"Shards must share the configuration of the EntityManager!");
+			if (null == this.shards.getExecutor()) {
+				this.shards.setExecutor(this.asyncExecutor);
+			}
+		}
+
 		if (null != this.entityPackages) {
 			Set<Class<?>> types = new AnnotatedTypeScanner(Entity.class).findTypes(this.entityPackages);
 			this.setInitialEntitySet(types);
@@ -99,7 +174,9 @@ public class DefaultEntityManager
 		// enhance mybatis configuration
 		this.getSqlSessionTemplate().getConfiguration().getTypeAliasRegistry()
 				.registerAlias(MybatisContext.class.getSimpleName(), MybatisContext.class);
-		this.getSqlSessionTemplate().getConfiguration().setObjectFactory(new MappingObjectFactory(this));
+		this.objectFactory = new MappingObjectFactory(this);
+		this.getSqlSessionTemplate().getConfiguration().setObjectFactory(this.objectFactory);
+		TypeRegistry.register(this.getSqlSessionTemplate().getConfiguration().getTypeHandlerRegistry(), this.dialect);
 
 		Collection<MybatisPersistentEntityImpl<?>> persistentEntities = this.getPersistentEntities();
 		StagingMappers stagingMappers = new StagingMappers();
@@ -112,11 +189,104 @@ public class DefaultEntityManager
 		compile(this, stagingMappers);
 		stagingMappers.complete();
 
+		// innermost, to open REF CURSORs with the statements the other interceptors passed on
+		this.getSqlSessionTemplate().getConfiguration().addInterceptor(new RefCursorInterceptor());
+
+		if (this.generatedRowMapping) {
+			// inner, to map the rows of the statements the other interceptors passed on
+			GeneratedRowMappingInterceptor interceptor = new GeneratedRowMappingInterceptor(this);
+			interceptor.prepare();
+			this.getSqlSessionTemplate().getConfiguration().addInterceptor(interceptor);
+		}
+
+		IdAssignmentInterceptor idInterceptor = new IdAssignmentInterceptor(this);
+		if (idInterceptor.hasAssignments()) {
+			this.getSqlSessionTemplate().getConfiguration().addInterceptor(idInterceptor);
+		}
+
+		TablePartitionInterceptor partitionInterceptor = new TablePartitionInterceptor(this);
+		if (partitionInterceptor.hasPartitions()) {
+			this.getSqlSessionTemplate().getConfiguration().addInterceptor(partitionInterceptor);
+		}
+
+		if (null != this.tenantResolver) {
+			TenantInterceptor tenantInterceptor = new TenantInterceptor(this, this.tenantResolver);
+			if (tenantInterceptor.hasTenants()) {
+				this.getSqlSessionTemplate().getConfiguration().addInterceptor(tenantInterceptor);
+			}
+		}
+		else {
+			Assert.state(persistentEntities.stream().noneMatch(entity -> entity.getTenantColumn().isPresent()),
+					"Entities annotated with @Tenant require a TenantResolver!");
+		}
+
+		EntitySnapshots snapshots = new EntitySnapshots(this);
+		if (snapshots.hasEntities()) {
+			// outermost, to see the rows mapped by any other interceptor
+			this.getSqlSessionTemplate().getConfiguration().addInterceptor(new SnapshotInterceptor(snapshots));
+			this.entitySnapshots = snapshots;
+		}
+
+		if (this.writeBehindEnabled) {
+			this.writeBehind = new WriteBehind(this);
+			this.getSqlSessionTemplate().getConfiguration()
+					.addInterceptor(new WriteBehindInterceptor(this.writeBehind));
+		}
+
+		if (this.queryCompilationMode != QueryCompilationMode.EAGER) {
+			// outermost of the interceptors of the entity manager, which must see the compiled
+			// statements
+			this.getSqlSessionTemplate().getConfiguration().addInterceptor(new DeferredStatementInterceptor());
+		}
+
 		sw.stop();
 		log.info("Finished initializing EntityManager in " + sw.getTotalTimeMillis() + " ms, and "
 				+ persistentEntities.size() + " entities were found.");
 	}
 
+	@Override
+	public void afterSingletonsInstantiated() {
+
+		// query methods are precompiled when the repositories get created
+		if (log.isDebugEnabled()) {
+			log.debug(this.precompileReport.summary(Integer.MAX_VALUE));
+		}
+		else if (log.isInfoEnabled()) {
+			log.info(this.precompileReport.summary(PRECOMPILE_REPORT_LIMIT));
+		}
+	}
+
+	@Override
+	protected Optional<MybatisPersistentEntityImpl<?>> addPersistentEntity(TypeInformation<?> type) {
+
+		if (this.hasPersistentEntityFor(type.getType())) {
+			return super.addPersistentEntity(type);
+		}
+
+		// entities of properties are mapped within, only the self time is recorded
+		long[] nested = this.nestedMappingNanos.get();
+		long outer = nested[0];
+		nested[0] = 0;
+		long start = System.nanoTime();
+		Optional<MybatisPersistentEntityImpl<?>> entity;
+		long self;
+		try {
+			entity = super.addPersistentEntity(type);
+		}
+		finally {
+			long elapsed = System.nanoTime() - start;
+			self = elapsed - nested[0];
+			nested[0] = outer + elapsed;
+		}
+		entity.ifPresent(
+				e -> this.precompileReport.entity(e.getType()).record(PrecompileReport.Phase.MAPPING, self));
+		if (null != this.objectFactory) {
+			// the type may have been planned as a plain object before
+			entity.ifPresent(e -> this.objectFactory.evict(e.getType()));
+		}
+		return entity;
+	}
+
 	@Override
 	protected <T> MybatisPersistentEntityImpl<?> createPersistentEntity(TypeInformation<T> typeInformation) {
 
@@ -152,6 +322,10 @@ public class DefaultEntityManager
 
 	@Override
 	public void destroy() throws Exception {
+
+		if (null != this.defaultAsyncExecutor) {
+			this.defaultAsyncExecutor.shutdown();
+		}
 		log.info("Destroyed Spring Data Mybatis EntityManager.");
 	}
 
@@ -181,6 +355,56 @@ public class DefaultEntityManager
 		return this.escapeCharacter;
 	}
 
+	@Override
+	public PrecompileReport getPrecompileReport() {
+		return this.precompileReport;
+	}
+
+	@Override
+	public QueryCompilationMode getQueryCompilationMode() {
+		return this.queryCompilationMode;
+	}
+
+	@Override
+	public MybatisMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	@Override
+	public boolean isGeneratedRowMapping() {
+		return this.generatedRowMapping;
+	}
+
+	@Override
+	public Executor getAsyncExecutor() {
+		return this.asyncExecutor;
+	}
+
+	@Override
+	public Shards getShards() {
+		return this.shards;
+	}
+
+	@Override
+	public TenantResolver getTenantResolver() {
+		return this.tenantResolver;
+	}
+
+	@Override
+	public EntitySnapshots getEntitySnapshots() {
+		return this.entitySnapshots;
+	}
+
+	@Override
+	public WriteBehind getWriteBehind() {
+		return this.writeBehind;
+	}
+
+	@Override
+	public IdGenerator getIdGenerator(String name) {
+		return this.idGenerators.get(name);
+	}
+
 	public void setEntityPackages(String[] entityPackages) {
 		this.entityPackages = entityPackages;
 	}
@@ -201,4 +425,59 @@ public class DefaultEntityManager
 		this.uniformTablePrefix = uniformTablePrefix;
 	}
 
+	public void setQueryCompilationMode(QueryCompilationMode queryCompilationMode) {
+
+		Assert.notNull(queryCompilationMode, "QueryCompilationMode must not be null!");
+
+		this.queryCompilationMode = queryCompilationMode;
+	}
+
+	public void setMetrics(MybatisMetrics metrics) {
+
+		Assert.notNull(metrics, "MybatisMetrics must not be null!");
+
+		this.metrics = metrics;
+	}
+
+	public void setGeneratedRowMapping(boolean generatedRowMapping) {
+		this.generatedRowMapping = generatedRowMapping;
+	}
+
+	public void setAsyncExecutor(Executor asyncExecutor) {
+
+		Assert.notNull(asyncExecutor, "Executor must not be null!");
+
+		this.asyncExecutor = asyncExecutor;
+	}
+
+	public void setShards(Shards shards) {
+		this.shards = shards;
+	}
+
+	public void setTenantResolver(TenantResolver tenantResolver) {
+		this.tenantResolver = tenantResolver;
+	}
+
+	/**
+	 * Queue the writes of repositories in a transaction and flush them as JDBC batches
+	 * before the commit or before a dependent query.
+	 * @param writeBehindEnabled whether to defer writes
+	 */
+	public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+		this.writeBehindEnabled = writeBehindEnabled;
+	}
+
+	/**
+	 * Register generators of ids in process, in addition to or replacing the
+	 * {@link IdGenerator#UUID_V7} and {@link IdGenerator#SNOWFLAKE} (node id {@code 0})
+	 * generators.
+	 * @param idGenerators generators by name
+	 */
+	public void setIdGenerators(Map<String, IdGenerator> idGenerators) {
+
+		Assert.notNull(idGenerators, "IdGenerators must not be null!");
+
+		this.idGenerators.putAll(idGenerators);
+	}
+
 }
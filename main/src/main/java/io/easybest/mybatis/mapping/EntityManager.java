@@ -16,12 +16,23 @@
 
 package io.easybest.mybatis.mapping;
 
+import java.util.concurrent.Executor;
+
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.lang.Nullable;
 
 import io.easybest.mybatis.dialect.Dialect;
+import io.easybest.mybatis.id.IdGenerator;
+import io.easybest.mybatis.mapping.precompile.PrecompileReport;
+import io.easybest.mybatis.metrics.MybatisMetrics;
 import io.easybest.mybatis.repository.query.EscapeCharacter;
+import io.easybest.mybatis.repository.query.QueryCompilationMode;
+import io.easybest.mybatis.repository.support.AsyncExecutors;
+import io.easybest.mybatis.sharding.Shards;
+import io.easybest.mybatis.snapshot.EntitySnapshots;
+import io.easybest.mybatis.tenant.TenantResolver;
+import io.easybest.mybatis.writebehind.WriteBehind;
 
 /**
  * .
@@ -42,4 +53,82 @@ public interface EntityManager extends MappingContext<MybatisPersistentEntityImp
 	@Nullable
 	String getUniformTablePrefix();
 
+	/**
+	 * Timings of the precompilation of the entities and query methods.
+	 * @return report, the default one is not retained, so the timings are discarded
+	 */
+	default PrecompileReport getPrecompileReport() {
+		return new PrecompileReport();
+	}
+
+	default QueryCompilationMode getQueryCompilationMode() {
+		return QueryCompilationMode.EAGER;
+	}
+
+	default MybatisMetrics getMetrics() {
+		return MybatisMetrics.NOOP;
+	}
+
+	default boolean isGeneratedRowMapping() {
+		return false;
+	}
+
+	/**
+	 * Executor of query methods returning {@link java.util.concurrent.Future} or
+	 * {@link java.util.concurrent.CompletableFuture}.
+	 * @return executor, the default one is shared by all entity managers
+	 */
+	default Executor getAsyncExecutor() {
+		return AsyncExecutors.getShared();
+	}
+
+	/**
+	 * Shards of the entities with a {@link io.easybest.mybatis.annotation.ShardKey}
+	 * property.
+	 * @return shards, {@literal null} if the entities are not sharded
+	 */
+	@Nullable
+	default Shards getShards() {
+		return null;
+	}
+
+	/**
+	 * Resolver of the tenant of the entities annotated with
+	 * {@link io.easybest.mybatis.annotation.Tenant}.
+	 * @return resolver, {@literal null} if the entities are not tenant scoped
+	 */
+	@Nullable
+	default TenantResolver getTenantResolver() {
+		return null;
+	}
+
+	/**
+	 * Snapshots of the entities annotated with
+	 * {@link io.easybest.mybatis.annotation.DynamicUpdate}.
+	 * @return snapshots, {@literal null} if no entity is tracked
+	 */
+	@Nullable
+	default EntitySnapshots getEntitySnapshots() {
+		return null;
+	}
+
+	/**
+	 * Deferred writes of the repositories.
+	 * @return write behind, {@literal null} if writes are executed at once
+	 */
+	@Nullable
+	default WriteBehind getWriteBehind() {
+		return null;
+	}
+
+	/**
+	 * Generator of ids in process.
+	 * @param name name of the generator
+	 * @return generator, {@literal null} if there is none of the name
+	 */
+	@Nullable
+	default IdGenerator getIdGenerator(String name) {
+		return null;
+	}
+
 }
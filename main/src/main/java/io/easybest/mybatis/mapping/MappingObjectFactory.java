@@ -17,7 +17,9 @@
 package io.easybest.mybatis.mapping;
 
 import java.io.Serializable;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
@@ -28,7 +30,6 @@ import org.springframework.data.mapping.model.EntityInstantiators;
 import org.springframework.data.mapping.model.ParameterValueProvider;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
-import org.springframework.util.CollectionUtils;
 
 /**
  * Instantiate entity faster then {@link DefaultObjectFactory}.
@@ -45,6 +46,13 @@ public class MappingObjectFactory implements ObjectFactory, Serializable {
 
 	private final ObjectFactory delegate;
 
+	private final transient ClassValue<InstantiationPlan> plans = new ClassValue<InstantiationPlan>() {
+		@Override
+		protected InstantiationPlan computeValue(Class<?> type) {
+			return MappingObjectFactory.this.createPlan(type);
+		}
+	};
+
 	public MappingObjectFactory(EntityManager entityManager) {
 		this.entityManager = entityManager;
 		this.instantiators = new EntityInstantiators();
@@ -61,54 +69,143 @@ public class MappingObjectFactory implements ObjectFactory, Serializable {
 	@SuppressWarnings({ "unchecked" })
 	public <T> T create(Class<T> type, List<Class<?>> constructorArgTypes, List<Object> constructorArgs) {
 
-		if (!this.entityManager.hasPersistentEntityFor(type)) {
+		InstantiationPlan plan = this.plan(type);
+		if (!plan.matches(constructorArgTypes)) {
 			return this.delegate.create(type, constructorArgTypes, constructorArgs);
 		}
 
+		return (T) plan.instantiator.createInstance(plan.entity,
+				new MybatisParameterValueProvider(plan.positions, constructorArgs));
+	}
+
+	@Override
+	public <T> boolean isCollection(Class<T> type) {
+
+		return this.delegate.isCollection(type);
+	}
+
+	/**
+	 * Get the cached instantiation plan of the given type, creating it on first use.
+	 * @param type type
+	 * @return plan, {@link InstantiationPlan#NONE} if the type is not instantiated
+	 * through a persistence constructor
+	 */
+	InstantiationPlan plan(Class<?> type) {
+
+		return this.plans.get(type);
+	}
+
+	/**
+	 * Drop the cached instantiation plan of the given type, e.g. after it became a
+	 * persistent entity.
+	 * @param type type
+	 */
+	void evict(Class<?> type) {
+
+		this.plans.remove(type);
+	}
+
+	/**
+	 * Replace a deserialized factory by a new one, the transient cache of plans is not
+	 * restored by deserialization.
+	 * @return factory of the same entity manager
+	 */
+	private Object readResolve() {
+
+		return new MappingObjectFactory(this.entityManager);
+	}
+
+	private InstantiationPlan createPlan(Class<?> type) {
+
+		if (!this.entityManager.hasPersistentEntityFor(type)) {
+			return InstantiationPlan.NONE;
+		}
+
 		MybatisPersistentEntityImpl<?> entity = this.entityManager.getRequiredPersistentEntity(type);
 		PreferredConstructor<?, MybatisPersistentPropertyImpl> persistenceConstructor = entity
 				.getPersistenceConstructor();
 		if (null == persistenceConstructor) {
-			return this.delegate.create(type, constructorArgTypes, constructorArgs);
+			return InstantiationPlan.NONE;
 		}
 
-		int argumentsSize = null == constructorArgTypes ? 0 : constructorArgTypes.size();
-		if (persistenceConstructor.getParameterCount() != argumentsSize) {
-			return this.delegate.create(type, constructorArgTypes, constructorArgs);
+		return new InstantiationPlan(entity, this.instantiators.getInstantiatorFor(entity), persistenceConstructor);
+	}
+
+	/**
+	 * Everything needed to instantiate an entity through its persistence constructor,
+	 * resolved once per type.
+	 */
+	static final class InstantiationPlan {
+
+		static final InstantiationPlan NONE = new InstantiationPlan();
+
+		@Nullable
+		private final MybatisPersistentEntityImpl<?> entity;
+
+		@Nullable
+		private final EntityInstantiator instantiator;
+
+		/**
+		 * Raw types of the persistence constructor parameters, {@code null} if the type
+		 * is not instantiated through the plan.
+		 */
+		@Nullable
+		private final Class<?>[] parameterTypes;
+
+		private final Map<Parameter<?, MybatisPersistentPropertyImpl>, Integer> positions;
+
+		private InstantiationPlan() {
+			this.entity = null;
+			this.instantiator = null;
+			this.parameterTypes = null;
+			this.positions = new IdentityHashMap<>(0);
 		}
 
-		if (!CollectionUtils.isEmpty(constructorArgTypes)) {
-			for (int i = 0; i < constructorArgTypes.size(); i++) {
-				Parameter<Object, MybatisPersistentPropertyImpl> parameter = persistenceConstructor.getParameters()
-						.get(i);
-				Class<?> argType = constructorArgTypes.get(i);
-				if (argType != parameter.getRawType()) {
-					return this.create(type, constructorArgTypes, constructorArgs);
-				}
+		private InstantiationPlan(MybatisPersistentEntityImpl<?> entity, EntityInstantiator instantiator,
+				PreferredConstructor<?, MybatisPersistentPropertyImpl> persistenceConstructor) {
+
+			List<Parameter<Object, MybatisPersistentPropertyImpl>> parameters = persistenceConstructor.getParameters();
+
+			this.entity = entity;
+			this.instantiator = instantiator;
+			this.parameterTypes = new Class<?>[parameters.size()];
+			this.positions = new IdentityHashMap<>(parameters.size());
+			for (int i = 0; i < parameters.size(); i++) {
+				this.parameterTypes[i] = parameters.get(i).getRawType();
+				this.positions.put(parameters.get(i), i);
 			}
 		}
 
-		EntityInstantiator instantiator = this.instantiators.getInstantiatorFor(entity);
-		return (T) instantiator.createInstance(entity,
-				new MybatisParameterValueProvider(persistenceConstructor, constructorArgs));
-	}
+		boolean matches(@Nullable List<Class<?>> constructorArgTypes) {
 
-	@Override
-	public <T> boolean isCollection(Class<T> type) {
+			if (null == this.parameterTypes) {
+				return false;
+			}
+
+			int argumentsSize = null == constructorArgTypes ? 0 : constructorArgTypes.size();
+			if (this.parameterTypes.length != argumentsSize) {
+				return false;
+			}
+
+			for (int i = 0; i < argumentsSize; i++) {
+				if (constructorArgTypes.get(i) != this.parameterTypes[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
 
-		return this.delegate.isCollection(type);
 	}
 
 	static class MybatisParameterValueProvider implements ParameterValueProvider<MybatisPersistentPropertyImpl> {
 
-		private final PreferredConstructor<?, MybatisPersistentPropertyImpl> persistenceConstructor;
+		private final Map<Parameter<?, MybatisPersistentPropertyImpl>, Integer> positions;
 
 		private final List<Object> constructorArgs;
 
-		public MybatisParameterValueProvider(
-				PreferredConstructor<?, MybatisPersistentPropertyImpl> persistenceConstructor,
+		MybatisParameterValueProvider(Map<Parameter<?, MybatisPersistentPropertyImpl>, Integer> positions,
 				List<Object> constructorArgs) {
-			this.persistenceConstructor = persistenceConstructor;
+			this.positions = positions;
 			this.constructorArgs = constructorArgs;
 		}
 
@@ -119,8 +216,8 @@ public class MappingObjectFactory implements ObjectFactory, Serializable {
 			if (null == this.constructorArgs) {
 				return null;
 			}
-			int idx = this.persistenceConstructor.getParameters().indexOf(parameter);
-			return (T) this.constructorArgs.get(idx);
+			Integer idx = this.positions.get(parameter);
+			return null == idx ? null : (T) this.constructorArgs.get(idx);
 		}
 
 	}
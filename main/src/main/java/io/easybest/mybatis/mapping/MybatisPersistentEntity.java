@@ -38,6 +38,14 @@ public interface MybatisPersistentEntity<T> extends MutablePersistentEntity<T, M
 
 	Optional<String> getLogicDeleteColumn();
 
+	Optional<String> getTenantColumn();
+
+	/**
+	 * Check whether updates only set the columns changed since the entity was loaded.
+	 * @return result
+	 */
+	boolean isDynamicUpdate();
+
 	/**
 	 * Check whether the entity has associated attributes.
 	 * @return result
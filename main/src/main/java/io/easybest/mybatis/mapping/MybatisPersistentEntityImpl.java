@@ -18,23 +18,33 @@ package io.easybest.mybatis.mapping;
 
 import java.util.Comparator;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.IdClass;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.SequenceGenerators;
 import javax.persistence.Table;
 
 import org.springframework.data.mapping.model.BasicPersistentEntity;
 import org.springframework.data.util.Lazy;
 import org.springframework.data.util.StreamUtils;
 import org.springframework.data.util.TypeInformation;
+import org.springframework.lang.Nullable;
 import org.springframework.util.StringUtils;
 
+import io.easybest.mybatis.annotation.DynamicUpdate;
 import io.easybest.mybatis.annotation.LogicDelete;
+import io.easybest.mybatis.annotation.PooledAllocation;
+import io.easybest.mybatis.annotation.Tenant;
+import io.easybest.mybatis.id.IdGenerator;
 import io.easybest.mybatis.mapping.sql.SqlIdentifier;
 
+import static io.easybest.mybatis.mapping.precompile.MybatisMapperSnippet.DEFAULT_SEQUENCE_NAME;
+
 /**
  * .
  *
@@ -105,13 +115,23 @@ public class MybatisPersistentEntityImpl<T> extends BasicPersistentEntity<T, Myb
 		return Optional.ofNullable(this.findAnnotation(LogicDelete.class)).map(LogicDelete::value);
 	}
 
+	@Override
+	public Optional<String> getTenantColumn() {
+		return Optional.ofNullable(this.findAnnotation(Tenant.class)).map(Tenant::value);
+	}
+
+	@Override
+	public boolean isDynamicUpdate() {
+		return this.isAnnotationPresent(DynamicUpdate.class);
+	}
+
 	public GenerationType getGenerationType() {
 		if (!this.hasIdProperty() || this.isCompositeId()) {
 			return null;
 		}
 		MybatisPersistentPropertyImpl idProperty = this.getRequiredIdProperty();
 		GeneratedValue gv = idProperty.findAnnotation(GeneratedValue.class);
-		if (null == gv) {
+		if (null == gv || null != this.getIdGenerator()) {
 			return null;
 		}
 
@@ -127,6 +147,69 @@ public class MybatisPersistentEntityImpl<T> extends BasicPersistentEntity<T, Myb
 		return null;
 	}
 
+	/**
+	 * Generator of the id in process named by its {@link GeneratedValue}.
+	 * @return generator, {@literal null} if the id is not generated in process
+	 */
+	@Nullable
+	public IdGenerator getIdGenerator() {
+
+		if (!this.hasIdProperty() || this.isCompositeId()) {
+			return null;
+		}
+
+		GeneratedValue gv = this.getRequiredIdProperty().findAnnotation(GeneratedValue.class);
+		return null == gv || !StringUtils.hasText(gv.generator()) ? null
+				: this.entityManager.getIdGenerator(gv.generator());
+	}
+
+	/**
+	 * Sequence generator named by the {@link GeneratedValue} of a sequence generated id.
+	 * @return generator, {@literal null} if there is none
+	 */
+	@Nullable
+	public SequenceGenerator getSequenceGenerator() {
+
+		if (this.getGenerationType() != GenerationType.SEQUENCE) {
+			return null;
+		}
+
+		MybatisPersistentPropertyImpl idProperty = this.getRequiredIdProperty();
+		String generator = idProperty.getRequiredAnnotation(GeneratedValue.class).generator();
+		SequenceGenerators sgs = idProperty.findPropertyOrOwnerAnnotation(SequenceGenerators.class);
+		return Stream
+				.concat(null == sgs ? Stream.empty() : Stream.of(sgs.value()),
+						Stream.of(idProperty.findPropertyOrOwnerAnnotation(SequenceGenerator.class)))
+				.filter(sg -> null != sg && sg.name().equals(generator) && StringUtils.hasText(sg.sequenceName()))
+				.reduce((first, second) -> second).orElse(null);
+	}
+
+	public String getSequenceName() {
+		return Optional.ofNullable(this.getSequenceGenerator()).map(SequenceGenerator::sequenceName)
+				.orElse(DEFAULT_SEQUENCE_NAME);
+	}
+
+	/**
+	 * Number of ids allocated per value of the sequence of a sequence generated id. Ids
+	 * are only allocated in blocks for ids annotated with {@link PooledAllocation}, the
+	 * sequence of which must be incremented by the size, any other sequence generated id
+	 * selects the next value of its sequence before every insert.
+	 * @return allocation size, {@code 1} if the ids are not pooled
+	 */
+	public int getSequenceAllocationSize() {
+
+		// embeddables and entities without a sequence generated id have nothing to pool
+		if (this.getGenerationType() != GenerationType.SEQUENCE || !this.hasIdProperty()) {
+			return 1;
+		}
+
+		if (!this.getRequiredIdProperty().isAnnotationPresent(PooledAllocation.class)) {
+			return 1;
+		}
+
+		return Optional.ofNullable(this.getSequenceGenerator()).map(sg -> Math.max(1, sg.allocationSize())).orElse(1);
+	}
+
 	private SqlIdentifier createSqlIdentifier(String name) {
 		return this.isForceQuote() ? SqlIdentifier.quoted(name) : SqlIdentifier.unquoted(name);
 	}
@@ -66,7 +66,6 @@ import org.springframework.util.StringUtils;
 import io.easybest.mybatis.annotation.DatabaseDefault;
 import io.easybest.mybatis.annotation.GetterOptional;
 import io.easybest.mybatis.annotation.TypeHandler;
-import io.easybest.mybatis.mapping.handler.UUIDTypeHandler;
 import io.easybest.mybatis.mapping.sql.SqlIdentifier;
 
 /**
@@ -204,6 +203,9 @@ public class MybatisPersistentPropertyImpl extends AnnotationBasedPersistentProp
 				}
 				return JdbcType.BLOB;
 			}
+			if (this.getType() == UUID.class) {
+				return TypeRegistry.uuidJdbcType(this.getTypeHandler());
+			}
 			return TypeRegistry.convert(this.getType()).orElse(JdbcType.UNDEFINED);
 		});
 		this.javaType = Lazy.of(() -> {
@@ -238,10 +240,10 @@ public class MybatisPersistentPropertyImpl extends AnnotationBasedPersistentProp
 				}
 				return EnumTypeHandler.class;
 			}
-			if (this.getType() == UUID.class) {
-				return UUIDTypeHandler.class;
-			}
-			return null;
+			io.easybest.mybatis.annotation.JdbcType jdbcTypeAnn = this
+					.findAnnotation(io.easybest.mybatis.annotation.JdbcType.class);
+			return TypeRegistry.typeHandler(this.entityManager.getDialect(), this.getType(),
+					null == jdbcTypeAnn ? null : JdbcType.forCode(jdbcTypeAnn.value()));
 		});
 	}
 
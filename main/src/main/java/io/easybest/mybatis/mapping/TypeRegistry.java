@@ -41,6 +41,14 @@ import java.util.UUID;
 import lombok.experimental.UtilityClass;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeAliasRegistry;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.springframework.lang.Nullable;
+
+import io.easybest.mybatis.dialect.Dialect;
+import io.easybest.mybatis.mapping.handler.BinaryUUIDTypeHandler;
+import io.easybest.mybatis.mapping.handler.NativeUUIDTypeHandler;
+import io.easybest.mybatis.mapping.handler.UUIDTypeHandler;
 
 /**
  * .
@@ -53,6 +61,9 @@ public class TypeRegistry {
 	private static final Map<Class<?>, String> TYPE_ALIAS;
 
 	private static final Map<Class<?>, JdbcType> CLASS_JDBC_TYPE_MAP;
+
+	private static final Map<Class<?>, Class<? extends TypeHandler<?>>> CLASS_TYPE_HANDLER_MAP;
+
 	static {
 
 		Map<Class<?>, String> typeAlias = new HashMap<>();
@@ -101,6 +112,11 @@ public class TypeRegistry {
 		map.put(JapaneseDate.class, JdbcType.TIMESTAMP);
 		map.put(UUID.class, JdbcType.VARCHAR);
 		CLASS_JDBC_TYPE_MAP = Collections.unmodifiableMap(map);
+
+		// java.time types are read by the JSR-310 handlers MyBatis registers by default
+		Map<Class<?>, Class<? extends TypeHandler<?>>> typeHandlers = new HashMap<>();
+		typeHandlers.put(UUID.class, UUIDTypeHandler.class);
+		CLASS_TYPE_HANDLER_MAP = Collections.unmodifiableMap(typeHandlers);
 	}
 
 	public static Optional<JdbcType> convert(Class<?> javaType) {
@@ -117,4 +133,88 @@ public class TypeRegistry {
 		return Optional.ofNullable(TYPE_ALIAS.get(javaType));
 	}
 
+	/**
+	 * Default type handlers by java type.
+	 * @return type handlers
+	 */
+	public static Map<Class<?>, Class<? extends TypeHandler<?>>> typeHandlers() {
+		return CLASS_TYPE_HANDLER_MAP;
+	}
+
+	/**
+	 * Default type handlers with a dialect specific {@link UUID} handler.
+	 * @param uuidTypeHandler uuid type handler
+	 * @return type handlers
+	 */
+	public static Map<Class<?>, Class<? extends TypeHandler<?>>> typeHandlers(
+			Class<? extends TypeHandler<UUID>> uuidTypeHandler) {
+
+		Map<Class<?>, Class<? extends TypeHandler<?>>> typeHandlers = new HashMap<>(CLASS_TYPE_HANDLER_MAP);
+		typeHandlers.put(UUID.class, uuidTypeHandler);
+		return Collections.unmodifiableMap(typeHandlers);
+	}
+
+	/**
+	 * Resolve the type handler of a java type. An explicit character, binary or other
+	 * {@link JdbcType} selects the matching {@link UUID} encoding, otherwise the handler
+	 * of the dialect is used.
+	 * @param dialect dialect, {@literal null} to fall back to the default handlers
+	 * @param javaType java type
+	 * @param jdbcType explicitly declared jdbc type
+	 * @return type handler or {@literal null}
+	 */
+	@Nullable
+	public static Class<? extends TypeHandler<?>> typeHandler(@Nullable Dialect dialect, Class<?> javaType,
+			@Nullable JdbcType jdbcType) {
+
+		if (UUID.class == javaType && null != jdbcType) {
+			switch (jdbcType) {
+			case CHAR:
+			case VARCHAR:
+			case NCHAR:
+			case NVARCHAR:
+			case LONGVARCHAR:
+				return UUIDTypeHandler.class;
+			case BINARY:
+			case VARBINARY:
+				return BinaryUUIDTypeHandler.class;
+			case OTHER:
+				return NativeUUIDTypeHandler.class;
+			default:
+			}
+		}
+
+		return (null == dialect ? CLASS_TYPE_HANDLER_MAP : dialect.getTypeHandlers()).get(javaType);
+	}
+
+	/**
+	 * Jdbc type matching a {@link UUID} type handler, used when binding nulls.
+	 * @param typeHandler type handler
+	 * @return jdbc type
+	 */
+	public static JdbcType uuidJdbcType(@Nullable Class<?> typeHandler) {
+
+		if (BinaryUUIDTypeHandler.class == typeHandler) {
+			return JdbcType.BINARY;
+		}
+		if (NativeUUIDTypeHandler.class == typeHandler) {
+			return JdbcType.OTHER;
+		}
+		return JdbcType.VARCHAR;
+	}
+
+	/**
+	 * Register the type handlers of the dialect for the java types that have none yet.
+	 * @param registry type handler registry of the MyBatis configuration
+	 * @param dialect dialect
+	 */
+	public static void register(TypeHandlerRegistry registry, Dialect dialect) {
+
+		dialect.getTypeHandlers().forEach((javaType, typeHandler) -> {
+			if (!registry.hasTypeHandler(javaType)) {
+				registry.register(javaType, typeHandler);
+			}
+		});
+	}
+
 }
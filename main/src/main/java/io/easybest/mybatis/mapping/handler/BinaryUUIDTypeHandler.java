@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping.handler;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Stores {@link UUID} as 16 big-endian bytes, for {@code BINARY(16)} columns on MySQL
+ * and MariaDB. Values read from a character column are still parsed.
+ *
+ * @author Jarvis Song
+ */
+public class BinaryUUIDTypeHandler extends BaseTypeHandler<UUID> {
+
+	private static final int UUID_BYTES = 16;
+
+	@Override
+	public void setNonNullParameter(PreparedStatement ps, int i, UUID parameter, JdbcType jdbcType)
+			throws SQLException {
+
+		ps.setBytes(i, ByteBuffer.allocate(UUID_BYTES).putLong(parameter.getMostSignificantBits())
+				.putLong(parameter.getLeastSignificantBits()).array());
+	}
+
+	@Override
+	public UUID getNullableResult(ResultSet rs, String columnName) throws SQLException {
+		return toUUID(rs.getBytes(columnName));
+	}
+
+	@Override
+	public UUID getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+		return toUUID(rs.getBytes(columnIndex));
+	}
+
+	@Override
+	public UUID getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+		return toUUID(cs.getBytes(columnIndex));
+	}
+
+	private static UUID toUUID(byte[] bytes) {
+
+		if (null == bytes) {
+			return null;
+		}
+		if (bytes.length != UUID_BYTES) {
+			return UUID.fromString(new String(bytes, StandardCharsets.US_ASCII));
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		return new UUID(buffer.getLong(), buffer.getLong());
+	}
+
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping.handler;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandler;
+import org.springframework.data.mapping.Parameter;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.model.EntityInstantiator;
+import org.springframework.data.mapping.model.EntityInstantiators;
+import org.springframework.data.mapping.model.ParameterValueProvider;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+
+/**
+ * Maps the rows of a flat entity result map without going through MyBatis'
+ * reflective {@code DefaultResultSetHandler}. Columns are bound to their index once
+ * per {@link ResultSet}, values are read through the resolved {@link TypeHandler}s and
+ * written with the generated {@link PersistentPropertyAccessor} and
+ * {@link EntityInstantiator} of the entity.
+ *
+ * @author Jarvis Song
+ */
+final class EntityRowMapper {
+
+	private final MybatisPersistentEntityImpl<?> entity;
+
+	private final EntityInstantiator instantiator;
+
+	private final MybatisPersistentPropertyImpl[] properties;
+
+	private final String[] columns;
+
+	private final TypeHandler<?>[] typeHandlers;
+
+	private final boolean[] constructorArguments;
+
+	/**
+	 * Position of each constructor parameter in {@link #properties}.
+	 */
+	private final Map<Parameter<?, MybatisPersistentPropertyImpl>, Integer> parameterPositions = new IdentityHashMap<>();
+
+	private final boolean autoMapping;
+
+	private final boolean useColumnLabel;
+
+	private final boolean callSettersOnNulls;
+
+	private final boolean returnInstanceForEmptyRow;
+
+	private EntityRowMapper(MybatisPersistentEntityImpl<?> entity, List<ResultMapping> mappings,
+			Configuration configuration) {
+
+		this.entity = entity;
+		this.instantiator = new EntityInstantiators().getInstantiatorFor(entity);
+
+		int size = mappings.size();
+		this.properties = new MybatisPersistentPropertyImpl[size];
+		this.columns = new String[size];
+		this.typeHandlers = new TypeHandler<?>[size];
+		this.constructorArguments = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			ResultMapping mapping = mappings.get(i);
+			this.properties[i] = entity.getRequiredPersistentProperty(mapping.getProperty());
+			this.columns[i] = mapping.getColumn().toUpperCase(Locale.ENGLISH);
+			this.typeHandlers[i] = mapping.getTypeHandler();
+			this.constructorArguments[i] = entity.isConstructorArgument(this.properties[i]);
+		}
+
+		PreferredConstructor<?, MybatisPersistentPropertyImpl> constructor = entity.getPersistenceConstructor();
+		if (null != constructor) {
+			for (Parameter<Object, MybatisPersistentPropertyImpl> parameter : constructor.getParameters()) {
+				this.parameterPositions.put(parameter, this.indexOf(parameter.getName()));
+			}
+		}
+
+		this.autoMapping = configuration.getAutoMappingBehavior() != AutoMappingBehavior.NONE;
+		this.useColumnLabel = configuration.isUseColumnLabel();
+		this.callSettersOnNulls = configuration.isCallSettersOnNulls();
+		this.returnInstanceForEmptyRow = configuration.isReturnInstanceForEmptyRow();
+	}
+
+	/**
+	 * Create a row mapper for the given result map, or {@code null} if the result map
+	 * needs features of MyBatis' own result handling, such as nested result maps, nested
+	 * queries, discriminators, constructor mappings or embedded property paths.
+	 * @param entityManager entity manager
+	 * @param resultMap result map
+	 * @return row mapper or {@code null}
+	 */
+	@Nullable
+	static EntityRowMapper of(EntityManager entityManager, ResultMap resultMap) {
+
+		if (resultMap.hasNestedResultMaps() || resultMap.hasNestedQueries() || null != resultMap.getDiscriminator()
+				|| !resultMap.getConstructorResultMappings().isEmpty()
+				|| !entityManager.hasPersistentEntityFor(resultMap.getType())) {
+			return null;
+		}
+
+		MybatisPersistentEntityImpl<?> entity = entityManager.getRequiredPersistentEntity(resultMap.getType());
+		List<ResultMapping> mappings = new ArrayList<>(resultMap.getPropertyResultMappings().size());
+		for (ResultMapping mapping : resultMap.getPropertyResultMappings()) {
+			if (!StringUtils.hasText(mapping.getProperty()) || mapping.getProperty().indexOf('.') >= 0
+					|| !StringUtils.hasText(mapping.getColumn()) || null == mapping.getTypeHandler()
+					|| null == entity.getPersistentProperty(mapping.getProperty())) {
+				return null;
+			}
+			mappings.add(mapping);
+		}
+
+		EntityRowMapper mapper = new EntityRowMapper(entity, mappings, entityManager.getSqlSessionTemplate()
+				.getConfiguration());
+		for (int position : mapper.parameterPositions.values()) {
+			if (position < 0) {
+				// constructor argument without a column
+				return null;
+			}
+		}
+		return mapper;
+	}
+
+	/**
+	 * Map the rows of the given result set.
+	 * @param rs result set
+	 * @param rowBounds row bounds
+	 * @return mapped rows, or {@code null} if the result set has columns that would
+	 * have to be auto-mapped
+	 * @throws SQLException on reading failures
+	 */
+	@Nullable
+	List<Object> map(ResultSet rs, RowBounds rowBounds) throws SQLException {
+
+		int[] indexes = this.bind(rs.getMetaData());
+		if (null == indexes) {
+			return null;
+		}
+
+		this.skipRows(rs, rowBounds);
+
+		List<Object> rows = new ArrayList<>();
+		Object[] values = new Object[indexes.length];
+		int limit = rowBounds.getLimit();
+		while (rows.size() < limit && !rs.isClosed() && rs.next()) {
+			rows.add(this.mapRow(rs, indexes, values));
+		}
+		return rows;
+	}
+
+	@Nullable
+	private Object mapRow(ResultSet rs, int[] indexes, Object[] values) throws SQLException {
+
+		boolean found = false;
+		for (int i = 0; i < indexes.length; i++) {
+			values[i] = indexes[i] > 0 ? this.typeHandlers[i].getResult(rs, indexes[i]) : null;
+			found |= null != values[i];
+		}
+		if (!found && !this.returnInstanceForEmptyRow) {
+			return null;
+		}
+
+		Object instance = this.instantiator.createInstance(this.entity, new RowParameterValueProvider(values));
+		PersistentPropertyAccessor<?> accessor = this.entity.getPropertyAccessor(instance);
+		for (int i = 0; i < values.length; i++) {
+			if (this.constructorArguments[i] || indexes[i] == 0
+					|| (null == values[i] && (!this.callSettersOnNulls || this.properties[i].getType().isPrimitive()))) {
+				continue;
+			}
+			accessor.setProperty(this.properties[i], values[i]);
+		}
+		return accessor.getBean();
+	}
+
+	/**
+	 * Resolve the column index of every mapping, {@code 0} for absent columns.
+	 */
+	@Nullable
+	private int[] bind(ResultSetMetaData metaData) throws SQLException {
+
+		int count = metaData.getColumnCount();
+		Map<String, Integer> labels = new HashMap<>(count * 2);
+		for (int i = count; i > 0; i--) {
+			String label = this.useColumnLabel ? metaData.getColumnLabel(i) : metaData.getColumnName(i);
+			labels.put(label.toUpperCase(Locale.ENGLISH), i);
+		}
+
+		int[] indexes = new int[this.columns.length];
+		int bound = 0;
+		for (int i = 0; i < this.columns.length; i++) {
+			Integer index = labels.get(this.columns[i]);
+			if (null != index) {
+				indexes[i] = index;
+				bound++;
+			}
+		}
+		if (this.autoMapping && bound < labels.size()) {
+			return null;
+		}
+		return indexes;
+	}
+
+	private void skipRows(ResultSet rs, RowBounds rowBounds) throws SQLException {
+
+		if (rowBounds.getOffset() == RowBounds.NO_ROW_OFFSET) {
+			return;
+		}
+		if (rs.getType() != ResultSet.TYPE_FORWARD_ONLY) {
+			rs.absolute(rowBounds.getOffset());
+			return;
+		}
+		for (int i = 0; i < rowBounds.getOffset(); i++) {
+			if (!rs.next()) {
+				break;
+			}
+		}
+	}
+
+	private int indexOf(@Nullable String property) {
+
+		for (int i = 0; i < this.properties.length; i++) {
+			if (this.properties[i].getName().equals(property)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private class RowParameterValueProvider implements ParameterValueProvider<MybatisPersistentPropertyImpl> {
+
+		private final Object[] values;
+
+		RowParameterValueProvider(Object[] values) {
+			this.values = values;
+		}
+
+		@Nullable
+		@Override
+		@SuppressWarnings("unchecked")
+		public <T> T getParameterValue(Parameter<T, MybatisPersistentPropertyImpl> parameter) {
+
+			return (T) this.values[EntityRowMapper.this.parameterPositions.get(parameter)];
+		}
+
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping.handler;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.lang.Nullable;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.BASE_RESULT_MAP;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.RESULT_MAP;
+
+/**
+ * Maps the rows of {@code BASE_RESULT_MAP} and {@code RESULT_MAP} selects with an
+ * {@link EntityRowMapper} precomputed per result map. Statements using any other
+ * result map, or a result map that needs MyBatis' own result handling, proceed to the
+ * {@link DefaultResultSetHandler}.
+ * <p>
+ * The statement, row bounds and result handler of a select are taken from the arguments
+ * of {@link Executor#query}, and handed to the first {@link ResultSetHandler} invoked
+ * while that query runs. Nested selects issued by MyBatis while it maps the rows of the
+ * query always proceed to the {@link DefaultResultSetHandler}.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+						BoundSql.class }),
+		@Signature(type = ResultSetHandler.class, method = "handleResultSets", args = Statement.class) })
+public class GeneratedRowMappingInterceptor implements Interceptor {
+
+	private static final String BASE_RESULT_MAP_SUFFIX = '.' + BASE_RESULT_MAP;
+
+	private static final String RESULT_MAP_SUFFIX = '.' + RESULT_MAP;
+
+	/**
+	 * Queries running on the current thread, the innermost first.
+	 */
+	private static final ThreadLocal<Deque<RunningQuery>> QUERIES = new ThreadLocal<>();
+
+	private final EntityManager entityManager;
+
+	private final Map<String, Optional<EntityRowMapper>> mappers = new ConcurrentHashMap<>();
+
+	public GeneratedRowMappingInterceptor(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Build the row mappers of the resident result maps of all persistent entities.
+	 */
+	public void prepare() {
+
+		Configuration configuration = this.entityManager.getSqlSessionTemplate().getConfiguration();
+		for (MybatisPersistentEntityImpl<?> entity : this.entityManager.getPersistentEntities()) {
+			for (String suffix : new String[] { BASE_RESULT_MAP_SUFFIX, RESULT_MAP_SUFFIX }) {
+				String id = entity.getType().getName() + suffix;
+				if (configuration.hasResultMap(id)) {
+					this.getMapper(configuration.getResultMap(id));
+				}
+			}
+		}
+	}
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		if (invocation.getTarget() instanceof Executor) {
+			return this.query(invocation);
+		}
+
+		Deque<RunningQuery> queries = QUERIES.get();
+		RunningQuery query = null == queries ? null : queries.peek();
+		if (null == query || null == query.mapper || query.handled
+				|| !(invocation.getTarget() instanceof DefaultResultSetHandler)) {
+			return invocation.proceed();
+		}
+		// any further result set of this query belongs to a nested select
+		query.handled = true;
+
+		Statement statement = (Statement) invocation.getArgs()[0];
+		ResultSet rs = statement.getResultSet();
+		if (null == rs) {
+			return invocation.proceed();
+		}
+
+		boolean proceed = false;
+		try {
+			List<Object> rows = query.mapper.map(rs, query.rowBounds);
+			if (null != rows) {
+				return rows;
+			}
+			// unmapped columns need auto-mapping
+			proceed = true;
+		}
+		finally {
+			if (!proceed) {
+				rs.close();
+			}
+		}
+		return invocation.proceed();
+	}
+
+	private Object query(Invocation invocation) throws Throwable {
+
+		Object[] args = invocation.getArgs();
+		MappedStatement ms = (MappedStatement) args[0];
+		EntityRowMapper mapper = null;
+		if (ms.getStatementType() != StatementType.CALLABLE && null == ms.getResultSets()
+				&& ms.getResultMaps().size() == 1 && null == args[3]) {
+			mapper = this.getMapper(ms.getResultMaps().get(0));
+		}
+
+		Deque<RunningQuery> queries = QUERIES.get();
+		if (null == queries) {
+			queries = new ArrayDeque<>();
+			QUERIES.set(queries);
+		}
+		queries.push(new RunningQuery(mapper, (RowBounds) args[2]));
+		try {
+			return invocation.proceed();
+		}
+		finally {
+			queries.pop();
+			if (queries.isEmpty()) {
+				QUERIES.remove();
+			}
+		}
+	}
+
+	@Nullable
+	private EntityRowMapper getMapper(ResultMap resultMap) {
+
+		String id = resultMap.getId();
+		if (!id.endsWith(BASE_RESULT_MAP_SUFFIX) && !id.endsWith(RESULT_MAP_SUFFIX)) {
+			return null;
+		}
+		return this.mappers
+				.computeIfAbsent(id, key -> Optional.ofNullable(EntityRowMapper.of(this.entityManager, resultMap)))
+				.orElse(null);
+	}
+
+	private static final class RunningQuery {
+
+		@Nullable
+		private final EntityRowMapper mapper;
+
+		private final RowBounds rowBounds;
+
+		private boolean handled;
+
+		RunningQuery(@Nullable EntityRowMapper mapper, RowBounds rowBounds) {
+			this.mapper = mapper;
+			this.rowBounds = rowBounds;
+		}
+
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping.handler;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Binds {@link UUID} as is, for databases with a native uuid type such as PostgreSQL
+ * and H2.
+ *
+ * @author Jarvis Song
+ */
+public class NativeUUIDTypeHandler extends BaseTypeHandler<UUID> {
+
+	@Override
+	public void setNonNullParameter(PreparedStatement ps, int i, UUID parameter, JdbcType jdbcType)
+			throws SQLException {
+		ps.setObject(i, parameter);
+	}
+
+	@Override
+	public UUID getNullableResult(ResultSet rs, String columnName) throws SQLException {
+		return rs.getObject(columnName, UUID.class);
+	}
+
+	@Override
+	public UUID getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+		return rs.getObject(columnIndex, UUID.class);
+	}
+
+	@Override
+	public UUID getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+		return cs.getObject(columnIndex, UUID.class);
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping.precompile;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeAliasRegistry;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * A throwaway configuration generated mappers are parsed into at runtime, so that no
+ * statement gets added to the statement maps of the shared configuration, which are not
+ * thread-safe, once the application runs. It reads the type handlers, aliases, result
+ * maps, fragments and mappers of the shared configuration, the statements parsed into
+ * it get bound to the shared configuration by {@link #getStatements()}.
+ *
+ * @author Jarvis Song
+ */
+class DetachedConfiguration extends Configuration {
+
+	private final Configuration shared;
+
+	DetachedConfiguration(Configuration shared) {
+
+		this.shared = shared;
+
+		this.setEnvironment(shared.getEnvironment());
+		this.setDatabaseId(shared.getDatabaseId());
+		this.setVariables(shared.getVariables());
+		this.setObjectFactory(shared.getObjectFactory());
+		this.setObjectWrapperFactory(shared.getObjectWrapperFactory());
+		this.setReflectorFactory(shared.getReflectorFactory());
+		this.setDefaultScriptingLanguage(shared.getLanguageRegistry().getDefaultDriverClass());
+		this.setUseGeneratedKeys(shared.isUseGeneratedKeys());
+		this.setDefaultStatementTimeout(shared.getDefaultStatementTimeout());
+		this.setDefaultFetchSize(shared.getDefaultFetchSize());
+		this.setDefaultResultSetType(shared.getDefaultResultSetType());
+		this.setShrinkWhitespacesInSql(shared.isShrinkWhitespacesInSql());
+		this.setNullableOnForEach(shared.isNullableOnForEach());
+		this.getSqlFragments().putAll(shared.getSqlFragments());
+	}
+
+	@Override
+	public TypeHandlerRegistry getTypeHandlerRegistry() {
+		return this.shared.getTypeHandlerRegistry();
+	}
+
+	@Override
+	public TypeAliasRegistry getTypeAliasRegistry() {
+		return this.shared.getTypeAliasRegistry();
+	}
+
+	@Override
+	public boolean hasResultMap(String id) {
+		return super.hasResultMap(id) || this.shared.hasResultMap(id);
+	}
+
+	@Override
+	public ResultMap getResultMap(String id) {
+		return super.hasResultMap(id) ? super.getResultMap(id) : this.shared.getResultMap(id);
+	}
+
+	@Override
+	public boolean hasMapper(Class<?> type) {
+		return this.shared.hasMapper(type);
+	}
+
+	@Override
+	public <T> void addMapper(Class<T> type) {
+		// mapper interfaces named by the namespace of a query method are not bound at
+		// runtime, their statements must not be compiled with the query method
+	}
+
+	/**
+	 * Rebuild the statements parsed into this configuration against the shared one,
+	 * so that they run with its settings and interceptors.
+	 * @return statements by id
+	 */
+	Map<String, MappedStatement> getStatements() {
+
+		Collection<MappedStatement> parsed = this.getMappedStatements();
+		Map<String, MappedStatement> statements = new HashMap<>(parsed.size());
+		for (MappedStatement ms : parsed) {
+			statements.computeIfAbsent(ms.getId(), id -> this.bind(ms));
+		}
+		return statements;
+	}
+
+	private MappedStatement bind(MappedStatement ms) {
+
+		return new MappedStatement.Builder(this.shared, ms.getId(), ms.getSqlSource(), ms.getSqlCommandType())
+				.resource(ms.getResource()).databaseId(ms.getDatabaseId()).lang(ms.getLang())
+				.fetchSize(ms.getFetchSize()).timeout(ms.getTimeout()).statementType(ms.getStatementType())
+				.resultSetType(ms.getResultSetType()).parameterMap(ms.getParameterMap())
+				.resultMaps(ms.getResultMaps()).resultOrdered(ms.isResultOrdered())
+				.resultSets(join(ms.getResultSets())).keyGenerator(ms.getKeyGenerator())
+				.keyProperty(join(ms.getKeyProperties())).keyColumn(join(ms.getKeyColumns()))
+				.flushCacheRequired(ms.isFlushCacheRequired()).useCache(ms.isUseCache()).cache(ms.getCache())
+				.build();
+	}
+
+	private static String join(String[] values) {
+		return null == values ? null : String.join(",", values);
+	}
+
+}
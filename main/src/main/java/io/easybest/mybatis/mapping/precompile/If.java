@@ -54,6 +54,7 @@ public class If extends AbstractSegment {
 		public If build() {
 
 			If instance = new If();
+			instance.contents = this.contents;
 			instance.test = this.test;
 
 			return instance;
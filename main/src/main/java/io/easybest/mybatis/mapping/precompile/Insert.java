@@ -33,6 +33,10 @@ public class Insert extends SqlDefinition {
 
 	private SelectKey selectKey;
 
+	private String keyProperty;
+
+	private String keyColumn;
+
 	public static Builder builder() {
 		return new Builder();
 	}
@@ -47,6 +51,10 @@ public class Insert extends SqlDefinition {
 		if (StringUtils.hasText(this.databaseId)) {
 			builder.append(" databaseId=\"").append(this.databaseId).append("\"");
 		}
+		if (StringUtils.hasText(this.keyProperty)) {
+			builder.append(" useGeneratedKeys=\"true\" keyProperty=\"").append(this.keyProperty)
+					.append("\" keyColumn=\"").append(this.keyColumn).append("\"");
+		}
 		builder.append(">");
 		if (null != this.selectKey) {
 			builder.append(this.selectKey);
@@ -173,6 +181,10 @@ public class Insert extends SqlDefinition {
 
 		private SelectKey selectKey;
 
+		private String keyProperty;
+
+		private String keyColumn;
+
 		public Insert build() {
 
 			Insert instance = new Insert();
@@ -182,6 +194,8 @@ public class Insert extends SqlDefinition {
 			instance.derived = this.derived;
 			instance.parameterType = this.parameterType;
 			instance.selectKey = this.selectKey;
+			instance.keyProperty = this.keyProperty;
+			instance.keyColumn = this.keyColumn;
 
 			return instance;
 		}
@@ -191,6 +205,12 @@ public class Insert extends SqlDefinition {
 			return this;
 		}
 
+		public Builder generatedKeys(final String keyProperty, final String keyColumn) {
+			this.keyProperty = keyProperty;
+			this.keyColumn = keyColumn;
+			return this;
+		}
+
 		public Builder contents(final List<? extends Segment> contents) {
 			this.contents = contents;
 			return this;
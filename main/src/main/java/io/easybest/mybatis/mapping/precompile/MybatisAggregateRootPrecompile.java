@@ -17,14 +17,21 @@
 package io.easybest.mybatis.mapping.precompile;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
 import org.springframework.util.CollectionUtils;
 
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.MybatisAssociation;
 import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.repository.query.AbstractMybatisQuery;
 import io.easybest.mybatis.repository.query.IndicatingMybatisQuery;
+import io.easybest.mybatis.repository.query.MybatisQueryMethod;
 import io.easybest.mybatis.repository.query.PartTreeMybatisQuery;
+import io.easybest.mybatis.repository.query.ProcedureMybatisQuery;
 
 /**
  * .
@@ -39,6 +46,9 @@ public final class MybatisAggregateRootPrecompile {
 	public static void compile(EntityManager entityManager, StagingMappers stagingMappers,
 			MybatisPersistentEntityImpl<?> entity) {
 
+		PrecompileReport.Entry entry = entityManager.getPrecompileReport().entity(entity.getType());
+		long start = System.nanoTime();
+
 		MybatisSimpleMapperSnippet snippet = new MybatisSimpleMapperSnippet(entityManager, stagingMappers, entity);
 
 		MybatisMapperBuilder builder = MybatisMapperBuilder
@@ -60,6 +70,7 @@ public final class MybatisAggregateRootPrecompile {
 				.add(snippet.update(true, false)) //
 				.add(snippet.update(false, true)) //
 				.add(snippet.update(true, true)) //
+				.add(snippet.updateDynamic()) //
 				.add(snippet.deleteById(true)) //
 				.add(snippet.deleteById(false)) //
 				.add(snippet.deleteAllByIdInBatch()) //
@@ -79,10 +90,17 @@ public final class MybatisAggregateRootPrecompile {
 				.add(snippet.countByExample()) //
 				.add(snippet.existsByExample()) //
 				.add(snippet.findByCriteria()) //
+				.add(snippet.sequenceNextVal()) //
+				.add(snippet.purgeIds()) //
+				.add(snippet.purgeByIds()) //
+				.add(snippet.purgeChunk()) //
+				.add(snippet.archiveByIds()) //
 
 		;
+		snippet.joinTables().forEach(builder::add);
 
-		builder.build();
+		entry.record(PrecompileReport.Phase.SNIPPET, System.nanoTime() - start);
+		builder.build(entry);
 	}
 
 	public static void compile(EntityManager entityManager, StagingMappers stagingMappers) {
@@ -94,31 +112,102 @@ public final class MybatisAggregateRootPrecompile {
 
 		for (MybatisAssociation association : associations) {
 
+			long start = System.nanoTime();
 			MybatisStagingMapperSnippet snippet = new MybatisStagingMapperSnippet(entityManager, association);
 			MybatisMapperBuilder builder = MybatisMapperBuilder
 					.create(entityManager.getSqlSessionTemplate().getConfiguration(), snippet.getNamespace());
 			builder.add(snippet.select());
-			builder.build();
+
+			PrecompileReport.Entry entry = entityManager.getPrecompileReport().association(snippet.getNamespace());
+			entry.record(PrecompileReport.Phase.SNIPPET, System.nanoTime() - start);
+			builder.build(entry);
 		}
 
 	}
 
 	public static void compile(IndicatingMybatisQuery query) {
 
+		long start = System.nanoTime();
 		MybatisMapperBuilder builder = MybatisMapperBuilder.create(
 				query.getEntityManager().getSqlSessionTemplate().getConfiguration(),
 				query.getQueryMethod().getNamespace());
 		builder.add(query.createSqlDefinition());
-		builder.build();
+
+		build(query.getEntityManager(), query.getQueryMethod(), builder, start);
 	}
 
 	public static void compile(PartTreeMybatisQuery query) {
 
+		long start = System.nanoTime();
 		MybatisMapperBuilder builder = MybatisMapperBuilder.create(
 				query.getEntityManager().getSqlSessionTemplate().getConfiguration(),
 				query.getQueryMethod().getNamespace());
 		builder.add(query.createSqlDefinition());
-		builder.build();
+
+		build(query.getEntityManager(), query.getQueryMethod(), builder, start);
+	}
+
+	public static void compile(ProcedureMybatisQuery query) {
+
+		long start = System.nanoTime();
+		MybatisMapperBuilder builder = MybatisMapperBuilder.create(
+				query.getEntityManager().getSqlSessionTemplate().getConfiguration(),
+				query.getQueryMethod().getNamespace());
+		builder.add(query.createSqlDefinition());
+
+		build(query.getEntityManager(), query.getQueryMethod(), builder, start);
+	}
+
+	/**
+	 * The ids of the statements a query method compiles into, taken from its SQL
+	 * definition, which is neither rendered nor parsed. Statements declared by a mapper
+	 * are left out.
+	 * @param query query method
+	 * @return statement ids
+	 */
+	public static Set<String> getStatementIds(AbstractMybatisQuery query) {
+
+		MybatisMapperBuilder builder = MybatisMapperBuilder.create(
+				query.getEntityManager().getSqlSessionTemplate().getConfiguration(),
+				query.getQueryMethod().getNamespace());
+		builder.add(query.createSqlDefinition());
+		return builder.getStatementIds();
+	}
+
+	/**
+	 * Compile a query method deferred to its first invocation. The mapper gets parsed
+	 * into a {@link DetachedConfiguration} instead of the shared one, whose statement
+	 * maps are read by every running statement.
+	 * @param query query method
+	 * @return the statements of the query method by id, bound to the shared
+	 * configuration
+	 */
+	public static Map<String, MappedStatement> compileDetached(AbstractMybatisQuery query) {
+
+		Configuration shared = query.getEntityManager().getSqlSessionTemplate().getConfiguration();
+
+		// included fragments are cloned from the DOM nodes of the shared configuration,
+		// which must not be read concurrently
+		synchronized (shared.getSqlFragments()) {
+
+			long start = System.nanoTime();
+			DetachedConfiguration configuration = new DetachedConfiguration(shared);
+			MybatisMapperBuilder builder = MybatisMapperBuilder.create(configuration,
+					query.getQueryMethod().getNamespace());
+			builder.add(query.createSqlDefinition());
+
+			build(query.getEntityManager(), query.getQueryMethod(), builder, start);
+			return configuration.getStatements();
+		}
+	}
+
+	private static void build(EntityManager entityManager, MybatisQueryMethod method, MybatisMapperBuilder builder,
+			long start) {
+
+		PrecompileReport.Entry entry = entityManager.getPrecompileReport()
+				.queryMethod(method.getRepositoryInterface(), method.getName());
+		entry.record(PrecompileReport.Phase.SNIPPET, System.nanoTime() - start);
+		builder.build(entry);
 	}
 
 }
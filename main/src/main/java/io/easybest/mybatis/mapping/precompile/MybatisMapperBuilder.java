@@ -21,7 +21,9 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,6 +35,7 @@ import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.session.Configuration;
 import org.springframework.data.mapping.MappingException;
+import org.springframework.lang.Nullable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StopWatch;
 import org.w3c.dom.Node;
@@ -87,11 +90,50 @@ public class MybatisMapperBuilder {
 		return this;
 	}
 
+	/**
+	 * The ids of the statements the mapper declares, including the ones rendered with
+	 * them from their derived definitions.
+	 * @return statement ids
+	 */
+	public Set<String> getStatementIds() {
+
+		Set<String> ids = new LinkedHashSet<>();
+		this.segments.forEach(segment -> this.collectStatementIds(segment, ids));
+		return ids;
+	}
+
+	private void collectStatementIds(Segment segment, Set<String> ids) {
+
+		if (segment instanceof Insert) {
+			ids.add(this.namespace + '.' + ((Insert) segment).getId());
+			return;
+		}
+		if (!(segment instanceof Select) && !(segment instanceof Update) && !(segment instanceof Delete)) {
+			return;
+		}
+
+		SqlDefinition definition = (SqlDefinition) segment;
+		ids.add(this.namespace + '.' + definition.getId());
+		if (null != definition.getDerived()) {
+			definition.getDerived().forEach(derived -> this.collectStatementIds(derived, ids));
+		}
+	}
+
 	public void build() {
+		this.build(null);
+	}
+
+	/**
+	 * Render and parse the mapper, recording the time spent into the given report entry.
+	 * @param entry report entry, can be {@literal null}
+	 */
+	public void build(@Nullable PrecompileReport.Entry entry) {
 
 		if (CollectionUtils.isEmpty(this.segments)) {
 			return;
 		}
+
+		long start = System.nanoTime();
 		String resource = this.namespace.replace('.', '/') + ".xml(" + UUID.randomUUID() + ")";
 		String content = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + "<!-- Generated Mapper XML (" + resource
 				+ ") -->"
@@ -99,14 +141,23 @@ public class MybatisMapperBuilder {
 				+ "<mapper namespace=\"" + this.namespace + "\">"
 				+ (this.segments.stream().map(Segment::toString).collect(Collectors.joining())) + "</mapper>";
 
+		if (null != entry) {
+			entry.record(PrecompileReport.Phase.XML, System.nanoTime() - start);
+		}
+
 		if (log.isDebugEnabled()) {
 			log.debug(this.format(content));
 		}
 
+		start = System.nanoTime();
 		try (InputStream is = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))) {
 			XMLMapperBuilder builder = new XMLMapperBuilder(is, this.configuration, resource,
 					this.configuration.getSqlFragments());
 			builder.parse();
+
+			if (null != entry) {
+				entry.record(PrecompileReport.Phase.PARSE, System.nanoTime() - start);
+			}
 		}
 		catch (Exception ex) {
 			log.error(content);
@@ -142,12 +193,12 @@ public class MybatisMapperBuilder {
 			return writer.writeToString(document);
 		}
 		catch (Exception ex) {
-			System.out.println(xml);
+			log.error(xml);
 			throw new MappingException(ex.getMessage(), ex);
 		}
 		finally {
 			sw.stop();
-			System.out.println(sw.getTotalTimeMillis() + "ms cost by format!");
+			log.trace(sw.getTotalTimeMillis() + "ms cost by format!");
 		}
 
 	}
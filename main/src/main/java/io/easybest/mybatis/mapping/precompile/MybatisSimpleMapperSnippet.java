@@ -17,6 +17,7 @@
 package io.easybest.mybatis.mapping.precompile;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,8 +26,12 @@ import java.util.stream.Stream;
 import javax.persistence.GenerationType;
 
 import org.apache.ibatis.mapping.ResultFlag;
+import org.springframework.data.mapping.AssociationHandler;
 import org.springframework.data.mapping.PersistentPropertyPath;
+import org.springframework.util.StringUtils;
 
+import io.easybest.mybatis.annotation.LogicDelete;
+import io.easybest.mybatis.annotation.TablePartition;
 import io.easybest.mybatis.auxiliary.Syntax;
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.MybatisAssociation;
@@ -34,7 +39,10 @@ import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
 import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
 import io.easybest.mybatis.mapping.precompile.ResultMap.Association;
 import io.easybest.mybatis.mapping.precompile.ResultMap.ResultMapping;
+import io.easybest.mybatis.mapping.sql.IdentifierProcessing;
 import io.easybest.mybatis.mapping.sql.SqlIdentifier;
+import io.easybest.mybatis.partition.TablePartitionInterceptor;
+import io.easybest.mybatis.purge.LogicDeletePurger;
 import io.easybest.mybatis.repository.query.criteria.CriteriaQuery;
 import io.easybest.mybatis.repository.query.criteria.DefaultCriteriaQuery;
 import io.easybest.mybatis.repository.query.criteria.DefaultDeleteQuery;
@@ -45,9 +53,14 @@ import io.easybest.mybatis.repository.query.criteria.InsertQuery;
 import io.easybest.mybatis.repository.query.criteria.ParamValue;
 import io.easybest.mybatis.repository.query.criteria.UpdateQuery;
 import io.easybest.mybatis.repository.query.criteria.impl.ConditionsImpl;
+import io.easybest.mybatis.repository.support.ResidentParameterName;
 import io.easybest.mybatis.repository.support.ResidentStatementName;
+import io.easybest.mybatis.snapshot.EntitySnapshots;
+import io.easybest.mybatis.tenant.TenantInterceptor;
 
 import static io.easybest.mybatis.mapping.precompile.SQL.COUNTS;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.ARCHIVE_BY_IDS;
+import static io.easybest.mybatis.repository.support.MybatisContext.PARAM_BINDABLE_PREFIX;
 import static io.easybest.mybatis.repository.support.MybatisContext.PARAM_INSTANCE_PREFIX;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.BASE_RESULT_MAP;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.BASIC_RESULT_MAP;
@@ -59,6 +72,7 @@ import static io.easybest.mybatis.repository.support.ResidentStatementName.DELET
 import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_BY_ENTITY;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_BY_ID;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_BY_IDS;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_JOIN_PREFIX;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.EXISTS_BY_EXAMPLE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.EXISTS_BY_ID;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_ALL;
@@ -68,13 +82,19 @@ import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_
 import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_BY_IDS;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_BY_PAGE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.INSERT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.INSERT_JOIN_PREFIX;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.INSERT_SELECTIVE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.LAZY_RESULT_MAP;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.PURGE_BY_IDS;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.PURGE_CHUNK;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.PURGE_IDS;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.QUERY_BY_EXAMPLE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.QUERY_BY_EXAMPLE_WITH_PAGE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.QUERY_BY_EXAMPLE_WITH_SORT;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.RESULT_MAP;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.SEQUENCE_NEXT_VAL;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_BY_ID;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_DYNAMIC;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_SELECTIVE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_SELECTIVE_BY_ID;
 
@@ -101,18 +121,27 @@ public class MybatisSimpleMapperSnippet extends MybatisMapperSnippet {
 
 	public Fragment pureTableName() {
 
-		return Fragment.builder().id(ResidentStatementName.TABLE_NAME_PURE).contents(Collections.singletonList(Table.of(
-				this.entity.getTableName().getReference(this.entityManager.getDialect().getIdentifierProcessing()))))
-				.build();
+		return Fragment.builder().id(ResidentStatementName.TABLE_NAME_PURE).contents(
+				Collections.singletonList(Table.of(this.tableReference(TablePartitionInterceptor.TABLE_PURE)))).build();
 	}
 
 	public Fragment tableName() {
 
-		return Fragment.builder().id(ResidentStatementName.TABLE_NAME).contents(Collections.singletonList(Table.base(
-				this.entity.getTableName().getReference(this.entityManager.getDialect().getIdentifierProcessing()))))
+		return Fragment.builder().id(ResidentStatementName.TABLE_NAME)
+				.contents(Collections.singletonList(Table.base(this.tableReference(TablePartitionInterceptor.TABLE))))
 				.build();
 	}
 
+	private String tableReference(String partitionTable) {
+
+		// the tables of partitioned entities are bound per call
+		if (this.entity.isAnnotationPresent(TablePartition.class)) {
+			return Interpolation.of(PARAM_BINDABLE_PREFIX + partitionTable).toString();
+		}
+
+		return this.entity.getTableName().getReference(this.entityManager.getDialect().getIdentifierProcessing());
+	}
+
 	public Fragment pureColumnList() {
 
 		ResultMap baseResultMap = this.baseResultMap();
@@ -363,11 +392,32 @@ public class MybatisSimpleMapperSnippet extends MybatisMapperSnippet {
 			}
 		}
 
+		// tenant scoped entities without a tenant property store the current tenant
+		String tenant = this.entity.getTenantColumn().orElse(null);
+		if (null != tenant && this.entityManager.findPersistentPropertyPaths(this.entity.getType(),
+				p -> null != p.getColumnName() && p.getRequiredColumnName().getReference().equalsIgnoreCase(tenant))
+				.isEmpty()) {
+			query.customSet(tenant, Parameter.bindValue(TenantInterceptor.TENANT).toString());
+		}
+
 		return query.presupposed(this.entityManager, this.entity, selective ? INSERT_SELECTIVE : INSERT, null, null);
 
 	}
 
 	public Update update(boolean selective, boolean byId) {
+		return this.update(selective, byId, false);
+	}
+
+	public Update updateDynamic() {
+
+		if (!this.entity.isDynamicUpdate()) {
+			return null;
+		}
+
+		return this.update(false, false, true);
+	}
+
+	private Update update(boolean selective, boolean byId, boolean dynamic) {
 
 		if (!this.entity.hasIdProperty()) {
 			return null;
@@ -378,6 +428,9 @@ public class MybatisSimpleMapperSnippet extends MybatisMapperSnippet {
 		if (selective) {
 			query.selective();
 		}
+		if (dynamic) {
+			query.dynamic(EntitySnapshots.trackedProperties(this.entityManager, this.entity));
+		}
 
 		for (PersistentPropertyPath<MybatisPersistentPropertyImpl> ppp : this.entityManager
 				.findPersistentPropertyPaths(this.entity.getType(), p -> true)) {
@@ -433,8 +486,9 @@ public class MybatisSimpleMapperSnippet extends MybatisMapperSnippet {
 		this.idCondition(query, byId);
 
 		return query.presupposed(this.entityManager, this.entity,
-				selective ? (byId ? UPDATE_SELECTIVE_BY_ID : UPDATE_SELECTIVE)
-						: (byId ? UPDATE_BY_ID : ResidentStatementName.UPDATE),
+				dynamic ? UPDATE_DYNAMIC
+						: selective ? (byId ? UPDATE_SELECTIVE_BY_ID : UPDATE_SELECTIVE)
+								: (byId ? UPDATE_BY_ID : ResidentStatementName.UPDATE),
 				null, null);
 	}
 
@@ -638,4 +692,166 @@ public class MybatisSimpleMapperSnippet extends MybatisMapperSnippet {
 				FIND_BY_CRITERIA, null, true);
 	}
 
+	public Select sequenceNextVal() {
+
+		if (this.entity.getSequenceAllocationSize() <= 1) {
+			return null;
+		}
+
+		return Select.builder().id(SEQUENCE_NEXT_VAL).resultType("long").contents(Collections.singletonList(
+				SQL.of(this.entityManager.getDialect().getSequenceNextValString(this.entity.getSequenceName()))))
+				.build();
+	}
+
+	/**
+	 * Inserts and deletes of the join table rows of the owned to-many associations, used
+	 * by cascading saves. Join columns referencing columns without a property are not
+	 * supported.
+	 * @return statements, two per association
+	 */
+	public List<SqlDefinition> joinTables() {
+
+		List<SqlDefinition> statements = new ArrayList<>();
+		if (!this.entity.hasIdProperty()) {
+			return statements;
+		}
+
+		IdentifierProcessing identifierProcessing = this.entityManager.getDialect().getIdentifierProcessing();
+		this.entity.doWithAssociations((AssociationHandler<MybatisPersistentPropertyImpl>) ass -> {
+
+			MybatisAssociation association = (MybatisAssociation) ass;
+			if (!association.isOwningSide() || !association.isToMany()
+					|| !association.getTargetEntity().hasIdProperty() || null == association.getJoinTable()) {
+				return;
+			}
+
+			MybatisAssociation.JoinTable joinTable = association.getJoinTable();
+			List<String> columns = new ArrayList<>();
+			List<String> values = new ArrayList<>();
+			for (MybatisAssociation.JoinColumn jc : joinTable.getJoinColumns()) {
+				String property = this.referencedProperty(this.entity, jc);
+				if (null == property) {
+					return;
+				}
+				columns.add(jc.getColumnName().getReference(identifierProcessing));
+				values.add(Parameter.instance(property).toString());
+			}
+			List<String> ownerConditions = new ArrayList<>();
+			for (int i = 0; i < columns.size(); i++) {
+				ownerConditions.add(columns.get(i) + " = " + values.get(i));
+			}
+			for (MybatisAssociation.JoinColumn jc : joinTable.getInverseJoinColumns()) {
+				String property = this.referencedProperty(association.getTargetEntity(), jc);
+				if (null == property) {
+					return;
+				}
+				columns.add(jc.getColumnName().getReference(identifierProcessing));
+				values.add(Parameter.bindValue(ResidentParameterName.TARGET + '.' + property).toString());
+			}
+
+			String table = joinTable.getTable().getReference(identifierProcessing);
+			String name = association.getInverse().getName();
+			statements.add(Insert.builder().id(INSERT_JOIN_PREFIX + name)
+					.contents(Arrays.asList(SQL.INSERT_INTO, SQL.of(table + " (" + String.join(", ", columns) + ")"),
+							SQL.of("VALUES (" + String.join(", ", values) + ")")))
+					.build());
+			statements.add(Delete.builder().id(DELETE_JOIN_PREFIX + name).contents(Arrays.asList(SQL.DELETE_FROM,
+					SQL.of(table), SQL.of("WHERE " + String.join(" AND ", ownerConditions)))).build());
+		});
+		return statements;
+	}
+
+	private String referencedProperty(MybatisPersistentEntityImpl<?> entity, MybatisAssociation.JoinColumn jc) {
+
+		return this.entityManager.findPersistentPropertyPaths(entity.getType(),
+				p -> null != p.getColumnName() && p.getRequiredColumnName().getReference()
+						.equalsIgnoreCase(jc.getReferencedColumnName().getReference()))
+				.getFirst().map(PersistentPropertyPath::toDotPath).orElse(null);
+	}
+
+	public Select purgeIds() {
+
+		if (!this.isPurgeable()) {
+			return null;
+		}
+
+		MybatisPersistentPropertyImpl idProperty = this.entity.getRequiredIdProperty();
+		String id = this.purgeIdColumn();
+		return Select.builder().id(PURGE_IDS).resultType(idProperty.getType().getName())
+				.contents(Collections.singletonList(Page.of(this.entityManager.getDialect(), Parameter.pageOffset(),
+						Parameter.pageSize(), Parameter.pageOffsetEnd(), //
+						SQL.SELECT, SQL.of(id), SQL.FROM, Include.TABLE_NAME_PURE, //
+						this.purgeCondition(If.of(PARAM_BINDABLE_PREFIX + LogicDeletePurger.AFTER + " != null",
+								SQL.of("AND " + id + " &gt; " + Parameter.bindValue(LogicDeletePurger.AFTER)))), //
+						SQL.ORDER_BY, SQL.of(id))))
+				.build();
+	}
+
+	public SqlDefinition purgeByIds() {
+
+		if (!this.isPurgeable()) {
+			return null;
+		}
+
+		return Delete.builder().id(PURGE_BY_IDS).contents(Arrays.asList(SQL.DELETE_FROM, Include.TABLE_NAME_PURE,
+				this.purgeCondition(this.purgeIdsCondition()))).build();
+	}
+
+	public SqlDefinition purgeChunk() {
+
+		String limit = this.entityManager.getDialect()
+				.deleteLimit(Parameter.bindValue(LogicDeletePurger.CHUNK).toString());
+		if (!this.isPurgeable() || null == limit) {
+			return null;
+		}
+
+		return Delete.builder().id(PURGE_CHUNK)
+				.contents(Arrays.asList(SQL.DELETE_FROM, Include.TABLE_NAME_PURE, this.purgeCondition(), SQL.of(limit)))
+				.build();
+	}
+
+	public SqlDefinition archiveByIds() {
+
+		if (!this.isPurgeable()) {
+			return null;
+		}
+
+		String archiveTable = this.entity.getRequiredAnnotation(LogicDelete.class).archiveTable();
+		if (!StringUtils.hasText(archiveTable)) {
+			return null;
+		}
+
+		return Insert.builder().id(ARCHIVE_BY_IDS)
+				.contents(Arrays.asList(SQL.INSERT_INTO, SQL.of(archiveTable), SQL.SELECT, SQL.of("*"), SQL.FROM,
+						Include.TABLE_NAME_PURE, this.purgeCondition(this.purgeIdsCondition())))
+				.build();
+	}
+
+	private boolean isPurgeable() {
+		return this.entity.getLogicDeleteColumn().isPresent() && this.entity.hasIdProperty()
+				&& !this.entity.isCompositeId();
+	}
+
+	private String purgeIdColumn() {
+		return this.entity.getRequiredIdProperty().getRequiredColumnName()
+				.getReference(this.entityManager.getDialect().getIdentifierProcessing());
+	}
+
+	private Segment purgeIdsCondition() {
+
+		return Composite.of(SQL.of("AND " + this.purgeIdColumn() + " IN"),
+				Foreach.builder().collection(PARAM_BINDABLE_PREFIX + LogicDeletePurger.IDS).item("item")
+						.contents(Collections.singletonList(Parameter.of("item"))).build());
+	}
+
+	private Where purgeCondition(Segment... conditions) {
+
+		List<Segment> segments = new ArrayList<>();
+		segments.add(SQL.of(Column.of(this.entity.getLogicDeleteColumn().get()) + " = 1"));
+		this.entity.getTenantColumn().ifPresent(tenant -> segments
+				.add(SQL.of("AND " + tenant + " = " + Parameter.bindValue(TenantInterceptor.TENANT))));
+		segments.addAll(Arrays.asList(conditions));
+		return Where.builder().contents(segments).build();
+	}
+
 }
@@ -19,6 +19,7 @@ package io.easybest.mybatis.mapping.precompile;
 import java.util.List;
 
 import lombok.Getter;
+import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.util.StringUtils;
 
@@ -45,6 +46,10 @@ public class Parameter extends AbstractSegment {
 
 	private boolean getterOptional;
 
+	private ParameterMode mode;
+
+	private String resultMap;
+
 	public static Parameter of(String property) {
 		return Parameter.builder().property(property).build();
 	}
@@ -120,6 +125,12 @@ public class Parameter extends AbstractSegment {
 		if (null != this.typeHandler) {
 			builder.append(",typeHandler=").append(this.typeHandler.getName());
 		}
+		if (null != this.mode) {
+			builder.append(",mode=").append(this.mode.name());
+		}
+		if (StringUtils.hasText(this.resultMap)) {
+			builder.append(",resultMap=").append(this.resultMap);
+		}
 		builder.append("}");
 		return builder.toString();
 	}
@@ -144,6 +155,10 @@ public class Parameter extends AbstractSegment {
 
 		private boolean getterOptional;
 
+		private ParameterMode mode;
+
+		private String resultMap;
+
 		public Parameter build() {
 
 			Parameter instance = new Parameter();
@@ -154,6 +169,8 @@ public class Parameter extends AbstractSegment {
 			instance.typeHandler = this.typeHandler;
 			instance.javaTypeClass = this.javaTypeClass;
 			instance.getterOptional = this.getterOptional;
+			instance.mode = this.mode;
+			instance.resultMap = this.resultMap;
 
 			return instance;
 		}
@@ -193,6 +210,16 @@ public class Parameter extends AbstractSegment {
 			return this;
 		}
 
+		public Builder mode(final ParameterMode mode) {
+			this.mode = mode;
+			return this;
+		}
+
+		public Builder resultMap(final String resultMap) {
+			this.resultMap = resultMap;
+			return this;
+		}
+
 	}
 
 }
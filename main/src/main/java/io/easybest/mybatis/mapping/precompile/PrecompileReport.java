@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping.precompile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.util.Assert;
+
+/**
+ * Timings collected while precompiling entities and query methods into MyBatis mapped
+ * statements.
+ *
+ * @author Jarvis Song
+ */
+public class PrecompileReport {
+
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	/**
+	 * Get or create the entry of an entity.
+	 * @param type entity type
+	 * @return entry
+	 */
+	public Entry entity(Class<?> type) {
+		return this.entry(Kind.ENTITY, type.getName());
+	}
+
+	/**
+	 * Get or create the entry of an association staging mapper.
+	 * @param namespace namespace of the staging mapper
+	 * @return entry
+	 */
+	public Entry association(String namespace) {
+		return this.entry(Kind.ASSOCIATION, namespace);
+	}
+
+	/**
+	 * Get or create the entry of a repository query method.
+	 * @param repositoryInterface repository interface
+	 * @param method method name
+	 * @return entry
+	 */
+	public Entry queryMethod(Class<?> repositoryInterface, String method) {
+		return this.entry(Kind.QUERY_METHOD, repositoryInterface.getName() + '.' + method);
+	}
+
+	private synchronized Entry entry(Kind kind, String name) {
+		return this.entries.computeIfAbsent(kind.name() + ':' + name, key -> new Entry(kind, name));
+	}
+
+	public synchronized List<Entry> getEntries() {
+		return Collections.unmodifiableList(new ArrayList<>(this.entries.values()));
+	}
+
+	public Map<Phase, Long> getTotals() {
+
+		Map<Phase, Long> totals = new EnumMap<>(Phase.class);
+		for (Phase phase : Phase.values()) {
+			totals.put(phase, 0L);
+		}
+		for (Entry entry : this.getEntries()) {
+			for (Phase phase : Phase.values()) {
+				totals.merge(phase, entry.getNanos(phase), Long::sum);
+			}
+		}
+		return totals;
+	}
+
+	/**
+	 * Render the phase totals and the slowest entries.
+	 * @param limit maximum number of entries to list
+	 * @return summary
+	 */
+	public String summary(int limit) {
+
+		List<Entry> entries = new ArrayList<>(this.getEntries());
+		entries.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+
+		StringBuilder builder = new StringBuilder("Precompiled ").append(entries.size()).append(" mappers in ")
+				.append(millis(entries.stream().mapToLong(Entry::getTotalNanos).sum())).append(" ms (");
+		this.getTotals().forEach((phase, nanos) -> builder.append(phase.name().toLowerCase()).append(' ')
+				.append(millis(nanos)).append(" ms, "));
+		builder.setLength(builder.length() - 2);
+		builder.append(')');
+
+		entries.stream().limit(limit).forEach(entry -> builder.append(System.lineSeparator()).append("  ")
+				.append(entry));
+
+		return builder.toString();
+	}
+
+	private static long millis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	/**
+	 * What has been precompiled.
+	 */
+	public enum Kind {
+
+		/**
+		 * Resident statements of an entity.
+		 */
+		ENTITY,
+		/**
+		 * Staging mapper of an association.
+		 */
+		ASSOCIATION,
+		/**
+		 * Repository query method.
+		 */
+		QUERY_METHOD
+
+	}
+
+	/**
+	 * Phases of the precompilation.
+	 */
+	public enum Phase {
+
+		/**
+		 * Creation of the persistent entity in the mapping context.
+		 */
+		MAPPING,
+		/**
+		 * Generation of the SQL definitions.
+		 */
+		SNIPPET,
+		/**
+		 * Rendering of the mapper XML.
+		 */
+		XML,
+		/**
+		 * Parsing of the mapper XML by MyBatis.
+		 */
+		PARSE
+
+	}
+
+	/**
+	 * Timings of one entity, association or query method.
+	 */
+	public static final class Entry {
+
+		private final Kind kind;
+
+		private final String name;
+
+		private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+
+		private Entry(Kind kind, String name) {
+			this.kind = kind;
+			this.name = name;
+		}
+
+		public void record(Phase phase, long nanos) {
+
+			Assert.notNull(phase, "Phase must not be null!");
+
+			this.nanos.addAndGet(phase.ordinal(), nanos);
+		}
+
+		public Kind getKind() {
+			return this.kind;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public long getNanos(Phase phase) {
+			return this.nanos.get(phase.ordinal());
+		}
+
+		public long getTotalNanos() {
+
+			long total = 0;
+			for (int i = 0; i < this.nanos.length(); i++) {
+				total += this.nanos.get(i);
+			}
+			return total;
+		}
+
+		@Override
+		public String toString() {
+
+			StringBuilder builder = new StringBuilder().append(this.kind).append(' ').append(this.name).append(": ")
+					.append(millis(this.getTotalNanos())).append(" ms");
+			for (Phase phase : Phase.values()) {
+				builder.append(", ").append(phase.name().toLowerCase()).append(' ').append(millis(this.getNanos(phase)))
+						.append(" ms");
+			}
+			return builder.toString();
+		}
+
+	}
+
+}
@@ -19,6 +19,7 @@ package io.easybest.mybatis.mapping.precompile;
 import java.util.List;
 
 import lombok.Getter;
+import org.apache.ibatis.mapping.StatementType;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -36,6 +37,10 @@ public class Select extends SqlDefinition {
 
 	private String resultType;
 
+	private StatementType statementType;
+
+	private boolean flushCache;
+
 	@Override
 	public String toString() {
 		String sql = this.content();
@@ -53,6 +58,12 @@ public class Select extends SqlDefinition {
 		if (StringUtils.hasText(this.parameterType)) {
 			builder.append(" parameterType=\"").append(this.parameterType).append("\"");
 		}
+		if (null != this.statementType) {
+			builder.append(" statementType=\"").append(this.statementType.name()).append("\"");
+		}
+		if (this.flushCache) {
+			builder.append(" flushCache=\"true\" useCache=\"false\"");
+		}
 
 		if (StringUtils.hasText(this.databaseId)) {
 			builder.append(" databaseId=\"").append(this.databaseId).append("\"");
@@ -85,6 +96,10 @@ public class Select extends SqlDefinition {
 
 		private String resultType;
 
+		private StatementType statementType;
+
+		private boolean flushCache;
+
 		public Select build() {
 
 			Select instance = new Select();
@@ -95,6 +110,8 @@ public class Select extends SqlDefinition {
 			instance.parameterType = this.parameterType;
 			instance.resultMap = this.resultMap;
 			instance.resultType = this.resultType;
+			instance.statementType = this.statementType;
+			instance.flushCache = this.flushCache;
 
 			return instance;
 		}
@@ -134,6 +151,16 @@ public class Select extends SqlDefinition {
 			return this;
 		}
 
+		public Builder statementType(final StatementType statementType) {
+			this.statementType = statementType;
+			return this;
+		}
+
+		public Builder flushCache(final boolean flushCache) {
+			this.flushCache = flushCache;
+			return this;
+		}
+
 	}
 
 }
@@ -19,6 +19,7 @@ package io.easybest.mybatis.mapping.precompile;
 import java.util.List;
 
 import lombok.Getter;
+import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import io.easybest.mybatis.repository.support.MybatisContext;
@@ -48,6 +49,11 @@ public class Update extends SqlDefinition {
 		builder.append(">");
 		builder.append(this.content());
 		builder.append("</update>");
+
+		if (!CollectionUtils.isEmpty(this.derived)) {
+			this.derived.forEach(builder::append);
+		}
+
 		return builder.toString();
 	}
 
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.metrics;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MybatisMetrics} backed by Micrometer.
+ *
+ * <ul>
+ * <li>{@code spring.data.mybatis.query}: query methods, tagged with repository, method
+ * and statement.</li>
+ * <li>{@code spring.data.mybatis.statement}: resident statements of the base repository,
+ * tagged with statement and operation.</li>
+ * <li>{@code spring.data.mybatis.sql.generation}: dynamic SQL generation, tagged with
+ * domain type.</li>
+ * </ul>
+ * Query and statement timers are paired with a {@code .rows} distribution summary of the
+ * rows returned or affected. The difference between the statement and generation timers
+ * is the time spent in the database and in result mapping.
+ *
+ * @author Jarvis Song
+ */
+public class MicrometerMybatisMetrics implements MybatisMetrics {
+
+	/**
+	 * Default metric name prefix.
+	 */
+	public static final String DEFAULT_PREFIX = "spring.data.mybatis";
+
+	private static final String NONE = "none";
+
+	private final MeterRegistry registry;
+
+	private final String prefix;
+
+	public MicrometerMybatisMetrics(MeterRegistry registry) {
+		this(registry, DEFAULT_PREFIX);
+	}
+
+	public MicrometerMybatisMetrics(MeterRegistry registry, String prefix) {
+
+		Assert.notNull(registry, "MeterRegistry must not be null!");
+		Assert.hasText(prefix, "Prefix must not be empty!");
+
+		this.registry = registry;
+		this.prefix = prefix;
+	}
+
+	@Override
+	public <R> R recordQuery(Class<?> repositoryInterface, String method, String statementId,
+			Supplier<R> execution) {
+
+		Tags tags = Tags.of(Tag.of("repository", repositoryInterface.getSimpleName()), Tag.of("method", method),
+				Tag.of("statement", statementId));
+
+		return this.record(this.prefix + ".query", "Repository query method execution", tags, false, execution);
+	}
+
+	@Override
+	public <R> R recordStatement(String statementId, String operation, Supplier<R> execution) {
+
+		Tags tags = Tags.of(Tag.of("statement", statementId), Tag.of("operation", operation));
+
+		return this.record(this.prefix + ".statement", "Repository resident statement execution", tags,
+				!"select".equals(operation), execution);
+	}
+
+	@Override
+	public <R> R recordSqlGeneration(Class<?> domainType, Supplier<R> generation) {
+
+		Timer.Sample sample = Timer.start(this.registry);
+		try {
+			return generation.get();
+		}
+		finally {
+			sample.stop(Timer.builder(this.prefix + ".sql.generation").description("Dynamic SQL generation")
+					.tag("domain", domainType.getSimpleName()).register(this.registry));
+		}
+	}
+
+	private <R> R record(String name, String description, Tags tags, boolean modifying, Supplier<R> execution) {
+
+		Timer.Sample sample = Timer.start(this.registry);
+		String exception = NONE;
+		try {
+
+			R result = execution.get();
+
+			DistributionSummary.builder(name + ".rows").description("Rows returned or affected").tags(tags)
+					.register(this.registry).record(rows(result, modifying));
+
+			return result;
+		}
+		catch (RuntimeException ex) {
+			exception = ex.getClass().getSimpleName();
+			throw ex;
+		}
+		finally {
+			sample.stop(Timer.builder(name).description(description).tags(tags).tag("exception", exception)
+					.register(this.registry));
+		}
+	}
+
+	private static long rows(Object result, boolean modifying) {
+
+		if (null == result) {
+			return 0;
+		}
+		if (result instanceof Collection) {
+			return ((Collection<?>) result).size();
+		}
+		if (result instanceof Slice) {
+			return ((Slice<?>) result).getNumberOfElements();
+		}
+		if (result instanceof Optional) {
+			return ((Optional<?>) result).isPresent() ? 1 : 0;
+		}
+		if (modifying && result instanceof Number) {
+			return ((Number) result).longValue();
+		}
+		if (result.getClass().isArray()) {
+			return Array.getLength(result);
+		}
+		return 1;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * Hook for recording the time spent in the different phases of a repository call.
+ * Every callback runs the given work exactly once and returns its result.
+ *
+ * @author Jarvis Song
+ */
+public interface MybatisMetrics {
+
+	/**
+	 * Records nothing.
+	 */
+	MybatisMetrics NOOP = new MybatisMetrics() {
+	};
+
+	/**
+	 * Record the execution of a query method declared on a repository interface.
+	 * @param repositoryInterface repository interface
+	 * @param method method name
+	 * @param statementId mapped statement id
+	 * @param execution the execution
+	 * @param <R> result type
+	 * @return the result of the execution
+	 */
+	default <R> R recordQuery(Class<?> repositoryInterface, String method, String statementId,
+			Supplier<R> execution) {
+		return execution.get();
+	}
+
+	/**
+	 * Record the execution of a resident statement issued by the base repository.
+	 * @param statementId mapped statement id
+	 * @param operation {@code select}, {@code insert}, {@code update} or {@code delete}
+	 * @param execution the execution
+	 * @param <R> result type
+	 * @return the result of the execution
+	 */
+	default <R> R recordStatement(String statementId, String operation, Supplier<R> execution) {
+		return execution.get();
+	}
+
+	/**
+	 * Record the generation of dynamic SQL fragments.
+	 * @param domainType domain type the SQL is generated for
+	 * @param generation the generation
+	 * @param <R> result type
+	 * @return the generated fragments
+	 */
+	default <R> R recordSqlGeneration(Class<?> domainType, Supplier<R> generation) {
+		return generation.get();
+	}
+
+}
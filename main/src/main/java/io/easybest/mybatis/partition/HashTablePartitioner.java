@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.partition;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.sharding.ShardingStrategy;
+
+/**
+ * A fixed number of tables, the key selecting one of them like a
+ * {@link ShardingStrategy#HASH shard}. Every table is expected to exist.
+ *
+ * @author Jarvis Song
+ */
+public class HashTablePartitioner implements TablePartitioner {
+
+	private final int partitions;
+
+	private final String format;
+
+	public HashTablePartitioner(int partitions) {
+
+		Assert.isTrue(partitions > 0, "Number of hash partitions must be positive!");
+
+		this.partitions = partitions;
+		this.format = "%0" + Math.max(2, String.valueOf(partitions - 1).length()) + "d";
+	}
+
+	@Override
+	public String determineSuffix(Object key) {
+		return String.format(this.format, ShardingStrategy.HASH.determineShard(key, this.partitions));
+	}
+
+	@Override
+	public List<String> determineSuffixes(@Nullable Object lower, @Nullable Object upper,
+			Supplier<List<String>> existing) {
+
+		return IntStream.range(0, this.partitions).mapToObj(partition -> String.format(this.format, partition))
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public boolean isSuffix(String candidate) {
+
+		try {
+			int partition = Integer.parseInt(candidate);
+			return partition >= 0 && partition < this.partitions
+					&& candidate.equals(String.format(this.format, partition));
+		}
+		catch (NumberFormatException ex) {
+			return false;
+		}
+	}
+
+}
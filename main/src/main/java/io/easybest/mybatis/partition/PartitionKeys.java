@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.partition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * The values of the partition key a statement is restricted to, either a set of values
+ * or a range.
+ *
+ * @author Jarvis Song
+ */
+public final class PartitionKeys {
+
+	@Nullable
+	private final List<Object> values;
+
+	@Nullable
+	private final Object lower;
+
+	@Nullable
+	private final Object upper;
+
+	private PartitionKeys(@Nullable List<Object> values, @Nullable Object lower, @Nullable Object upper) {
+		this.values = values;
+		this.lower = lower;
+		this.upper = upper;
+	}
+
+	/**
+	 * Keys of a single value, or of the elements of a collection or array.
+	 * @param value value
+	 * @return keys
+	 */
+	public static PartitionKeys of(Object value) {
+
+		if (value instanceof Collection) {
+			return new PartitionKeys(new ArrayList<>((Collection<?>) value), null, null);
+		}
+		if (value.getClass().isArray()) {
+			return new PartitionKeys(Arrays.asList(ObjectUtils.toObjectArray(value)), null, null);
+		}
+		return new PartitionKeys(Collections.singletonList(value), null, null);
+	}
+
+	/**
+	 * Keys within the bounds, both inclusive.
+	 * @param lower lower bound, {@literal null} if open
+	 * @param upper upper bound, {@literal null} if open
+	 * @return keys
+	 */
+	public static PartitionKeys between(@Nullable Object lower, @Nullable Object upper) {
+		return new PartitionKeys(null, lower, upper);
+	}
+
+	/**
+	 * Keys satisfying both restrictions.
+	 * @param other other keys
+	 * @return keys
+	 */
+	public PartitionKeys and(PartitionKeys other) {
+
+		if (null != this.values) {
+			if (null == other.values) {
+				return this;
+			}
+			List<Object> values = new ArrayList<>(this.values);
+			values.retainAll(other.values);
+			return new PartitionKeys(values, null, null);
+		}
+		if (null != other.values) {
+			return other;
+		}
+		return new PartitionKeys(null, bound(this.lower, other.lower, true), bound(this.upper, other.upper, false));
+	}
+
+	@Nullable
+	public List<Object> getValues() {
+		return this.values;
+	}
+
+	@Nullable
+	public Object getLower() {
+		return this.lower;
+	}
+
+	@Nullable
+	public Object getUpper() {
+		return this.upper;
+	}
+
+	@Nullable
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object bound(@Nullable Object left, @Nullable Object right, boolean lower) {
+
+		if (null == left || null == right) {
+			return null == left ? right : left;
+		}
+		if (!(left instanceof Comparable) || !left.getClass().isInstance(right)) {
+			return left;
+		}
+		int comparison = ((Comparable) left).compareTo(right);
+		return (lower ? comparison >= 0 : comparison <= 0) ? left : right;
+	}
+
+	@Override
+	public String toString() {
+		return null != this.values ? "in " + this.values : "between " + this.lower + " and " + this.upper;
+	}
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.partition;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.lang.Nullable;
+
+import io.easybest.mybatis.annotation.TablePartition;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.mapping.sql.IdentifierProcessing;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+/**
+ * The tables of a partitioned entity.
+ *
+ * @author Jarvis Song
+ */
+final class PartitionedTable {
+
+	private final MybatisPersistentEntityImpl<?> entity;
+
+	private final MybatisPersistentPropertyImpl property;
+
+	private final String name;
+
+	private final TablePartitioner partitioner;
+
+	PartitionedTable(MybatisPersistentEntityImpl<?> entity, TablePartition partition,
+			IdentifierProcessing processing) {
+
+		this.entity = entity;
+		this.property = entity.getRequiredPersistentProperty(partition.property());
+		this.name = entity.getTableName().getReference(processing);
+		this.partitioner = TablePartitioner.of(partition);
+	}
+
+	String getEntityName() {
+		return this.entity.getType().getName();
+	}
+
+	/**
+	 * The keys a statement is restricted to, from the entity, its id, the derived query
+	 * or a parameter named like the partition key.
+	 * @param context statement parameter
+	 * @return keys, {@literal null} if unrestricted
+	 */
+	@Nullable
+	PartitionKeys keys(MybatisContext<?, ?> context) {
+
+		Object instance = context.getInstance();
+		if (null != instance && this.entity.getType().isInstance(instance)) {
+			Object key = this.entity.getPropertyAccessor(instance).getProperty(this.property);
+			return null == key ? null : PartitionKeys.of(key);
+		}
+
+		Object id = context.getId();
+		if (null != id && this.property.isIdProperty()) {
+			return PartitionKeys.of(id);
+		}
+
+		Object keys = context.getBindable().get(TablePartitionInterceptor.KEYS);
+		if (keys instanceof PartitionKeys) {
+			return (PartitionKeys) keys;
+		}
+
+		Map<String, Object> values = context.getAdditionalValues();
+		Object value = null == values ? null : values.get(this.property.getName());
+		return null == value ? null : PartitionKeys.of(value);
+	}
+
+	List<String> suffixes(@Nullable PartitionKeys keys, Supplier<List<String>> existing) {
+
+		if (null == keys) {
+			return this.partitioner.determineSuffixes(null, null, existing);
+		}
+		if (null != keys.getValues()) {
+			return keys.getValues().stream().filter(Objects::nonNull).map(this.partitioner::determineSuffix)
+					.distinct().collect(Collectors.toList());
+		}
+		if (null != keys.getLower() && keys.getLower().equals(keys.getUpper())) {
+			return Collections.singletonList(this.partitioner.determineSuffix(keys.getLower()));
+		}
+		return this.partitioner.determineSuffixes(keys.getLower(), keys.getUpper(), existing);
+	}
+
+	String name(String suffix) {
+		return this.name + '_' + suffix;
+	}
+
+	String union(List<String> suffixes) {
+		return suffixes.stream().map(suffix -> "SELECT * FROM " + this.name(suffix))
+				.collect(Collectors.joining(" UNION ALL ", "(", ")"));
+	}
+
+	/**
+	 * Suffixes of the partitions found in the catalog of the connection.
+	 * @param connection connection
+	 * @return ordered suffixes
+	 * @throws SQLException if the catalog cannot be read
+	 */
+	List<String> existingSuffixes(Connection connection) throws SQLException {
+
+		DatabaseMetaData metaData = connection.getMetaData();
+		String escape = metaData.getSearchStringEscape();
+
+		// unquoted names are stored in upper or lower case depending on the database
+		Set<String> names = new LinkedHashSet<>(Arrays.asList(this.name, this.name.toUpperCase(Locale.ROOT),
+				this.name.toLowerCase(Locale.ROOT)));
+		Set<String> suffixes = new TreeSet<>();
+		for (String name : names) {
+			String pattern = escape(name + '_', escape) + '%';
+			try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, pattern,
+					new String[] { "TABLE" })) {
+				while (tables.next()) {
+					String suffix = tables.getString("TABLE_NAME").substring(name.length() + 1);
+					if (this.partitioner.isSuffix(suffix)) {
+						suffixes.add(suffix);
+					}
+				}
+			}
+		}
+		return new ArrayList<>(suffixes);
+	}
+
+	private static String escape(String pattern, @Nullable String escape) {
+
+		if (null == escape || escape.isEmpty()) {
+			return pattern;
+		}
+		return pattern.replace(escape, escape + escape).replace("_", escape + '_').replace("%", escape + '%');
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.partition;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.util.Lazy;
+
+import io.easybest.mybatis.annotation.TablePartition;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+import static io.easybest.mybatis.mapping.precompile.SQL.ROOT_ALIAS;
+
+/**
+ * Resolves the tables of the statements of entities annotated with
+ * {@link TablePartition} per call. The table fragments of such entities interpolate
+ * the table bound here:
+ * <ul>
+ * <li>selects read the tables that may hold the keys of the statement, as a
+ * {@code UNION ALL} of them if there are several</li>
+ * <li>updates and deletes run once per table and return the sum of the affected
+ * rows</li>
+ * <li>inserts require the value of the partition key</li>
+ * </ul>
+ * Unrestricted statements and open ranges of date partitions read the existing tables
+ * from the catalog.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({
+		@Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "queryCursor",
+				args = { MappedStatement.class, Object.class, RowBounds.class }) })
+public class TablePartitionInterceptor implements Interceptor {
+
+	/**
+	 * Bindable name of the table of aliased statements.
+	 */
+	public static final String TABLE = "__partition_table";
+
+	/**
+	 * Bindable name of the table of statements without alias.
+	 */
+	public static final String TABLE_PURE = "__partition_table_pure";
+
+	/**
+	 * Bindable name of the {@link PartitionKeys} a query is restricted to.
+	 */
+	public static final String KEYS = "__partition_keys";
+
+	private final Map<Class<?>, PartitionedTable> tables = new HashMap<>();
+
+	public TablePartitionInterceptor(EntityManager entityManager) {
+
+		for (MybatisPersistentEntityImpl<?> entity : entityManager.getPersistentEntities()) {
+			TablePartition partition = entity.findAnnotation(TablePartition.class);
+			if (null != partition) {
+				this.tables.put(entity.getType(), new PartitionedTable(entity, partition,
+						entityManager.getDialect().getIdentifierProcessing()));
+			}
+		}
+	}
+
+	/**
+	 * Whether any entity is partitioned.
+	 * @return {@literal true} if there are partitioned entities
+	 */
+	public boolean hasPartitions() {
+		return !this.tables.isEmpty();
+	}
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		Object parameter = invocation.getArgs()[1];
+		if (!(parameter instanceof MybatisContext)) {
+			return invocation.proceed();
+		}
+
+		MybatisContext<?, ?> context = (MybatisContext<?, ?>) parameter;
+		PartitionedTable table = null == context.getDomainType() ? null : this.tables.get(context.getDomainType());
+		if (null == table) {
+			return invocation.proceed();
+		}
+
+		MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+		Executor executor = (Executor) invocation.getTarget();
+		Supplier<List<String>> existing = Lazy.of(() -> {
+			try {
+				return table.existingSuffixes(executor.getTransaction().getConnection());
+			}
+			catch (SQLException ex) {
+				throw new DataAccessResourceFailureException(
+						"Could not read the table partitions of " + table.getEntityName(), ex);
+			}
+		});
+		List<String> suffixes = table.suffixes(table.keys(context), existing);
+
+		if (ms.getSqlCommandType() == SqlCommandType.SELECT) {
+
+			String name = this.select(table, suffixes, existing);
+			context.setBindable(TABLE, name);
+			context.setBindable(TABLE_PURE, name.startsWith("(") ? name + ' ' + ROOT_ALIAS.getValue() : name);
+			return invocation.proceed();
+		}
+
+		if (suffixes.size() != 1 && ms.getSqlCommandType() == SqlCommandType.INSERT) {
+			throw new InvalidDataAccessApiUsageException(
+					"Cannot insert " + table.getEntityName() + " without the value of its partition key!");
+		}
+
+		int rows = 0;
+		for (String suffix : suffixes) {
+			context.setBindable(TABLE, table.name(suffix));
+			context.setBindable(TABLE_PURE, table.name(suffix));
+			int updated = (int) invocation.proceed();
+			if (updated == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+				rows = updated;
+			}
+			else if (rows != BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+				rows += updated;
+			}
+		}
+		return rows;
+	}
+
+	private String select(PartitionedTable table, List<String> suffixes, Supplier<List<String>> existing) {
+
+		if (suffixes.size() == 1) {
+			return table.name(suffixes.get(0));
+		}
+		if (!suffixes.isEmpty()) {
+			return table.union(suffixes);
+		}
+
+		// no table may hold a row, read none from any of them
+		List<String> tables = existing.get();
+		if (tables.isEmpty()) {
+			throw new InvalidDataAccessResourceUsageException(
+					"No table partition of " + table.getEntityName() + " exists!");
+		}
+		return "(SELECT * FROM " + table.name(tables.get(0)) + " WHERE 1 = 0)";
+	}
+
+}
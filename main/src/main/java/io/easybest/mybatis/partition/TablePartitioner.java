@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.partition;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.annotation.TablePartition;
+
+/**
+ * Maps the values of the partition key of an entity to the suffixes of its tables.
+ *
+ * @author Jarvis Song
+ */
+public interface TablePartitioner {
+
+	/**
+	 * Determine the table of a key.
+	 * @param key value of the partition key, never {@literal null}
+	 * @return table suffix
+	 */
+	String determineSuffix(Object key);
+
+	/**
+	 * Determine the tables that may hold the keys within the bounds, both inclusive.
+	 * @param lower lower bound, {@literal null} if open
+	 * @param upper upper bound, {@literal null} if open
+	 * @param existing suffixes of the tables existing in the database, looked up from the
+	 * catalog on first access
+	 * @return table suffixes
+	 */
+	List<String> determineSuffixes(@Nullable Object lower, @Nullable Object upper, Supplier<List<String>> existing);
+
+	/**
+	 * Whether the suffix of a table found in the catalog is one of this partitioner.
+	 * @param candidate suffix of a table sharing the name of the entity table
+	 * @return {@literal true} if the table is a partition
+	 */
+	default boolean isSuffix(String candidate) {
+		return true;
+	}
+
+	static TablePartitioner of(TablePartition partition) {
+
+		if (void.class != partition.partitioner()) {
+			Assert.isAssignable(TablePartitioner.class, partition.partitioner(),
+					"@TablePartition partitioner must be a TablePartitioner!");
+			return (TablePartitioner) BeanUtils.instantiateClass(partition.partitioner());
+		}
+
+		switch (partition.scheme()) {
+		case DAY:
+			return new TemporalTablePartitioner(ChronoUnit.DAYS);
+		case YEAR:
+			return new TemporalTablePartitioner(ChronoUnit.YEARS);
+		case HASH:
+			return new HashTablePartitioner(partition.partitions());
+		default:
+			return new TemporalTablePartitioner(ChronoUnit.MONTHS);
+		}
+	}
+
+}
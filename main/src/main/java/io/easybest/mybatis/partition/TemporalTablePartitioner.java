@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.partition;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * One table per day, month or year of a date property. Ranges select the existing
+ * tables within their bounds, the suffixes are ordered like the periods.
+ *
+ * @author Jarvis Song
+ */
+public class TemporalTablePartitioner implements TablePartitioner {
+
+	private final DateTimeFormatter formatter;
+
+	private final int length;
+
+	private final ZoneId zone;
+
+	public TemporalTablePartitioner(ChronoUnit unit) {
+		this(unit, ZoneId.systemDefault());
+	}
+
+	public TemporalTablePartitioner(ChronoUnit unit, ZoneId zone) {
+
+		Assert.isTrue(unit == ChronoUnit.DAYS || unit == ChronoUnit.MONTHS || unit == ChronoUnit.YEARS,
+				"Tables can only be partitioned by days, months or years!");
+		Assert.notNull(zone, "ZoneId must not be null!");
+
+		String pattern = unit == ChronoUnit.DAYS ? "yyyyMMdd" : unit == ChronoUnit.MONTHS ? "yyyyMM" : "yyyy";
+		this.formatter = DateTimeFormatter.ofPattern(pattern);
+		this.length = pattern.length();
+		this.zone = zone;
+	}
+
+	@Override
+	public String determineSuffix(Object key) {
+		return this.formatter.format(this.toLocalDate(key));
+	}
+
+	@Override
+	public List<String> determineSuffixes(@Nullable Object lower, @Nullable Object upper,
+			Supplier<List<String>> existing) {
+
+		String from = null == lower ? null : this.determineSuffix(lower);
+		String to = null == upper ? null : this.determineSuffix(upper);
+		return existing.get().stream().filter(this::isSuffix)
+				.filter(suffix -> (null == from || suffix.compareTo(from) >= 0)
+						&& (null == to || suffix.compareTo(to) <= 0))
+				.sorted().collect(Collectors.toList());
+	}
+
+	@Override
+	public boolean isSuffix(String candidate) {
+		return candidate.length() == this.length && candidate.chars().allMatch(Character::isDigit);
+	}
+
+	private LocalDate toLocalDate(Object key) {
+
+		if (key instanceof LocalDate) {
+			return (LocalDate) key;
+		}
+		if (key instanceof LocalDateTime) {
+			return ((LocalDateTime) key).toLocalDate();
+		}
+		if (key instanceof OffsetDateTime) {
+			return ((OffsetDateTime) key).atZoneSameInstant(this.zone).toLocalDate();
+		}
+		if (key instanceof ZonedDateTime) {
+			return ((ZonedDateTime) key).withZoneSameInstant(this.zone).toLocalDate();
+		}
+		if (key instanceof Instant) {
+			return ((Instant) key).atZone(this.zone).toLocalDate();
+		}
+		if (key instanceof java.sql.Date) {
+			return ((java.sql.Date) key).toLocalDate();
+		}
+		if (key instanceof Date) {
+			return ((Date) key).toInstant().atZone(this.zone).toLocalDate();
+		}
+		if (key instanceof YearMonth) {
+			return ((YearMonth) key).atDay(1);
+		}
+		if (key instanceof Year) {
+			return ((Year) key).atDay(1);
+		}
+
+		throw new IllegalArgumentException("Cannot partition tables by a value of " + key.getClass().getName());
+	}
+
+}
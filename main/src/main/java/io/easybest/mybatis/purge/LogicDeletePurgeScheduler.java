@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.purge;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.util.Assert;
+
+/**
+ * Runs a {@link LogicDeletePurger} on a cron schedule in a thread of its own.
+ *
+ * @author Jarvis Song
+ */
+public class LogicDeletePurgeScheduler implements InitializingBean, DisposableBean {
+
+	private final LogicDeletePurger purger;
+
+	private final String cron;
+
+	private ThreadPoolTaskScheduler scheduler;
+
+	public LogicDeletePurgeScheduler(LogicDeletePurger purger, String cron) {
+
+		Assert.notNull(purger, "LogicDeletePurger must not be null!");
+		Assert.hasText(cron, "Cron expression must not be empty!");
+
+		this.purger = purger;
+		this.cron = cron;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+
+		this.scheduler = new ThreadPoolTaskScheduler();
+		this.scheduler.setThreadNamePrefix("mybatis-purge-");
+		this.scheduler.setDaemon(true);
+		this.scheduler.initialize();
+		this.scheduler.schedule(this.purger, new CronTrigger(this.cron));
+	}
+
+	@Override
+	public void destroy() {
+
+		if (null != this.scheduler) {
+			this.scheduler.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.purge;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.Configuration;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.annotation.LogicDelete;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.repository.support.MybatisContext;
+import io.easybest.mybatis.repository.support.Pageable;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.ARCHIVE_BY_IDS;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DOT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.PURGE_BY_IDS;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.PURGE_CHUNK;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.PURGE_IDS;
+
+/**
+ * Physically deletes the rows of {@link LogicDelete} entities flagged as deleted, in
+ * chunks of bounded size with an optional pause between them to let replicas catch up.
+ * <p>
+ * Rows are copied to the {@link LogicDelete#archiveTable() archive table} of the entity
+ * first if it has one. Chunks are removed with a limited {@code DELETE} if the dialect
+ * supports it and nothing is archived, otherwise by keyset over the id. Each chunk runs
+ * in a transaction of its own if a transaction manager is set.
+ *
+ * @author Jarvis Song
+ */
+@Slf4j
+public class LogicDeletePurger implements Runnable {
+
+	/**
+	 * Bindable name of the id after which the next chunk starts.
+	 */
+	public static final String AFTER = "__purge_after";
+
+	/**
+	 * Bindable name of the ids of a chunk.
+	 */
+	public static final String IDS = "__purge_ids";
+
+	/**
+	 * Bindable name of the size of a chunk.
+	 */
+	public static final String CHUNK = "__purge_chunk";
+
+	/**
+	 * Rows deleted per chunk by default.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	private final EntityManager entityManager;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private Duration pause = Duration.ZERO;
+
+	@Nullable
+	private TransactionTemplate transactionTemplate;
+
+	public LogicDeletePurger(EntityManager entityManager) {
+
+		Assert.notNull(entityManager, "EntityManager must not be null!");
+
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public void run() {
+		this.purgeAll();
+	}
+
+	/**
+	 * Purge the deleted rows of all {@link LogicDelete} entities.
+	 * @return number of purged rows per entity type
+	 */
+	public Map<Class<?>, Long> purgeAll() {
+
+		Map<Class<?>, Long> purged = new LinkedHashMap<>();
+		for (MybatisPersistentEntityImpl<?> entity : this.entityManager.getPersistentEntities()) {
+			if (this.isPurgeable(entity.getType())) {
+				purged.put(entity.getType(), this.purge(entity.getType()));
+			}
+		}
+		return purged;
+	}
+
+	/**
+	 * Purge the deleted rows of an entity.
+	 * @param domainType type of a {@link LogicDelete} entity with a single id
+	 * @return number of purged rows
+	 */
+	public long purge(Class<?> domainType) {
+
+		Assert.notNull(domainType, "Domain type must not be null!");
+
+		if (!this.isPurgeable(domainType)) {
+			throw new InvalidDataAccessApiUsageException(
+					"Cannot purge " + domainType.getName() + ", it is no logic delete entity with a single id!");
+		}
+
+		Configuration configuration = this.entityManager.getSqlSessionTemplate().getConfiguration();
+		String namespace = domainType.getName() + DOT;
+		long start = System.currentTimeMillis();
+		boolean archive = configuration.hasStatement(namespace + ARCHIVE_BY_IDS, false);
+		long purged = (!archive && configuration.hasStatement(namespace + PURGE_CHUNK, false))
+				? this.purgeByLimit(domainType, namespace) : this.purgeByKeyset(domainType, namespace, archive);
+
+		log.info("Purged " + purged + " logically deleted rows of " + domainType.getName() + " in "
+				+ (System.currentTimeMillis() - start) + " ms");
+		return purged;
+	}
+
+	private long purgeByLimit(Class<?> domainType, String namespace) {
+
+		SqlSessionTemplate template = this.entityManager.getSqlSessionTemplate();
+		long purged = 0;
+		int rows;
+		do {
+			MybatisContext<?, ?> context = this.context(domainType).setBindable(CHUNK, this.chunkSize);
+			rows = this.execute(() -> template.delete(namespace + PURGE_CHUNK, context));
+			purged += rows;
+		}
+		while (rows >= this.chunkSize && this.pause());
+
+		return purged;
+	}
+
+	private long purgeByKeyset(Class<?> domainType, String namespace, boolean archive) {
+
+		SqlSessionTemplate template = this.entityManager.getSqlSessionTemplate();
+		long purged = 0;
+		Object after = null;
+		List<Object> ids;
+		do {
+			MybatisContext<?, ?> context = this.context(domainType).setBindable(AFTER, after);
+			ids = template.selectList(namespace + PURGE_IDS, context);
+			if (ids.isEmpty()) {
+				break;
+			}
+
+			context.setBindable(IDS, ids);
+			purged += this.execute(() -> {
+				if (archive) {
+					template.insert(namespace + ARCHIVE_BY_IDS, context);
+				}
+				return template.delete(namespace + PURGE_BY_IDS, context);
+			});
+			after = ids.get(ids.size() - 1);
+		}
+		while (ids.size() >= this.chunkSize && this.pause());
+
+		return purged;
+	}
+
+	private boolean isPurgeable(Class<?> domainType) {
+
+		return this.entityManager.getSqlSessionTemplate().getConfiguration()
+				.hasStatement(domainType.getName() + DOT + PURGE_IDS, false);
+	}
+
+	private MybatisContext<?, ?> context(Class<?> domainType) {
+		return new MybatisContext<>(null, null, domainType, new Pageable(0, this.chunkSize), null, this.entityManager,
+				false);
+	}
+
+	private int execute(Supplier<Integer> chunk) {
+
+		if (null == this.transactionTemplate) {
+			return chunk.get();
+		}
+		Integer rows = this.transactionTemplate.execute(status -> chunk.get());
+		return null == rows ? 0 : rows;
+	}
+
+	private boolean pause() {
+
+		if (this.pause.isZero() || this.pause.isNegative()) {
+			return true;
+		}
+
+		try {
+			Thread.sleep(this.pause.toMillis());
+			return true;
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	public void setChunkSize(int chunkSize) {
+
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0!");
+
+		this.chunkSize = chunkSize;
+	}
+
+	public void setPause(Duration pause) {
+
+		Assert.notNull(pause, "Pause must not be null!");
+
+		this.pause = pause;
+	}
+
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+
+		Assert.notNull(transactionManager, "PlatformTransactionManager must not be null!");
+
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * Thrown when one or more entities of a batched versioned update failed the version
+ * check.
+ *
+ * @author Jarvis Song
+ */
+public class BatchOptimisticLockingFailureException extends OptimisticLockingFailureException {
+
+	private static final long serialVersionUID = 4213386370718927544L;
+
+	private final Class<?> domainType;
+
+	private final int batchSize;
+
+	private final transient List<?> failedEntities;
+
+	public BatchOptimisticLockingFailureException(Class<?> domainType, int batchSize, List<?> failedEntities) {
+
+		super(String.format("Optimistic locking failed for %d of %d %s entities in batch update!",
+				failedEntities.size(), batchSize, domainType.getName()));
+
+		this.domainType = domainType;
+		this.batchSize = batchSize;
+		this.failedEntities = Collections.unmodifiableList(failedEntities);
+	}
+
+	public Class<?> getDomainType() {
+		return this.domainType;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Entities whose version check failed, in the order they were passed to the batch.
+	 * @return failed entities
+	 */
+	public List<?> getFailedEntities() {
+		return this.failedEntities;
+	}
+
+}
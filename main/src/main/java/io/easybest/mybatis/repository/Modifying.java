@@ -53,4 +53,13 @@ public @interface Modifying {
 	 */
 	SqlCommandType value() default SqlCommandType.SELECT;
 
+	/**
+	 * Execute the statement in a JDBC batch, once per element of the parameters marked
+	 * with {@link BatchParameter}. The n-th statement is bound to the n-th element of
+	 * each of them and to the value of every other parameter. Such methods return the
+	 * update count of each statement as {@code int[]}, or nothing.
+	 * @return whether to execute the statement in a batch
+	 */
+	boolean batch() default false;
+
 }
@@ -85,6 +85,18 @@ public interface MybatisRepository<T, ID>
 
 	<S extends T> S updateSelective(ID id, S entity);
 
+	/**
+	 * Update all given entities in JDBC batches. Entities with a version property are
+	 * checked all together, and the versions are increased only when the whole batch
+	 * succeeds.
+	 * @param entities entities to update
+	 * @param <S> type
+	 * @return updated entities
+	 * @throws BatchOptimisticLockingFailureException when some entities failed the
+	 * version check
+	 */
+	<S extends T> List<S> updateAll(Iterable<S> entities);
+
 	void deleteAllInBatch(Iterable<T> entities);
 
 	void deleteAllByIdInBatch(Iterable<ID> ids);
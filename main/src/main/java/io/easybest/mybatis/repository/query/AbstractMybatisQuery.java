@@ -22,12 +22,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.persistence.Tuple;
 import javax.persistence.TupleElement;
 
+import org.apache.ibatis.session.SqlSession;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -37,11 +39,13 @@ import org.springframework.data.repository.query.ResultProcessor;
 import org.springframework.data.repository.query.ReturnedType;
 import org.springframework.data.util.Lazy;
 import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
 import io.easybest.mybatis.mapping.precompile.SqlDefinition;
+import io.easybest.mybatis.repository.query.MybatisQueryExecution.BatchModifyingExecution;
 import io.easybest.mybatis.repository.query.MybatisQueryExecution.CollectionExecution;
 import io.easybest.mybatis.repository.query.MybatisQueryExecution.ModifyingExecution;
 import io.easybest.mybatis.repository.query.MybatisQueryExecution.PagedExecution;
@@ -51,13 +55,14 @@ import io.easybest.mybatis.repository.query.MybatisQueryExecution.SlicedExecutio
 import io.easybest.mybatis.repository.query.MybatisQueryExecution.StreamExecution;
 import io.easybest.mybatis.repository.support.MybatisContext;
 import io.easybest.mybatis.repository.support.ResidentParameterName;
+import io.easybest.mybatis.sharding.Shards;
 
 /**
  * .
  *
  * @author Jarvis Song
  */
-abstract class AbstractMybatisQuery implements RepositoryQuery {
+public abstract class AbstractMybatisQuery implements RepositoryQuery {
 
 	protected final EntityManager entityManager;
 
@@ -69,6 +74,8 @@ abstract class AbstractMybatisQuery implements RepositoryQuery {
 
 	private final Function<MybatisParametersParameterAccessor, MybatisContext<?, ?>> parameterCallback;
 
+	private volatile DeferredStatements deferredStatements;
+
 	public AbstractMybatisQuery(EntityManager entityManager, MybatisQueryMethod method) {
 
 		Assert.notNull(method, "MybatisQueryMethod must not be null!");
@@ -82,12 +89,15 @@ abstract class AbstractMybatisQuery implements RepositoryQuery {
 
 		this.execution = Lazy.of(() -> {
 
-			if (method.isStreamQuery()) {
-				return new StreamExecution();
-			}
 			if (method.isProcedureQuery()) {
 				return new ProcedureExecution();
 			}
+			if (method.isBatchModifyingQuery()) {
+				return new BatchModifyingExecution(method);
+			}
+			if (method.isStreamQuery()) {
+				return new StreamExecution();
+			}
 			if (method.isCollectionQuery()) {
 				return new CollectionExecution();
 			}
@@ -98,7 +108,7 @@ abstract class AbstractMybatisQuery implements RepositoryQuery {
 				return new PagedExecution();
 			}
 			if (method.isModifyingQuery()) {
-				return new ModifyingExecution(method);
+				return new ModifyingExecution(method, this.isReturningModification());
 			}
 
 			return new SingleEntityExecution();
@@ -153,9 +163,48 @@ abstract class AbstractMybatisQuery implements RepositoryQuery {
 	@Nullable
 	public Object execute(Object[] parameters) {
 
+		this.compileIfNecessary();
+
+		if (this.method.isAsyncQuery()) {
+			return this.doAsyncExecution(this.getExecution(), parameters);
+		}
+
 		return this.doExecution(this.getExecution(), parameters);
 	}
 
+	/**
+	 * Create the context of the statement of this query for the given arguments,
+	 * completing a deferred compilation first. Used by executions that do not run on
+	 * the {@link org.mybatis.spring.SqlSessionTemplate}.
+	 * @param accessor parameter accessor
+	 * @return statement parameter
+	 */
+	public MybatisContext<?, ?> createContext(MybatisParametersParameterAccessor accessor) {
+
+		this.compileIfNecessary();
+
+		return this.parameterCallback.apply(accessor);
+	}
+
+	/**
+	 * Defer the compilation of this query method to its first invocation, registering
+	 * placeholders of its statements.
+	 */
+	void deferCompilation() {
+
+		DeferredStatements statements = new DeferredStatements(this);
+		statements.register();
+		this.deferredStatements = statements;
+	}
+
+	private void compileIfNecessary() {
+
+		DeferredStatements statements = this.deferredStatements;
+		if (null != statements) {
+			statements.compile();
+		}
+	}
+
 	@Nullable
 	private Object doExecution(MybatisQueryExecution execution, Object[] values) {
 
@@ -167,6 +216,28 @@ abstract class AbstractMybatisQuery implements RepositoryQuery {
 		return withDynamicProjection.processResult(result);
 	}
 
+	private CompletableFuture<Object> doAsyncExecution(MybatisQueryExecution execution, Object[] values) {
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+
+			// the SqlSession of the surrounding transaction is bound to this thread and its
+			// connection must not be shared with another one
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			try {
+				future.complete(this.doExecution(execution, values));
+			}
+			catch (RuntimeException ex) {
+				future.completeExceptionally(ex);
+			}
+			return future;
+		}
+
+		// without synchronization the SqlSessionTemplate opens and closes a session per
+		// statement on the executing thread
+		return CompletableFuture.supplyAsync(() -> this.doExecution(execution, values),
+				this.entityManager.getAsyncExecutor());
+	}
+
 	public Function<MybatisParametersParameterAccessor, MybatisContext<?, ?>> parameterCallback() {
 		return this.parameterCallback;
 	}
@@ -179,17 +250,40 @@ abstract class AbstractMybatisQuery implements RepositoryQuery {
 			return execution;
 		}
 
+		if (this.method.isBatchModifyingQuery()) {
+			return new BatchModifyingExecution(this.method);
+		}
 		if (this.method.isModifyingQuery()) {
-			return new ModifyingExecution(this.method);
+			return new ModifyingExecution(this.method, this.isReturningModification());
 		}
 
 		return new SingleEntityExecution();
 	}
 
+	/**
+	 * Whether the modifying statement returns the rows it touched, read as a query.
+	 * @return {@literal false} by default
+	 */
+	protected boolean isReturningModification() {
+		return false;
+	}
+
 	public EntityManager getEntityManager() {
 		return this.entityManager;
 	}
 
+	/**
+	 * The session the statements of this query run on, the sharded session if the
+	 * domain type has a {@link io.easybest.mybatis.annotation.ShardKey}.
+	 * @return session
+	 */
+	public SqlSession getSqlSession() {
+
+		Shards shards = this.entityManager.getShards();
+		SqlSession session = null == shards ? null : shards.getSession(this.entity);
+		return null != session ? session : this.entityManager.getSqlSessionTemplate();
+	}
+
 	static class TupleConverter implements Converter<Object, Object> {
 
 		private final ReturnedType type;
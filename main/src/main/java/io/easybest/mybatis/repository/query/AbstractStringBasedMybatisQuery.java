@@ -38,6 +38,7 @@ import org.springframework.util.StringUtils;
 
 import io.easybest.mybatis.auxiliary.Syntax;
 import io.easybest.mybatis.dialect.Dialect;
+import io.easybest.mybatis.dialect.DmlReturning;
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.precompile.Bind;
 import io.easybest.mybatis.mapping.precompile.Choose;
@@ -360,7 +361,13 @@ abstract class AbstractStringBasedMybatisQuery extends AbstractMybatisQuery {
 
 			Parameter.Builder parameterBuilder = Parameter.builder()
 					.property(PARAM_ADDITIONAL_VALUES_PREFIX + replacedParameter);
-			if (null != bindableParameter) {
+			if (null != bindableParameter && this.method.isBatchModifyingQuery()
+					&& bindableParameter.isBatchParameter()) {
+				// bound to one element per statement of the batch
+				parameterBuilder.javaType(bindableParameter.getElementType().getName())
+						.typeHandler(bindableParameter.getTypeHandler());
+			}
+			else if (null != bindableParameter) {
 				parameterBuilder.javaType(bindableParameter.getType().getName())
 						.jdbcType(bindableParameter.getJdbcType()).typeHandler(bindableParameter.getTypeHandler());
 			}
@@ -408,20 +415,51 @@ abstract class AbstractStringBasedMybatisQuery extends AbstractMybatisQuery {
 
 	}
 
-	private Delete delete() {
+	private SqlDefinition delete() {
 
 		// TODO logic delete?
 
+		if (this.isReturningModification()) {
+			return this.returning(SqlCommandType.DELETE);
+		}
+
 		return Delete.builder().id(this.method.getStatementName())
 				.contents(Collections.singletonList(this.settle(this.query))).build();
 	}
 
-	private Update update() {
+	private SqlDefinition update() {
+
+		if (this.isReturningModification()) {
+			return this.returning(SqlCommandType.UPDATE);
+		}
 
 		return Update.builder().id(this.method.getStatementName())
 				.contents(Collections.singletonList(this.settle(this.query))).build();
 	}
 
+	private Select returning(SqlCommandType type) {
+
+		DmlReturning returning = this.entityManager.getDialect().getDmlReturning();
+
+		return Select.builder().id(this.method.getStatementName())
+				.resultMap(this.method.getResultMap().orElse(ResidentStatementName.RESULT_MAP)).flushCache(true)
+				.contents(Collections.singletonList(returning.apply(type, this.settle(this.query).toString())))
+				.build();
+	}
+
+	@Override
+	protected boolean isReturningModification() {
+
+		SqlCommandType type = this.getSqlCommandType();
+
+		if ((SqlCommandType.UPDATE != type && SqlCommandType.DELETE != type)
+				|| this.method.getReturnedObjectType() != this.entity.getType()) {
+			return false;
+		}
+
+		return this.entityManager.getDialect().getDmlReturning().supports(type);
+	}
+
 	private Insert insert() {
 
 		return Insert.builder().id(this.method.getStatementName())
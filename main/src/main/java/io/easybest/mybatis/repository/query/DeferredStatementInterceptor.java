@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.query;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Replaces the placeholders of {@link DeferredStatements deferred statements} by the
+ * compiled ones, for statements looked up before their query method got compiled. Added
+ * after the other interceptors of the entity manager, so that they see the compiled
+ * statements. Interceptors added to the configuration later run before it and may still
+ * see a placeholder, of {@link org.apache.ibatis.mapping.SqlCommandType#UNKNOWN UNKNOWN}
+ * type, on the first invocation of a query method.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({ @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+						BoundSql.class }),
+		@Signature(type = Executor.class, method = "queryCursor",
+				args = { MappedStatement.class, Object.class, RowBounds.class }) })
+public class DeferredStatementInterceptor implements Interceptor {
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		Object[] args = invocation.getArgs();
+		args[0] = DeferredStatements.resolve((MappedStatement) args[0]);
+		return invocation.proceed();
+	}
+
+}
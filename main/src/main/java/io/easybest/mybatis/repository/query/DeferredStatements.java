@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.query;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.util.ReflectionUtils;
+
+import io.easybest.mybatis.mapping.precompile.MybatisAggregateRootPrecompile;
+
+/**
+ * The statements of a query method compiled on its first invocation.
+ * <p>
+ * Placeholders of the statements its SQL definition declares get registered when the
+ * repository gets created. On the first resolution of any of them the query method gets
+ * compiled into a configuration of its own, under the lock of this instance, and the
+ * compiled statements replace the placeholders in the shared configuration. Replacing
+ * the value of a registered id never changes the structure of the statement map read by
+ * the running statements. Placeholders looked up before, by a running statement or the
+ * {@link DeferredStatementInterceptor}, still resolve to the compiled statements.
+ *
+ * @author Jarvis Song
+ */
+public final class DeferredStatements {
+
+	private static final Field MAPPED_STATEMENTS;
+
+	static {
+		MAPPED_STATEMENTS = ReflectionUtils.findField(Configuration.class, "mappedStatements");
+		ReflectionUtils.makeAccessible(MAPPED_STATEMENTS);
+	}
+
+	private final AbstractMybatisQuery query;
+
+	private volatile Map<String, MappedStatement> statements;
+
+	DeferredStatements(AbstractMybatisQuery query) {
+		this.query = query;
+	}
+
+	/**
+	 * Register the placeholders of the statements the query method compiles into, unless
+	 * a mapper declares them.
+	 */
+	void register() {
+
+		Configuration configuration = this.getConfiguration();
+		for (String id : MybatisAggregateRootPrecompile.getStatementIds(this.query)) {
+			configuration.addMappedStatement(new MappedStatement.Builder(configuration, id,
+					new PlaceholderSqlSource(this, id), SqlCommandType.UNKNOWN)
+							.resource(this.query.getQueryMethod().toString()).build());
+		}
+	}
+
+	/**
+	 * Compile the query method, once, and replace its placeholders in the shared
+	 * configuration.
+	 * @return statements by id
+	 */
+	Map<String, MappedStatement> compile() {
+
+		Map<String, MappedStatement> compiled = this.statements;
+		if (null != compiled) {
+			return compiled;
+		}
+
+		synchronized (this) {
+			if (null == this.statements) {
+				compiled = MybatisAggregateRootPrecompile.compileDetached(this.query);
+				this.replacePlaceholders(compiled);
+				this.statements = compiled;
+			}
+			return this.statements;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void replacePlaceholders(Map<String, MappedStatement> compiled) {
+
+		Map<String, MappedStatement> registered = (Map<String, MappedStatement>) ReflectionUtils
+				.getField(MAPPED_STATEMENTS, this.getConfiguration());
+		for (MappedStatement ms : compiled.values()) {
+
+			MappedStatement placeholder = registered.get(ms.getId());
+			if (!this.isPlaceholder(placeholder)) {
+				// declared by a mapper
+				continue;
+			}
+
+			// the configuration registers statements by their short name too, unless it is
+			// ambiguous
+			registered.replace(ms.getId(), placeholder, ms);
+			registered.replace(ms.getId().substring(ms.getId().lastIndexOf('.') + 1), placeholder, ms);
+		}
+	}
+
+	private boolean isPlaceholder(MappedStatement ms) {
+
+		return null != ms && ms.getSqlSource() instanceof PlaceholderSqlSource
+				&& ((PlaceholderSqlSource) ms.getSqlSource()).statements == this;
+	}
+
+	private MappedStatement getStatement(String id) {
+
+		MappedStatement ms = this.compile().get(id);
+		if (null == ms) {
+			throw new MappingException(
+					"Query method " + this.query.getQueryMethod() + " does not generate statement " + id);
+		}
+		return ms;
+	}
+
+	private Configuration getConfiguration() {
+		return this.query.getEntityManager().getSqlSessionTemplate().getConfiguration();
+	}
+
+	/**
+	 * Resolve the statement to run for the given one, compiling the query method it
+	 * belongs to if the given one is a placeholder.
+	 * @param ms mapped statement
+	 * @return the given statement or the compiled one it stands for
+	 */
+	public static MappedStatement resolve(MappedStatement ms) {
+
+		if (!(ms.getSqlSource() instanceof PlaceholderSqlSource)) {
+			return ms;
+		}
+
+		PlaceholderSqlSource placeholder = (PlaceholderSqlSource) ms.getSqlSource();
+		return placeholder.statements.getStatement(placeholder.id);
+	}
+
+	private static final class PlaceholderSqlSource implements SqlSource {
+
+		private final DeferredStatements statements;
+
+		private final String id;
+
+		PlaceholderSqlSource(DeferredStatements statements, String id) {
+			this.statements = statements;
+			this.id = id;
+		}
+
+		@Override
+		public BoundSql getBoundSql(Object parameterObject) {
+			return this.statements.getStatement(this.id).getBoundSql(parameterObject);
+		}
+
+	}
+
+}
@@ -25,6 +25,7 @@ import javax.persistence.TemporalType;
 
 import org.apache.ibatis.type.JdbcType;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
 import org.springframework.data.mapping.MappingException;
 import org.springframework.data.repository.query.Parameter;
 import org.springframework.data.repository.query.Parameters;
@@ -33,7 +34,7 @@ import org.springframework.lang.Nullable;
 
 import io.easybest.mybatis.annotation.TypeHandler;
 import io.easybest.mybatis.mapping.TypeRegistry;
-import io.easybest.mybatis.mapping.handler.UUIDTypeHandler;
+import io.easybest.mybatis.repository.BatchParameter;
 import io.easybest.mybatis.repository.Temporal;
 
 /**
@@ -71,6 +72,10 @@ public class MybatisParameters extends Parameters<MybatisParameters, MybatisPara
 
 		private final Lazy<Class<?>> typeHandler;
 
+		private final Lazy<Class<?>> elementType;
+
+		private final boolean batchParameter;
+
 		/**
 		 * Creates a new {@link Parameter} for the given {@link MethodParameter}.
 		 * @param parameter must not be {@literal null}.
@@ -87,6 +92,12 @@ public class MybatisParameters extends Parameters<MybatisParameters, MybatisPara
 						Temporal.class.getSimpleName() + " annotation is only allowed on Date parameter!");
 			}
 
+			this.batchParameter = parameter.hasParameterAnnotation(BatchParameter.class);
+			if (this.batchParameter && !this.isMultiValued()) {
+				throw new IllegalArgumentException(BatchParameter.class.getSimpleName()
+						+ " annotation is only allowed on array or Iterable parameter!");
+			}
+
 			this.jdbcType = Lazy.of(() -> {
 				io.easybest.mybatis.annotation.JdbcType jdbcTypeAnn = parameter
 						.getParameterAnnotation(io.easybest.mybatis.annotation.JdbcType.class);
@@ -105,6 +116,10 @@ public class MybatisParameters extends Parameters<MybatisParameters, MybatisPara
 						return JdbcType.TIMESTAMP;
 					}
 				}
+				if (parameter.getParameterType() == UUID.class) {
+					// left to the type handler the dialect registered
+					return null;
+				}
 				return TypeRegistry.convert(parameter.getParameterType()).orElse(null);
 			});
 			this.typeHandler = Lazy.of(() -> {
@@ -120,10 +135,47 @@ public class MybatisParameters extends Parameters<MybatisParameters, MybatisPara
 					}
 				}
 				if (this.getType() == UUID.class) {
-					return UUIDTypeHandler.class;
+					io.easybest.mybatis.annotation.JdbcType jdbcTypeAnn = parameter
+							.getParameterAnnotation(io.easybest.mybatis.annotation.JdbcType.class);
+					return null == jdbcTypeAnn ? null
+							: TypeRegistry.typeHandler(null, UUID.class, JdbcType.forCode(jdbcTypeAnn.value()));
 				}
 				return null;
 			});
+			this.elementType = Lazy.of(() -> {
+				ResolvableType type = ResolvableType.forMethodParameter(parameter);
+				return (type.isArray() ? type.getComponentType() : type.as(Iterable.class).getGeneric(0))
+						.resolve(Object.class);
+			});
+		}
+
+		/**
+		 * Whether the parameter holds several values, an array other than binary or
+		 * character data, or an {@link Iterable}.
+		 * @return {@literal true} if it does
+		 */
+		public boolean isMultiValued() {
+
+			Class<?> type = this.getType();
+			return Iterable.class.isAssignableFrom(type)
+					|| (type.isArray() && !MybatisQueryMethod.NATIVE_ARRAY_TYPES.contains(type));
+		}
+
+		/**
+		 * Whether the parameter is a column of a batch query method, see
+		 * {@link BatchParameter}.
+		 * @return {@literal true} if it is
+		 */
+		public boolean isBatchParameter() {
+			return this.batchParameter;
+		}
+
+		/**
+		 * Type of the values of a {@link #isMultiValued() multi valued} parameter.
+		 * @return element type
+		 */
+		public Class<?> getElementType() {
+			return this.elementType.get();
 		}
 
 		public Class<?> getTypeHandler() {
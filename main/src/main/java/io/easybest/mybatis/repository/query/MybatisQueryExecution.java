@@ -16,11 +16,22 @@
 
 package io.easybest.mybatis.repository.query;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.StreamSupport;
 
 import javax.persistence.NoResultException;
 
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.SqlSession;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.ConfigurableConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
@@ -29,13 +40,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.repository.core.support.SurroundingTransactionDetectorMethodInterceptor;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.Streamable;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
 
+import io.easybest.mybatis.repository.query.MybatisParameters.MybatisParameter;
+import io.easybest.mybatis.repository.support.MybatisContext;
 import io.easybest.mybatis.repository.support.ResidentStatementName;
+import io.easybest.mybatis.repository.support.SqlSessionRepositorySupport;
+import io.easybest.mybatis.sharding.ShardedSqlSession;
 
 import static io.easybest.mybatis.repository.support.ResidentStatementName.QUERY_PREFIX;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.RETURNING_PREFIX;
 
 /**
  * .
@@ -63,10 +81,12 @@ public abstract class MybatisQueryExecution {
 		Assert.notNull(query, "AbstractMybatisQuery must not be null!");
 		Assert.notNull(accessor, "MybatisParametersParameterAccessor must not be null!");
 
+		MybatisQueryMethod queryMethod = query.getQueryMethod();
 		Object result;
 
 		try {
-			result = this.doExecute(query, accessor);
+			result = query.getEntityManager().getMetrics().recordQuery(queryMethod.getRepositoryInterface(),
+					queryMethod.getName(), queryMethod.getStatementId(), () -> this.doExecute(query, accessor));
 		}
 		catch (NoResultException ex) {
 			return null;
@@ -76,7 +96,6 @@ public abstract class MybatisQueryExecution {
 			return null;
 		}
 
-		MybatisQueryMethod queryMethod = query.getQueryMethod();
 		Class<?> requiredType = queryMethod.getReturnType();
 
 		if (ClassUtils.isAssignable(requiredType, void.class) || ClassUtils.isAssignableValue(requiredType, result)) {
@@ -110,12 +129,30 @@ public abstract class MybatisQueryExecution {
 	@Nullable
 	protected abstract Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor);
 
+	/**
+	 * Select the count or exists flag of a query method, merged over the shards of a
+	 * sharded entity.
+	 * @param query query method
+	 * @param context statement parameter
+	 * @return count or exists flag
+	 */
+	@Nullable
+	private static Object selectAggregate(AbstractMybatisQuery query, MybatisContext<?, ?> context) {
+
+		SqlSession session = query.getSqlSession();
+		String statementId = query.getQueryMethod().getStatementId();
+		if (session instanceof ShardedSqlSession) {
+			return ((ShardedSqlSession) session).selectAggregate(statementId, context);
+		}
+		return session.selectOne(statementId, context);
+	}
+
 	static class SingleEntityExecution extends MybatisQueryExecution {
 
 		@Override
 		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
 
-			return query.parameterCallback().andThen(context -> query.getEntityManager().getSqlSessionTemplate()
+			return query.parameterCallback().andThen(context -> query.getSqlSession()
 					.selectOne(query.getQueryMethod().getStatementId(), context)).apply(accessor);
 		}
 
@@ -123,25 +160,116 @@ public abstract class MybatisQueryExecution {
 
 	static class ModifyingExecution extends MybatisQueryExecution {
 
+		private final boolean returning;
+
 		public ModifyingExecution(MybatisQueryMethod method) {
+			this(method, false);
+		}
+
+		public ModifyingExecution(MybatisQueryMethod method, boolean returning) {
 
 			Class<?> returnType = method.getReturnType();
 
 			boolean isVoid = void.class.equals(returnType) || Void.class.equals(returnType);
 			boolean isInt = int.class.equals(returnType) || Integer.class.equals(returnType);
 
-			Assert.isTrue(isInt || isVoid, "Modifying queries can only use void or int/Integer as return type!");
+			Assert.isTrue(isInt || isVoid || returning,
+					"Modifying queries can only use void or int/Integer as return type!");
+
+			this.returning = returning && !isInt && !isVoid;
 		}
 
 		@Override
 		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
 
-			return query.parameterCallback().andThen(context -> query.getEntityManager().getSqlSessionTemplate()
+			if (this.returning) {
+				return query.parameterCallback().andThen(context -> query.getSqlSession()
+						.selectOne(query.getQueryMethod().getStatementId(), context)).apply(accessor);
+			}
+
+			return query.parameterCallback().andThen(context -> query.getSqlSession()
 					.update(query.getQueryMethod().getStatementId(), context)).apply(accessor);
 		}
 
 	}
 
+	static class BatchModifyingExecution extends MybatisQueryExecution {
+
+		private final boolean counts;
+
+		BatchModifyingExecution(MybatisQueryMethod method) {
+
+			Class<?> returnType = method.getReturnType();
+
+			boolean isVoid = void.class.equals(returnType) || Void.class.equals(returnType);
+
+			Assert.isTrue(isVoid || int[].class.equals(returnType),
+					"Batch modifying queries can only use void or int[] as return type!");
+
+			this.counts = !isVoid;
+		}
+
+		@Override
+		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
+
+			MybatisQueryMethod method = query.getQueryMethod();
+			Object[] values = accessor.getValues();
+
+			// one column of values per batch parameter, one row per statement
+			Map<Integer, List<?>> columns = new LinkedHashMap<>();
+			int rows = 1;
+			for (MybatisParameter parameter : method.getParameters().getBindableParameters()) {
+
+				if (!parameter.isBatchParameter()) {
+					continue;
+				}
+
+				Object value = values[parameter.getIndex()];
+				List<?> column = null == value ? Collections.emptyList()
+						: value instanceof Iterable ? Streamable.of((Iterable<?>) value).toList()
+								: CollectionUtils.arrayToList(value);
+				if (!columns.isEmpty() && rows != column.size()) {
+					throw new InvalidDataAccessApiUsageException(String.format(
+							"Batch parameters of %s must have the same number of elements!", method.getName()));
+				}
+				rows = column.size();
+				columns.put(parameter.getIndex(), column);
+			}
+
+			List<Object> contexts = new ArrayList<>(rows);
+			for (int i = 0; i < rows; i++) {
+
+				Object[] row = values.clone();
+				for (Map.Entry<Integer, List<?>> column : columns.entrySet()) {
+					row[column.getKey()] = column.getValue().get(i);
+				}
+				contexts.add(
+						query.createContext(new MybatisParametersParameterAccessor(accessor.getParameters(), row)));
+			}
+
+			String statementId = method.getStatementId();
+			SqlSession session = query.getSqlSession();
+			List<BatchResult> results = session instanceof ShardedSqlSession
+					? ((ShardedSqlSession) session).updateInBatch(statementId, contexts)
+					: SqlSessionRepositorySupport.executeInBatch(query.getEntityManager().getSqlSessionTemplate(),
+							batch -> contexts.forEach(context -> batch.update(statementId, context)));
+
+			if (!this.counts) {
+				return null;
+			}
+
+			// the batches of a sharded session are grouped by shard
+			Map<Object, Integer> counts = new IdentityHashMap<>();
+			for (BatchResult result : results) {
+				for (int i = 0; i < result.getUpdateCounts().length; i++) {
+					counts.put(result.getParameterObjects().get(i), result.getUpdateCounts()[i]);
+				}
+			}
+			return contexts.stream().mapToInt(context -> counts.getOrDefault(context, 0)).toArray();
+		}
+
+	}
+
 	static class StreamExecution extends MybatisQueryExecution {
 
 		private static final String NO_SURROUNDING_TRANSACTION = "You're trying to execute a streaming query method without a surrounding transaction that keeps the connection open so that the Stream can actually be consumed. Make sure the code consuming the stream uses @Transactional or any other way of declaring a (read-only) transaction.";
@@ -154,7 +282,7 @@ public abstract class MybatisQueryExecution {
 			}
 
 			return query.parameterCallback()
-					.andThen(context -> query.getEntityManager().getSqlSessionTemplate()
+					.andThen(context -> query.getSqlSession()
 							.selectList(query.getQueryMethod().getStatementId(), context))
 					.andThen(Collection::stream).apply(accessor);
 		}
@@ -168,12 +296,57 @@ public abstract class MybatisQueryExecution {
 		@Override
 		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
 
-			if (!SurroundingTransactionDetectorMethodInterceptor.INSTANCE.isSurroundingTransactionActive()) {
-				throw new InvalidDataAccessApiUsageException(NO_SURROUNDING_TRANSACTION);
+			ProcedureMybatisQuery procedure = (ProcedureMybatisQuery) query;
+			MybatisQueryMethod method = query.getQueryMethod();
+			SqlSession session = query.getSqlSession();
+			String statementId = method.getStatementId();
+			MybatisContext<?, ?> context = query.parameterCallback().apply(accessor);
+
+			if (method.isStreamQuery() || Cursor.class.isAssignableFrom(method.getReturnType())) {
+
+				if (!SurroundingTransactionDetectorMethodInterceptor.INSTANCE.isSurroundingTransactionActive()) {
+					throw new InvalidDataAccessApiUsageException(NO_SURROUNDING_TRANSACTION);
+				}
+
+				// REF CURSOR output parameters are streamed by the RefCursorInterceptor
+				Cursor<Object> cursor = session.selectCursor(statementId, context);
+				if (!method.isStreamQuery()) {
+					return cursor;
+				}
+				return StreamSupport.stream(cursor.spliterator(), false).onClose(() -> {
+					try {
+						cursor.close();
+					}
+					catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				});
 			}
 
-			// TODO
-			return null;
+			if (procedure.isRefCursor()) {
+
+				// MyBatis maps the rows of the REF CURSOR into the output parameter
+				session.selectList(statementId, context);
+				List<?> rows = (List<?>) context.getAdditionalValues().get(procedure.getOutputParameterName());
+				if (method.isCollectionQuery()) {
+					return rows;
+				}
+				return CollectionUtils.isEmpty(rows) ? null : rows.get(0);
+			}
+
+			if (procedure.hasOutputParameter()) {
+				session.update(statementId, context);
+				return context.getAdditionalValues().get(procedure.getOutputParameterName());
+			}
+
+			Class<?> returnType = method.getReturnType();
+			if (void.class.equals(returnType) || Void.class.equals(returnType)) {
+				session.update(statementId, context);
+				return null;
+			}
+
+			return method.isCollectionQuery() ? session.selectList(statementId, context)
+					: session.selectOne(statementId, context);
 		}
 
 	}
@@ -183,32 +356,52 @@ public abstract class MybatisQueryExecution {
 		@Override
 		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
 
-			return query.parameterCallback().andThen(context -> query.getEntityManager().getSqlSessionTemplate()
-					.selectOne(query.getQueryMethod().getStatementId(), context)).apply(accessor);
+			return query.parameterCallback().andThen(context -> selectAggregate(query, context)).apply(accessor);
+		}
+
+	}
+
+	static class CountExecution extends MybatisQueryExecution {
+
+		@Override
+		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
+
+			return query.parameterCallback().andThen(context -> selectAggregate(query, context)).apply(accessor);
 		}
 
 	}
 
 	static class DeleteExecution extends MybatisQueryExecution {
 
+		private final boolean returning;
+
+		DeleteExecution(boolean returning) {
+			this.returning = returning;
+		}
+
 		@Override
 		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
 
 			MybatisQueryMethod method = query.getQueryMethod();
 
+			if (this.returning) {
+				return query.parameterCallback()
+						.andThen(context -> query.getSqlSession().selectList(
+								method.getNamespace() + '.' + RETURNING_PREFIX + method.getStatementName(), context))
+						.apply(accessor);
+			}
+
 			List<?> result = null;
 
 			if (method.isCollectionQuery()) {
 				result = query.parameterCallback()
-						.andThen(context -> query.getEntityManager().getSqlSessionTemplate().selectList(
+						.andThen(context -> query.getSqlSession().selectList(
 								method.getNamespace() + '.' + QUERY_PREFIX + method.getStatementName(), context))
 						.apply(accessor);
 			}
 
-			int affectRows = query.parameterCallback().andThen(context -> query.getEntityManager()
-					.getSqlSessionTemplate().delete(method.getStatementId(), context)).apply(accessor);
-
-			// TODO logic delete
+			int affectRows = query.parameterCallback()
+					.andThen(context -> query.getSqlSession().delete(method.getStatementId(), context)).apply(accessor);
 
 			return method.isCollectionQuery() ? result : affectRows;
 		}
@@ -223,7 +416,7 @@ public abstract class MybatisQueryExecution {
 			Pageable pageable = accessor.getPageable();
 			MybatisQueryMethod method = query.getQueryMethod();
 			return query.parameterCallback()
-					.andThen(context -> query.getEntityManager().getSqlSessionTemplate()
+					.andThen(context -> query.getSqlSession()
 							.selectList(pageable.isUnpaged() ? (method.getNamespace() + '.'
 									+ ResidentStatementName.UNPAGED_PREFIX + method.getStatementName())
 									: method.getStatementId(), context))
@@ -236,7 +429,7 @@ public abstract class MybatisQueryExecution {
 
 			MybatisQueryMethod method = query.getQueryMethod();
 			return (long) query.parameterCallback()
-					.andThen(context -> query.getEntityManager().getSqlSessionTemplate()
+					.andThen(context -> query.getSqlSession()
 							.selectOne(method.getNamespace() + '.' + method.getCountStatementName(), context))
 					.apply(accessor);
 		}
@@ -257,7 +450,7 @@ public abstract class MybatisQueryExecution {
 					context.getPageable().setSize(pageable.getPageSize() + 1);
 				}
 
-				return query.getEntityManager().getSqlSessionTemplate()
+				return query.getSqlSession()
 						.selectList(pageable.isUnpaged() ? (method.getNamespace() + '.'
 								+ ResidentStatementName.UNPAGED_PREFIX + method.getStatementName())
 								: method.getStatementId(), context);
@@ -276,7 +469,7 @@ public abstract class MybatisQueryExecution {
 		@Override
 		protected Object doExecute(AbstractMybatisQuery query, MybatisParametersParameterAccessor accessor) {
 
-			return query.parameterCallback().andThen(context -> query.getEntityManager().getSqlSessionTemplate()
+			return query.parameterCallback().andThen(context -> query.getSqlSession()
 					.selectList(query.getQueryMethod().getStatementId(), context)).apply(accessor);
 		}
 
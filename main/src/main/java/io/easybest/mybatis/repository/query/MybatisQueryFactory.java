@@ -51,8 +51,7 @@ public enum MybatisQueryFactory {
 
 		// procedure query
 		if (method.isProcedureQuery()) {
-			// TODO
-			return null;
+			return new ProcedureMybatisQuery(entityManager, method);
 		}
 
 		// Named query from properties
@@ -38,22 +38,45 @@ public enum MybatisQueryIntendListener implements QueryCreationListener<Reposito
 	@Override
 	public void onCreation(@NonNull RepositoryQuery query) {
 
-		if (query instanceof IndicatingMybatisQuery) {
-			MybatisAggregateRootPrecompile.compile((IndicatingMybatisQuery) query);
+		if (query instanceof MapperedMybatisQuery) {
+			// don't have to do anything
 			return;
 		}
 
-		if (query instanceof PartTreeMybatisQuery) {
-			MybatisAggregateRootPrecompile.compile((PartTreeMybatisQuery) query);
+		if (!(query instanceof IndicatingMybatisQuery) && !(query instanceof PartTreeMybatisQuery)
+				&& !(query instanceof ProcedureMybatisQuery)) {
+			throw new MappingException("Unsupported query " + query.getClass() + ", " + query.getQueryMethod());
+		}
+
+		AbstractMybatisQuery mybatisQuery = (AbstractMybatisQuery) query;
+
+		switch (mybatisQuery.getEntityManager().getQueryCompilationMode()) {
+		case LAZY_STRICT:
+			mybatisQuery.deferCompilation();
+			// parsed to fail on startup, the statements get compiled again when first used
+			MybatisAggregateRootPrecompile.compileDetached(mybatisQuery);
+			break;
+		case LAZY:
+			mybatisQuery.deferCompilation();
+			break;
+		default:
+			compile(mybatisQuery);
+		}
+	}
+
+	private static void compile(AbstractMybatisQuery query) {
+
+		if (query instanceof IndicatingMybatisQuery) {
+			MybatisAggregateRootPrecompile.compile((IndicatingMybatisQuery) query);
 			return;
 		}
 
-		if (query instanceof MapperedMybatisQuery) {
-			// don't have to do anything
+		if (query instanceof ProcedureMybatisQuery) {
+			MybatisAggregateRootPrecompile.compile((ProcedureMybatisQuery) query);
 			return;
 		}
 
-		throw new MappingException("Unsupported query " + query.getClass() + ", " + query.getQueryMethod());
+		MybatisAggregateRootPrecompile.compile((PartTreeMybatisQuery) query);
 	}
 
 }
@@ -25,6 +25,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 
 import org.apache.ibatis.mapping.SqlCommandType;
@@ -36,6 +38,7 @@ import org.springframework.data.repository.query.Parameter;
 import org.springframework.data.repository.query.Parameters;
 import org.springframework.data.repository.query.QueryMethod;
 import org.springframework.data.repository.util.QueryExecutionConverters;
+import org.springframework.data.repository.util.ReactiveWrappers;
 import org.springframework.data.util.Lazy;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.lang.Nullable;
@@ -48,6 +51,7 @@ import io.easybest.mybatis.repository.Modifying;
 import io.easybest.mybatis.repository.Query;
 import io.easybest.mybatis.repository.ResultMap;
 import io.easybest.mybatis.repository.ResultType;
+import io.easybest.mybatis.repository.query.MybatisParameters.MybatisParameter;
 import io.easybest.mybatis.repository.support.ResidentStatementName;
 
 /**
@@ -57,7 +61,7 @@ import io.easybest.mybatis.repository.support.ResidentStatementName;
  */
 public class MybatisQueryMethod extends QueryMethod {
 
-	private static final Set<Class<?>> NATIVE_ARRAY_TYPES;
+	static final Set<Class<?>> NATIVE_ARRAY_TYPES;
 
 	static {
 
@@ -72,6 +76,8 @@ public class MybatisQueryMethod extends QueryMethod {
 
 	private final Method method;
 
+	private final Class<?> repositoryInterface;
+
 	private final Class<?> returnType;
 
 	private final Lazy<Modifying> modifying;
@@ -82,6 +88,8 @@ public class MybatisQueryMethod extends QueryMethod {
 
 	private final Lazy<Boolean> isBasicQuery;
 
+	private final boolean isAsyncQuery;
+
 	private final Lazy<String> resultMap;
 
 	private final Lazy<Class<?>> resultType;
@@ -102,12 +110,14 @@ public class MybatisQueryMethod extends QueryMethod {
 		Assert.notNull(method, "Method must not be null!");
 
 		this.method = method;
+		this.repositoryInterface = metadata.getRepositoryInterface();
 		this.returnType = potentiallyUnwrapReturnTypeFor(metadata, method);
 		this.modifying = Lazy.of(() -> AnnotatedElementUtils.findMergedAnnotation(method, Modifying.class));
 		this.isCollectionQuery = Lazy
 				.of(() -> super.isCollectionQuery() && !NATIVE_ARRAY_TYPES.contains(this.returnType));
 		this.isProcedureQuery = Lazy.of(() -> null != AnnotationUtils.findAnnotation(method, Procedure.class));
 		this.isBasicQuery = Lazy.of(() -> null != AnnotationUtils.findAnnotation(method, BasicQuery.class));
+		this.isAsyncQuery = method.getReturnType() == Future.class || method.getReturnType() == CompletableFuture.class;
 		this.entityMetadata = Lazy.of(() -> new DefaultMybatisEntityMetadata<>(
 				entityManager.getRequiredPersistentEntity(this.getDomainClass())));
 
@@ -122,6 +132,11 @@ public class MybatisQueryMethod extends QueryMethod {
 
 		Assert.isTrue(!(this.isModifyingQuery() && this.getParameters().hasSpecialParameter()),
 				String.format("Modifying method must not contain %s!", Parameters.TYPES));
+		Assert.isTrue(!this.isBatchModifyingQuery()
+				|| this.getParameters().stream().anyMatch(MybatisParameter::isBatchParameter),
+				String.format("Batch modifying method must have a @BatchParameter! Offending method: %s", method));
+		Assert.isTrue(!(this.isAsyncQuery && this.isStreamQuery()),
+				String.format("Stream query method must not return a Future! Offending method: %s", method));
 		this.assertParameterNamesInAnnotatedQuery();
 
 		this.namespace = this.getAnnotationStringValue("namespace", this.getDomainClass().getName());
@@ -142,7 +157,8 @@ public class MybatisQueryMethod extends QueryMethod {
 		TypeInformation<?> returnType = metadata.getReturnType(method);
 
 		while (QueryExecutionConverters.supports(returnType.getType())
-				|| QueryExecutionConverters.supportsUnwrapping(returnType.getType())) {
+				|| QueryExecutionConverters.supportsUnwrapping(returnType.getType())
+				|| ReactiveWrappers.supports(returnType.getType())) {
 			returnType = returnType.getRequiredComponentType();
 		}
 
@@ -182,6 +198,15 @@ public class MybatisQueryMethod extends QueryMethod {
 		return null != this.modifying.getNullable();
 	}
 
+	/**
+	 * Whether the modifying query is executed in a JDBC batch, see
+	 * {@link Modifying#batch()}.
+	 * @return {@literal true} if it is
+	 */
+	public boolean isBatchModifyingQuery() {
+		return this.isModifyingQuery() && this.modifying.get().batch();
+	}
+
 	public SqlCommandType getModifyingType() {
 
 		if (!this.isModifyingQuery()) {
@@ -334,10 +359,24 @@ public class MybatisQueryMethod extends QueryMethod {
 		return this.isProcedureQuery.get();
 	}
 
+	@Nullable
+	Procedure getProcedure() {
+		return AnnotatedElementUtils.findMergedAnnotation(this.method, Procedure.class);
+	}
+
 	public boolean isBasicQuery() {
 		return this.isBasicQuery.get();
 	}
 
+	/**
+	 * Whether the method returns a {@link Future} or {@link CompletableFuture} and is
+	 * executed on the {@link EntityManager#getAsyncExecutor() async executor}.
+	 * @return async or not
+	 */
+	public boolean isAsyncQuery() {
+		return this.isAsyncQuery;
+	}
+
 	public Optional<String> getResultMap() {
 		return this.resultMap.getOptional();
 	}
@@ -351,6 +390,10 @@ public class MybatisQueryMethod extends QueryMethod {
 		return this.entityMetadata.get();
 	}
 
+	public Class<?> getRepositoryInterface() {
+		return this.repositoryInterface;
+	}
+
 	public String getNamespace() {
 		return this.namespace;
 	}
@@ -19,18 +19,24 @@ package io.easybest.mybatis.repository.query;
 import java.util.Arrays;
 import java.util.Collections;
 
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.query.parser.Part;
 import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
 
+import io.easybest.mybatis.annotation.TablePartition;
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.precompile.Parameter;
 import io.easybest.mybatis.mapping.precompile.Placeholder;
 import io.easybest.mybatis.mapping.precompile.SQL;
 import io.easybest.mybatis.mapping.precompile.Select;
 import io.easybest.mybatis.mapping.precompile.SqlDefinition;
+import io.easybest.mybatis.partition.PartitionKeys;
+import io.easybest.mybatis.partition.TablePartitionInterceptor;
 import io.easybest.mybatis.repository.query.MybatisParameters.MybatisParameter;
+import io.easybest.mybatis.repository.query.MybatisQueryExecution.CountExecution;
 import io.easybest.mybatis.repository.query.MybatisQueryExecution.DeleteExecution;
 import io.easybest.mybatis.repository.query.MybatisQueryExecution.ExistsExecution;
 import io.easybest.mybatis.repository.query.criteria.DefaultCriteriaQuery;
@@ -44,6 +50,7 @@ import io.easybest.mybatis.repository.support.ResidentStatementName;
 
 import static io.easybest.mybatis.repository.support.MybatisContext.PARAM_ADDITIONAL_VALUES_PREFIX;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.QUERY_PREFIX;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.RETURNING_PREFIX;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UNPAGED_PREFIX;
 
 /**
@@ -57,6 +64,9 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 
 	private final MybatisParameters parameters;
 
+	@Nullable
+	private final String partitionKey;
+
 	public PartTreeMybatisQuery(EntityManager entityManager, MybatisQueryMethod method) {
 
 		super(entityManager, method);
@@ -74,6 +84,13 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 					String.format("Failed to create query for method %s! %s", method, ex.getMessage()), ex);
 		}
 
+		TablePartition partition = this.entity.findAnnotation(TablePartition.class);
+		this.partitionKey = null == partition ? null : partition.property();
+
+	}
+
+	public boolean isDeleteQuery() {
+		return this.tree.isDelete();
 	}
 
 	@Override
@@ -119,6 +136,13 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 			}
 		}
 
+		if (null != this.partitionKey) {
+			PartitionKeys keys = this.partitionKeys(accessor);
+			if (null != keys) {
+				context.setBindable(TablePartitionInterceptor.KEYS, keys);
+			}
+		}
+
 		if (this.tree.isLimiting() && null != this.tree.getMaxResults()) {
 
 			int maxResults = this.tree.getMaxResults();
@@ -139,6 +163,56 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 
 	}
 
+	/**
+	 * The partition keys the criteria restrict the query to. Only a tree without
+	 * {@code Or} parts restricts the keys, by the conjunction of its parts.
+	 */
+	@Nullable
+	private PartitionKeys partitionKeys(MybatisParametersParameterAccessor accessor) {
+
+		if (this.tree.stream().count() != 1) {
+			return null;
+		}
+
+		PartitionKeys keys = null;
+		int index = 0;
+		for (Part part : this.tree.getParts()) {
+
+			PartitionKeys restriction = null;
+			if (this.partitionKey.equals(part.getProperty().toDotPath())) {
+				switch (part.getType()) {
+				case SIMPLE_PROPERTY:
+				case IN:
+					Object value = accessor.getBindableValue(index);
+					restriction = null == value ? null : PartitionKeys.of(value);
+					break;
+				case BETWEEN:
+					restriction = PartitionKeys.between(accessor.getBindableValue(index),
+							accessor.getBindableValue(index + 1));
+					break;
+				case GREATER_THAN:
+				case GREATER_THAN_EQUAL:
+				case AFTER:
+					restriction = PartitionKeys.between(accessor.getBindableValue(index), null);
+					break;
+				case LESS_THAN:
+				case LESS_THAN_EQUAL:
+				case BEFORE:
+					restriction = PartitionKeys.between(null, accessor.getBindableValue(index));
+					break;
+				default:
+					break;
+				}
+			}
+
+			if (null != restriction) {
+				keys = null == keys ? restriction : keys.and(restriction);
+			}
+			index += part.getNumberOfArguments();
+		}
+		return keys;
+	}
+
 	private SqlDefinition collection() {
 
 		return this.createQueryCreator().createQuery().binding().presupposed(this.entityManager, this.entity,
@@ -231,14 +305,15 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 
 	private SqlDefinition delete() {
 
-		ParameterMetadataProvider provider = new ParameterMetadataProvider(this.entityManager,
-				this.method.getParameters());
-		DefaultDeleteQuery<?, ParamValue> query = DeleteQuery.create(this.entity.getType());
-		PartTreeQueryCreator<? extends DefaultDeleteQuery<?, ParamValue>> creator = new PartTreeQueryCreator<>(
-				this.tree, provider, query);
-
 		Select derived = null;
-		if (this.method.isCollectionQuery()) {
+		if (this.isReturningDelete()) {
+
+			derived = this.createDeleteQueryCreator().createQuery().returning(this.entityManager, this.entity,
+					RETURNING_PREFIX + this.method.getStatementName(),
+					this.method.getResultMap().orElse(ResidentStatementName.RESULT_MAP),
+					pv -> Parameter.of(PARAM_ADDITIONAL_VALUES_PREFIX + pv.getName(), pv));
+		}
+		else if (this.method.isCollectionQuery()) {
 			ParameterMetadataProvider criteriaProvider = new ParameterMetadataProvider(this.entityManager,
 					this.method.getParameters());
 			DefaultCriteriaQuery<?, ParamValue> criteriaQuery = io.easybest.mybatis.repository.query.criteria.CriteriaQuery
@@ -252,11 +327,37 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 					pv -> Parameter.of(PARAM_ADDITIONAL_VALUES_PREFIX + pv.getName(), pv), true);
 		}
 
-		return creator.createQuery().presupposed(this.entityManager, this.entity, this.method.getStatementName(), null,
+		return this.createDeleteQueryCreator().createQuery().presupposed(this.entityManager, this.entity,
+				this.method.getStatementName(), null,
 				pv -> Parameter.of(PARAM_ADDITIONAL_VALUES_PREFIX + pv.getName(), pv),
 				derived == null ? null : Collections.singletonList(derived));
 	}
 
+	private PartTreeQueryCreator<? extends DefaultDeleteQuery<?, ParamValue>> createDeleteQueryCreator() {
+
+		ParameterMetadataProvider provider = new ParameterMetadataProvider(this.entityManager,
+				this.method.getParameters());
+		DefaultDeleteQuery<?, ParamValue> query = DeleteQuery.create(this.entity.getType());
+		return new PartTreeQueryCreator<>(this.tree, provider, query);
+	}
+
+	/**
+	 * Whether the removed entities are read back by the delete statement itself rather
+	 * than by a select issued before it.
+	 * @return {@literal true} if the dialect can return removed rows
+	 */
+	private boolean isReturningDelete() {
+
+		if (!this.method.isCollectionQuery() || this.method.getResultType().isPresent()
+				|| (!this.method.getResultMap().isPresent() && this.suitableToResultType())) {
+			return false;
+		}
+
+		return this.entityManager.getDialect().getDmlReturning()
+				.supports(this.entity.getLogicDeleteColumn().isPresent() ? SqlCommandType.UPDATE
+						: SqlCommandType.DELETE);
+	}
+
 	private SqlDefinition selectOne() {
 
 		return this.createQueryCreator().createQuery().presupposed(this.entityManager, this.entity,
@@ -268,13 +369,17 @@ public class PartTreeMybatisQuery extends AbstractMybatisQuery {
 	protected MybatisQueryExecution getExecution() {
 
 		if (this.tree.isDelete()) {
-			return new DeleteExecution();
+			return new DeleteExecution(this.isReturningDelete());
 		}
 
 		if (this.tree.isExistsProjection()) {
 			return new ExistsExecution();
 		}
 
+		if (this.tree.isCountProjection()) {
+			return new CountExecution();
+		}
+
 		return super.getExecution();
 	}
 
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.query;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.StatementType;
+import org.springframework.data.mapping.MappingException;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.TypeRegistry;
+import io.easybest.mybatis.mapping.precompile.Parameter;
+import io.easybest.mybatis.mapping.precompile.SQL;
+import io.easybest.mybatis.mapping.precompile.Segment;
+import io.easybest.mybatis.mapping.precompile.Select;
+import io.easybest.mybatis.mapping.precompile.SqlDefinition;
+import io.easybest.mybatis.repository.support.ResidentParameterName;
+import io.easybest.mybatis.repository.support.ResidentStatementName;
+
+import static io.easybest.mybatis.repository.support.MybatisContext.PARAM_ADDITIONAL_VALUES_PREFIX;
+
+/**
+ * {@link Procedure} query, compiled into a {@link StatementType#CALLABLE} statement.
+ *
+ * <ul>
+ * <li>with {@link Procedure#refCursor()} the rows are read from a REF CURSOR output
+ * parameter;</li>
+ * <li>otherwise a scalar return value is read from the output parameter, and an entity
+ * or collection return value from the result set returned by the procedure.</li>
+ * </ul>
+ *
+ * @author Jarvis Song
+ */
+public class ProcedureMybatisQuery extends AbstractMybatisQuery {
+
+	private static final String DEFAULT_OUTPUT_PARAMETER_NAME = "out";
+
+	private final String procedureName;
+
+	private final String outputParameterName;
+
+	private final boolean refCursor;
+
+	private final boolean outputParameter;
+
+	public ProcedureMybatisQuery(EntityManager entityManager, MybatisQueryMethod method) {
+
+		super(entityManager, method);
+
+		Procedure procedure = method.getProcedure();
+		Assert.notNull(procedure, "Method must be annotated with @Procedure!");
+
+		this.procedureName = StringUtils.hasText(procedure.procedureName()) ? procedure.procedureName()
+				: StringUtils.hasText(procedure.value()) ? procedure.value()
+						: StringUtils.hasText(procedure.name()) ? procedure.name() : method.getName();
+		this.outputParameterName = StringUtils.hasText(procedure.outputParameterName())
+				? procedure.outputParameterName() : DEFAULT_OUTPUT_PARAMETER_NAME;
+		this.refCursor = procedure.refCursor();
+
+		Class<?> returnType = method.getReturnType();
+		this.outputParameter = !this.refCursor && !void.class.equals(returnType) && !Void.class.equals(returnType)
+				&& !method.isCollectionQuery() && !method.isStreamQuery() && !Cursor.class.equals(returnType)
+				&& !method.isQueryForEntity();
+
+		if (this.outputParameter && !TypeRegistry.convert(returnType).isPresent()) {
+			throw new MappingException(String.format(
+					"Could not determine the JDBC type of output parameter %s for procedure method %s!",
+					this.outputParameterName, method));
+		}
+	}
+
+	@Override
+	protected SqlDefinition doCreateSqlDefinition() {
+
+		List<Segment> arguments = new ArrayList<>();
+		this.method.getParameters().getBindableParameters().forEach(parameter -> {
+
+			String key = parameter.isNamedParameter() ? parameter.getName().get()
+					: ResidentParameterName.POSITION_PREFIX + (parameter.getIndex() + 1);
+			arguments.add(Parameter.builder().property(PARAM_ADDITIONAL_VALUES_PREFIX + key)
+					.jdbcType(parameter.getJdbcType()).typeHandler(parameter.getTypeHandler()).mode(ParameterMode.IN)
+					.build());
+		});
+
+		if (this.refCursor) {
+			arguments.add(Parameter.builder().property(this.getOutputParameterProperty())
+					.javaTypeClass(ResultSet.class).jdbcType(this.entityManager.getDialect().getRefCursorJdbcType())
+					.mode(ParameterMode.OUT).resultMap(this.getQualifiedResultMap()).build());
+		}
+		else if (this.outputParameter) {
+			arguments.add(Parameter.builder().property(this.getOutputParameterProperty())
+					.jdbcType(TypeRegistry.convert(this.method.getReturnType()).get()).mode(ParameterMode.OUT)
+					.build());
+		}
+
+		String call = "{call " + this.procedureName + '(' + arguments.stream().map(Segment::toString)
+				.collect(Collectors.joining(",")) + ")}";
+
+		Select.Builder builder = Select.builder().id(this.method.getStatementName())
+				.statementType(StatementType.CALLABLE).contents(Collections.singletonList(SQL.of(call)));
+
+		if (this.method.getResultMap().isPresent() || this.method.getReturnedObjectType() == this.entity.getType()) {
+			builder.resultMap(this.method.getResultMap().orElse(ResidentStatementName.RESULT_MAP));
+		}
+		else if (!this.outputParameter && !this.refCursor && !void.class.equals(this.method.getReturnType())) {
+			builder.resultType(this.method.getActualResultType());
+		}
+
+		return builder.build();
+	}
+
+	private String getQualifiedResultMap() {
+
+		String resultMap = this.method.getResultMap().orElse(ResidentStatementName.RESULT_MAP);
+		return resultMap.contains(".") ? resultMap : this.method.getNamespace() + '.' + resultMap;
+	}
+
+	String getOutputParameterName() {
+		return this.outputParameterName;
+	}
+
+	String getOutputParameterProperty() {
+		return PARAM_ADDITIONAL_VALUES_PREFIX + this.outputParameterName;
+	}
+
+	boolean isRefCursor() {
+		return this.refCursor;
+	}
+
+	boolean hasOutputParameter() {
+		return this.outputParameter;
+	}
+
+}
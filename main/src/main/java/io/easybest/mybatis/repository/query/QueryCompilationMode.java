@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.query;
+
+/**
+ * When repository query methods get compiled into MyBatis mapped statements.
+ *
+ * @author Jarvis Song
+ */
+public enum QueryCompilationMode {
+
+	/**
+	 * Compile every query method when the repository gets created.
+	 */
+	EAGER,
+	/**
+	 * Compile a query method on its first invocation. Its SQL definition is generated
+	 * when the repository gets created, to register placeholders of the statements it
+	 * declares.
+	 */
+	LAZY,
+	/**
+	 * Like {@link #LAZY}, but also parse the mapper of a query method when the
+	 * repository gets created so that invalid query methods still fail on startup.
+	 */
+	LAZY_STRICT
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.query;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.logging.jdbc.ConnectionLogger;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * {@link Cursor} over the REF CURSOR output parameter of a callable statement. Rows are
+ * mapped one by one as the cursor is iterated, instead of being materialized into the
+ * output parameter by MyBatis. Closing the cursor closes the result set and the
+ * statement.
+ *
+ * @author Jarvis Song
+ * @param <T> element type
+ * @see RefCursorInterceptor
+ */
+final class RefCursor<T> implements Cursor<T> {
+
+	private final DefaultCursor<T> delegate;
+
+	private final Statement statement;
+
+	private RefCursor(DefaultCursor<T> delegate, Statement statement) {
+		this.delegate = delegate;
+		this.statement = statement;
+	}
+
+	/**
+	 * Position of the REF CURSOR output parameter of a callable statement.
+	 * @param boundSql bound sql
+	 * @return 1-based position, {@literal 0} if there is none
+	 */
+	static int indexOf(BoundSql boundSql) {
+
+		List<ParameterMapping> mappings = boundSql.getParameterMappings();
+		for (int i = 0; i < mappings.size(); i++) {
+			ParameterMapping mapping = mappings.get(i);
+			if (mapping.getMode() != ParameterMode.IN && ResultSet.class.equals(mapping.getJavaType())) {
+				return i + 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Execute the callable statement on the given executor and open a cursor over its
+	 * REF CURSOR output parameter. The statement handler gets created by the
+	 * configuration, with its plugins, and the rows are mapped with the executor, so
+	 * that nested selects and lazy loading run on the same session.
+	 * @param executor executor of the session
+	 * @param ms callable statement
+	 * @param parameter parameter object
+	 * @param rowBounds row bounds
+	 * @param boundSql bound sql
+	 * @param index position of the REF CURSOR output parameter
+	 * @param <T> element type
+	 * @return opened cursor
+	 * @throws SQLException if the statement fails
+	 */
+	static <T> Cursor<T> open(Executor executor, MappedStatement ms, Object parameter, RowBounds rowBounds,
+			BoundSql boundSql, int index) throws SQLException {
+
+		Configuration configuration = ms.getConfiguration();
+		ParameterMapping mapping = boundSql.getParameterMappings().get(index - 1);
+
+		executor.flushStatements();
+		StatementHandler handler = configuration.newStatementHandler(executor, ms, parameter, rowBounds, null,
+				boundSql);
+		Connection connection = executor.getTransaction().getConnection();
+		if (ms.getStatementLog().isDebugEnabled()) {
+			connection = ConnectionLogger.newInstance(connection, ms.getStatementLog(), 0);
+		}
+
+		Statement statement = null;
+		try {
+
+			statement = handler.prepare(connection, executor.getTransaction().getTimeout());
+			handler.parameterize(statement);
+			statement.execute();
+
+			ResultSet rs = (ResultSet) ((CallableStatement) statement).getObject(index);
+			DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(executor, ms,
+					handler.getParameterHandler(), null, boundSql, rowBounds);
+
+			return new RefCursor<>(new DefaultCursor<>(resultSetHandler,
+					configuration.getResultMap(mapping.getResultMapId()), new ResultSetWrapper(rs, configuration),
+					rowBounds), statement);
+		}
+		catch (SQLException | RuntimeException ex) {
+			closeQuietly(statement);
+			throw ex;
+		}
+	}
+
+	@Override
+	public boolean isOpen() {
+		return this.delegate.isOpen();
+	}
+
+	@Override
+	public boolean isConsumed() {
+		return this.delegate.isConsumed();
+	}
+
+	@Override
+	public int getCurrentIndex() {
+		return this.delegate.getCurrentIndex();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return this.delegate.iterator();
+	}
+
+	@Override
+	public void close() {
+
+		try {
+			this.delegate.close();
+		}
+		finally {
+			closeQuietly(this.statement);
+		}
+	}
+
+	private static void closeQuietly(Statement statement) {
+
+		if (null == statement) {
+			return;
+		}
+		try {
+			statement.close();
+		}
+		catch (SQLException ex) {
+			// ignore
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.query;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Streams the REF CURSOR output parameter of callable statements opened as a
+ * {@link org.apache.ibatis.cursor.Cursor}, which MyBatis would read into a list. Other
+ * callable statements stream the result set they return, as usual.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({ @Signature(type = Executor.class, method = "queryCursor",
+		args = { MappedStatement.class, Object.class, RowBounds.class }) })
+public class RefCursorInterceptor implements Interceptor {
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		Object[] args = invocation.getArgs();
+		MappedStatement ms = (MappedStatement) args[0];
+		if (ms.getStatementType() != StatementType.CALLABLE) {
+			return invocation.proceed();
+		}
+
+		BoundSql boundSql = ms.getBoundSql(args[1]);
+		int index = RefCursor.indexOf(boundSql);
+		if (0 == index) {
+			return invocation.proceed();
+		}
+
+		return RefCursor.open((Executor) invocation.getTarget(), ms, args[1], (RowBounds) args[2], boundSql, index);
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package io.easybest.mybatis.repository.query.criteria.impl;
 
+import java.util.Arrays;
 import java.util.function.Consumer;
 
 import org.springframework.data.mapping.MappingException;
@@ -23,7 +24,11 @@ import org.springframework.data.mapping.MappingException;
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
 import io.easybest.mybatis.mapping.precompile.Column;
+import io.easybest.mybatis.mapping.precompile.Parameter;
 import io.easybest.mybatis.mapping.precompile.SQL;
+import io.easybest.mybatis.mapping.precompile.Segment;
+import io.easybest.mybatis.mapping.precompile.Trim;
+import io.easybest.mybatis.mapping.precompile.Where;
 import io.easybest.mybatis.repository.query.criteria.Condition;
 import io.easybest.mybatis.repository.query.criteria.Conditions;
 import io.easybest.mybatis.repository.query.criteria.Operator;
@@ -32,6 +37,7 @@ import io.easybest.mybatis.repository.query.criteria.ParamValueCallback;
 import io.easybest.mybatis.repository.query.criteria.Predicate;
 import io.easybest.mybatis.repository.query.criteria.PredicateResult;
 import io.easybest.mybatis.repository.query.criteria.PredicateType;
+import io.easybest.mybatis.tenant.TenantInterceptor;
 
 import static io.easybest.mybatis.repository.query.criteria.Operator.AND;
 import static io.easybest.mybatis.repository.query.criteria.Operator.OR;
@@ -420,6 +426,27 @@ public class ConditionsImpl<T, R, F, V> implements Conditions<R, F, V> {
 		return SQL.of("AND " + col + " = 0");
 	}
 
+	/**
+	 * Where clause of a statement of the entity. The tenant of tenant scoped entities
+	 * leads the predicate as a bound parameter, followed by the other conditions in
+	 * parentheses.
+	 * @param entity entity
+	 * @param alias whether the statement aliases the table
+	 * @param conditions conditions
+	 * @return where clause
+	 */
+	protected Where where(MybatisPersistentEntityImpl<?> entity, boolean alias, Segment... conditions) {
+
+		if (!entity.getTenantColumn().isPresent()) {
+			return Where.of(conditions);
+		}
+
+		Column col = alias ? Column.base(entity.getTenantColumn().get()) : Column.of(entity.getTenantColumn().get());
+		return Where.of(SQL.of(col + " = " + Parameter.bindValue(TenantInterceptor.TENANT)), //
+				Trim.builder().prefix("AND (").suffix(")").prefixOverrides("AND |OR ")
+						.contents(Arrays.asList(conditions)).build());
+	}
+
 	@Override
 	public String toString() {
 		return "ConditionImpl";
@@ -45,7 +45,6 @@ import io.easybest.mybatis.mapping.precompile.SQL;
 import io.easybest.mybatis.mapping.precompile.Segment;
 import io.easybest.mybatis.mapping.precompile.Select;
 import io.easybest.mybatis.mapping.precompile.Sorting;
-import io.easybest.mybatis.mapping.precompile.Where;
 import io.easybest.mybatis.mapping.sql.SqlIdentifier;
 import io.easybest.mybatis.repository.query.criteria.ColumnResult;
 import io.easybest.mybatis.repository.query.criteria.Conditions;
@@ -391,7 +390,7 @@ public class CriteriaQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> im
 				alias ? Include.TABLE_NAME : Include.TABLE_NAME_PURE, //
 				bind ? Interpolation.of(SQLResult.PARAM_CONNECTOR_NAME) : SQL.EMPTY, //
 				(CollectionUtils.isEmpty(connectors) ? SQL.EMPTY : SQL.of(String.join(" ", connectors))), //
-				Where.of( //
+				this.where(entity, alias, //
 						bind ? Interpolation.of(SQLResult.PARAM_CONDITION_NAME) : SQL.EMPTY,
 						null == pr ? SQL.EMPTY : SQL.of(pr.getSql()), //
 						this.logicDeleteClause(entity, alias)//
@@ -17,18 +17,24 @@
 package io.easybest.mybatis.repository.query.criteria.impl;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.springframework.lang.Nullable;
+
+import io.easybest.mybatis.dialect.DmlReturning;
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
 import io.easybest.mybatis.mapping.precompile.Column;
+import io.easybest.mybatis.mapping.precompile.Composite;
 import io.easybest.mybatis.mapping.precompile.Delete;
 import io.easybest.mybatis.mapping.precompile.Include;
 import io.easybest.mybatis.mapping.precompile.SQL;
 import io.easybest.mybatis.mapping.precompile.Segment;
+import io.easybest.mybatis.mapping.precompile.Select;
 import io.easybest.mybatis.mapping.precompile.SqlDefinition;
 import io.easybest.mybatis.mapping.precompile.Update;
-import io.easybest.mybatis.mapping.precompile.Where;
 import io.easybest.mybatis.repository.query.criteria.DeleteQuery;
 import io.easybest.mybatis.repository.query.criteria.ParamValueCallback;
 import io.easybest.mybatis.repository.query.criteria.PredicateResult;
@@ -62,34 +68,69 @@ public class DeleteQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> impl
 	public SqlDefinition presupposed(EntityManager entityManager, MybatisPersistentEntityImpl<?> entity, String id,
 			String parameterType, ParamValueCallback callback, final List<? extends Segment> derived) {
 
-		Delete.Builder builder = Delete.builder().id(id);
+		if (entity.getLogicDeleteColumn().isPresent()) {
 
-		if (null != parameterType) {
-			builder.parameterType(parameterType);
+			return Update.builder().id(id).parameterType(parameterType).contents(Arrays.asList(//
+					this.statement(entity), //
+					this.conditions(entityManager, entity, callback))).derived(derived).build();
 		}
 
-		PredicateResult pr = this.toConditionSQL(entityManager, callback, true, false);
+		return Delete.builder().id(id).parameterType(parameterType).contents(Arrays.asList(//
+				this.statement(entity), //
+				this.conditions(entityManager, entity, callback))).derived(derived).build();
+
+	}
+
+	/**
+	 * Create a query removing the matched rows and returning them in one round trip.
+	 * @param entityManager entity manager
+	 * @param entity persistent entity
+	 * @param id statement id
+	 * @param resultMap result map of the returned rows
+	 * @param callback param value callback
+	 * @return select statement, {@literal null} if the dialect can not return removed
+	 * rows
+	 */
+	@Nullable
+	public Select returning(EntityManager entityManager, MybatisPersistentEntityImpl<?> entity, String id,
+			String resultMap, ParamValueCallback callback) {
+
+		DmlReturning returning = entityManager.getDialect().getDmlReturning();
+		SqlCommandType type = entity.getLogicDeleteColumn().isPresent() ? SqlCommandType.UPDATE
+				: SqlCommandType.DELETE;
+
+		if (!returning.supports(type)) {
+			return null;
+		}
+
+		return Select.builder().id(id).resultMap(resultMap).flushCache(true)
+				.contents(Collections.singletonList(returning.apply(type, this.statement(entity),
+						this.conditions(entityManager, entity, callback))))
+				.build();
+	}
+
+	private Segment statement(MybatisPersistentEntityImpl<?> entity) {
 
 		if (entity.getLogicDeleteColumn().isPresent()) {
 
 			Column col = Column.of(entity.getLogicDeleteColumn().get());
 
-			return Update.builder().id(id).parameterType(parameterType).contents(Arrays.asList(//
-					SQL.UPDATE, //
+			return Composite.of(SQL.UPDATE, //
 					Include.TABLE_NAME_PURE, //
-					io.easybest.mybatis.mapping.precompile.Set.of(SQL.of(col + " = 1")), //
-					Where.of(//
-							null == pr ? SQL.EMPTY : SQL.of(pr.getSql()) //
-					))).build();
+					io.easybest.mybatis.mapping.precompile.Set.of(SQL.of(col + " = 1")));
 		}
 
-		return Delete.builder().id(id).parameterType(parameterType).contents(Arrays.asList(//
-				SQL.DELETE_FROM, //
-				Include.TABLE_NAME_PURE, //
-				Where.of(//
-						null == pr ? SQL.EMPTY : SQL.of(pr.getSql()) //
-				))).derived(derived).build();
+		return Composite.of(SQL.DELETE_FROM, Include.TABLE_NAME_PURE);
+	}
+
+	private Segment conditions(EntityManager entityManager, MybatisPersistentEntityImpl<?> entity,
+			ParamValueCallback callback) {
+
+		PredicateResult pr = this.toConditionSQL(entityManager, callback, true, false);
 
+		return this.where(entity, false, //
+				null == pr ? SQL.EMPTY : SQL.of(pr.getSql()) //
+		);
 	}
 
 }
@@ -16,27 +16,22 @@
 
 package io.easybest.mybatis.repository.query.criteria.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
-import javax.persistence.SequenceGenerator;
-import javax.persistence.SequenceGenerators;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.mapping.PersistentPropertyPath;
-import org.springframework.util.StringUtils;
 
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
@@ -58,7 +53,6 @@ import static io.easybest.mybatis.mapping.precompile.Constant.COMMA;
 import static io.easybest.mybatis.mapping.precompile.Include.TABLE_NAME_PURE;
 import static io.easybest.mybatis.mapping.precompile.Insert.SelectKey.Order.AFTER;
 import static io.easybest.mybatis.mapping.precompile.Insert.SelectKey.Order.BEFORE;
-import static io.easybest.mybatis.mapping.precompile.MybatisMapperSnippet.DEFAULT_SEQUENCE_NAME;
 import static io.easybest.mybatis.repository.support.MybatisContext.PARAM_INSTANCE_PREFIX;
 
 /**
@@ -214,13 +208,64 @@ public class InsertQueryImpl<T, R, F, V> implements InsertQuery<R, F, V> {
 				Trim.builder().suffixOverrides(",").contents(columns).build(), SQL.of(") VALUES ("),
 				Trim.builder().suffixOverrides(",").contents(values).build(), SQL.of(")")));
 
-		if (this.selectKey) {
+		if (this.selectKey && !this.generatedKeys(builder, entityManager, entity)) {
 			builder.selectKey(this.selectKey(entityManager, entity));
 		}
 
 		return builder.build();
 	}
 
+	/**
+	 * Read database default values back through the generated keys of the insert, along
+	 * with an identity id as a statement has a single key generator.
+	 * @param builder insert builder
+	 * @param entityManager entity manager
+	 * @param entity persistent entity
+	 * @return {@literal true} if generated keys are used
+	 */
+	private boolean generatedKeys(Insert.Builder builder, EntityManager entityManager,
+			MybatisPersistentEntityImpl<?> entity) {
+
+		if (!entityManager.getDialect().supportsGeneratedKeyColumns()) {
+			return false;
+		}
+
+		List<String> properties = new ArrayList<>();
+		List<String> columns = new ArrayList<>();
+
+		for (PersistentPropertyPath<MybatisPersistentPropertyImpl> ppp : entityManager
+				.findPersistentPropertyPaths(this.domainClass, p -> true)) {
+
+			MybatisPersistentPropertyImpl leaf = ppp.getRequiredLeafProperty();
+			if (!leaf.isAssociation() && !leaf.isEntity() && leaf.isDatabaseDefaultValue()) {
+				properties.add(PARAM_INSTANCE_PREFIX + ppp.toDotPath());
+				columns.add(leaf.getRequiredColumnName().getReference());
+			}
+		}
+
+		if (properties.isEmpty()) {
+			return false;
+		}
+
+		GenerationType generationType = entity.getGenerationType();
+
+		// sequence values are selected before the insert
+		if (generationType == GenerationType.SEQUENCE && entity.getSequenceAllocationSize() <= 1) {
+			return false;
+		}
+
+		if (generationType == GenerationType.IDENTITY) {
+
+			MybatisPersistentPropertyImpl idProperty = entity.getRequiredIdProperty();
+			properties.add(0, PARAM_INSTANCE_PREFIX + idProperty.getName());
+			columns.add(0, idProperty.getRequiredColumnName().getReference());
+		}
+
+		builder.generatedKeys(String.join(",", properties), String.join(",", columns));
+
+		return true;
+	}
+
 	private Insert.SelectKey selectKey(EntityManager entityManager, MybatisPersistentEntityImpl<?> entity) {
 
 		if (!entity.hasIdProperty() || entity.isCompositeId()) {
@@ -248,23 +293,12 @@ public class InsertQueryImpl<T, R, F, V> implements InsertQuery<R, F, V> {
 		}
 		else if (generationType == GenerationType.SEQUENCE) {
 
-			String sequenceName = DEFAULT_SEQUENCE_NAME;
-
-			Map<String, String> sequenceGenerators = new HashMap<>();
-			Optional.ofNullable(idProperty.findPropertyOrOwnerAnnotation(SequenceGenerators.class))
-					.filter(sgs -> sgs.value().length > 0)
-					.ifPresent(sgs -> Arrays.stream(sgs.value()).filter(sg -> StringUtils.hasText(sg.sequenceName()))
-							.forEach(sg -> sequenceGenerators.put(sg.name(), sg.sequenceName())));
-			Optional.ofNullable(idProperty.findPropertyOrOwnerAnnotation(SequenceGenerator.class))
-					.filter(sg -> StringUtils.hasText(sg.sequenceName()))
-					.ifPresent(sg -> sequenceGenerators.put(sg.name(), sg.sequenceName()));
-
-			String sn = sequenceGenerators.get(gv.generator());
-			if (StringUtils.hasText(sn)) {
-				sequenceName = sn;
+			// pooled ids are assigned before the insert
+			if (entity.getSequenceAllocationSize() > 1) {
+				return null;
 			}
 
-			String sql = entityManager.getDialect().getSequenceNextValString(sequenceName);
+			String sql = entityManager.getDialect().getSequenceNextValString(entity.getSequenceName());
 			return Insert.SelectKey.builder().keyProperty(PARAM_INSTANCE_PREFIX + idProperty.getName())
 					.keyColumn(idProperty.getColumnName()
 							.getReference(entityManager.getDialect().getIdentifierProcessing()))
@@ -17,6 +17,8 @@
 package io.easybest.mybatis.repository.query.criteria.impl;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -31,21 +33,23 @@ import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
 import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
 import io.easybest.mybatis.mapping.precompile.Column;
+import io.easybest.mybatis.mapping.precompile.If;
 import io.easybest.mybatis.mapping.precompile.Parameter;
 import io.easybest.mybatis.mapping.precompile.SQL;
 import io.easybest.mybatis.mapping.precompile.SafeVars;
 import io.easybest.mybatis.mapping.precompile.Segment;
 import io.easybest.mybatis.mapping.precompile.Update;
-import io.easybest.mybatis.mapping.precompile.Where;
 import io.easybest.mybatis.repository.query.criteria.ParamValue;
 import io.easybest.mybatis.repository.query.criteria.ParamValueCallback;
 import io.easybest.mybatis.repository.query.criteria.Predicate;
 import io.easybest.mybatis.repository.query.criteria.PredicateResult;
 import io.easybest.mybatis.repository.query.criteria.QueryUtils;
 import io.easybest.mybatis.repository.query.criteria.UpdateQuery;
+import io.easybest.mybatis.snapshot.EntitySnapshots;
 
 import static io.easybest.mybatis.mapping.precompile.Constant.COMMA;
 import static io.easybest.mybatis.mapping.precompile.Include.TABLE_NAME_PURE;
+import static io.easybest.mybatis.repository.support.MybatisContext.PARAM_INSTANCE_PREFIX;
 
 /**
  * .
@@ -66,6 +70,8 @@ public class UpdateQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> impl
 
 	private boolean selective;
 
+	private Collection<String> dynamic = Collections.emptySet();
+
 	public UpdateQueryImpl(Class<T> domainClass) {
 		super(domainClass);
 	}
@@ -128,6 +134,19 @@ public class UpdateQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> impl
 		return this.getReturns();
 	}
 
+	/**
+	 * Only set the columns of the given properties when they are in the bound
+	 * {@link EntitySnapshots#DIRTY dirty properties}.
+	 * @param properties tracked property paths
+	 * @return this
+	 */
+	public R dynamic(Collection<String> properties) {
+
+		this.dynamic = properties;
+
+		return this.getReturns();
+	}
+
 	public Update presupposed(EntityManager entityManager, MybatisPersistentEntityImpl<?> entity, String id,
 			String parameterType, ParamValueCallback callback) {
 
@@ -152,10 +171,11 @@ public class UpdateQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> impl
 											Parameter parameter = null != callback ? callback.apply(cv.value)
 													: Parameter.of(cv.value);
 
-											return SafeVars.builder().var(parameter.getProperty()).stripPrefix(1)
+											return this.dynamic(parameter, SafeVars.builder()
+													.var(parameter.getProperty()).stripPrefix(1)
 													.stripSuffix(this.selective ? 0 : 1)
 													.contents(Arrays.asList(column, SQL.EQUALS, parameter, COMMA))
-													.build();
+													.build());
 										}), //
 										this.sets.stream().map(fv -> {
 
@@ -172,10 +192,11 @@ public class UpdateQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> impl
 											Parameter parameter = null != callback ? callback.apply(fv.value)
 													: Parameter.of(fv.value);
 
-											return SafeVars.builder().var(parameter.getProperty()).stripPrefix(1)
+											return this.dynamic(parameter, SafeVars.builder()
+													.var(parameter.getProperty()).stripPrefix(1)
 													.stripSuffix(this.selective ? 0 : 1)
 													.contents(Arrays.asList(column, SQL.EQUALS, parameter, COMMA))
-													.build();
+													.build());
 										})//
 								), //
 
@@ -187,7 +208,7 @@ public class UpdateQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> impl
 									return SQL.of(sql + ",");
 
 								})).toArray(Segment[]::new)), //
-				Where.of(//
+				this.where(entity, false, //
 						null == pr ? SQL.EMPTY : SQL.of(pr.getSql()), //
 						this.logicDeleteClause(entity, false) //
 				)));
@@ -195,6 +216,18 @@ public class UpdateQueryImpl<T, R, F, V> extends ConditionsImpl<T, R, F, V> impl
 		return builder.build();
 	}
 
+	private Segment dynamic(Parameter parameter, Segment segment) {
+
+		String property = parameter.getProperty().startsWith(PARAM_INSTANCE_PREFIX)
+				? parameter.getProperty().substring(PARAM_INSTANCE_PREFIX.length()) : parameter.getProperty();
+		if (!this.dynamic.contains(property)) {
+			return segment;
+		}
+
+		// double quoted, a single character in single quotes is a char literal of OGNL
+		return If.of("bindable." + EntitySnapshots.DIRTY + ".contains(&quot;" + property + "&quot;)", segment);
+	}
+
 	@Data
 	@AllArgsConstructor
 	@NoArgsConstructor
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.data.mapping.AssociationHandler;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ObjectUtils;
+
+import io.easybest.mybatis.annotation.DynamicUpdate;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisAssociation;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.repository.BatchOptimisticLockingFailureException;
+import io.easybest.mybatis.sharding.ShardedSqlSession;
+import io.easybest.mybatis.snapshot.EntitySnapshots;
+
+import static io.easybest.mybatis.mapping.MybatisAssociation.Type.COLLECTION;
+import static io.easybest.mybatis.mapping.MybatisAssociation.Type.MANY2MANY;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_JOIN_PREFIX;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.INSERT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.INSERT_JOIN_PREFIX;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE;
+
+/**
+ * Cascades a save of aggregate roots to their associations, one batch per association
+ * and level of the graph.
+ * <ul>
+ * <li>new targets of owned to-one associations are inserted before their owners, so
+ * the join columns of the owners can refer to the generated keys.</li>
+ * <li>targets of inverse associations get the owner set on their mapped by property and
+ * are inserted, or updated when cascading an update.</li>
+ * <li>new targets of owned to-many associations are inserted, then the rows of the join
+ * table are written, replacing the existing rows when cascading an update.</li>
+ * </ul>
+ * Associations which are {@literal null} are left untouched and removed elements are
+ * not deleted.
+ * <p>
+ * The targets are written the way their repositories would write them, with these
+ * exceptions:
+ * <ul>
+ * <li>versions are checked and increased, a stale target fails the whole cascade with a
+ * {@link BatchOptimisticLockingFailureException}.</li>
+ * <li>targets with a {@link io.easybest.mybatis.annotation.ShardKey} are written on the
+ * shard of their key.</li>
+ * <li>targets are updated with all columns, even if they are {@link DynamicUpdate}, the
+ * snapshots of the updated targets are retaken.</li>
+ * <li>writes of the targets are never deferred, they run at once, after the pending
+ * writes of the transaction were flushed.</li>
+ * <li>no entity callbacks are invoked for the targets.</li>
+ * </ul>
+ *
+ * @author Jarvis Song
+ */
+class AssociationCascade {
+
+	private final EntityManager entityManager;
+
+	private final SqlSessionTemplate sqlSessionTemplate;
+
+	private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	AssociationCascade(EntityManager entityManager, Collection<?> roots) {
+
+		this.entityManager = entityManager;
+		this.sqlSessionTemplate = entityManager.getSqlSessionTemplate();
+		this.visited.addAll(roots);
+	}
+
+	/**
+	 * Insert the new targets of the owned to-one associations of the owners.
+	 * @param entity entity of the owners
+	 * @param owners owners about to be saved
+	 */
+	void beforeSave(MybatisPersistentEntityImpl<?> entity, List<?> owners) {
+
+		entity.doWithAssociations((AssociationHandler<MybatisPersistentPropertyImpl>) ass -> {
+
+			MybatisAssociation association = (MybatisAssociation) ass;
+			if (!association.isOwningSide() || !association.isToOne()) {
+				return;
+			}
+
+			MybatisPersistentEntityImpl<?> target = association.getTargetEntity();
+			List<Object> targets = new ArrayList<>();
+			for (Object owner : owners) {
+				Object value = entity.getPropertyAccessor(owner).getProperty(association.getInverse());
+				if (null != value && target.isNew(value) && this.visited.add(value)) {
+					targets.add(value);
+				}
+			}
+			this.insert(target, targets);
+		});
+	}
+
+	/**
+	 * Save the targets of the to-many and inverse associations of the owners.
+	 * @param entity entity of the owners
+	 * @param owners saved owners
+	 * @param update whether existing targets and join table rows should be updated
+	 */
+	void afterSave(MybatisPersistentEntityImpl<?> entity, List<?> owners, boolean update) {
+
+		entity.doWithAssociations((AssociationHandler<MybatisPersistentPropertyImpl>) ass -> {
+
+			MybatisAssociation association = (MybatisAssociation) ass;
+			if (association.getType() == COLLECTION || (association.isOwningSide() && association.isToOne())) {
+				return;
+			}
+
+			List<Object> loaded = new ArrayList<>();
+			List<Object[]> pairs = new ArrayList<>();
+			for (Object owner : owners) {
+				Object value = entity.getPropertyAccessor(owner).getProperty(association.getInverse());
+				if (null == value) {
+					continue;
+				}
+				loaded.add(owner);
+				for (Object element : this.elements(value)) {
+					if (null != element) {
+						pairs.add(new Object[] { owner, element });
+					}
+				}
+			}
+
+			if (association.getMappedBy().isPresent()) {
+				this.saveInverse(association, pairs, update);
+			}
+			else if (association.isToMany()) {
+				this.saveJoinTable(entity, association, loaded, pairs, update);
+			}
+		});
+	}
+
+	private void saveInverse(MybatisAssociation association, List<Object[]> pairs, boolean update) {
+
+		MybatisPersistentEntityImpl<?> target = association.getTargetEntity();
+		MybatisPersistentPropertyImpl mappedBy = target.getRequiredPersistentProperty(association.getMappedBy().get());
+		List<Object> inserts = new ArrayList<>();
+		List<Object> updates = new ArrayList<>();
+		for (Object[] pair : pairs) {
+
+			if (!this.visited.add(pair[1])) {
+				continue;
+			}
+			if (!mappedBy.isCollectionLike()) {
+				PersistentPropertyAccessor<?> accessor = target.getPropertyAccessor(pair[1]);
+				if (null == accessor.getProperty(mappedBy)) {
+					accessor.setProperty(mappedBy, pair[0]);
+				}
+			}
+			(target.isNew(pair[1]) ? inserts : updates).add(pair[1]);
+		}
+
+		this.insert(target, inserts);
+		// the rows of an inverse many-to-many live in the join table of the owning side
+		if (update && association.getType() != MANY2MANY) {
+			this.update(target, updates);
+		}
+	}
+
+	private void saveJoinTable(MybatisPersistentEntityImpl<?> entity, MybatisAssociation association,
+			List<Object> loaded, List<Object[]> pairs, boolean update) {
+
+		MybatisPersistentEntityImpl<?> target = association.getTargetEntity();
+		List<Object> inserts = new ArrayList<>();
+		for (Object[] pair : pairs) {
+			if (target.isNew(pair[1]) && this.visited.add(pair[1])) {
+				inserts.add(pair[1]);
+			}
+		}
+		this.insert(target, inserts);
+
+		String namespace = entity.getType().getName() + '.';
+		String name = association.getInverse().getName();
+		if (!this.sqlSessionTemplate.getConfiguration().hasStatement(namespace + INSERT_JOIN_PREFIX + name, false)
+				|| ((loaded.isEmpty() || !update) && pairs.isEmpty())) {
+			return;
+		}
+
+		List<MybatisContext<?, ?>> removals = new ArrayList<>();
+		if (update) {
+			loaded.forEach(owner -> removals.add(this.context(entity, owner)));
+		}
+		List<MybatisContext<?, ?>> rows = new ArrayList<>();
+		for (Object[] pair : pairs) {
+			rows.add(this.context(entity, pair[0]).setBindable(ResidentParameterName.TARGET, pair[1]));
+		}
+
+		ShardedSqlSession sharded = this.getShardedSession(entity);
+		if (null != sharded) {
+			// the rows of the join table live on the shard of their owner
+			sharded.updateInBatch(namespace + DELETE_JOIN_PREFIX + name, removals);
+			sharded.updateInBatch(namespace + INSERT_JOIN_PREFIX + name, rows);
+			return;
+		}
+
+		SqlSessionRepositorySupport.executeInBatch(this.sqlSessionTemplate, session -> {
+
+			removals.forEach(context -> session.delete(namespace + DELETE_JOIN_PREFIX + name, context));
+			rows.forEach(context -> session.insert(namespace + INSERT_JOIN_PREFIX + name, context));
+		});
+	}
+
+	private void insert(MybatisPersistentEntityImpl<?> entity, List<Object> instances) {
+
+		if (instances.isEmpty()) {
+			return;
+		}
+
+		this.beforeSave(entity, instances);
+
+		instances.forEach(instance -> SimpleMybatisRepository.initVersion(entity, instance));
+		this.execute(entity, INSERT, instances);
+
+		this.afterSave(entity, instances, false);
+	}
+
+	private void update(MybatisPersistentEntityImpl<?> entity, List<Object> instances) {
+
+		if (instances.isEmpty()) {
+			return;
+		}
+
+		this.beforeSave(entity, instances);
+
+		List<BatchResult> results = this.execute(entity, UPDATE, instances);
+		if (entity.hasVersionProperty()) {
+			List<Object> failed = SimpleMybatisRepository.failedVersionChecks(results);
+			if (!failed.isEmpty()) {
+				throw new BatchOptimisticLockingFailureException(entity.getType(), instances.size(), failed);
+			}
+			instances.forEach(instance -> SimpleMybatisRepository.increaseVersion(entity, instance));
+		}
+
+		EntitySnapshots snapshots = this.entityManager.getEntitySnapshots();
+		if (null != snapshots && snapshots.isTracked(entity.getType())) {
+			instances.forEach(snapshots::take);
+		}
+
+		this.afterSave(entity, instances, true);
+	}
+
+	private List<BatchResult> execute(MybatisPersistentEntityImpl<?> entity, String statement,
+			List<Object> instances) {
+
+		String id = entity.getType().getName() + '.' + statement;
+		Configuration configuration = this.sqlSessionTemplate.getConfiguration();
+		KeyGenerator keyGenerator = configuration.getMappedStatement(id).getKeyGenerator();
+		ShardedSqlSession sharded = this.getShardedSession(entity);
+		SqlSession session = null != sharded ? sharded : this.sqlSessionTemplate;
+
+		// select keys run after each statement, which is not possible in a batch
+		if (!(keyGenerator instanceof NoKeyGenerator) && !(keyGenerator instanceof Jdbc3KeyGenerator)) {
+			instances.forEach(instance -> session.update(id, this.context(entity, instance)));
+			return Collections.emptyList();
+		}
+
+		List<MybatisContext<?, ?>> contexts = new ArrayList<>();
+		instances.forEach(instance -> contexts.add(this.context(entity, instance)));
+		if (null != sharded) {
+			return sharded.updateInBatch(id, contexts);
+		}
+		return SqlSessionRepositorySupport.executeInBatch(this.sqlSessionTemplate,
+				batch -> contexts.forEach(context -> batch.update(id, context)));
+	}
+
+	@Nullable
+	private ShardedSqlSession getShardedSession(MybatisPersistentEntityImpl<?> entity) {
+		return null == this.entityManager.getShards() ? null : this.entityManager.getShards().getSession(entity);
+	}
+
+	private MybatisContext<Object, Object> context(MybatisPersistentEntityImpl<?> entity, Object instance) {
+		return new MybatisContext<>(null, instance, entity.getType(), entity.isBasic());
+	}
+
+	private Collection<?> elements(Object value) {
+
+		if (value instanceof Collection) {
+			return (Collection<?>) value;
+		}
+		if (value instanceof Map) {
+			return ((Map<?, ?>) value).values();
+		}
+		if (ObjectUtils.isArray(value)) {
+			return Arrays.asList(ObjectUtils.toObjectArray(value));
+		}
+		return Collections.singletonList(value);
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.util.CustomizableThreadFactory;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Default executors of asynchronous repository query methods.
+ *
+ * @author Jarvis Song
+ */
+@UtilityClass
+public class AsyncExecutors {
+
+	private static final String THREAD_NAME_PREFIX = "mybatis-async-";
+
+	/**
+	 * Create the default executor, a virtual thread per task on JDK 21+ and a cached
+	 * pool of daemon threads otherwise.
+	 * @return executor service
+	 */
+	public static ExecutorService createDefault() {
+
+		Method virtual = ReflectionUtils.findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+		if (null != virtual) {
+			return (ExecutorService) ReflectionUtils.invokeMethod(virtual, null);
+		}
+
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+		threadFactory.setDaemon(true);
+		return Executors.newCachedThreadPool(threadFactory);
+	}
+
+	/**
+	 * Get the default executor shared by the entity managers which do not provide their
+	 * own, created on first use.
+	 * @return executor service
+	 */
+	public static ExecutorService getShared() {
+		return SharedHolder.EXECUTOR;
+	}
+
+	private static final class SharedHolder {
+
+		private static final ExecutorService EXECUTOR = createDefault();
+
+	}
+
+}
@@ -74,6 +74,11 @@ public interface ResidentParameterName {
 	 */
 	String ENTITY_MANAGER = PREFIX + "entityManager";
 
+	/**
+	 * For <code>__target</code>, the associated entity of a join table row.
+	 */
+	String TARGET = PREFIX + "target";
+
 	/**
 	 * For <code>__id</code>.
 	 */
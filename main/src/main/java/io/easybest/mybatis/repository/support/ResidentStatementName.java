@@ -208,6 +208,11 @@ public interface ResidentStatementName {
 	 */
 	String UPDATE_SELECTIVE_BY_ID = UPDATE_SELECTIVE + "_by_id";
 
+	/**
+	 * For <code>__update_dynamic</code>.
+	 */
+	String UPDATE_DYNAMIC = UPDATE + "_dynamic";
+
 	/**
 	 * For <code>__count_</code>.
 	 */
@@ -223,6 +228,21 @@ public interface ResidentStatementName {
 	 */
 	String QUERY_PREFIX = "__query_";
 
+	/**
+	 * For <code>__returning_</code>.
+	 */
+	String RETURNING_PREFIX = "__returning_";
+
+	/**
+	 * For <code>__insert_join_</code>, followed by the name of the association property.
+	 */
+	String INSERT_JOIN_PREFIX = INSERT + "_join_";
+
+	/**
+	 * For <code>__delete_join_</code>, followed by the name of the association property.
+	 */
+	String DELETE_JOIN_PREFIX = PREFIX + "delete_join_";
+
 	/**
 	 * For <code>__query_by_example</code>.
 	 */
@@ -268,6 +288,31 @@ public interface ResidentStatementName {
 	 */
 	String TABLE_NAME_PURE = PREFIX + "table_name_pure";
 
+	/**
+	 * For <code>__purge_ids</code>.
+	 */
+	String PURGE_IDS = PREFIX + "purge_ids";
+
+	/**
+	 * For <code>__purge_by_ids</code>.
+	 */
+	String PURGE_BY_IDS = PREFIX + "purge_by_ids";
+
+	/**
+	 * For <code>__purge_chunk</code>.
+	 */
+	String PURGE_CHUNK = PREFIX + "purge_chunk";
+
+	/**
+	 * For <code>__archive_by_ids</code>.
+	 */
+	String ARCHIVE_BY_IDS = PREFIX + "archive_by_ids";
+
+	/**
+	 * For <code>__sequence_next_val</code>.
+	 */
+	String SEQUENCE_NEXT_VAL = PREFIX + "sequence_next_val";
+
 	default String statementName(String namespace, String statement) {
 		return namespace + DOT + statement;
 	}
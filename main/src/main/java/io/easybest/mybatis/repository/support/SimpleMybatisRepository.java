@@ -16,11 +16,25 @@
 
 package io.easybest.mybatis.repository.support;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
-
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
@@ -28,8 +42,8 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mapping.AssociationHandler;
-import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.mapping.callback.EntityCallbacks;
+import org.springframework.data.mapping.model.ConvertingPropertyAccessor;
 import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 import org.springframework.data.support.PageableExecutionUtils;
@@ -38,12 +52,15 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import io.easybest.mybatis.mapping.EntityManager;
-import io.easybest.mybatis.mapping.MybatisAssociation;
 import io.easybest.mybatis.mapping.MybatisPersistentEntity;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
 import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.repository.BatchOptimisticLockingFailureException;
 import io.easybest.mybatis.repository.MybatisRepository;
 import io.easybest.mybatis.repository.query.criteria.CriteriaQuery;
 import io.easybest.mybatis.repository.query.criteria.impl.CriteriaQueryImpl;
+import io.easybest.mybatis.snapshot.EntitySnapshots;
+import io.easybest.mybatis.writebehind.WriteBehind;
 
 import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT_ALL;
@@ -68,6 +85,7 @@ import static io.easybest.mybatis.repository.support.ResidentStatementName.QUERY
 import static io.easybest.mybatis.repository.support.ResidentStatementName.QUERY_BY_EXAMPLE_WITH_SORT;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_BY_ID;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_DYNAMIC;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_SELECTIVE;
 import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE_SELECTIVE_BY_ID;
 
@@ -102,6 +120,10 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 		this.entityManager = entityManager;
 		this.persistentEntity = entity;
 		this.basic = entity.isBasic();
+		this.setMetrics(entityManager.getMetrics());
+		if (null != entityManager.getShards()) {
+			this.setShardedSession(entityManager.getShards().getSession(entity));
+		}
 	}
 
 	@Override
@@ -110,13 +132,12 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 
 		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
 
-		// FIXME fill version property
-		if (this.persistentEntity.hasVersionProperty()) {
-			this.persistentEntity.getPropertyAccessor(entity)
-					.setProperty(this.persistentEntity.getRequiredVersionProperty(), 0);
-		}
+		initVersion(this.persistentEntity, entity);
 
-		this.insert(INSERT, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+		MybatisContext<S, ID> context = new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic);
+		if (!this.defer(INSERT, context)) {
+			this.insert(INSERT, context);
+		}
 
 		return entity;
 	}
@@ -125,20 +146,19 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 	@Transactional
 	public <S extends T> S insertCascade(S entity) {
 
-		S inserted = this.insert(entity);
-		// TODO
+		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
 
 		if (this.basic) {
-			return inserted;
+			return this.insert(entity);
 		}
 
-		PersistentPropertyAccessor<S> accessor = this.persistentEntity.getPropertyAccessor(entity);
-		this.persistentEntity.doWithAssociations((AssociationHandler<MybatisPersistentPropertyImpl>) association -> {
-
-			MybatisPersistentPropertyImpl inverse = association.getInverse();
-			Object value = accessor.getProperty(inverse);
-			System.out.println(value);
-		});
+		MybatisPersistentEntityImpl<?> root = this.entityManager
+				.getRequiredPersistentEntity(this.persistentEntity.getType());
+		List<S> owners = Collections.singletonList(entity);
+		AssociationCascade cascade = new AssociationCascade(this.entityManager, owners);
+		cascade.beforeSave(root, owners);
+		S inserted = this.insert(entity);
+		cascade.afterSave(root, owners, false);
 
 		return inserted;
 	}
@@ -149,13 +169,12 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 
 		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
 
-		// FIXME fill version property
-		if (this.persistentEntity.hasVersionProperty()) {
-			this.persistentEntity.getPropertyAccessor(entity)
-					.setProperty(this.persistentEntity.getRequiredVersionProperty(), 0);
-		}
+		initVersion(this.persistentEntity, entity);
 
-		this.insert(INSERT_SELECTIVE, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+		MybatisContext<S, ID> context = new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic);
+		if (!this.defer(INSERT_SELECTIVE, context)) {
+			this.insert(INSERT_SELECTIVE, context);
+		}
 
 		return entity;
 	}
@@ -166,7 +185,21 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 
 		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
 
-		this.update(UPDATE, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+		EntitySnapshots snapshots = this.entityManager.getEntitySnapshots();
+		if (null == snapshots || !snapshots.isTracked(this.persistentEntity.getType())) {
+			this.write(UPDATE, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+			return entity;
+		}
+
+		Set<String> dirty = snapshots.getDirtyProperties(entity);
+		if (null == dirty) {
+			this.write(UPDATE, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+		}
+		else if (!dirty.isEmpty()) {
+			this.write(UPDATE_DYNAMIC, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic)
+					.setBindable(EntitySnapshots.DIRTY, dirty));
+		}
+		snapshots.take(entity);
 
 		return entity;
 	}
@@ -177,7 +210,8 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 
 		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
 
-		this.update(UPDATE_SELECTIVE, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+		this.write(UPDATE_SELECTIVE, new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+		this.refreshSnapshot(entity);
 		return entity;
 	}
 
@@ -206,20 +240,123 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 
 	@Override
 	@Transactional
-	public <S extends T> S updateCascade(S entity) {
+	public <S extends T> List<S> updateAll(Iterable<S> entities) {
 
-		S updated = this.update(entity);
+		Assert.notNull(entities, "Entities must not be null!");
 
-		PersistentPropertyAccessor<S> accessor = this.persistentEntity.getPropertyAccessor(updated);
-		this.persistentEntity.doWithAssociations((AssociationHandler<MybatisPersistentPropertyImpl>) ass -> {
+		List<S> list = Streamable.of(entities).toList();
+		if (list.isEmpty()) {
+			return list;
+		}
+
+		List<BatchResult> results = this.updateInBatch(UPDATE,
+				list.stream().map(entity -> new MybatisContext<S, ID>(null, entity, this.persistentEntity.getType(),
+						this.basic)).collect(Collectors.toList()));
 
-			MybatisAssociation association = (MybatisAssociation) ass;
-			MybatisPersistentPropertyImpl inverse = association.getInverse();
-			Object value = accessor.getProperty(inverse);
-			if (null == value) {
-				// FIXME
+		if (!this.persistentEntity.hasVersionProperty()) {
+			return list;
+		}
+
+		List<Object> failed = failedVersionChecks(results);
+		if (!failed.isEmpty()) {
+			throw new BatchOptimisticLockingFailureException(this.persistentEntity.getType(), list.size(), failed);
+		}
+
+		list.forEach(entity -> increaseVersion(this.persistentEntity, entity));
+
+		return list;
+	}
+
+	/**
+	 * The entities of the batched updates which did not match a row, because their
+	 * version is stale.
+	 * @param results flushed batches
+	 * @return entities failing the version check
+	 */
+	static List<Object> failedVersionChecks(List<BatchResult> results) {
+
+		List<Object> failed = new ArrayList<>();
+		for (BatchResult result : results) {
+			if (result.getMappedStatement().getSqlCommandType() != SqlCommandType.UPDATE) {
+				continue;
 			}
-		});
+			int[] updateCounts = result.getUpdateCounts();
+			List<Object> parameters = result.getParameterObjects();
+			for (int i = 0; i < updateCounts.length; i++) {
+				// Statement.SUCCESS_NO_INFO is treated as success
+				if (updateCounts[i] == 0) {
+					failed.add(((MybatisContext<?, ?>) parameters.get(i)).getInstance());
+				}
+			}
+		}
+		return failed;
+	}
+
+	private void write(String statement, MybatisContext<?, ?> context) {
+
+		if (!this.defer(statement, context)) {
+			this.update(statement, context);
+		}
+	}
+
+	/**
+	 * Queue a write to the unit of work of the current transaction if writes are
+	 * deferred.
+	 * @return {@literal false} if the write has to be executed now
+	 */
+	private boolean defer(String statement, MybatisContext<?, ?> context) {
+
+		WriteBehind writeBehind = this.entityManager.getWriteBehind();
+		return null != writeBehind && !this.isSharded()
+				&& writeBehind.defer(this.getStatementName(statement), context);
+	}
+
+	/**
+	 * Set the initial version of an entity about to be inserted.
+	 * @param persistentEntity persistent entity
+	 * @param entity new entity
+	 */
+	static void initVersion(MybatisPersistentEntity<?> persistentEntity, Object entity) {
+
+		if (persistentEntity.hasVersionProperty()) {
+			persistentEntity.getPropertyAccessor(entity).setProperty(persistentEntity.getRequiredVersionProperty(), 0);
+		}
+	}
+
+	/**
+	 * Increase the version of an updated entity the same way the update statement did.
+	 * @param persistentEntity persistent entity with a version property
+	 * @param entity updated entity
+	 */
+	public static void increaseVersion(MybatisPersistentEntity<?> persistentEntity, Object entity) {
+
+		MybatisPersistentPropertyImpl versionProperty = persistentEntity.getRequiredVersionProperty();
+		ConvertingPropertyAccessor<Object> accessor = new ConvertingPropertyAccessor<>(
+				persistentEntity.getPropertyAccessor(entity), DefaultConversionService.getSharedInstance());
+
+		Object version = accessor.getProperty(versionProperty);
+		if (null == version || version instanceof Number) {
+			accessor.setProperty(versionProperty, null == version ? 1L : ((Number) version).longValue() + 1);
+		}
+	}
+
+	@Override
+	@Transactional
+	public <S extends T> S updateCascade(S entity) {
+
+		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+
+		if (this.basic) {
+			return this.update(entity);
+		}
+
+		MybatisPersistentEntityImpl<?> root = this.entityManager
+				.getRequiredPersistentEntity(this.persistentEntity.getType());
+		List<S> owners = Collections.singletonList(entity);
+		AssociationCascade cascade = new AssociationCascade(this.entityManager, owners);
+		cascade.beforeSave(root, owners);
+		S updated = this.update(entity);
+		cascade.afterSave(root, owners, true);
 
 		return updated;
 	}
@@ -251,8 +388,6 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 			return this.insertCascade(entity);
 		}
 
-		// TODO update
-
 		return this.updateCascade(entity);
 	}
 
@@ -283,9 +418,102 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 	@Override
 	@Transactional
 	public <S extends T> List<S> saveSelectiveAll(Iterable<S> entities) {
+
 		Assert.notNull(entities, "Entities must not be null!");
 
-		return Streamable.of(entities).map(this::saveSelective).toList();
+		List<S> list = Streamable.of(entities).toList();
+		if (list.size() < 2 || this.isSharded() || null != this.entityManager.getWriteBehind()) {
+			return list.stream().map(this::saveSelective).collect(Collectors.toList());
+		}
+
+		// selective statements render one sql per combination of non-null properties, so
+		// execute the entities of the same shape together, one JDBC batch per shape
+		boolean batchInserts = this.isBatchable(INSERT_SELECTIVE);
+		List<String> properties = this.shapeProperties();
+		Map<BitSet, List<S>> inserts = new LinkedHashMap<>();
+		Map<BitSet, List<S>> updates = new LinkedHashMap<>();
+		for (S entity : list) {
+
+			if (!this.persistentEntity.isNew(entity)) {
+				updates.computeIfAbsent(this.shape(entity, properties), shape -> new ArrayList<>()).add(entity);
+				continue;
+			}
+			if (!batchInserts) {
+				this.insertSelective(entity);
+				continue;
+			}
+
+			initVersion(this.persistentEntity, entity);
+			inserts.computeIfAbsent(this.shape(entity, properties), shape -> new ArrayList<>()).add(entity);
+		}
+
+		String insert = this.getStatementName(INSERT_SELECTIVE);
+		String update = this.getStatementName(UPDATE_SELECTIVE);
+		List<BatchResult> results = this.executeInBatch(session -> {
+			inserts.values().forEach(shape -> shape.forEach(entity -> session.insert(insert,
+					new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic))));
+			updates.values().forEach(shape -> shape.forEach(entity -> session.update(update,
+					new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic))));
+		});
+
+		if (this.persistentEntity.hasVersionProperty() && !updates.isEmpty()) {
+
+			List<Object> failed = failedVersionChecks(results);
+			if (!failed.isEmpty()) {
+				throw new BatchOptimisticLockingFailureException(this.persistentEntity.getType(),
+						updates.values().stream().mapToInt(List::size).sum(), failed);
+			}
+			updates.values().forEach(shape -> shape.forEach(entity -> increaseVersion(this.persistentEntity, entity)));
+		}
+		updates.values().forEach(shape -> shape.forEach(this::refreshSnapshot));
+
+		return list;
+	}
+
+	/**
+	 * Refresh the snapshot of a selectively updated entity with the columns the update
+	 * set, so a later update of the same transaction compares against the row.
+	 */
+	private void refreshSnapshot(Object entity) {
+
+		EntitySnapshots snapshots = this.entityManager.getEntitySnapshots();
+		if (null != snapshots && snapshots.isTracked(this.persistentEntity.getType())) {
+			snapshots.refreshSelective(entity);
+		}
+	}
+
+	private boolean isBatchable(String statement) {
+
+		// select keys run after each statement, which is not possible in a batch
+		KeyGenerator keyGenerator = this.getSqlSessionTemplate().getConfiguration()
+				.getMappedStatement(this.getStatementName(statement)).getKeyGenerator();
+		return keyGenerator instanceof NoKeyGenerator || keyGenerator instanceof Jdbc3KeyGenerator;
+	}
+
+	/**
+	 * Properties whose nullity may change the sql of a selective statement.
+	 */
+	private List<String> shapeProperties() {
+
+		List<String> properties = this.entityManager
+				.findPersistentPropertyPaths(this.persistentEntity.getType(), p -> !p.isAssociation()).stream()
+				.map(ppp -> ppp.toDotPath()).collect(Collectors.toList());
+		this.persistentEntity.doWithAssociations((AssociationHandler<MybatisPersistentPropertyImpl>) association -> {
+			properties.add(association.getInverse().getName());
+		});
+		return properties;
+	}
+
+	private BitSet shape(Object entity, List<String> properties) {
+
+		MetaObject meta = SystemMetaObject.forObject(entity);
+		BitSet shape = new BitSet(properties.size());
+		for (int i = 0; i < properties.size(); i++) {
+			if (null != meta.getValue(properties.get(i))) {
+				shape.set(i);
+			}
+		}
+		return shape;
 	}
 
 	@Override
@@ -333,14 +561,17 @@ public class SimpleMybatisRepository<T, ID> extends SqlSessionRepositorySupport
 			return;
 		}
 
+		MybatisContext<T, ID> context = new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic);
+		if (this.defer(DELETE_BY_ENTITY, context)) {
+			return;
+		}
+
 		int affectRows;
 		if (this.persistentEntity.getLogicDeleteColumn().isPresent()) {
-			affectRows = this.update(DELETE_BY_ENTITY,
-					new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+			affectRows = this.update(DELETE_BY_ENTITY, context);
 		}
 		else {
-			affectRows = this.delete(DELETE_BY_ENTITY,
-					new MybatisContext<>(null, entity, this.persistentEntity.getType(), this.basic));
+			affectRows = this.delete(DELETE_BY_ENTITY, context);
 		}
 		if (affectRows == 0) {
 			throw new EmptyResultDataAccessException(
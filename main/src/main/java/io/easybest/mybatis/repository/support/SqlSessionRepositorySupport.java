@@ -17,9 +17,20 @@
 package io.easybest.mybatis.repository.support;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
 import org.mybatis.spring.SqlSessionTemplate;
 import org.mybatis.spring.support.SqlSessionDaoSupport;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.metrics.MybatisMetrics;
+import io.easybest.mybatis.sharding.ShardedSqlSession;
 
 /**
  * .
@@ -30,6 +41,10 @@ public abstract class SqlSessionRepositorySupport extends SqlSessionDaoSupport {
 
 	private final String namespace;
 
+	private MybatisMetrics metrics = MybatisMetrics.NOOP;
+
+	private ShardedSqlSession shardedSession;
+
 	protected SqlSessionRepositorySupport(SqlSessionTemplate sqlSessionTemplate, String namespace) {
 		this.namespace = namespace;
 		this.setSqlSessionTemplate(sqlSessionTemplate);
@@ -43,44 +58,131 @@ public abstract class SqlSessionRepositorySupport extends SqlSessionDaoSupport {
 		return this.getNamespace() + '.' + statement;
 	}
 
+	protected void setMetrics(MybatisMetrics metrics) {
+
+		Assert.notNull(metrics, "MybatisMetrics must not be null!");
+
+		this.metrics = metrics;
+	}
+
+	protected void setShardedSession(@Nullable ShardedSqlSession shardedSession) {
+		this.shardedSession = shardedSession;
+	}
+
+	protected boolean isSharded() {
+		return null != this.shardedSession;
+	}
+
+	@Override
+	public SqlSession getSqlSession() {
+		return null != this.shardedSession ? this.shardedSession : super.getSqlSession();
+	}
+
 	protected <T> T selectOne(String statement, Object parameter) {
-		return this.getSqlSession().selectOne(this.getStatementName(statement), parameter);
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "select",
+				() -> this.getSqlSession().selectOne(statementName, parameter));
 	}
 
 	protected <T> T selectOne(String statement) {
-		return this.getSqlSession().selectOne(this.getStatementName(statement));
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "select",
+				() -> this.getSqlSession().selectOne(statementName));
 	}
 
 	protected <T> List<T> selectList(String statement) {
-		return this.getSqlSession().selectList(this.getStatementName(statement));
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "select",
+				() -> this.getSqlSession().selectList(statementName));
 	}
 
 	protected <T> List<T> selectList(String statement, Object parameter) {
-		return this.getSqlSession().selectList(this.getStatementName(statement), parameter);
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "select",
+				() -> this.getSqlSession().selectList(statementName, parameter));
 	}
 
 	protected int insert(String statement, Object parameter) {
-		return this.getSqlSession().insert(this.getStatementName(statement), parameter);
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "insert",
+				() -> this.getSqlSession().insert(statementName, parameter));
 	}
 
 	protected int insert(String statement) {
-		return this.getSqlSession().insert(this.getStatementName(statement));
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "insert",
+				() -> this.getSqlSession().insert(statementName));
 	}
 
 	protected int update(String statement, Object parameter) {
-		return this.getSqlSession().update(this.getStatementName(statement), parameter);
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "update",
+				() -> this.getSqlSession().update(statementName, parameter));
 	}
 
 	protected int update(String statement) {
-		return this.getSqlSession().update(this.getStatementName(statement));
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "update",
+				() -> this.getSqlSession().update(statementName));
 	}
 
 	protected int delete(String statement, Object parameter) {
-		return this.getSqlSession().delete(this.getStatementName(statement), parameter);
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "delete",
+				() -> this.getSqlSession().delete(statementName, parameter));
 	}
 
 	protected int delete(String statement) {
-		return this.getSqlSession().delete(this.getStatementName(statement));
+		String statementName = this.getStatementName(statement);
+		return this.metrics.recordStatement(statementName, "delete",
+				() -> this.getSqlSession().delete(statementName));
+	}
+
+	protected List<BatchResult> updateInBatch(String statement, Iterable<?> parameters) {
+
+		String statementName = this.getStatementName(statement);
+		if (null != this.shardedSession) {
+			return this.shardedSession.updateInBatch(statementName, parameters);
+		}
+		return this.executeInBatch(
+				session -> parameters.forEach(parameter -> session.update(statementName, parameter)));
+	}
+
+	/**
+	 * Execute the operations on a {@link ExecutorType#BATCH} session that shares the
+	 * connection of the current transaction, and flush them as JDBC batches.
+	 * @param operations statements to be queued
+	 * @return one {@link BatchResult} per flushed JDBC batch
+	 */
+	protected List<BatchResult> executeInBatch(Consumer<SqlSession> operations) {
+		return executeInBatch(this.getSqlSessionTemplate(), operations);
+	}
+
+	/**
+	 * Execute the operations on a {@link ExecutorType#BATCH} session of the template that
+	 * shares the connection of the current transaction, and flush them as JDBC batches.
+	 * @param template template
+	 * @param operations statements to be queued
+	 * @return one {@link BatchResult} per flushed JDBC batch
+	 */
+	public static List<BatchResult> executeInBatch(SqlSessionTemplate template, Consumer<SqlSession> operations) {
+
+		// SqlSessionTemplate refuses to switch the executor type of a transactional
+		// session, so open a dedicated one, it uses the same managed connection.
+		try (SqlSession session = template.getSqlSessionFactory().openSession(ExecutorType.BATCH)) {
+
+			operations.accept(session);
+			List<BatchResult> results = session.flushStatements();
+			session.commit();
+
+			template.clearCache();
+			return results;
+		}
+		catch (PersistenceException ex) {
+			DataAccessException translated = template.getPersistenceExceptionTranslator()
+					.translateExceptionIfPossible(ex);
+			throw null != translated ? translated : ex;
+		}
 	}
 
 }
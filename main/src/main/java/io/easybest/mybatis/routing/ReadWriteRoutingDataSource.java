@@ -0,0 +1,221 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.routing;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Sends the connections of read-only transactions, and of reads marked by
+ * {@link ReadWriteRoutingInterceptor} outside of a transaction, to replica data
+ * sources. Everything else uses the primary.
+ * <p>
+ * Transaction managers fetch the connection before the transaction is marked read-only,
+ * so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} that
+ * defers fetching until the first statement.
+ *
+ * @author Jarvis Song
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+	private static final ThreadLocal<Boolean> READ = new NamedThreadLocal<>("MyBatis replica read");
+
+	private final DataSource primary;
+
+	private final Replica[] replicas;
+
+	private final ReplicaSelection selection;
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, ReplicaSelection selection) {
+
+		Assert.notNull(primary, "Primary DataSource must not be null!");
+		Assert.notNull(replicas, "Replica DataSources must not be null!");
+		Assert.notNull(selection, "ReplicaSelection must not be null!");
+
+		this.primary = primary;
+		this.replicas = replicas.stream().map(Replica::new).toArray(Replica[]::new);
+		this.selection = selection;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+
+		Replica replica = this.determineReplica();
+		return null == replica ? this.primary.getConnection() : replica.track(replica.dataSource.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+
+		Replica replica = this.determineReplica();
+		return null == replica ? this.primary.getConnection(username, password)
+				: replica.track(replica.dataSource.getConnection(username, password));
+	}
+
+	public DataSource getPrimary() {
+		return this.primary;
+	}
+
+	@Override
+	public void close() {
+
+		for (Replica replica : this.replicas) {
+			closeQuietly(replica.dataSource);
+		}
+		closeQuietly(this.primary);
+	}
+
+	/**
+	 * Whether the current connection request may be served by a replica.
+	 * @return read-only
+	 */
+	static boolean isReadOnly() {
+
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+		}
+		return Boolean.TRUE.equals(READ.get());
+	}
+
+	static <T> T read(ReadCallback<T> callback) throws Throwable {
+
+		Boolean previous = READ.get();
+		READ.set(Boolean.TRUE);
+		try {
+			return callback.doInRead();
+		}
+		finally {
+			if (null == previous) {
+				READ.remove();
+			}
+			else {
+				READ.set(previous);
+			}
+		}
+	}
+
+	@Nullable
+	private Replica determineReplica() {
+
+		if (this.replicas.length == 0 || !isReadOnly()) {
+			return null;
+		}
+
+		int start = Math.floorMod(this.counter.getAndIncrement(), this.replicas.length);
+		if (this.selection == ReplicaSelection.ROUND_ROBIN) {
+			return this.replicas[start];
+		}
+
+		// start from the round-robin position so that equally loaded replicas alternate
+		Replica selected = this.replicas[start];
+		for (int i = 1; i < this.replicas.length; i++) {
+			Replica replica = this.replicas[(start + i) % this.replicas.length];
+			if (replica.active.get() < selected.active.get()) {
+				selected = replica;
+			}
+		}
+		return selected;
+	}
+
+	private static void closeQuietly(DataSource dataSource) {
+
+		if (!(dataSource instanceof AutoCloseable)) {
+			return;
+		}
+		try {
+			((AutoCloseable) dataSource).close();
+		}
+		catch (Exception ex) {
+			log.warn("Could not close DataSource " + dataSource, ex);
+		}
+	}
+
+	@FunctionalInterface
+	interface ReadCallback<T> {
+
+		T doInRead() throws Throwable;
+
+	}
+
+	private final class Replica {
+
+		private final DataSource dataSource;
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		private Connection track(Connection connection) {
+
+			if (ReadWriteRoutingDataSource.this.selection != ReplicaSelection.LEAST_LOADED) {
+				return connection;
+			}
+
+			this.active.incrementAndGet();
+			AtomicBoolean closed = new AtomicBoolean();
+			InvocationHandler handler = (proxy, method, args) -> {
+				if ("equals".equals(method.getName())) {
+					return proxy == args[0];
+				}
+				if ("hashCode".equals(method.getName())) {
+					return System.identityHashCode(proxy);
+				}
+				if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+					this.active.decrementAndGet();
+				}
+				return invoke(connection, method, args);
+			};
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, handler);
+		}
+
+	}
+
+	private static Object invoke(Connection connection, Method method, @Nullable Object[] args) throws Throwable {
+
+		try {
+			return method.invoke(connection, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.routing;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Marks selects executed outside of a transaction as reads, so that
+ * {@link ReadWriteRoutingDataSource} serves them from a replica. Callable statements
+ * are never marked, procedures may write.
+ * <p>
+ * A {@link org.apache.ibatis.session.SqlSession} opened outside of a transaction keeps
+ * the connection of its first statement, sessions that read before they write must run
+ * in a read-write transaction.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+						BoundSql.class }),
+		@Signature(type = Executor.class, method = "queryCursor",
+				args = { MappedStatement.class, Object.class, RowBounds.class }) })
+public class ReadWriteRoutingInterceptor implements Interceptor {
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+
+		if (TransactionSynchronizationManager.isActualTransactionActive()
+				|| ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getStatementType() == StatementType.CALLABLE) {
+			return invocation.proceed();
+		}
+
+		return ReadWriteRoutingDataSource.read(invocation::proceed);
+	}
+
+}
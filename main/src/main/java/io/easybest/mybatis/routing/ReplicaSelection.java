@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.routing;
+
+/**
+ * How {@link ReadWriteRoutingDataSource} picks the replica of a read.
+ *
+ * @author Jarvis Song
+ */
+public enum ReplicaSelection {
+
+	/**
+	 * Use the replicas in turn.
+	 */
+	ROUND_ROBIN,
+	/**
+	 * Use the replica with the fewest connections currently handed out by this data
+	 * source.
+	 */
+	LEAST_LOADED
+
+}
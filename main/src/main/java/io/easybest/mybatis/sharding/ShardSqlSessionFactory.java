@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.sharding;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.TransactionFactory;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+
+/**
+ * Opens sessions of a shared {@link Configuration} on the {@link DataSource} of one
+ * shard, the same way
+ * {@link org.apache.ibatis.session.defaults.DefaultSqlSessionFactory} does with the
+ * data source of the environment.
+ *
+ * @author Jarvis Song
+ */
+final class ShardSqlSessionFactory implements SqlSessionFactory {
+
+	private final Configuration configuration;
+
+	private final DataSource dataSource;
+
+	private final TransactionFactory transactionFactory = new SpringManagedTransactionFactory();
+
+	ShardSqlSessionFactory(Configuration configuration, DataSource dataSource) {
+		this.configuration = configuration;
+		this.dataSource = dataSource;
+	}
+
+	@Override
+	public SqlSession openSession() {
+		return this.open(this.configuration.getDefaultExecutorType(), null, false);
+	}
+
+	@Override
+	public SqlSession openSession(boolean autoCommit) {
+		return this.open(this.configuration.getDefaultExecutorType(), null, autoCommit);
+	}
+
+	@Override
+	public SqlSession openSession(Connection connection) {
+		return this.open(this.configuration.getDefaultExecutorType(), connection);
+	}
+
+	@Override
+	public SqlSession openSession(TransactionIsolationLevel level) {
+		return this.open(this.configuration.getDefaultExecutorType(), level, false);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType) {
+		return this.open(execType, null, false);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType, boolean autoCommit) {
+		return this.open(execType, null, autoCommit);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType, TransactionIsolationLevel level) {
+		return this.open(execType, level, false);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType, Connection connection) {
+		return this.open(execType, connection);
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return this.configuration;
+	}
+
+	private SqlSession open(ExecutorType execType, TransactionIsolationLevel level, boolean autoCommit) {
+
+		Transaction tx = null;
+		try {
+			tx = this.transactionFactory.newTransaction(this.dataSource, level, autoCommit);
+			Executor executor = this.configuration.newExecutor(tx, execType);
+			return new DefaultSqlSession(this.configuration, executor, autoCommit);
+		}
+		catch (RuntimeException ex) {
+			closeQuietly(tx);
+			throw ExceptionFactory.wrapException("Error opening session.  Cause: " + ex, ex);
+		}
+		finally {
+			ErrorContext.instance().reset();
+		}
+	}
+
+	private SqlSession open(ExecutorType execType, Connection connection) {
+
+		try {
+			Transaction tx = this.transactionFactory.newTransaction(connection);
+			return new DefaultSqlSession(this.configuration, this.configuration.newExecutor(tx, execType), false);
+		}
+		catch (RuntimeException ex) {
+			throw ExceptionFactory.wrapException("Error opening session.  Cause: " + ex, ex);
+		}
+		finally {
+			ErrorContext.instance().reset();
+		}
+	}
+
+	private static void closeQuietly(Transaction tx) {
+
+		if (null == tx) {
+			return;
+		}
+		try {
+			tx.close();
+		}
+		catch (SQLException ignored) {
+			// the original exception is more relevant
+		}
+	}
+
+}
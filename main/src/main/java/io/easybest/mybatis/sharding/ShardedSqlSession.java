@@ -0,0 +1,587 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.sharding;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.DirectFieldAccessFallbackBeanWrapper;
+import org.springframework.lang.Nullable;
+
+import io.easybest.mybatis.mapping.MybatisPersistentEntity;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.repository.query.DeferredStatements;
+import io.easybest.mybatis.repository.support.MybatisContext;
+import io.easybest.mybatis.repository.support.Pageable;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT_ALL;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT_PREFIX;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT_QUERY_BY_EXAMPLE;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.EXISTS_BY_EXAMPLE;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.EXISTS_BY_ID;
+
+/**
+ * {@link SqlSession} executing the statements of a sharded entity. Statements whose
+ * parameter carries the shard key, as the entity, its id or a named query parameter,
+ * run on the shard of the key. All others run on every shard and their results are
+ * merged:
+ * <ul>
+ * <li>lists are merged in the order of the {@link Sort} of the parameter, a page is cut
+ * from the merged rows of every shard reading up to the end of the page</li>
+ * <li>the counts of the count statements are summed and the flags of the exists
+ * statements are or-ed, see {@link #selectAggregate(String, Object)}</li>
+ * <li>any other single row must come from at most one shard</li>
+ * </ul>
+ * Null values are ordered first for ascending and last for descending orders unless
+ * the {@link Sort.NullHandling} is explicit.
+ *
+ * @author Jarvis Song
+ */
+public class ShardedSqlSession implements SqlSession {
+
+	private static final Set<String> AGGREGATES = new HashSet<>(
+			Arrays.asList(COUNT, COUNT_ALL, COUNT_QUERY_BY_EXAMPLE, EXISTS_BY_ID, EXISTS_BY_EXAMPLE));
+
+	private final Shards shards;
+
+	private final MybatisPersistentEntity<?> entity;
+
+	private final MybatisPersistentPropertyImpl shardKey;
+
+	ShardedSqlSession(Shards shards, MybatisPersistentEntity<?> entity, MybatisPersistentPropertyImpl shardKey) {
+
+		this.shards = shards;
+		this.entity = entity;
+		this.shardKey = shardKey;
+	}
+
+	@Override
+	public <T> T selectOne(String statement) {
+		return this.selectOne(statement, null);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T selectOne(String statement, @Nullable Object parameter) {
+
+		if (isAggregate(statement)) {
+			return this.selectAggregate(statement, parameter);
+		}
+
+		Integer shard = this.route(parameter);
+		if (null != shard) {
+			return this.shards.getTemplate(shard).selectOne(statement, parameter);
+		}
+
+		List<Object> values = this.scatterOne(statement, parameter);
+		if (values.size() > 1) {
+			throw new IncorrectResultSizeDataAccessException(statement, 1, values.size());
+		}
+		return values.isEmpty() ? null : (T) values.get(0);
+	}
+
+	/**
+	 * Select a count or an exists flag, summing the counts or or-ing the flags of every
+	 * shard unless the parameter carries the shard key. {@link #selectOne(String, Object)}
+	 * merges the count and exists statements of the repositories and the counts of pages
+	 * this way, query methods deriving a count or exists projection call it directly.
+	 * @param statement statement id
+	 * @param parameter parameter
+	 * @param <T> number or boolean
+	 * @return merged value
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T selectAggregate(String statement, @Nullable Object parameter) {
+
+		Integer shard = this.route(parameter);
+		if (null != shard) {
+			return this.shards.getTemplate(shard).selectOne(statement, parameter);
+		}
+
+		List<Object> values = this.scatterOne(statement, parameter);
+		if (values.isEmpty()) {
+			return null;
+		}
+		Object first = values.get(0);
+		if (first instanceof Boolean) {
+			return (T) Boolean.valueOf(values.contains(Boolean.TRUE));
+		}
+		if (first instanceof Number) {
+			return (T) sum(values);
+		}
+		throw new InvalidDataAccessApiUsageException(
+				String.format("Statement %s selects %s instead of a count or an exists flag!", statement,
+						first.getClass().getName()));
+	}
+
+	private List<Object> scatterOne(String statement, @Nullable Object parameter) {
+
+		return this.shards.<Object>scatter(template -> template.selectOne(statement, parameter)).stream()
+				.filter(value -> null != value).collect(Collectors.toList());
+	}
+
+	@Override
+	public <E> List<E> selectList(String statement) {
+		return this.selectList(statement, null, RowBounds.DEFAULT);
+	}
+
+	@Override
+	public <E> List<E> selectList(String statement, @Nullable Object parameter) {
+		return this.selectList(statement, parameter, RowBounds.DEFAULT);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <E> List<E> selectList(String statement, @Nullable Object parameter, RowBounds rowBounds) {
+
+		Integer shard = this.route(parameter);
+		if (null != shard) {
+			return this.shards.getTemplate(shard).selectList(statement, parameter, rowBounds);
+		}
+
+		MybatisContext<?, ?> context = parameter instanceof MybatisContext ? (MybatisContext<?, ?>) parameter : null;
+		Sort sort = null == context || null == context.getSort() ? Sort.unsorted() : context.getSort();
+		Pageable pageable = null == context ? null : context.getPageable();
+
+		long offset = 0;
+		long limit = Long.MAX_VALUE;
+		List<List<Object>> results;
+		if (null != pageable && pageable.isPaged()) {
+
+			// every shard reads up to the end of the page, the page is cut after merging
+			offset = pageable.getOffset();
+			limit = pageable.getOffsetEnd();
+			context.setPageable(new Pageable(0, (int) Math.min(Integer.MAX_VALUE, limit), 0));
+			try {
+				results = this.shards.scatter(template -> template.selectList(statement, parameter));
+			}
+			finally {
+				context.setPageable(pageable);
+			}
+		}
+		else if (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+
+			offset = rowBounds.getOffset();
+			limit = rowBounds.getLimit() == RowBounds.NO_ROW_LIMIT ? Long.MAX_VALUE
+					: (long) rowBounds.getOffset() + rowBounds.getLimit();
+			RowBounds bounds = new RowBounds(0, (int) Math.min(Integer.MAX_VALUE, limit));
+			results = this.shards.scatter(template -> template.selectList(statement, parameter, bounds));
+		}
+		else {
+			results = this.shards.scatter(template -> template.selectList(statement, parameter));
+		}
+
+		List<Object> merged = merge(results, sort.isSorted() ? this.comparator(sort) : null, limit);
+		return (List<E>) (offset >= merged.size() ? new ArrayList<>()
+				: new ArrayList<>(merged.subList((int) offset, merged.size())));
+	}
+
+	@Override
+	public int insert(String statement) {
+		return this.update(statement, null);
+	}
+
+	@Override
+	public int insert(String statement, @Nullable Object parameter) {
+		return this.update(statement, parameter);
+	}
+
+	@Override
+	public int update(String statement) {
+		return this.update(statement, null);
+	}
+
+	@Override
+	public int update(String statement, @Nullable Object parameter) {
+
+		Integer shard = this.route(parameter);
+		if (null != shard) {
+			return this.shards.getTemplate(shard).update(statement, parameter);
+		}
+
+		// a query method compiled on its first invocation may not have replaced its
+		// placeholder yet
+		MappedStatement ms = DeferredStatements.resolve(this.getConfiguration().getMappedStatement(statement));
+		if (ms.getSqlCommandType() == SqlCommandType.INSERT) {
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Cannot insert %s without a value of its shard key %s!", this.entity.getType().getName(),
+					this.shardKey.getName()));
+		}
+
+		return this.shards.scatter(template -> template.update(statement, parameter)).stream()
+				.mapToInt(Integer::intValue).sum();
+	}
+
+	@Override
+	public int delete(String statement) {
+		return this.update(statement, null);
+	}
+
+	@Override
+	public int delete(String statement, @Nullable Object parameter) {
+		return this.update(statement, parameter);
+	}
+
+	/**
+	 * Execute a statement once per parameter, as one JDBC batch per shard.
+	 * @param statement statement id
+	 * @param parameters parameters carrying the shard key
+	 * @return the flushed batches of every shard
+	 */
+	public List<BatchResult> updateInBatch(String statement, Iterable<?> parameters) {
+
+		List<List<Object>> groups = new ArrayList<>();
+		for (int i = 0; i < this.shards.size(); i++) {
+			groups.add(new ArrayList<>());
+		}
+		for (Object parameter : parameters) {
+			Integer shard = this.route(parameter);
+			if (null == shard) {
+				throw new InvalidDataAccessApiUsageException(String.format(
+						"Cannot batch %s without a value of its shard key %s!", statement, this.shardKey.getName()));
+			}
+			groups.get(shard).add(parameter);
+		}
+
+		List<BatchResult> results = new ArrayList<>();
+		for (int i = 0; i < groups.size(); i++) {
+			if (!groups.get(i).isEmpty()) {
+				results.addAll(executeInBatch(this.shards.getTemplate(i), statement, groups.get(i)));
+			}
+		}
+		return results;
+	}
+
+	@Override
+	public <K, V> Map<K, V> selectMap(String statement, String mapKey) {
+		throw this.unsupported("selectMap");
+	}
+
+	@Override
+	public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey) {
+		throw this.unsupported("selectMap");
+	}
+
+	@Override
+	public <K, V> Map<K, V> selectMap(String statement, Object parameter, String mapKey, RowBounds rowBounds) {
+		throw this.unsupported("selectMap");
+	}
+
+	@Override
+	public <T> Cursor<T> selectCursor(String statement) {
+		throw this.unsupported("selectCursor");
+	}
+
+	@Override
+	public <T> Cursor<T> selectCursor(String statement, @Nullable Object parameter) {
+		return this.selectCursor(statement, parameter, RowBounds.DEFAULT);
+	}
+
+	@Override
+	public <T> Cursor<T> selectCursor(String statement, @Nullable Object parameter, RowBounds rowBounds) {
+
+		// a cursor can not be merged, it only opens on a single shard
+		Integer shard = this.route(parameter);
+		if (null == shard) {
+			throw new InvalidDataAccessApiUsageException(
+					String.format("Cannot open a cursor over %s without a value of its shard key %s!",
+							this.entity.getType().getName(), this.shardKey.getName()));
+		}
+		return this.shards.getTemplate(shard).selectCursor(statement, parameter, rowBounds);
+	}
+
+	@Override
+	public void select(String statement, Object parameter, ResultHandler handler) {
+		throw this.unsupported("select");
+	}
+
+	@Override
+	public void select(String statement, ResultHandler handler) {
+		throw this.unsupported("select");
+	}
+
+	@Override
+	public void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler) {
+		throw this.unsupported("select");
+	}
+
+	@Override
+	public void commit() {
+		throw new UnsupportedOperationException("Manual commit is not allowed over a Spring managed SqlSession");
+	}
+
+	@Override
+	public void commit(boolean force) {
+		throw new UnsupportedOperationException("Manual commit is not allowed over a Spring managed SqlSession");
+	}
+
+	@Override
+	public void rollback() {
+		throw new UnsupportedOperationException("Manual rollback is not allowed over a Spring managed SqlSession");
+	}
+
+	@Override
+	public void rollback(boolean force) {
+		throw new UnsupportedOperationException("Manual rollback is not allowed over a Spring managed SqlSession");
+	}
+
+	@Override
+	public List<BatchResult> flushStatements() {
+
+		return this.shards.scatter(SqlSessionTemplate::flushStatements).stream().flatMap(Collection::stream)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public void close() {
+		throw new UnsupportedOperationException("Manual close is not allowed over a Spring managed SqlSession");
+	}
+
+	@Override
+	public void clearCache() {
+		this.shards.getTemplates().forEach(SqlSessionTemplate::clearCache);
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return this.shards.getTemplate(0).getConfiguration();
+	}
+
+	@Override
+	public <T> T getMapper(Class<T> type) {
+		return this.getConfiguration().getMapper(type, this);
+	}
+
+	@Override
+	public Connection getConnection() {
+		throw this.unsupported("getConnection");
+	}
+
+	@Nullable
+	private Integer route(@Nullable Object parameter) {
+
+		if (!(parameter instanceof MybatisContext)) {
+			return null;
+		}
+
+		MybatisContext<?, ?> context = (MybatisContext<?, ?>) parameter;
+		Object instance = context.getInstance();
+		if (null != instance && this.entity.getType().isInstance(instance)) {
+			Object key = this.entity.getPropertyAccessor(instance).getProperty(this.shardKey);
+			return null == key ? null : this.shards.determineShard(key);
+		}
+
+		Object id = context.getId();
+		if (null != id && this.shardKey.isIdProperty() && isSingleValue(id)) {
+			return this.shards.determineShard(id);
+		}
+
+		Map<String, Object> values = context.getAdditionalValues();
+		Object key = null == values ? null : values.get(this.shardKey.getName());
+		return null != key && isSingleValue(key) ? this.shards.determineShard(key) : null;
+	}
+
+	private Comparator<Object> comparator(Sort sort) {
+
+		Comparator<Object> comparator = null;
+		for (Sort.Order order : sort) {
+			Comparator<Object> next = Comparator.comparing(this.extractor(order.getProperty()), valueComparator(order));
+			comparator = null == comparator ? next : comparator.thenComparing(next);
+		}
+		return comparator;
+	}
+
+	private Function<Object, Object> extractor(String property) {
+
+		MybatisPersistentPropertyImpl persistentProperty = this.entity.getPersistentProperty(property);
+		return row -> {
+			if (row instanceof Map) {
+				return ((Map<?, ?>) row).get(property);
+			}
+			if (null != persistentProperty && this.entity.getType().isInstance(row)) {
+				return this.entity.getPropertyAccessor(row).getProperty(persistentProperty);
+			}
+			return new DirectFieldAccessFallbackBeanWrapper(row).getPropertyValue(property);
+		};
+	}
+
+	private UnsupportedOperationException unsupported(String operation) {
+		return new UnsupportedOperationException(String.format("%s is not supported for the sharded entity %s",
+				operation, this.entity.getType().getName()));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Comparator<Object> valueComparator(Sort.Order order) {
+
+		Comparator<Object> comparator = (left, right) -> order.isIgnoreCase() && left instanceof String
+				&& right instanceof String ? String.CASE_INSENSITIVE_ORDER.compare((String) left, (String) right)
+						: ((Comparable) left).compareTo(right);
+		if (order.isDescending()) {
+			comparator = comparator.reversed();
+		}
+
+		switch (order.getNullHandling()) {
+		case NULLS_FIRST:
+			return Comparator.nullsFirst(comparator);
+		case NULLS_LAST:
+			return Comparator.nullsLast(comparator);
+		default:
+			return order.isAscending() ? Comparator.nullsFirst(comparator) : Comparator.nullsLast(comparator);
+		}
+	}
+
+	/**
+	 * Merge the sorted lists of the shards, keeping at most {@code limit} elements.
+	 */
+	private static List<Object> merge(List<List<Object>> lists, @Nullable Comparator<Object> comparator,
+			long limit) {
+
+		List<Object> merged = new ArrayList<>();
+		if (null == comparator) {
+			for (List<Object> list : lists) {
+				for (Object row : list) {
+					if (merged.size() >= limit) {
+						return merged;
+					}
+					merged.add(row);
+				}
+			}
+			return merged;
+		}
+
+		// ties keep the order of the shards
+		PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, lists.size()),
+				Comparator.comparing((Head head) -> head.row, comparator).thenComparingInt(head -> head.shard));
+		for (int i = 0; i < lists.size(); i++) {
+			Iterator<Object> iterator = lists.get(i).iterator();
+			if (iterator.hasNext()) {
+				heads.add(new Head(i, iterator));
+			}
+		}
+		while (!heads.isEmpty() && merged.size() < limit) {
+			Head head = heads.poll();
+			merged.add(head.row);
+			if (head.advance()) {
+				heads.add(head);
+			}
+		}
+		return merged;
+	}
+
+	private static boolean isAggregate(String statement) {
+
+		String name = statement.substring(statement.lastIndexOf('.') + 1);
+		return AGGREGATES.contains(name) || name.startsWith(COUNT_PREFIX);
+	}
+
+	private static Number sum(List<Object> values) {
+
+		Object first = values.get(0);
+		if (first instanceof BigDecimal) {
+			return values.stream().map(value -> new BigDecimal(value.toString())).reduce(BigDecimal.ZERO,
+					BigDecimal::add);
+		}
+		if (first instanceof BigInteger) {
+			return values.stream().map(value -> new BigInteger(value.toString())).reduce(BigInteger.ZERO,
+					BigInteger::add);
+		}
+		if (first instanceof Double || first instanceof Float) {
+			return values.stream().mapToDouble(value -> ((Number) value).doubleValue()).sum();
+		}
+		long sum = values.stream().mapToLong(value -> ((Number) value).longValue()).sum();
+		return first instanceof Integer ? (Number) Math.toIntExact(sum) : (Number) sum;
+	}
+
+	private static boolean isSingleValue(Object value) {
+		return !(value instanceof Iterable) && !value.getClass().isArray();
+	}
+
+	private static List<BatchResult> executeInBatch(SqlSessionTemplate template, String statement,
+			List<Object> parameters) {
+
+		try (SqlSession session = template.getSqlSessionFactory().openSession(ExecutorType.BATCH)) {
+
+			parameters.forEach(parameter -> session.update(statement, parameter));
+			List<BatchResult> results = session.flushStatements();
+			session.commit();
+
+			template.clearCache();
+			return results;
+		}
+		catch (PersistenceException ex) {
+			DataAccessException translated = template.getPersistenceExceptionTranslator()
+					.translateExceptionIfPossible(ex);
+			throw null != translated ? translated : ex;
+		}
+	}
+
+	private static final class Head {
+
+		private final int shard;
+
+		private final Iterator<Object> iterator;
+
+		private Object row;
+
+		private Head(int shard, Iterator<Object> iterator) {
+			this.shard = shard;
+			this.iterator = iterator;
+			this.row = iterator.next();
+		}
+
+		private boolean advance() {
+
+			if (!this.iterator.hasNext()) {
+				return false;
+			}
+			this.row = this.iterator.next();
+			return true;
+		}
+
+	}
+
+}
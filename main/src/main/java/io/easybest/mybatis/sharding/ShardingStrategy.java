@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.sharding;
+
+/**
+ * Maps the value of a {@link io.easybest.mybatis.annotation.ShardKey} property to a
+ * shard.
+ *
+ * @author Jarvis Song
+ */
+@FunctionalInterface
+public interface ShardingStrategy {
+
+	/**
+	 * Integral keys modulo the number of shards, any other key by its hash code.
+	 */
+	ShardingStrategy HASH = (key, shards) -> (key instanceof Long || key instanceof Integer
+			|| key instanceof Short || key instanceof Byte) ? (int) Math.floorMod(((Number) key).longValue(), shards)
+					: Math.floorMod(key.hashCode(), shards);
+
+	/**
+	 * Determine the shard of a key.
+	 * @param key shard key value, never {@literal null}
+	 * @param shards number of shards
+	 * @return index of the shard, from {@code 0} to {@code shards - 1}
+	 */
+	int determineShard(Object key, int shards);
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.session.Configuration;
+import org.mybatis.spring.MyBatisExceptionTranslator;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.annotation.ShardKey;
+import io.easybest.mybatis.mapping.MybatisPersistentEntity;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+
+/**
+ * The databases entities with a {@link ShardKey} property are spread over. Every shard
+ * is a {@link SqlSessionTemplate} sharing the {@link Configuration} of the
+ * {@link io.easybest.mybatis.mapping.EntityManager}, so the precompiled statements run
+ * unchanged on each of them.
+ * <p>
+ * Every shard has its own transactions, writes spanning several shards are not atomic.
+ *
+ * @author Jarvis Song
+ */
+public class Shards {
+
+	private final List<SqlSessionTemplate> templates;
+
+	private final ShardingStrategy strategy;
+
+	private final Map<Class<?>, Optional<ShardedSqlSession>> sessions = new ConcurrentHashMap<>();
+
+	private Executor executor;
+
+	public Shards(List<SqlSessionTemplate> templates) {
+		this(templates, ShardingStrategy.HASH);
+	}
+
+	public Shards(List<SqlSessionTemplate> templates, ShardingStrategy strategy) {
+
+		Assert.notEmpty(templates, "Shards must not be empty!");
+		Assert.notNull(strategy, "ShardingStrategy must not be null!");
+
+		this.templates = Collections.unmodifiableList(new ArrayList<>(templates));
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Create shards running the statements of the configuration on the given data
+	 * sources.
+	 * @param configuration configuration of the entity manager
+	 * @param dataSources one data source per shard
+	 * @return shards
+	 */
+	public static Shards of(Configuration configuration, List<DataSource> dataSources) {
+		return of(configuration, dataSources, ShardingStrategy.HASH);
+	}
+
+	public static Shards of(Configuration configuration, List<DataSource> dataSources, ShardingStrategy strategy) {
+
+		Assert.notNull(configuration, "Configuration must not be null!");
+		Assert.notEmpty(dataSources, "DataSources must not be empty!");
+
+		return new Shards(dataSources.stream()
+				.map(dataSource -> new SqlSessionTemplate(new ShardSqlSessionFactory(configuration, dataSource),
+						configuration.getDefaultExecutorType(), new MyBatisExceptionTranslator(dataSource, true)))
+				.collect(Collectors.toList()), strategy);
+	}
+
+	public int size() {
+		return this.templates.size();
+	}
+
+	public SqlSessionTemplate getTemplate(int shard) {
+		return this.templates.get(shard);
+	}
+
+	public List<SqlSessionTemplate> getTemplates() {
+		return this.templates;
+	}
+
+	public int determineShard(Object key) {
+
+		Assert.notNull(key, "Shard key must not be null!");
+
+		int shard = this.strategy.determineShard(key, this.templates.size());
+		Assert.state(shard >= 0 && shard < this.templates.size(),
+				String.format("Shard %d of key %s is out of range!", shard, key));
+		return shard;
+	}
+
+	/**
+	 * The session executing the statements of an entity on its shards.
+	 * @param entity persistent entity
+	 * @return session, {@literal null} if the entity has no {@link ShardKey} property
+	 */
+	@Nullable
+	public ShardedSqlSession getSession(MybatisPersistentEntity<?> entity) {
+
+		return this.sessions.computeIfAbsent(entity.getType(), type -> {
+			MybatisPersistentPropertyImpl shardKey = entity.getPersistentProperty(ShardKey.class);
+			return Optional.ofNullable(
+					null == shardKey ? null : new ShardedSqlSession(this, entity, shardKey));
+		}).orElse(null);
+	}
+
+	/**
+	 * Run an operation on every shard, in parallel unless a transaction is active on the
+	 * calling thread, which the shards then have to see.
+	 * @param operation operation
+	 * @param <R> result type
+	 * @return the results in the order of the shards
+	 */
+	public <R> List<R> scatter(Function<SqlSessionTemplate, R> operation) {
+
+		if (null == this.executor || this.templates.size() == 1
+				|| TransactionSynchronizationManager.isActualTransactionActive()) {
+			return this.templates.stream().map(operation).collect(Collectors.toList());
+		}
+
+		List<CompletableFuture<R>> futures = this.templates.stream()
+				.map(template -> CompletableFuture.supplyAsync(() -> operation.apply(template), this.executor))
+				.collect(Collectors.toList());
+
+		List<R> results = new ArrayList<>(futures.size());
+		for (CompletableFuture<R> future : futures) {
+			try {
+				results.add(future.join());
+			}
+			catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) ex.getCause();
+				}
+				throw ex;
+			}
+		}
+		return results;
+	}
+
+	@Nullable
+	public Executor getExecutor() {
+		return this.executor;
+	}
+
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.snapshot;
+
+import java.lang.reflect.Array;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.easybest.mybatis.annotation.DynamicUpdate;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+
+/**
+ * Snapshots of the column values of {@link DynamicUpdate} entities loaded within the
+ * current transaction. Snapshots are kept by entity identity and dropped when the
+ * transaction completes, nothing is tracked outside of a transaction.
+ *
+ * @author Jarvis Song
+ */
+public class EntitySnapshots {
+
+	/**
+	 * Bindable name of the properties changed since the snapshot.
+	 */
+	public static final String DIRTY = "__dirty";
+
+	private final Map<Class<?>, List<String>> properties = new HashMap<>();
+
+	public EntitySnapshots(EntityManager entityManager) {
+
+		for (MybatisPersistentEntityImpl<?> entity : entityManager.getPersistentEntities()) {
+			if (entity.isDynamicUpdate() && entity.hasIdProperty()) {
+				this.properties.put(entity.getType(), trackedProperties(entityManager, entity));
+			}
+		}
+	}
+
+	/**
+	 * Properties compared against the snapshot, one per column an update sets.
+	 * Associations and the id and version properties are not tracked.
+	 * @param entityManager entity manager
+	 * @param entity persistent entity
+	 * @return property paths
+	 */
+	public static List<String> trackedProperties(EntityManager entityManager, MybatisPersistentEntityImpl<?> entity) {
+
+		return entityManager.findPersistentPropertyPaths(entity.getType(), p -> !p.isAssociation()).stream()
+				.filter(ppp -> {
+					MybatisPersistentPropertyImpl leaf = ppp.getRequiredLeafProperty();
+					return !leaf.isEntity() && leaf.isWritable() && !leaf.isVersionProperty()
+							&& (null == ppp.getBaseProperty() || !ppp.getBaseProperty().isIdProperty());
+				}).map(ppp -> ppp.toDotPath()).collect(Collectors.toList());
+	}
+
+	/**
+	 * Whether any entity is annotated with {@link DynamicUpdate}.
+	 * @return {@literal true} if there are tracked entities
+	 */
+	public boolean hasEntities() {
+		return !this.properties.isEmpty();
+	}
+
+	public boolean isTracked(Class<?> type) {
+		return null != this.getProperties(type);
+	}
+
+	/**
+	 * Take a snapshot of a loaded or just written entity.
+	 * @param entity entity
+	 */
+	public void take(Object entity) {
+
+		List<String> properties = this.getProperties(entity.getClass());
+		Map<Object, Object[]> snapshots = this.getSnapshots(true);
+		if (null == properties || null == snapshots) {
+			return;
+		}
+
+		MetaObject meta = SystemMetaObject.forObject(entity);
+		Object[] values = new Object[properties.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = copy(meta.getValue(properties.get(i)));
+		}
+		snapshots.put(entity, values);
+	}
+
+	/**
+	 * Update the existing snapshot of an entity with its non-null values, the columns a
+	 * selective update sets. Entities without a snapshot are left untracked.
+	 * @param entity selectively updated entity
+	 */
+	public void refreshSelective(Object entity) {
+
+		List<String> properties = this.getProperties(entity.getClass());
+		Map<Object, Object[]> snapshots = this.getSnapshots(false);
+		Object[] values = (null == properties || null == snapshots) ? null : snapshots.get(entity);
+		if (null == values) {
+			return;
+		}
+
+		MetaObject meta = SystemMetaObject.forObject(entity);
+		for (int i = 0; i < values.length; i++) {
+			Object value = meta.getValue(properties.get(i));
+			if (null != value) {
+				values[i] = copy(value);
+			}
+		}
+	}
+
+	/**
+	 * Properties of an entity changed since its snapshot was taken.
+	 * @param entity entity
+	 * @return property paths, {@literal null} if there is no snapshot of the entity
+	 */
+	@Nullable
+	public Set<String> getDirtyProperties(Object entity) {
+
+		List<String> properties = this.getProperties(entity.getClass());
+		Map<Object, Object[]> snapshots = this.getSnapshots(false);
+		Object[] values = (null == properties || null == snapshots) ? null : snapshots.get(entity);
+		if (null == values) {
+			return null;
+		}
+
+		MetaObject meta = SystemMetaObject.forObject(entity);
+		Set<String> dirty = new LinkedHashSet<>();
+		for (int i = 0; i < values.length; i++) {
+			if (!Objects.deepEquals(values[i], meta.getValue(properties.get(i)))) {
+				dirty.add(properties.get(i));
+			}
+		}
+		return dirty;
+	}
+
+	@Nullable
+	private List<String> getProperties(Class<?> type) {
+
+		// lazy loading proxies subclass the entity
+		for (Class<?> current = type; null != current && Object.class != current; current = current
+				.getSuperclass()) {
+			List<String> properties = this.properties.get(current);
+			if (null != properties) {
+				return properties;
+			}
+		}
+		return null;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private Map<Object, Object[]> getSnapshots(boolean create) {
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+
+		Map<Object, Object[]> snapshots = (Map<Object, Object[]>) TransactionSynchronizationManager.getResource(this);
+		if (null == snapshots && create) {
+
+			snapshots = Collections.synchronizedMap(new IdentityHashMap<>());
+			TransactionSynchronizationManager.bindResource(this, snapshots);
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+				@Override
+				public void afterCompletion(int status) {
+					TransactionSynchronizationManager.unbindResourceIfPossible(EntitySnapshots.this);
+				}
+			});
+		}
+		return snapshots;
+	}
+
+	private static Object copy(Object value) {
+
+		if (value instanceof Date) {
+			return ((Date) value).clone();
+		}
+		if (null != value && value.getClass().isArray()) {
+
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+			System.arraycopy(value, 0, copy, 0, length);
+			return copy;
+		}
+		return value;
+	}
+
+}
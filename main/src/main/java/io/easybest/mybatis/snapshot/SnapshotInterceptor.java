@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.snapshot;
+
+import java.util.List;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.util.Assert;
+
+/**
+ * Takes {@link EntitySnapshots snapshots} of the entities returned by queries.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({ @Signature(type = Executor.class, method = "query",
+		args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }) })
+public class SnapshotInterceptor implements Interceptor {
+
+	private final EntitySnapshots snapshots;
+
+	public SnapshotInterceptor(EntitySnapshots snapshots) {
+
+		Assert.notNull(snapshots, "EntitySnapshots must not be null!");
+
+		this.snapshots = snapshots;
+	}
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		Object result = invocation.proceed();
+
+		if (result instanceof List) {
+			for (Object row : (List<?>) result) {
+				if (null != row && this.snapshots.isTracked(row.getClass())) {
+					this.snapshots.take(row);
+				}
+			}
+		}
+
+		return result;
+	}
+
+}
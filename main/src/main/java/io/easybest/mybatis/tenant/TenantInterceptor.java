@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.tenant;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.annotation.Tenant;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+/**
+ * Binds the current tenant to the statements of entities annotated with {@link Tenant}.
+ * The generated statements of such entities lead their where clauses with the tenant
+ * column compared to the bound tenant, and inserts store it. Writes fill a
+ * {@literal null} tenant property of the entity with the current tenant.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({
+		@Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "queryCursor",
+				args = { MappedStatement.class, Object.class, RowBounds.class }) })
+public class TenantInterceptor implements Interceptor {
+
+	/**
+	 * Bindable name of the current tenant.
+	 */
+	public static final String TENANT = "__tenant";
+
+	private final TenantResolver resolver;
+
+	private final Map<String, MybatisPersistentEntityImpl<?>> entities = new HashMap<>();
+
+	public TenantInterceptor(EntityManager entityManager, TenantResolver resolver) {
+
+		Assert.notNull(resolver, "TenantResolver must not be null!");
+
+		this.resolver = resolver;
+
+		for (MybatisPersistentEntityImpl<?> entity : entityManager.getPersistentEntities()) {
+			if (entity.getTenantColumn().isPresent()) {
+				this.entities.put(entity.getType().getName(), entity);
+			}
+		}
+	}
+
+	/**
+	 * Whether any entity is scoped to a tenant.
+	 * @return {@literal true} if there are tenant scoped entities
+	 */
+	public boolean hasTenants() {
+		return !this.entities.isEmpty();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+		Object parameter = invocation.getArgs()[1];
+
+		if (parameter instanceof MybatisContext) {
+
+			MybatisContext<Object, ?> context = (MybatisContext<Object, ?>) parameter;
+			MybatisPersistentEntityImpl<?> entity = null == context.getDomainType() ? null
+					: this.entities.get(context.getDomainType().getName());
+			Object tenant = this.resolve(entity);
+			context.setBindable(TENANT, tenant);
+
+			if (null != entity && null != context.getInstance() && ms.getSqlCommandType() != SqlCommandType.SELECT) {
+				this.fill(entity, context.getInstance(), tenant);
+			}
+			return invocation.proceed();
+		}
+
+		// nested selects of associations pass the join columns of the owner only
+		int idx = ms.getId().lastIndexOf('.');
+		MybatisPersistentEntityImpl<?> entity = idx < 0 ? null : this.entities.get(ms.getId().substring(0, idx));
+		if (null != entity && parameter instanceof Map && !((Map<String, Object>) parameter).containsKey("bindable")) {
+			((Map<String, Object>) parameter).put("bindable", Collections.singletonMap(TENANT, this.resolve(entity)));
+		}
+
+		return invocation.proceed();
+	}
+
+	private Object resolve(MybatisPersistentEntityImpl<?> entity) {
+
+		Object tenant = this.resolver.resolveTenant();
+		if (null == tenant && null != entity) {
+			throw new InvalidDataAccessApiUsageException(
+					"No tenant resolved for the tenant scoped entity " + entity.getEntityName() + "!");
+		}
+		return tenant;
+	}
+
+	private void fill(MybatisPersistentEntityImpl<?> entity, Object instance, Object tenant) {
+
+		if (!entity.getType().isInstance(instance)) {
+			return;
+		}
+
+		String column = entity.getTenantColumn().get();
+		for (MybatisPersistentPropertyImpl property : entity) {
+
+			if (property.isAssociation() || property.isEntity() || null == property.getColumnName()
+					|| !column.equalsIgnoreCase(property.getRequiredColumnName().getReference())) {
+				continue;
+			}
+
+			PersistentPropertyAccessor<Object> accessor = entity.getPropertyAccessor(instance);
+			if (null == accessor.getProperty(property)) {
+				accessor.setProperty(property,
+						DefaultConversionService.getSharedInstance().convert(tenant, property.getType()));
+			}
+			return;
+		}
+	}
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.tenant;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Resolves the tenant the statements of {@link io.easybest.mybatis.annotation.Tenant}
+ * scoped entities are restricted to, usually from the current request or security
+ * context.
+ *
+ * @author Jarvis Song
+ */
+@FunctionalInterface
+public interface TenantResolver {
+
+	/**
+	 * Resolve the current tenant.
+	 * @return tenant, {@literal null} if there is none
+	 */
+	@Nullable
+	Object resolveTenant();
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.writebehind;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.repository.BatchOptimisticLockingFailureException;
+import io.easybest.mybatis.repository.support.MybatisContext;
+import io.easybest.mybatis.repository.support.SimpleMybatisRepository;
+import io.easybest.mybatis.repository.support.SqlSessionRepositorySupport;
+import io.easybest.mybatis.snapshot.EntitySnapshots;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_BY_ENTITY;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DOT;
+
+/**
+ * Writes of a transaction waiting to be flushed. Consecutive writes of the same
+ * statement are grouped, and the groups are flushed as JDBC batches in the order they
+ * were queued, so parents inserted before their children are still inserted first. A
+ * repeated write of the same entity by the same statement is coalesced and moves to the
+ * position of the last write, the entity is read when it is flushed.
+ *
+ * @author Jarvis Song
+ */
+public class UnitOfWork {
+
+	private final EntityManager entityManager;
+
+	private final List<Group> groups = new ArrayList<>();
+
+	private final Map<Key, Group> queued = new HashMap<>();
+
+	private final Set<Class<?>> domainTypes = new HashSet<>();
+
+	private boolean flushing;
+
+	UnitOfWork(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	void add(MappedStatement ms, MybatisContext<?, ?> context) {
+
+		Key key = new Key(ms, context.getInstance());
+		Group previous = this.queued.remove(key);
+		if (null != previous) {
+			MybatisContext<?, ?> queued = previous.writes.remove(key);
+			if (queued != context) {
+				merge(queued, context);
+				context = queued;
+			}
+			if (previous.writes.isEmpty()) {
+				this.groups.remove(previous);
+			}
+		}
+
+		Group last = this.groups.isEmpty() ? null : this.groups.get(this.groups.size() - 1);
+		if (null == last || last.ms != ms) {
+			last = new Group(ms);
+			this.groups.add(last);
+		}
+		last.writes.put(key, context);
+		this.queued.put(key, last);
+		this.domainTypes.add(context.getDomainType());
+	}
+
+	public boolean hasPending() {
+		return !this.groups.isEmpty();
+	}
+
+	/**
+	 * Whether writes of the domain type are waiting to be flushed.
+	 * @param domainType domain type
+	 * @return {@literal true} if there are pending writes
+	 */
+	public boolean isPending(Class<?> domainType) {
+		return this.domainTypes.contains(domainType);
+	}
+
+	public boolean isFlushing() {
+		return this.flushing;
+	}
+
+	/**
+	 * Execute the pending writes as JDBC batches on the connection of the current
+	 * transaction, and increase the versions of the updated versioned entities.
+	 * @throws BatchOptimisticLockingFailureException when versioned updates matched no
+	 * row
+	 * @throws EmptyResultDataAccessException when deleted entities did not exist
+	 */
+	public void flush() {
+
+		if (this.flushing || this.groups.isEmpty()) {
+			return;
+		}
+
+		List<Group> groups = new ArrayList<>(this.groups);
+		this.groups.clear();
+		this.queued.clear();
+		this.domainTypes.clear();
+
+		List<BatchResult> results;
+		this.flushing = true;
+		try {
+			results = SqlSessionRepositorySupport.executeInBatch(this.entityManager.getSqlSessionTemplate(),
+					session -> groups.forEach(group -> group.writes.values()
+							.forEach(context -> session.update(group.ms.getId(), context))));
+		}
+		finally {
+			this.flushing = false;
+		}
+
+		results.forEach(this::verify);
+		results.forEach(this::increaseVersions);
+	}
+
+	private void verify(BatchResult result) {
+
+		MappedStatement ms = result.getMappedStatement();
+		int[] updateCounts = result.getUpdateCounts();
+		List<Object> parameters = result.getParameterObjects();
+
+		List<Object> failed = new ArrayList<>();
+		Class<?> domainType = null;
+		for (int i = 0; i < updateCounts.length; i++) {
+			// Statement.SUCCESS_NO_INFO is treated as success
+			if (updateCounts[i] == 0) {
+				MybatisContext<?, ?> context = (MybatisContext<?, ?>) parameters.get(i);
+				domainType = context.getDomainType();
+				failed.add(context.getInstance());
+			}
+		}
+		if (failed.isEmpty()) {
+			return;
+		}
+
+		if (ms.getId().endsWith(DOT + DELETE_BY_ENTITY)) {
+			throw new EmptyResultDataAccessException(
+					String.format("%d of %d deleted %s entities did not exist!", failed.size(),
+							updateCounts.length, domainType.getName()),
+					failed.size());
+		}
+
+		MybatisPersistentEntityImpl<?> entity = this.entityManager.getRequiredPersistentEntity(domainType);
+		if (ms.getSqlCommandType() == SqlCommandType.UPDATE && entity.hasVersionProperty()) {
+			throw new BatchOptimisticLockingFailureException(domainType, updateCounts.length, failed);
+		}
+	}
+
+	/**
+	 * Increase the versions of the entities of a verified batch the same way the update
+	 * statement did.
+	 * @param result flushed batch
+	 */
+	private void increaseVersions(BatchResult result) {
+
+		if (result.getMappedStatement().getSqlCommandType() != SqlCommandType.UPDATE) {
+			return;
+		}
+
+		for (Object parameter : result.getParameterObjects()) {
+			MybatisContext<?, ?> context = (MybatisContext<?, ?>) parameter;
+			MybatisPersistentEntityImpl<?> entity = this.entityManager
+					.getRequiredPersistentEntity(context.getDomainType());
+			if (!entity.hasVersionProperty()) {
+				return;
+			}
+			SimpleMybatisRepository.increaseVersion(entity, context.getInstance());
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void merge(MybatisContext<?, ?> queued, MybatisContext<?, ?> context) {
+
+		// union the changed properties of dynamic updates
+		Object dirty = null == queued.getBindable() ? null : queued.getBindable().get(EntitySnapshots.DIRTY);
+		Object more = null == context.getBindable() ? null : context.getBindable().get(EntitySnapshots.DIRTY);
+		if (dirty instanceof Set && more instanceof Set) {
+			((Set<String>) dirty).addAll((Set<String>) more);
+		}
+	}
+
+	private static final class Group {
+
+		private final MappedStatement ms;
+
+		private final Map<Key, MybatisContext<?, ?>> writes = new LinkedHashMap<>();
+
+		private Group(MappedStatement ms) {
+			this.ms = ms;
+		}
+
+	}
+
+	private static final class Key {
+
+		private final MappedStatement ms;
+
+		private final Object instance;
+
+		private Key(MappedStatement ms, Object instance) {
+			this.ms = ms;
+			this.instance = instance;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).ms == this.ms && ((Key) obj).instance == this.instance;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(this.ms) + System.identityHashCode(this.instance);
+		}
+
+	}
+
+}
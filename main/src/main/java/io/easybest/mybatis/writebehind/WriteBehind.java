@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.writebehind;
+
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.id.IdGenerator;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+/**
+ * Defers the writes of a transaction to its {@link UnitOfWork}, which is flushed before
+ * the commit or before a query depending on the writes. Nothing is deferred outside of a
+ * read-write transaction.
+ * <p>
+ * Inserts are deferred only if the id is known before the statement, either assigned by
+ * the application or by an {@link IdGenerator}. Inserts using identity columns, select
+ * keys, generated keys or pooled sequences flush the pending writes and run at once.
+ *
+ * @author Jarvis Song
+ */
+public class WriteBehind {
+
+	private final EntityManager entityManager;
+
+	public WriteBehind(EntityManager entityManager) {
+
+		Assert.notNull(entityManager, "EntityManager must not be null!");
+
+		this.entityManager = entityManager;
+	}
+
+	/**
+	 * Queue a write to the unit of work of the current transaction.
+	 * @param statement fully qualified statement name
+	 * @param context parameter of the statement
+	 * @return {@literal true} if the write was queued, {@literal false} if it has to be
+	 * executed now
+	 */
+	public boolean defer(String statement, MybatisContext<?, ?> context) {
+
+		if (null == context.getDomainType() || null == context.getInstance()) {
+			return false;
+		}
+
+		MappedStatement ms = this.entityManager.getSqlSessionTemplate().getConfiguration()
+				.getMappedStatement(statement, false);
+		MybatisPersistentEntityImpl<?> entity = this.entityManager.getPersistentEntity(context.getDomainType());
+		if (null == ms || null == entity || ms.getSqlCommandType() == SqlCommandType.SELECT) {
+			return false;
+		}
+		if (ms.getSqlCommandType() == SqlCommandType.INSERT && !this.assignId(ms, entity, context.getInstance())) {
+			return false;
+		}
+
+		UnitOfWork unitOfWork = this.getUnitOfWork(true);
+		if (null == unitOfWork) {
+			return false;
+		}
+
+		unitOfWork.add(ms, context);
+		return true;
+	}
+
+	/**
+	 * Unit of work of the current transaction.
+	 * @param create whether to create it if the transaction has none yet
+	 * @return unit of work, {@literal null} if there is no read-write transaction or
+	 * none was created
+	 */
+	@Nullable
+	public UnitOfWork getUnitOfWork(boolean create) {
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return null;
+		}
+
+		UnitOfWork unitOfWork = (UnitOfWork) TransactionSynchronizationManager.getResource(this);
+		if (null != unitOfWork || !create || !TransactionSynchronizationManager.isActualTransactionActive()
+				|| TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return unitOfWork;
+		}
+
+		UnitOfWork created = new UnitOfWork(this.entityManager);
+		TransactionSynchronizationManager.bindResource(this, created);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void suspend() {
+				TransactionSynchronizationManager.unbindResourceIfPossible(WriteBehind.this);
+			}
+
+			@Override
+			public void resume() {
+				TransactionSynchronizationManager.bindResource(WriteBehind.this, created);
+			}
+
+			@Override
+			public void flush() {
+				created.flush();
+			}
+
+			@Override
+			public void beforeCommit(boolean readOnly) {
+				created.flush();
+			}
+
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResourceIfPossible(WriteBehind.this);
+			}
+		});
+		return created;
+	}
+
+	private boolean assignId(MappedStatement ms, MybatisPersistentEntityImpl<?> entity, Object instance) {
+
+		if (!(ms.getKeyGenerator() instanceof NoKeyGenerator)) {
+			return false;
+		}
+		if (!entity.hasIdProperty()) {
+			return true;
+		}
+
+		MybatisPersistentPropertyImpl idProperty = entity.getRequiredIdProperty();
+		PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(instance);
+		if (null != accessor.getProperty(idProperty)) {
+			return true;
+		}
+
+		IdGenerator generator = entity.getIdGenerator();
+		if (null == generator) {
+			return false;
+		}
+		accessor.setProperty(idProperty,
+				DefaultConversionService.getSharedInstance().convert(generator.generate(), idProperty.getType()));
+		return true;
+	}
+
+}
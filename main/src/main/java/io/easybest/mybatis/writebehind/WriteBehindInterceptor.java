@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.writebehind;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+/**
+ * Flushes the {@link UnitOfWork} of the current transaction before a statement that may
+ * depend on its pending writes: any write executed at once, a query of a domain type
+ * with pending writes, or a query without a domain type. Queries of other domain types
+ * do not flush, even if they join the tables of pending writes.
+ *
+ * @author Jarvis Song
+ */
+@Intercepts({ @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+		@Signature(type = Executor.class, method = "query",
+				args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+		@Signature(type = Executor.class, method = "queryCursor",
+				args = { MappedStatement.class, Object.class, RowBounds.class }) })
+public class WriteBehindInterceptor implements Interceptor {
+
+	private final WriteBehind writeBehind;
+
+	public WriteBehindInterceptor(WriteBehind writeBehind) {
+
+		Assert.notNull(writeBehind, "WriteBehind must not be null!");
+
+		this.writeBehind = writeBehind;
+	}
+
+	@Override
+	public Object intercept(Invocation invocation) throws Throwable {
+
+		UnitOfWork unitOfWork = this.writeBehind.getUnitOfWork(false);
+		if (null != unitOfWork && !unitOfWork.isFlushing() && unitOfWork.hasPending()
+				&& this.isDependent(unitOfWork, (MappedStatement) invocation.getArgs()[0],
+						invocation.getArgs()[1])) {
+			unitOfWork.flush();
+		}
+
+		return invocation.proceed();
+	}
+
+	private boolean isDependent(UnitOfWork unitOfWork, MappedStatement ms, Object parameter) {
+
+		if (ms.getSqlCommandType() != SqlCommandType.SELECT || !(parameter instanceof MybatisContext)) {
+			return true;
+		}
+
+		Class<?> domainType = ((MybatisContext<?, ?>) parameter).getDomainType();
+		return null == domainType || unitOfWork.isPending(domainType);
+	}
+
+}
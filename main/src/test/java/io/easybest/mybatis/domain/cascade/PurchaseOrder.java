@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.domain.cascade;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
+import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Sample aggregate root with inverse and join table to-many associations.
+ *
+ * @author Jarvis Song
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+public class PurchaseOrder {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private String code;
+
+	@OneToMany(mappedBy = "purchaseOrder")
+	private List<OrderLine> lines = new ArrayList<>();
+
+	@ManyToMany
+	@JoinTable(name = "purchase_order_label", joinColumns = @JoinColumn(name = "order_id", referencedColumnName = "id"),
+			inverseJoinColumns = @JoinColumn(name = "label_id", referencedColumnName = "id"))
+	private List<Label> labels = new ArrayList<>();
+
+	public PurchaseOrder(String code) {
+		this.code = code;
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.domain.rowmapping;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sample domain class mapped through setters, with nullable, primitive and type handled
+ * properties.
+ *
+ * @author Jarvis Song
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class Measurement {
+
+	@Id
+	private Long id;
+
+	private String name;
+
+	private Integer amount;
+
+	private int level;
+
+	private Double ratio;
+
+	private LocalDateTime takenAt;
+
+	private UUID token;
+
+	@Enumerated(EnumType.STRING)
+	private Unit unit;
+
+	public enum Unit {
+
+		GRAM, METRE
+
+	}
+
+}
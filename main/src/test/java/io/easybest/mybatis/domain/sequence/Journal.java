@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.domain.sequence;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sample domain class with ids selected from a sequence before every insert.
+ *
+ * @author Jarvis Song
+ */
+@Data
+@NoArgsConstructor
+@Entity
+public class Journal {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "journal_generator")
+	@SequenceGenerator(name = "journal_generator", sequenceName = "seq_journal")
+	private Long id;
+
+	private String memo;
+
+	public Journal(String memo) {
+		this.memo = memo;
+	}
+
+}
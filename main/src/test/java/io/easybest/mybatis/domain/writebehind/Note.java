@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.domain.writebehind;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Version;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Sample versioned child of a {@link Memo}.
+ *
+ * @author Jarvis Song
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+public class Note {
+
+	@Id
+	private Long id;
+
+	private String text;
+
+	@Version
+	private Long version;
+
+	@ManyToOne
+	@JoinColumn(name = "memo_id", referencedColumnName = "id")
+	private Memo memo;
+
+	public Note(Long id, String text, Memo memo) {
+		this.id = id;
+		this.text = text;
+		this.memo = memo;
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.procedure.Book;
+import io.easybest.mybatis.domain.sample.Role;
+import io.easybest.mybatis.domain.sample.User;
+import io.easybest.mybatis.mapping.MappingObjectFactory.InstantiationPlan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the instantiation plans cached by {@link MappingObjectFactory}.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration("classpath:application-context.xml")
+public class MappingObjectFactoryTests {
+
+	@Autowired
+	DefaultEntityManager entityManager;
+
+	private MappingObjectFactory factory;
+
+	@BeforeEach
+	void setUp() {
+		this.factory = new MappingObjectFactory(this.entityManager);
+	}
+
+	@Test
+	void reusesPlanOfType() {
+
+		InstantiationPlan plan = this.factory.plan(User.class);
+
+		assertThat(plan).isNotSameAs(InstantiationPlan.NONE);
+		assertThat(this.factory.plan(User.class)).isSameAs(plan);
+		assertThat(this.factory.create(User.class)).isInstanceOf(User.class);
+		assertThat(this.factory.plan(User.class)).isSameAs(plan);
+	}
+
+	@Test
+	void delegatesTypesWithoutPersistentEntity() {
+
+		assertThat(this.factory.plan(ArrayList.class)).isSameAs(InstantiationPlan.NONE);
+		assertThat(this.factory.create(ArrayList.class)).isInstanceOf(ArrayList.class);
+		assertThat(this.factory.create(StringBuilder.class, Collections.singletonList(String.class),
+				Collections.singletonList("value"))).hasToString("value");
+	}
+
+	@Test
+	void recreatesPlanAfterEviction() {
+
+		InstantiationPlan plan = this.factory.plan(Role.class);
+
+		this.factory.evict(Role.class);
+
+		assertThat(this.factory.plan(Role.class)).isNotSameAs(plan).isNotSameAs(InstantiationPlan.NONE);
+		assertThat(this.factory.plan(User.class)).isSameAs(this.factory.plan(User.class));
+	}
+
+	@Test
+	@DirtiesContext
+	void evictsPlanOfTypeBecomingPersistentEntity() {
+
+		MappingObjectFactory objectFactory = (MappingObjectFactory) this.entityManager.getSqlSessionTemplate()
+				.getConfiguration().getObjectFactory();
+		assertThat(objectFactory.plan(Book.class)).isSameAs(InstantiationPlan.NONE);
+
+		this.entityManager.getRequiredPersistentEntity(Book.class);
+
+		assertThat(objectFactory.plan(Book.class)).isNotSameAs(InstantiationPlan.NONE);
+		assertThat(objectFactory.create(Book.class)).isInstanceOf(Book.class);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.LocalDateTimeTypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.jupiter.api.Test;
+
+import io.easybest.mybatis.dialect.H2Dialect;
+import io.easybest.mybatis.dialect.MariaDBDialect;
+import io.easybest.mybatis.dialect.MySQLDialect;
+import io.easybest.mybatis.dialect.PostgreSQLDialect;
+import io.easybest.mybatis.mapping.handler.BinaryUUIDTypeHandler;
+import io.easybest.mybatis.mapping.handler.NativeUUIDTypeHandler;
+import io.easybest.mybatis.mapping.handler.UUIDTypeHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the dialect selected type handlers of {@link TypeRegistry}.
+ *
+ * @author Jarvis Song
+ */
+public class TypeRegistryTests {
+
+	@Test
+	void storesUuidsAsCharactersOnMysqlByDefault() {
+
+		assertThat(TypeRegistry.typeHandler(new MySQLDialect(), UUID.class, null)).isEqualTo(UUIDTypeHandler.class);
+		assertThat(TypeRegistry.typeHandler(new MariaDBDialect(), UUID.class, null))
+				.isEqualTo(UUIDTypeHandler.class);
+	}
+
+	@Test
+	void storesUuidsAsBytesOnMysqlWhenEnabled() {
+
+		MySQLDialect dialect = new MySQLDialect();
+		dialect.setBinaryUuid(true);
+
+		assertThat(TypeRegistry.typeHandler(dialect, UUID.class, null)).isEqualTo(BinaryUUIDTypeHandler.class);
+		// a character column still declares its encoding
+		assertThat(TypeRegistry.typeHandler(dialect, UUID.class, JdbcType.CHAR)).isEqualTo(UUIDTypeHandler.class);
+	}
+
+	@Test
+	void selectsUuidEncodingByColumnHint() {
+
+		assertThat(TypeRegistry.typeHandler(new MySQLDialect(), UUID.class, JdbcType.BINARY))
+				.isEqualTo(BinaryUUIDTypeHandler.class);
+		assertThat(TypeRegistry.uuidJdbcType(BinaryUUIDTypeHandler.class)).isEqualTo(JdbcType.BINARY);
+		assertThat(TypeRegistry.uuidJdbcType(UUIDTypeHandler.class)).isEqualTo(JdbcType.VARCHAR);
+	}
+
+	@Test
+	void storesUuidsAsCharactersOnH2AndPostgresqlByDefault() {
+
+		assertThat(TypeRegistry.typeHandler(new H2Dialect(), UUID.class, null)).isEqualTo(UUIDTypeHandler.class);
+		assertThat(TypeRegistry.typeHandler(new PostgreSQLDialect(), UUID.class, null))
+				.isEqualTo(UUIDTypeHandler.class);
+	}
+
+	@Test
+	void bindsUuidsNativelyWhenEnabled() {
+
+		H2Dialect h2 = new H2Dialect();
+		h2.setNativeUuid(true);
+		PostgreSQLDialect postgresql = new PostgreSQLDialect();
+		postgresql.setNativeUuid(true);
+
+		assertThat(TypeRegistry.typeHandler(h2, UUID.class, null)).isEqualTo(NativeUUIDTypeHandler.class);
+		assertThat(TypeRegistry.typeHandler(postgresql, UUID.class, null)).isEqualTo(NativeUUIDTypeHandler.class);
+		assertThat(TypeRegistry.uuidJdbcType(NativeUUIDTypeHandler.class)).isEqualTo(JdbcType.OTHER);
+		// a character column still declares its encoding
+		assertThat(TypeRegistry.typeHandler(postgresql, UUID.class, JdbcType.VARCHAR))
+				.isEqualTo(UUIDTypeHandler.class);
+	}
+
+	@Test
+	void registersUuidHandlerOfDialect() {
+
+		TypeHandlerRegistry registry = new Configuration().getTypeHandlerRegistry();
+		TypeRegistry.register(registry, new H2Dialect());
+
+		assertThat(registry.getTypeHandler(UUID.class)).isInstanceOf(UUIDTypeHandler.class);
+		// java.time values are left to the JSR-310 handlers of MyBatis
+		assertThat(registry.getTypeHandler(LocalDateTime.class)).isInstanceOf(LocalDateTimeTypeHandler.class);
+	}
+
+}
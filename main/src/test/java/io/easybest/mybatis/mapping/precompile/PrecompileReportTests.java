@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.mapping.precompile;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.sample.User;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.precompile.PrecompileReport.Entry;
+import io.easybest.mybatis.mapping.precompile.PrecompileReport.Kind;
+import io.easybest.mybatis.mapping.precompile.PrecompileReport.Phase;
+import io.easybest.mybatis.repository.sample.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link PrecompileReport}.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration("classpath:application-context.xml")
+public class PrecompileReportTests {
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Test
+	void recordsPhasesOfEntities() {
+
+		Entry entry = this.entry(Kind.ENTITY, User.class.getName());
+
+		assertThat(entry.getNanos(Phase.MAPPING)).isPositive();
+		assertThat(entry.getNanos(Phase.SNIPPET)).isPositive();
+		assertThat(entry.getNanos(Phase.XML)).isPositive();
+		assertThat(entry.getNanos(Phase.PARSE)).isPositive();
+	}
+
+	@Test
+	@DirtiesContext
+	void recordsSelfTimeOfNestedEntities() {
+
+		long start = System.nanoTime();
+		this.entityManager.getRequiredPersistentEntity(Shelf.class);
+		long elapsed = System.nanoTime() - start;
+
+		long shelf = this.entry(Kind.ENTITY, Shelf.class.getName()).getNanos(Phase.MAPPING);
+		long tag = this.entry(Kind.ENTITY, Tag.class.getName()).getNanos(Phase.MAPPING);
+
+		assertThat(shelf).isPositive();
+		assertThat(tag).isPositive();
+		assertThat(shelf + tag).isLessThanOrEqualTo(elapsed);
+	}
+
+	@Test
+	void recordsPhasesOfQueryMethods() {
+
+		Entry entry = this.entry(Kind.QUERY_METHOD, UserRepository.class.getName() + ".findByLastname");
+
+		assertThat(entry.getNanos(Phase.MAPPING)).isZero();
+		assertThat(entry.getNanos(Phase.PARSE)).isPositive();
+		assertThat(entry.getTotalNanos()).isEqualTo(entry.getNanos(Phase.SNIPPET) + entry.getNanos(Phase.XML)
+				+ entry.getNanos(Phase.PARSE));
+	}
+
+	@Test
+	void summarizesSlowestEntries() {
+
+		PrecompileReport report = this.entityManager.getPrecompileReport();
+		long slowest = report.getEntries().stream().mapToLong(Entry::getTotalNanos).max().orElse(0);
+
+		String summary = report.summary(1);
+
+		assertThat(summary).startsWith("Precompiled " + report.getEntries().size() + " mappers in ");
+		assertThat(summary.split(System.lineSeparator())).hasSize(2);
+		assertThat(report.getEntries()).filteredOn(entry -> summary.contains(entry.toString()))
+				.allSatisfy(entry -> assertThat(entry.getTotalNanos()).isEqualTo(slowest));
+		assertThat(report.getTotals().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(
+				report.getEntries().stream().mapToLong(Entry::getTotalNanos).sum());
+	}
+
+	private Entry entry(Kind kind, String name) {
+
+		return this.entityManager.getPrecompileReport().getEntries().stream()
+				.filter(entry -> entry.getKind() == kind && entry.getName().equals(name)).findFirst()
+				.orElseThrow(() -> new AssertionError("No report entry of " + kind + ' ' + name));
+	}
+
+	@Entity
+	static class Shelf {
+
+		@Id
+		private Long id;
+
+		private Tag tag;
+
+	}
+
+	static class Tag {
+
+		private String name;
+
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.metrics;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import io.easybest.mybatis.domain.sample.User;
+import io.easybest.mybatis.repository.sample.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link MicrometerMybatisMetrics}.
+ *
+ * @author Jarvis Song
+ */
+public class MicrometerMybatisMetricsTests {
+
+	private SimpleMeterRegistry registry;
+
+	private MicrometerMybatisMetrics metrics;
+
+	@BeforeEach
+	void setUp() {
+
+		this.registry = new SimpleMeterRegistry();
+		this.metrics = new MicrometerMybatisMetrics(this.registry);
+	}
+
+	@Test
+	void recordsQueryMethodsWithRowsReturned() {
+
+		this.metrics.recordQuery(UserRepository.class, "findByLastname", "UserRepository.findByLastname",
+				() -> Arrays.asList(new User(), new User()));
+
+		Timer timer = this.registry.get("spring.data.mybatis.query").tag("repository", "UserRepository")
+				.tag("method", "findByLastname").tag("statement", "UserRepository.findByLastname")
+				.tag("exception", "none").timer();
+		DistributionSummary rows = this.registry.get("spring.data.mybatis.query.rows")
+				.tag("repository", "UserRepository").tag("method", "findByLastname").summary();
+
+		assertThat(timer.count()).isEqualTo(1);
+		assertThat(rows.count()).isEqualTo(1);
+		assertThat(rows.totalAmount()).isEqualTo(2);
+	}
+
+	@Test
+	void countsAffectedRowsOfModifyingStatements() {
+
+		this.metrics.recordStatement("User.__update", "update", () -> 3);
+		this.metrics.recordStatement("User.__find_by_id", "select", () -> Optional.of(new User()));
+		this.metrics.recordStatement("User.__count", "select", () -> 42L);
+
+		assertThat(this.registry.get("spring.data.mybatis.statement.rows").tag("operation", "update").summary()
+				.totalAmount()).isEqualTo(3);
+		assertThat(this.registry.get("spring.data.mybatis.statement.rows").tag("statement", "User.__find_by_id")
+				.summary().totalAmount()).isEqualTo(1);
+		assertThat(this.registry.get("spring.data.mybatis.statement.rows").tag("statement", "User.__count")
+				.summary().totalAmount()).isEqualTo(1);
+	}
+
+	@Test
+	void tagsFailuresWithExceptionType() {
+
+		assertThatExceptionOfType(EmptyResultDataAccessException.class)
+				.isThrownBy(() -> this.metrics.recordStatement("User.__delete_by_id", "delete", () -> {
+					throw new EmptyResultDataAccessException(1);
+				}));
+
+		assertThat(this.registry.get("spring.data.mybatis.statement").tag("statement", "User.__delete_by_id")
+				.tag("operation", "delete").tag("exception", "EmptyResultDataAccessException").timer().count())
+						.isEqualTo(1);
+		assertThat(this.registry.find("spring.data.mybatis.statement.rows").summary()).isNull();
+	}
+
+	@Test
+	void recordsSqlGenerationPerDomainType() {
+
+		String sql = this.metrics.recordSqlGeneration(User.class, () -> "select 1");
+
+		assertThat(sql).isEqualTo("select 1");
+		assertThat(this.registry.get("spring.data.mybatis.sql.generation").tag("domain", "User").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void usesCustomPrefix() {
+
+		new MicrometerMybatisMetrics(this.registry, "app.db").recordStatement("User.__count", "select", () -> 1L);
+
+		assertThat(this.registry.find("app.db.statement").timer()).isNotNull();
+		assertThat(this.registry.find("spring.data.mybatis.statement").timer()).isNull();
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.easybest.mybatis.domain.sample.User;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.sample.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for query methods returning a {@link CompletableFuture}.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration("classpath:application-context.xml")
+public class AsyncQueryMethodTests {
+
+	@Autowired
+	UserRepository repository;
+
+	@Autowired
+	DefaultEntityManager entityManager;
+
+	private Executor asyncExecutor;
+
+	private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		this.asyncExecutor = this.entityManager.getAsyncExecutor();
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.entityManager.setAsyncExecutor(this.asyncExecutor);
+	}
+
+	@Test
+	void executesOnAsyncExecutorWithoutTransaction() throws Exception {
+
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch released = new CountDownLatch(1);
+		this.entityManager.setAsyncExecutor(task -> this.asyncExecutor.execute(() -> {
+
+			this.threads.add(Thread.currentThread());
+			started.countDown();
+			try {
+				released.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			task.run();
+		}));
+
+		CompletableFuture<List<User>> future = this.repository.findAsyncByLastname("Gierke");
+
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(future).isNotDone();
+
+		released.countDown();
+
+		assertThat(future.get(10, TimeUnit.SECONDS)).isNotNull();
+		assertThat(this.threads).hasSize(1).doesNotContain(Thread.currentThread());
+	}
+
+	@Test
+	@Transactional
+	void executesInPlaceWithinTransaction() throws Exception {
+
+		this.entityManager.setAsyncExecutor(task -> {
+			throw new IllegalStateException("Query must not leave the thread of the transaction");
+		});
+
+		CompletableFuture<List<User>> future = this.repository.findAsyncByLastname("Gierke");
+
+		assertThat(future).isDone();
+		assertThat(future.get()).isNotNull();
+	}
+
+}
@@ -37,6 +37,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mybatis.spring.MyBatisSystemException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
@@ -2277,6 +2278,105 @@ public class UserRepositoryTests {
 				Sort.by("idWithPrefixAndSuffix"));
 	}
 
+	@Test
+	void updateAllIncreasesVersionsInBatch() {
+
+		this.flushTestUsers();
+
+		this.firstUser.setFirstname("Oliver August");
+		this.secondUser.setFirstname("Joachim August");
+
+		this.repository.updateAll(asList(this.firstUser, this.secondUser));
+
+		assertThat(this.firstUser.getVersion()).isEqualTo(1);
+		assertThat(this.secondUser.getVersion()).isEqualTo(1);
+		assertThat(this.repository.findById(this.firstUser.getId())).map(User::getFirstname)
+				.hasValue("Oliver August");
+	}
+
+	@Test
+	void updateAllReportsAllStaleEntities() {
+
+		this.flushTestUsers();
+
+		this.secondUser.setVersion(this.secondUser.getVersion() + 1);
+		this.fourthUser.setVersion(this.fourthUser.getVersion() + 1);
+
+		assertThatExceptionOfType(BatchOptimisticLockingFailureException.class)
+				.isThrownBy(() -> this.repository
+						.updateAll(asList(this.firstUser, this.secondUser, this.thirdUser, this.fourthUser)))
+				.satisfies(ex -> assertThat(ex.getFailedEntities()).containsExactly(this.secondUser, this.fourthUser));
+	}
+
+	@Test
+	void saveSelectiveAllBatchesEntitiesOfDifferentShapes() {
+
+		this.flushTestUsers();
+		long count = this.repository.count();
+
+		this.firstUser.setFirstname("Oliver August");
+		User dave = new User("Dave", "Brubeck", "dave@brubeck.com");
+		User paul = new User("Paul", null, "paul@desmond.com");
+		User joe = new User("Joe", "Morello", "joe@morello.com");
+
+		assertThat(this.repository.saveSelectiveAll(asList(dave, this.firstUser, paul, joe)))
+				.containsExactly(dave, this.firstUser, paul, joe);
+
+		assertThat(this.repository.count()).isEqualTo(count + 3);
+		assertThat(dave.getId()).isNotNull();
+		assertThat(paul.getId()).isNotNull();
+		assertThat(joe.getId()).isNotNull();
+		assertThat(this.firstUser.getVersion()).isEqualTo(1);
+		assertThat(this.repository.findById(this.firstUser.getId())).map(User::getFirstname)
+				.hasValue("Oliver August");
+	}
+
+	@Test
+	void executesBatchModifyingQueryOncePerElement() {
+
+		this.flushTestUsers();
+
+		int[] counts = this.repository.renameUsersInBatch(
+				asList(this.firstUser.getId(), this.secondUser.getId(), -1), asList("Drotbohm", "Arrasz", "Nobody"));
+
+		assertThat(counts).containsExactly(1, 1, 0);
+		assertThat(this.repository.findById(this.firstUser.getId())).map(User::getLastname).hasValue("Drotbohm");
+	}
+
+	@Test
+	void bindsUnmarkedCollectionOfBatchModifyingQueryToEveryStatement() {
+
+		this.flushTestUsers();
+
+		int[] counts = this.repository.renameUsersInBatchWithin(new String[] { "Oliver", "Dave" },
+				new String[] { "Drotbohm", "Grohl" }, asList(this.firstUser.getId(), this.secondUser.getId()));
+
+		// the third user is not in the ids bound to every statement
+		assertThat(counts).containsExactly(1, 0);
+		assertThat(this.repository.findById(this.firstUser.getId())).map(User::getLastname).hasValue("Drotbohm");
+		assertThat(this.repository.findById(this.thirdUser.getId())).map(User::getLastname).hasValue("Matthews");
+	}
+
+	@Test
+	void rejectsBatchParametersOfDifferentLengths() {
+
+		this.flushTestUsers();
+
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> this.repository.renameUsersInBatch(
+						asList(this.firstUser.getId(), this.secondUser.getId()), asList("Drotbohm")))
+				.withMessageContaining("renameUsersInBatch");
+		assertThat(this.repository.findById(this.firstUser.getId())).map(User::getLastname).hasValue("Gierke");
+	}
+
+	@Test
+	void executesAsyncQueryMethodWithinSurroundingTransaction() throws Exception {
+
+		this.flushTestUsers();
+
+		assertThat(this.repository.findAsyncByLastname("Gierke").get()).containsOnly(this.firstUser);
+	}
+
 	private interface UserProjectionInterfaceBased {
 
 		String getFirstname();
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.cascade;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.domain.cascade.Label;
+import io.easybest.mybatis.domain.cascade.OrderLine;
+import io.easybest.mybatis.domain.cascade.PurchaseOrder;
+import io.easybest.mybatis.repository.BatchOptimisticLockingFailureException;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Integration tests for saves cascaded to associations.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = CascadeRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/cascade.sql")
+public class CascadeRepositoryTests {
+
+	@Autowired
+	PurchaseOrderRepository repository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void insertsAggregateGraphWithParentKeys() {
+
+		PurchaseOrder order = this.order(200);
+		this.transactionTemplate.executeWithoutResult(status -> this.repository.insertCascade(order));
+
+		assertThat(order.getId()).isNotNull();
+		assertThat(order.getLines()).allSatisfy(line -> assertThat(line.getId()).isNotNull());
+		assertThat(this.count("select count(*) from order_line where purchase_order_id = " + order.getId()))
+				.isEqualTo(200);
+		assertThat(this.count("select count(*) from label")).isEqualTo(2);
+		assertThat(this.count("select count(*) from purchase_order_label where order_id = " + order.getId()))
+				.isEqualTo(2);
+	}
+
+	@Test
+	void updatesChildrenAndReplacesJoinTableRows() {
+
+		PurchaseOrder order = this.order(3);
+		this.transactionTemplate.executeWithoutResult(status -> this.repository.insertCascade(order));
+
+		order.setCode("PO-2");
+		order.getLines().get(0).setProduct("changed");
+		order.getLines().add(new OrderLine("added"));
+		order.getLabels().remove(0);
+		this.transactionTemplate.executeWithoutResult(status -> this.repository.saveCascade(order));
+
+		assertThat(this.count("select count(*) from purchase_order where code = 'PO-2'")).isEqualTo(1);
+		assertThat(this.count("select count(*) from order_line where purchase_order_id = " + order.getId()))
+				.isEqualTo(4);
+		assertThat(this.count("select count(*) from order_line where product = 'changed'")).isEqualTo(1);
+		assertThat(this.count("select count(*) from purchase_order_label")).isEqualTo(1);
+	}
+
+	@Test
+	void checksAndIncreasesVersionsOfUpdatedChildren() {
+
+		PurchaseOrder order = this.order(2);
+		this.transactionTemplate.executeWithoutResult(status -> this.repository.insertCascade(order));
+		assertThat(order.getLines()).extracting(OrderLine::getVersion).containsOnly(0L);
+
+		order.getLines().get(0).setProduct("changed");
+		this.transactionTemplate.executeWithoutResult(status -> this.repository.saveCascade(order));
+
+		assertThat(order.getLines()).extracting(OrderLine::getVersion).containsOnly(1L);
+		assertThat(this.count("select count(*) from order_line where version = 1")).isEqualTo(2);
+
+		Long stale = order.getLines().get(1).getId();
+		this.jdbcTemplate.update("update order_line set version = 5 where id = ?", stale);
+		order.setCode("PO-2");
+
+		assertThatExceptionOfType(BatchOptimisticLockingFailureException.class).isThrownBy(
+				() -> this.transactionTemplate.executeWithoutResult(status -> this.repository.saveCascade(order)))
+				.satisfies(ex -> assertThat(ex.getFailedEntities()).containsExactly(order.getLines().get(1)));
+		// the update of the root was rolled back with its children
+		assertThat(this.count("select count(*) from purchase_order where code = 'PO-1'")).isEqualTo(1);
+	}
+
+	private PurchaseOrder order(int lines) {
+
+		PurchaseOrder order = new PurchaseOrder("PO-1");
+		for (int i = 0; i < lines; i++) {
+			order.getLines().add(new OrderLine("product-" + i));
+		}
+		order.getLabels().add(new Label("urgent"));
+		order.getLabels().add(new Label("gift"));
+		return order;
+	}
+
+	private int count(String sql) {
+		return this.jdbcTemplate.queryForObject(sql, Integer.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = PurchaseOrderRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(PurchaseOrder.class);
+		}
+
+	}
+
+}
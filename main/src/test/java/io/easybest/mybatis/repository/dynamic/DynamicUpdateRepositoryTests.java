@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.dynamic;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.domain.dynamic.Profile;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for updates of the changed columns only.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = DynamicUpdateRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/dynamic.sql")
+public class DynamicUpdateRepositoryTests {
+
+	@Autowired
+	ProfileRepository repository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void updatesChangedColumnsOfLoadedEntity() {
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+
+			Profile profile = this.repository.findById(1L).orElseThrow(IllegalStateException::new);
+			this.jdbcTemplate.update("update profile set city = 'rome' where id = 1");
+			profile.setName("bob");
+			this.repository.save(profile);
+		});
+
+		assertThat(this.value("name")).isEqualTo("bob");
+		assertThat(this.value("city")).isEqualTo("rome");
+	}
+
+	@Test
+	void skipsUpdateOfUnchangedEntity() {
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+
+			Profile profile = this.repository.findById(1L).orElseThrow(IllegalStateException::new);
+			this.jdbcTemplate.update("update profile set name = 'carol' where id = 1");
+			this.repository.update(profile);
+		});
+
+		assertThat(this.value("name")).isEqualTo("carol");
+	}
+
+	@Test
+	void selectiveBatchRefreshesSnapshots() {
+
+		this.jdbcTemplate.update("insert into profile values (2, 'bob', 'oslo')");
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+
+			Profile alice = this.repository.findById(1L).orElseThrow(IllegalStateException::new);
+			Profile bob = this.repository.findById(2L).orElseThrow(IllegalStateException::new);
+			alice.setName("carol");
+			bob.setCity("rome");
+			this.repository.saveSelectiveAll(Arrays.asList(alice, bob));
+
+			// compared against the refreshed snapshot, the name is changed back
+			alice.setName("alice");
+			this.repository.update(alice);
+		});
+
+		assertThat(this.value("name")).isEqualTo("alice");
+	}
+
+	@Test
+	void updatesAllColumnsWithoutSnapshot() {
+
+		this.repository.update(new Profile(1L, "dave", null));
+
+		assertThat(this.value("name")).isEqualTo("dave");
+		assertThat(this.value("city")).isNull();
+	}
+
+	private String value(String column) {
+		return this.jdbcTemplate.queryForObject("select " + column + " from profile where id = 1", String.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = ProfileRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Profile.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.generated;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.generated.Invoice;
+import io.easybest.mybatis.domain.generated.Receipt;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for database defaults read back by inserts.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = DatabaseDefaultRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/generated.sql")
+public class DatabaseDefaultRepositoryTests {
+
+	@Autowired
+	InvoiceRepository invoices;
+
+	@Autowired
+	ReceiptRepository receipts;
+
+	@Test
+	void insertReadsBackIdentityAndDefaults() {
+
+		Invoice first = this.invoices.insert(new Invoice("A-1"));
+		Invoice second = this.invoices.insert(new Invoice("A-2"));
+
+		assertThat(first.getId()).isNotNull();
+		assertThat(second.getId()).isGreaterThan(first.getId());
+		assertThat(second.getStatus()).isEqualTo("draft");
+		assertThat(second.getRevision()).isEqualTo(1);
+	}
+
+	@Test
+	void insertReadsBackDefaultsOfAssignedId() {
+
+		Receipt receipt = this.receipts.insert(new Receipt(7L));
+
+		assertThat(receipt.getId()).isEqualTo(7L);
+		assertThat(receipt.getStatus()).isEqualTo("issued");
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = InvoiceRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Invoice.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.id;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.id.Event;
+import io.easybest.mybatis.domain.id.Token;
+import io.easybest.mybatis.id.SnowflakeIdGenerator;
+import io.easybest.mybatis.id.UuidV7Generator;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for entities with ids generated in process.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = GeneratedIdRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/id.sql")
+public class GeneratedIdRepositoryTests {
+
+	@Autowired
+	EventRepository events;
+
+	@Autowired
+	TokenRepository tokens;
+
+	@Test
+	void assignsSnowflakeIdsBeforeInsert() {
+
+		List<Long> ids = IntStream.range(0, 5).mapToObj(i -> this.events.insert(new Event("#" + i)).getId())
+				.collect(Collectors.toList());
+
+		assertThat(ids).doesNotContainNull().isSorted().doesNotHaveDuplicates();
+		assertThat(this.events.findById(ids.get(2))).map(Event::getName).hasValue("#2");
+	}
+
+	@Test
+	void assignsTimeOrderedUuidsBeforeInsert() {
+
+		Token token = this.tokens.insert(new Token("session"));
+
+		assertThat(token.getId().version()).isEqualTo(7);
+		assertThat(token.getId().variant()).isEqualTo(2);
+		assertThat(this.tokens.findById(token.getId())).map(Token::getName).hasValue("session");
+	}
+
+	@Test
+	void generatesIncreasingIds() {
+
+		UuidV7Generator uuids = new UuidV7Generator();
+		List<UUID> generated = IntStream.range(0, 10000).mapToObj(i -> uuids.generate()).collect(Collectors.toList());
+		assertThat(generated).isSortedAccordingTo(
+				(left, right) -> Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits()));
+
+		SnowflakeIdGenerator snowflakes = new SnowflakeIdGenerator(7);
+		List<Long> ids = IntStream.range(0, 10000).mapToObj(i -> snowflakes.generate()).collect(Collectors.toList());
+		assertThat(ids).isSorted().doesNotHaveDuplicates();
+		assertThat((ids.get(0) >> 12) & SnowflakeIdGenerator.MAX_NODE_ID).isEqualTo(7);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = EventRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Event.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.lazy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.lazy.Note;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.query.DeferredStatements;
+import io.easybest.mybatis.repository.query.QueryCompilationMode;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT_PREFIX;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.UNPAGED_PREFIX;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for query methods compiled on their first invocation.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = LazyCompilationRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/lazy.sql")
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD) // every test compiles from scratch
+public class LazyCompilationRepositoryTests {
+
+	private static final String FIND_BY_TITLE = Note.class.getName() + ".findByTitle";
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	NoteRepository repository;
+
+	@Autowired
+	SqlSessionTemplate sqlSessionTemplate;
+
+	@Test
+	void replacesPlaceholdersByCompiledStatements() {
+
+		Configuration configuration = this.sqlSessionTemplate.getConfiguration();
+		MappedStatement placeholder = configuration.getMappedStatement(FIND_BY_TITLE);
+		assertThat(placeholder.getSqlCommandType()).isEqualTo(SqlCommandType.UNKNOWN);
+
+		assertThat(this.repository.findByTitle("note 3")).extracting(Note::getId).containsExactly(3L);
+
+		MappedStatement compiled = configuration.getMappedStatement(FIND_BY_TITLE);
+		assertThat(compiled.getSqlCommandType()).isEqualTo(SqlCommandType.SELECT);
+		assertThat(compiled.getConfiguration()).isSameAs(configuration);
+		assertThat(DeferredStatements.resolve(placeholder)).isSameAs(compiled);
+		assertThat(DeferredStatements.resolve(compiled)).isSameAs(compiled);
+	}
+
+	@Test
+	void registersPlaceholdersOfDerivedStatements() {
+
+		Configuration configuration = this.sqlSessionTemplate.getConfiguration();
+		String namespace = Note.class.getName() + '.';
+		assertThat(Stream.of("findByRatingGreaterThanOrderById", COUNT_PREFIX + "findByRatingGreaterThanOrderById",
+				UNPAGED_PREFIX + "findByRatingGreaterThanOrderById")
+				.map(name -> configuration.getMappedStatement(namespace + name).getSqlCommandType()))
+						.containsOnly(SqlCommandType.UNKNOWN);
+
+		this.repository.findByRatingGreaterThanOrderById(2, PageRequest.of(0, 2));
+
+		assertThat(configuration.getMappedStatement(namespace + COUNT_PREFIX + "findByRatingGreaterThanOrderById")
+				.getSqlCommandType()).isEqualTo(SqlCommandType.SELECT);
+		assertThat(configuration.getMappedStatement(namespace + UNPAGED_PREFIX + "findByRatingGreaterThanOrderById")
+				.getSqlCommandType()).isEqualTo(SqlCommandType.SELECT);
+	}
+
+	@Test
+	void compilesDerivedStatements() {
+
+		Page<Note> page = this.repository.findByRatingGreaterThanOrderById(2, PageRequest.of(0, 2));
+		assertThat(page.getContent()).extracting(Note::getId).containsExactly(3L, 4L);
+		assertThat(page.getTotalElements()).isEqualTo(4L);
+
+		assertThat(this.repository.countByRating(5)).isEqualTo(2L);
+		assertThat(this.repository.deleteByRating(5)).extracting(Note::getId).containsExactlyInAnyOrder(5L, 6L);
+		assertThat(this.repository.count()).isEqualTo(4L);
+	}
+
+	@Test
+	void compilesOnceUnderConcurrentFirstInvocations() throws Exception {
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Page<Note>>> pages = new ArrayList<>();
+			List<Future<List<Note>>> notes = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				pages.add(executor.submit(this.awaiting(start,
+						() -> this.repository.findByRatingGreaterThanOrderById(2, PageRequest.of(0, 2)))));
+				notes.add(executor.submit(this.awaiting(start, () -> this.repository.findByTitle("note 1"))));
+			}
+			start.countDown();
+
+			for (Future<Page<Note>> page : pages) {
+				Page<Note> result = page.get(30, TimeUnit.SECONDS);
+				assertThat(result.getContent()).extracting(Note::getId).containsExactly(3L, 4L);
+				assertThat(result.getTotalElements()).isEqualTo(4L);
+			}
+			for (Future<List<Note>> result : notes) {
+				assertThat(result.get(30, TimeUnit.SECONDS)).extracting(Note::getId).containsExactly(1L);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private <T> Callable<T> awaiting(CountDownLatch start, Callable<T> call) {
+
+		return () -> {
+			start.await();
+			return call.call();
+		};
+	}
+
+	@org.springframework.context.annotation.Configuration
+	@EnableMybatisRepositories(basePackageClasses = NoteRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Note.class);
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.setQueryCompilationMode(QueryCompilationMode.LAZY);
+		}
+
+	}
+
+}
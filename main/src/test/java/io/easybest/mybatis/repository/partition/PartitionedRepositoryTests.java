@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.partition;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.partition.Purchase;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Integration tests for repositories of entities stored in one table per month.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = PartitionedRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/partition.sql")
+public class PartitionedRepositoryTests {
+
+	@Autowired
+	PurchaseRepository repository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+
+		this.repository.insert(new Purchase(1L, LocalDate.of(2026, 9, 3), "pen"));
+		this.repository.insert(new Purchase(2L, LocalDate.of(2026, 10, 1), "ink"));
+		this.repository.insert(new Purchase(3L, LocalDate.of(2026, 10, 18), "pad"));
+		this.repository.insert(new Purchase(4L, LocalDate.of(2026, 11, 30), "pen"));
+	}
+
+	@Test
+	void insertsIntoTableOfMonth() {
+
+		assertThat(this.count("orders_202609")).isEqualTo(1);
+		assertThat(this.count("orders_202610")).isEqualTo(2);
+		assertThat(this.count("orders_202611")).isEqualTo(1);
+	}
+
+	@Test
+	void readsAllTablesWithoutPartitionKey() {
+
+		assertThat(this.repository.count()).isEqualTo(4);
+		assertThat(this.repository.findAll(Sort.by(Sort.Direction.DESC, "id"))).extracting(Purchase::getId)
+				.containsExactly(4L, 3L, 2L, 1L);
+		assertThat(this.repository.findById(3L)).map(Purchase::getItem).hasValue("pad");
+	}
+
+	@Test
+	void prunesTablesOutsideOfRange() {
+
+		// unrestricted statements would fail on the union with this table
+		this.jdbcTemplate.execute("create table orders_202612 (id bigint)");
+
+		assertThat(this.repository.findByOrderedOnBetweenOrderById(LocalDate.of(2026, 10, 1),
+				LocalDate.of(2026, 11, 1))).extracting(Purchase::getId).containsExactly(2L, 3L);
+		assertThat(this.repository.findByItemAndOrderedOn("pen", LocalDate.of(2026, 9, 3)))
+				.extracting(Purchase::getId).containsExactly(1L);
+	}
+
+	@Test
+	void readsExistingTablesOfOpenRange() {
+
+		assertThat(this.repository.countByOrderedOnGreaterThanEqual(LocalDate.of(2026, 10, 5))).isEqualTo(2);
+	}
+
+	@Test
+	void updatesAndDeletesInTableOfEntity() {
+
+		Purchase purchase = this.repository.findById(2L).orElseThrow(IllegalStateException::new);
+		purchase.setItem("ink cartridge");
+		this.repository.update(purchase);
+
+		assertThat(this.repository.findById(2L)).map(Purchase::getItem).hasValue("ink cartridge");
+
+		this.repository.deleteById(4L);
+
+		assertThat(this.count("orders_202611")).isZero();
+		assertThat(this.repository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void rejectsInsertWithoutPartitionKey() {
+
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> this.repository.insert(new Purchase(5L, null, "clip")));
+	}
+
+	private int count(String table) {
+		return this.jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = PurchaseRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Purchase.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.partition;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.easybest.mybatis.domain.partition.Purchase;
+import io.easybest.mybatis.repository.MybatisRepository;
+
+/**
+ * .
+ *
+ * @author Jarvis Song
+ */
+public interface PurchaseRepository extends MybatisRepository<Purchase, Long> {
+
+	List<Purchase> findByOrderedOnBetweenOrderById(LocalDate from, LocalDate to);
+
+	long countByOrderedOnGreaterThanEqual(LocalDate from);
+
+	List<Purchase> findByItemAndOrderedOn(String item, LocalDate orderedOn);
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.procedure;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.repository.query.Param;
+
+import io.easybest.mybatis.domain.procedure.Book;
+import io.easybest.mybatis.repository.MybatisRepository;
+import io.easybest.mybatis.repository.query.Procedure;
+
+/**
+ * .
+ *
+ * @author Jarvis Song
+ */
+public interface BookRepository extends MybatisRepository<Book, Long> {
+
+	@Procedure(procedureName = "count_books", outputParameterName = "total")
+	Integer countBooks(@Param("author") String author);
+
+	@Procedure("find_books")
+	List<Book> findBooks(@Param("author") String author);
+
+	@Procedure("find_books")
+	Stream<Book> streamBooks(@Param("author") String author);
+
+	@Procedure(procedureName = "open_books", outputParameterName = "books", refCursor = true)
+	List<Book> findBooksByCursor(@Param("author") String author);
+
+	@Procedure(procedureName = "open_books", outputParameterName = "books", refCursor = true)
+	Stream<Book> streamBooksByCursor(@Param("author") String author);
+
+}
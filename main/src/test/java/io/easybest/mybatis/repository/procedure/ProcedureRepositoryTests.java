@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.procedure;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.dialect.HsqlDbDialect;
+import io.easybest.mybatis.domain.procedure.Book;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for {@link io.easybest.mybatis.repository.query.Procedure} methods
+ * reading output parameters and returned result sets, on an embedded HSQLDB database.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = ProcedureRepositoryTests.Config.class)
+@Sql(scripts = "classpath:scripts/hsqldb/procedure.sql", config = @SqlConfig(separator = "@@"))
+public class ProcedureRepositoryTests {
+
+	@Autowired
+	BookRepository repository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Test
+	void readsScalarOutputParameter() {
+
+		assertThat(this.repository.countBooks("alice")).isEqualTo(3);
+		assertThat(this.repository.countBooks("carol")).isZero();
+	}
+
+	@Test
+	void readsReturnedResultSet() {
+
+		assertThat(this.repository.findBooks("alice")).extracting(Book::getId).containsExactly(1L, 3L, 4L);
+		assertThat(this.repository.findBooks("bob")).extracting(Book::getTitle).containsExactly("book 2");
+	}
+
+	@Test
+	void streamsReturnedResultSet() {
+
+		List<Long> ids = this.transactionTemplate.execute(status -> {
+			try (Stream<Book> books = this.repository.streamBooks("alice")) {
+				return books.map(Book::getId).collect(Collectors.toList());
+			}
+		});
+
+		assertThat(ids).containsExactly(1L, 3L, 4L);
+	}
+
+	@Test
+	void rejectsStreamsWithoutTransaction() {
+
+		assertThatThrownBy(() -> this.repository.streamBooks("alice"))
+				.isInstanceOf(InvalidDataAccessApiUsageException.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = BookRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Book.class);
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.setDialect(new HsqlDbDialect());
+		}
+
+		@Override
+		protected DataSource createDataSource() {
+			return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.HSQL).generateUniqueName(true).build();
+		}
+
+	}
+
+}
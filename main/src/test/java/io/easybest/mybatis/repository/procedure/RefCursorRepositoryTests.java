@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.procedure;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.dialect.PostgreSQLDialect;
+import io.easybest.mybatis.domain.procedure.Book;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link io.easybest.mybatis.repository.query.Procedure} methods
+ * reading a REF CURSOR output parameter. They need a PostgreSQL database, given by the
+ * {@code postgresql.url}, {@code postgresql.username} and {@code postgresql.password}
+ * system properties.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = RefCursorRepositoryTests.Config.class)
+@Sql(scripts = "classpath:scripts/postgresql/procedure.sql", config = @SqlConfig(separator = "@@"))
+@EnabledIfSystemProperty(named = "postgresql.url", matches = ".+")
+public class RefCursorRepositoryTests {
+
+	@Autowired
+	BookRepository repository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Test
+	void readsRefCursorIntoList() {
+
+		// the cursor only lives as long as the transaction
+		List<Book> books = this.transactionTemplate.execute(status -> this.repository.findBooksByCursor("alice"));
+
+		assertThat(books).extracting(Book::getId).containsExactly(1L, 3L, 4L);
+		assertThat(books).extracting(Book::getTitle).containsExactly("book 1", "book 3", "book 4");
+	}
+
+	@Test
+	void streamsRefCursor() {
+
+		List<Long> ids = this.transactionTemplate.execute(status -> {
+			try (Stream<Book> books = this.repository.streamBooksByCursor("alice")) {
+				return books.map(Book::getId).collect(Collectors.toList());
+			}
+		});
+
+		assertThat(ids).containsExactly(1L, 3L, 4L);
+	}
+
+	@Test
+	void closesPartiallyConsumedRefCursor() {
+
+		Long first = this.transactionTemplate.execute(status -> {
+			try (Stream<Book> books = this.repository.streamBooksByCursor("alice")) {
+				return books.findFirst().map(Book::getId).orElse(null);
+			}
+		});
+
+		assertThat(first).isEqualTo(1L);
+		assertThat(this.repository.count()).isEqualTo(4L);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = BookRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Book.class);
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.setDialect(new PostgreSQLDialect());
+		}
+
+		@Override
+		protected DataSource createDataSource() {
+			return new DriverManagerDataSource(System.getProperty("postgresql.url"),
+					System.getProperty("postgresql.username"), System.getProperty("postgresql.password"));
+		}
+
+	}
+
+}
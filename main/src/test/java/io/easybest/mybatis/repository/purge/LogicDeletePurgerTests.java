@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.purge;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.purge.Draft;
+import io.easybest.mybatis.domain.purge.Memo;
+import io.easybest.mybatis.purge.LogicDeletePurger;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link LogicDeletePurger}.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = LogicDeletePurgerTests.Config.class)
+@Sql("classpath:scripts/h2/purge.sql")
+public class LogicDeletePurgerTests {
+
+	@Autowired
+	LogicDeletePurger purger;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void archivesAndDeletesByKeyset() {
+
+		assertThat(this.purger.purge(Memo.class)).isEqualTo(4);
+
+		assertThat(this.count("select count(*) from memo where deleted = 0")).isEqualTo(3);
+		assertThat(this.count("select count(*) from memo where deleted = 1")).isZero();
+		assertThat(this.count("select count(*) from memo_archive where mod(id, 2) = 1")).isEqualTo(4);
+	}
+
+	@Test
+	void deletesLimitedChunks() {
+
+		assertThat(this.purger.purge(Draft.class)).isEqualTo(4);
+
+		assertThat(this.count("select count(*) from draft")).isEqualTo(3);
+	}
+
+	@Test
+	void purgesAllLogicDeleteEntities() {
+
+		Map<Class<?>, Long> purged = this.purger.purgeAll();
+
+		assertThat(purged).containsEntry(Memo.class, 4L).containsEntry(Draft.class, 4L);
+		assertThat(this.purger.purgeAll()).containsEntry(Memo.class, 0L).containsEntry(Draft.class, 0L);
+	}
+
+	private int count(String sql) {
+		return this.jdbcTemplate.queryForObject(sql, Integer.class);
+	}
+
+	@Configuration
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Memo.class);
+		}
+
+		@Bean
+		public LogicDeletePurger purger() {
+
+			LogicDeletePurger purger = new LogicDeletePurger(this.entityManager());
+			purger.setChunkSize(3);
+			return purger;
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.returning;
+
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.dialect.DmlReturning;
+import io.easybest.mybatis.domain.returning.Card;
+import io.easybest.mybatis.domain.returning.Ticket;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for modifying queries returning the touched rows.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = DmlReturningRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/returning.sql")
+public class DmlReturningRepositoryTests {
+
+	@Autowired
+	TicketRepository tickets;
+
+	@Autowired
+	CardRepository cards;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void derivedDeleteReturnsRemovedEntities() {
+
+		assertThat(this.tickets.deleteByStatus("open")).extracting(Ticket::getId).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(this.count("select count(*) from ticket")).isEqualTo(1);
+		assertThat(this.tickets.removeByStatus("done")).isEqualTo(1L);
+	}
+
+	@Test
+	void derivedLogicDeleteReturnsRemovedEntities() {
+
+		assertThat(this.cards.deleteByTitle("a")).extracting(Card::getId).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(this.count("select count(*) from card where deleted = 1")).isEqualTo(2);
+	}
+
+	@Test
+	void modifyingQueryReturnsUpdatedEntities() {
+
+		assertThat(this.tickets.close(1L)).isEqualTo(new Ticket(1L, "one", "closed"));
+		assertThat(this.tickets.moveStatus("open", "done")).extracting(Ticket::getId).containsExactly(2L);
+		assertThat(this.count("select count(*) from ticket where status = 'done'")).isEqualTo(2);
+	}
+
+	@Test
+	void outputClauseGoesBeforeTopLevelWhere() {
+
+		assertThat(DmlReturning.OUTPUT
+				.apply(SqlCommandType.UPDATE,
+						"update t set c = (select max(c) from u where u.id = t.id) where t.id = 1")
+				.toString()).isEqualTo(
+						"update t set c = (select max(c) from u where u.id = t.id) OUTPUT INSERTED.* where t.id = 1");
+	}
+
+	private int count(String sql) {
+		return this.jdbcTemplate.queryForObject(sql, Integer.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = TicketRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Ticket.class);
+		}
+
+	}
+
+}
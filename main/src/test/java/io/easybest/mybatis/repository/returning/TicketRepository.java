@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.returning;
+
+import java.util.List;
+
+import io.easybest.mybatis.domain.returning.Ticket;
+import io.easybest.mybatis.repository.Modifying;
+import io.easybest.mybatis.repository.MybatisRepository;
+import io.easybest.mybatis.repository.Query;
+
+/**
+ * .
+ *
+ * @author Jarvis Song
+ */
+public interface TicketRepository extends MybatisRepository<Ticket, Long> {
+
+	List<Ticket> deleteByStatus(String status);
+
+	long removeByStatus(String status);
+
+	@Modifying
+	@Query("update ticket set status = 'closed' where id = ?1")
+	Ticket close(Long id);
+
+	@Modifying
+	@Query("update ticket set status = ?2 where status = ?1")
+	List<Ticket> moveStatus(String from, String to);
+
+}
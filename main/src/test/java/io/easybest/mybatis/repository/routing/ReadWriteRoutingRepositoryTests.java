@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.routing;
+
+import java.sql.Connection;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.domain.routing.Article;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.CountingDataSource;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+import io.easybest.mybatis.routing.ReadWriteRoutingDataSource;
+import io.easybest.mybatis.routing.ReadWriteRoutingInterceptor;
+import io.easybest.mybatis.routing.ReplicaSelection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for repositories on a {@link ReadWriteRoutingDataSource} with the
+ * {@link ReadWriteRoutingInterceptor}. The primary and the replica are two data sources
+ * over the same database.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = ReadWriteRoutingRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/routing.sql")
+public class ReadWriteRoutingRepositoryTests {
+
+	@Autowired
+	ArticleRepository repository;
+
+	@Autowired
+	DataSourceTransactionManager transactionManager;
+
+	@Autowired
+	CountingDataSource primary;
+
+	@Autowired
+	CountingDataSource replica;
+
+	@BeforeEach
+	void setUp() {
+
+		// not counting the connection of the schema script
+		this.primary.reset();
+		this.replica.reset();
+	}
+
+	@Test
+	void readsFromReplicaOutsideOfTransaction() {
+
+		assertThat(this.repository.findById(1L)).map(Article::getTitle).hasValue("replicated");
+		assertThat(this.repository.count()).isEqualTo(1);
+
+		assertThat(this.primary.getConnections()).isZero();
+		assertThat(this.replica.getConnections()).isEqualTo(2);
+	}
+
+	@Test
+	void writesToPrimaryOutsideOfTransaction() {
+
+		this.repository.insert(new Article(2L, "written"));
+
+		assertThat(this.primary.getConnections()).isEqualTo(1);
+		assertThat(this.replica.getConnections()).isZero();
+	}
+
+	@Test
+	void readsFromReplicaInReadOnlyTransaction() {
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+		transactionTemplate.setReadOnly(true);
+		transactionTemplate.executeWithoutResult(status -> {
+			assertThat(this.repository.findById(1L)).isPresent();
+			assertThat(this.repository.count()).isEqualTo(1);
+		});
+
+		assertThat(this.primary.getConnections()).isZero();
+		assertThat(this.replica.getConnections()).isEqualTo(1);
+	}
+
+	@Test
+	void readsFromPrimaryInReadWriteTransaction() {
+
+		new TransactionTemplate(this.transactionManager).executeWithoutResult(status -> {
+			assertThat(this.repository.findById(1L)).isPresent();
+			this.repository.insert(new Article(2L, "written"));
+		});
+
+		assertThat(this.primary.getConnections()).isEqualTo(1);
+		assertThat(this.replica.getConnections()).isZero();
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = ArticleRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Article.class);
+		}
+
+		@Bean
+		public DataSource database() {
+			return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		}
+
+		@Bean
+		public CountingDataSource primary() {
+			return new CountingDataSource(this.database());
+		}
+
+		@Bean
+		public CountingDataSource replica() {
+			return new CountingDataSource(this.database());
+		}
+
+		@Override
+		protected DataSource createDataSource() {
+
+			LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+			dataSource.setTargetDataSource(new ReadWriteRoutingDataSource(this.primary(),
+					Collections.singletonList(this.replica()), ReplicaSelection.ROUND_ROBIN));
+			dataSource.setDefaultAutoCommit(true);
+			dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+			dataSource.afterPropertiesSet();
+			return dataSource;
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.getSqlSessionTemplate().getConfiguration().addInterceptor(new ReadWriteRoutingInterceptor());
+		}
+
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.rowmapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.rowmapping.Measurement;
+import io.easybest.mybatis.domain.rowmapping.Sensor;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_ALL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests comparing the rows mapped by the generated row mappers with the
+ * rows mapped by MyBatis' own result handling. A select given a result handler always
+ * goes through the latter.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = GeneratedRowMappingTests.Config.class)
+@Sql("classpath:scripts/h2/rowmapping.sql")
+public class GeneratedRowMappingTests {
+
+	@Autowired
+	MeasurementRepository measurements;
+
+	@Autowired
+	SensorRepository sensors;
+
+	@Autowired
+	SqlSessionTemplate sqlSessionTemplate;
+
+	@Test
+	void mapsPropertiesThroughTheirTypeHandlers() {
+
+		List<Measurement> rows = this.sqlSessionTemplate.selectList(findAll(Measurement.class));
+
+		assertThat(rows).isEqualTo(this.mapByDefault(Measurement.class, RowBounds.DEFAULT));
+		assertThat(rows.get(0).getToken()).isNotNull();
+		assertThat(rows.get(0).getUnit()).isEqualTo(Measurement.Unit.GRAM);
+		assertThat(rows.get(0).getTakenAt().getNano()).isEqualTo(123000000);
+	}
+
+	@Test
+	void mapsNullColumns() {
+
+		Measurement expected = this.mapByDefault(Measurement.class, RowBounds.DEFAULT).stream()
+				.filter(row -> row.getId() == 3L).findFirst().orElse(null);
+
+		assertThat(this.measurements.findById(3L)).hasValue(expected);
+		assertThat(expected).isEqualTo(new Measurement(3L, null, null, 0, null, null, null, null));
+	}
+
+	@Test
+	void mapsThroughTheConstructor() {
+
+		List<Sensor> rows = this.sqlSessionTemplate.selectList(findAll(Sensor.class));
+
+		assertThat(rows).isEqualTo(this.mapByDefault(Sensor.class, RowBounds.DEFAULT));
+		assertThat(rows).containsExactly(new Sensor(1L, "north", 10), new Sensor(2L, "south", null));
+	}
+
+	@Test
+	void appliesRowBounds() {
+
+		RowBounds rowBounds = new RowBounds(1, 1);
+		List<Measurement> rows = this.sqlSessionTemplate.selectList(findAll(Measurement.class), null, rowBounds);
+
+		assertThat(rows).hasSize(1).isEqualTo(this.mapByDefault(Measurement.class, rowBounds));
+	}
+
+	private <T> List<T> mapByDefault(Class<T> type, RowBounds rowBounds) {
+
+		List<T> rows = new ArrayList<>();
+		this.sqlSessionTemplate.select(findAll(type), null, rowBounds,
+				context -> rows.add(type.cast(context.getResultObject())));
+		return rows;
+	}
+
+	private static String findAll(Class<?> type) {
+		return type.getName() + '.' + FIND_ALL;
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = MeasurementRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Measurement.class);
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.setGeneratedRowMapping(true);
+		}
+
+	}
+
+}
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
@@ -35,6 +36,7 @@ import org.springframework.util.CollectionUtils;
 
 import io.easybest.mybatis.domain.sample.Role;
 import io.easybest.mybatis.domain.sample.User;
+import io.easybest.mybatis.repository.BatchParameter;
 import io.easybest.mybatis.repository.Modifying;
 import io.easybest.mybatis.repository.MybatisRepository;
 import io.easybest.mybatis.repository.Query;
@@ -76,12 +78,24 @@ public interface UserRepository extends MybatisRepository<User, Integer>, UserRe
 
 	List<User> findByLastname(String lastname);
 
+	CompletableFuture<List<User>> findAsyncByLastname(String lastname);
+
 	User findByEmailAddress(String emailAddress);
 
 	@Modifying
 	@Query("update #{#tableName} set lastname = ?1")
 	void renameAllUsersTo(String lastname);
 
+	@Modifying(batch = true)
+	@Query("update #{#tableName} set lastname = :lastname where id = :id")
+	int[] renameUsersInBatch(@BatchParameter @Param("id") List<Integer> ids,
+			@BatchParameter @Param("lastname") List<String> lastnames);
+
+	@Modifying(batch = true)
+	@Query("update #{#tableName} set lastname = :lastname where firstname = :firstname and id in :ids")
+	int[] renameUsersInBatchWithin(@BatchParameter @Param("firstname") String[] firstnames,
+			@BatchParameter @Param("lastname") String[] lastnames, @Param("ids") List<Integer> ids);
+
 	@Query("select u from #{#tableName} u where u.emailAddress = ?1")
 	@Transactional(readOnly = true)
 	User findByAnnotatedQuery(String emailAddress);
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.sequence;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.annotation.DirtiesContext.ClassMode;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.sequence.Entry;
+import io.easybest.mybatis.domain.sequence.Journal;
+import io.easybest.mybatis.domain.sequence.Signature;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for entities with pooled sequence ids.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = PooledSequenceRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/sequence.sql")
+@DirtiesContext(classMode = ClassMode.AFTER_EACH_TEST_METHOD) // the blocks outlive the recreated sequences
+public class PooledSequenceRepositoryTests {
+
+	@Autowired
+	EntryRepository repository;
+
+	@Autowired
+	JournalRepository journalRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void allocatesIdsInBlocks() {
+
+		List<Entry> entries = IntStream.rangeClosed(1, 12).mapToObj(i -> this.repository.insert(new Entry("#" + i)))
+				.collect(Collectors.toList());
+
+		assertThat(entries).extracting(Entry::getId).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L,
+				12L);
+		// two blocks were fetched
+		assertThat(this.nextValue("seq_entry")).isEqualTo(21L);
+	}
+
+	@Test
+	void keepsAssignedIds() {
+
+		Entry entry = new Entry("assigned");
+		entry.setId(100L);
+
+		assertThat(this.repository.insert(entry).getId()).isEqualTo(100L);
+		assertThat(this.repository.findById(100L)).map(Entry::getMemo).hasValue("assigned");
+	}
+
+	@Test
+	void allocatesIdsOfEntitiesWithEmbeddables() {
+
+		Entry entry = new Entry("signed");
+		entry.setSignature(new Signature("alice"));
+
+		Long id = this.repository.insert(entry).getId();
+
+		assertThat(id).isEqualTo(1L);
+		assertThat(this.repository.findById(id)).map(Entry::getSignature).map(Signature::getSignedBy)
+				.hasValue("alice");
+	}
+
+	@Test
+	void selectsNextValueBeforeEveryInsertWithoutPooledAllocation() {
+
+		List<Journal> journals = IntStream.rangeClosed(1, 3)
+				.mapToObj(i -> this.journalRepository.insert(new Journal("#" + i))).collect(Collectors.toList());
+
+		// the default allocation size of 50 is ignored for sequences incremented by 1
+		assertThat(journals).extracting(Journal::getId).containsExactly(1L, 2L, 3L);
+		assertThat(this.nextValue("seq_journal")).isEqualTo(4L);
+	}
+
+	private long nextValue(String sequence) {
+		return this.jdbcTemplate.queryForObject("select next value for " + sequence, Long.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = EntryRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Entry.class);
+		}
+
+	}
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.sharding;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.sharding.Ticket;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+import io.easybest.mybatis.sharding.Shards;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Integration tests for repositories of sharded entities, on two H2 databases.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = ShardedRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/sharding.sql")
+@Sql(scripts = "classpath:scripts/h2/sharding.sql",
+		config = @SqlConfig(dataSource = "shard1DataSource", transactionManager = "shard1TransactionManager"))
+public class ShardedRepositoryTests {
+
+	@Autowired
+	TicketRepository repository;
+
+	@Autowired
+	@Qualifier("jdbcTemplate")
+	JdbcTemplate shard0;
+
+	@Autowired
+	@Qualifier("shard1JdbcTemplate")
+	JdbcTemplate shard1;
+
+	@BeforeEach
+	void setUp() {
+
+		// customers 1 and 3 live on shard 1, 2 and 4 on shard 0
+		for (long id = 1; id <= 8; id++) {
+			this.repository.insert(new Ticket(id, (int) (id % 4) + 1, "subject-" + (char) ('a' + 8 - id)));
+		}
+	}
+
+	@Test
+	void routesEntitiesByShardKey() {
+
+		assertThat(this.customers(this.shard0)).containsOnly(2, 4);
+		assertThat(this.customers(this.shard1)).containsOnly(1, 3);
+		assertThat(this.repository.findByCustomerIdOrderBySubject(3)).extracting(Ticket::getId).containsExactly(6L,
+				2L);
+	}
+
+	@Test
+	void mergesSortedResultsOfAllShards() {
+
+		assertThat(this.repository.findAll(Sort.by("subject"))).extracting(Ticket::getId).containsExactly(8L, 7L, 6L,
+				5L, 4L, 3L, 2L, 1L);
+		assertThat(this.repository.findAll(Sort.by(Sort.Direction.DESC, "customerId").and(Sort.by("id"))))
+				.extracting(Ticket::getId).containsExactly(3L, 7L, 2L, 6L, 1L, 5L, 4L, 8L);
+	}
+
+	@Test
+	void appliesGlobalLimitsToMergedResults() {
+
+		Page<Ticket> page = this.repository.findAll(PageRequest.of(1, 3, Sort.by("id")));
+
+		assertThat(page.getContent()).extracting(Ticket::getId).containsExactly(4L, 5L, 6L);
+		assertThat(page.getTotalElements()).isEqualTo(8);
+		assertThat(this.repository.findTop3BySubjectStartingWithOrderBySubjectDesc("subject"))
+				.extracting(Ticket::getId).containsExactly(1L, 2L, 3L);
+	}
+
+	@Test
+	void scattersQueriesWithoutShardKey() {
+
+		assertThat(this.repository.count()).isEqualTo(8);
+		assertThat(this.repository.countBySubjectStartingWith("subject")).isEqualTo(8);
+		assertThat(this.repository.findById(5L)).map(Ticket::getCustomerId).hasValue(2);
+		assertThat(this.repository.existsById(7L)).isTrue();
+		assertThat(this.repository.findAllById(Arrays.asList(1L, 2L))).hasSize(2);
+
+		this.repository.deleteById(7L);
+
+		assertThat(this.repository.count()).isEqualTo(7);
+	}
+
+	@Test
+	void rejectsSingleRowsOfSeveralShards() {
+
+		assertThat(this.repository.findBySubjectIn(Collections.singletonList("subject-g")).getId()).isEqualTo(2L);
+		assertThatExceptionOfType(IncorrectResultSizeDataAccessException.class)
+				.isThrownBy(() -> this.repository.findBySubjectIn(Arrays.asList("subject-g", "subject-h")));
+	}
+
+	@Test
+	void rejectsInsertWithoutShardKey() {
+
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> this.repository.insert(new Ticket(9L, null, "subject-z")));
+	}
+
+	private List<Integer> customers(JdbcTemplate shard) {
+		return shard.queryForList("select distinct customer_id from ticket", Integer.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = TicketRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Ticket.class);
+		}
+
+		@Bean
+		public DataSource shard1DataSource() {
+			return this.createDataSource();
+		}
+
+		@Bean
+		public DataSourceTransactionManager shard1TransactionManager() {
+			return new DataSourceTransactionManager(this.shard1DataSource());
+		}
+
+		@Bean
+		public JdbcTemplate shard1JdbcTemplate() {
+			return new JdbcTemplate(this.shard1DataSource());
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.setShards(Shards.of(this.sqlSessionTemplate().getConfiguration(),
+					Arrays.asList(this.dataSource(), this.shard1DataSource())));
+		}
+
+	}
+
+}
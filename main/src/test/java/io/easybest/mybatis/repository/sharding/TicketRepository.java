@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.sharding;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.repository.query.Param;
+
+import io.easybest.mybatis.domain.sharding.Ticket;
+import io.easybest.mybatis.repository.MybatisRepository;
+
+/**
+ * .
+ *
+ * @author Jarvis Song
+ */
+public interface TicketRepository extends MybatisRepository<Ticket, Long> {
+
+	List<Ticket> findByCustomerIdOrderBySubject(@Param("customerId") Integer customerId);
+
+	List<Ticket> findTop3BySubjectStartingWithOrderBySubjectDesc(String prefix);
+
+	long countBySubjectStartingWith(String prefix);
+
+	Ticket findBySubjectIn(Collection<String> subjects);
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.support;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source counting the connections it hands out, to tell which of several data
+ * sources over the same database served a statement.
+ *
+ * @author Jarvis Song
+ */
+public class CountingDataSource extends DelegatingDataSource {
+
+	private final AtomicInteger connections = new AtomicInteger();
+
+	public CountingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+
+		this.connections.incrementAndGet();
+		return super.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+
+		this.connections.incrementAndGet();
+		return super.getConnection(username, password);
+	}
+
+	public int getConnections() {
+		return this.connections.get();
+	}
+
+	public void reset() {
+		this.connections.set(0);
+	}
+
+}
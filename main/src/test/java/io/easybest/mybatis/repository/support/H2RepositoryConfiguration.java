@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.support;
+
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.dialect.H2Dialect;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+
+/**
+ * Infrastructure of the integration tests running on an embedded H2 database. Each test
+ * extends it with the entities and options it needs, its schema is created by the
+ * {@code scripts/h2/*.sql} scripts the test runs before each method.
+ *
+ * @author Jarvis Song
+ */
+public abstract class H2RepositoryConfiguration {
+
+	private final Class<?>[] entities;
+
+	protected H2RepositoryConfiguration(Class<?>... entities) {
+		this.entities = entities;
+	}
+
+	@Bean
+	public DataSource dataSource() {
+		return this.createDataSource();
+	}
+
+	@Bean
+	public SqlSessionTemplate sqlSessionTemplate() {
+
+		Configuration configuration = new Configuration(
+				new Environment("test", new SpringManagedTransactionFactory(), this.dataSource()));
+		return new SqlSessionTemplate(new DefaultSqlSessionFactory(configuration));
+	}
+
+	@Bean
+	public DataSourceTransactionManager transactionManager() {
+		return new DataSourceTransactionManager(this.dataSource());
+	}
+
+	@Bean
+	public TransactionTemplate transactionTemplate() {
+		return new TransactionTemplate(this.transactionManager());
+	}
+
+	@Bean
+	public JdbcTemplate jdbcTemplate() {
+		return new JdbcTemplate(this.dataSource());
+	}
+
+	@Bean
+	public DefaultEntityManager entityManager() {
+
+		DefaultEntityManager entityManager = new DefaultEntityManager(this.sqlSessionTemplate());
+		entityManager.setDialect(new H2Dialect());
+		entityManager.setEntityPackages(Arrays.stream(this.entities).map(type -> type.getPackage().getName())
+				.distinct().toArray(String[]::new));
+		this.configure(entityManager);
+		return entityManager;
+	}
+
+	/**
+	 * Customize the entity manager before it gets initialized.
+	 * @param entityManager entity manager
+	 */
+	protected void configure(DefaultEntityManager entityManager) {
+	}
+
+	protected DataSource createDataSource() {
+		return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.tenant;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.tenant.Note;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Integration tests for repositories of tenant scoped entities.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TenantRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/tenant.sql")
+public class TenantRepositoryTests {
+
+	@Autowired
+	NoteRepository repository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	AtomicReference<String> tenant;
+
+	@BeforeEach
+	void setUp() {
+
+		this.tenant.set("acme");
+		this.repository.insert(new Note(1L, "draft"));
+		this.repository.insert(new Note(2L, "final"));
+		this.tenant.set("globex");
+		this.repository.insert(new Note(1L, "draft"));
+	}
+
+	@Test
+	void insertsCurrentTenant() {
+
+		assertThat(this.count("acme")).isEqualTo(2);
+		assertThat(this.count("globex")).isEqualTo(1);
+	}
+
+	@Test
+	void readsRowsOfCurrentTenantOnly() {
+
+		assertThat(this.repository.count()).isEqualTo(1);
+		assertThat(this.repository.findById(2L)).isEmpty();
+
+		this.tenant.set("acme");
+
+		assertThat(this.repository.findAll()).extracting(Note::getId).containsExactlyInAnyOrder(1L, 2L);
+		// the or of the derived query must not escape the tenant predicate
+		assertThat(this.repository.findByTitleOrId("final", 1L)).extracting(Note::getId)
+				.containsExactlyInAnyOrder(1L, 2L);
+	}
+
+	@Test
+	void writesRowsOfCurrentTenantOnly() {
+
+		this.repository.update(new Note(1L, "archived"));
+		this.repository.deleteByTitle("draft");
+
+		assertThat(this.count("globex")).isEqualTo(1);
+		assertThat(this.count("acme")).isEqualTo(2);
+
+		this.tenant.set("acme");
+		this.repository.deleteById(2L);
+
+		assertThat(this.count("acme")).isEqualTo(1);
+		assertThat(this.repository.findById(1L)).map(Note::getTitle).hasValue("draft");
+	}
+
+	@Test
+	void rejectsStatementsWithoutTenant() {
+
+		this.tenant.set(null);
+
+		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+				.isThrownBy(() -> this.repository.findById(1L));
+	}
+
+	private int count(String tenant) {
+		return this.jdbcTemplate.queryForObject("select count(*) from note where tenant_id = ?", Integer.class,
+				tenant);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = NoteRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Note.class);
+		}
+
+		@Bean
+		public AtomicReference<String> tenant() {
+			return new AtomicReference<>();
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.setTenantResolver(this.tenant()::get);
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.type;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import io.easybest.mybatis.domain.type.Reading;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for java.time values and UUID columns selected by their jdbc type.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = TypeHandlerRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/type.sql")
+public class TypeHandlerRepositoryTests {
+
+	@Autowired
+	ReadingRepository readings;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void readsJavaTimeValuesBack() {
+
+		Reading reading = new Reading(1L, LocalDateTime.of(2022, 3, 4, 5, 6, 7, 123456000), LocalDate.of(2022, 3, 4),
+				LocalTime.of(5, 6, 7), OffsetDateTime.of(2022, 3, 4, 5, 6, 7, 0, ZoneOffset.ofHours(8)), null, null);
+		this.readings.insert(reading);
+
+		assertThat(this.readings.findById(1L)).hasValue(reading);
+	}
+
+	@Test
+	void readsNullsBack() {
+
+		this.readings.insert(new Reading(2L, null, null, null, null, null, null));
+
+		assertThat(this.readings.findById(2L)).hasValue(new Reading(2L, null, null, null, null, null, null));
+	}
+
+	@Test
+	void storesUuidsInTheDeclaredEncoding() {
+
+		UUID reference = UUID.randomUUID();
+		UUID token = UUID.randomUUID();
+		this.readings.insert(new Reading(3L, null, null, null, null, reference, token));
+
+		Map<String, Object> row = this.jdbcTemplate.queryForMap("select reference, token from reading where id = 3");
+		assertThat(row.get("REFERENCE")).isEqualTo(reference.toString());
+		assertThat((byte[]) row.get("TOKEN")).hasSize(16);
+
+		assertThat(this.readings.findById(3L)).hasValueSatisfying(found -> {
+			assertThat(found.getReference()).isEqualTo(reference);
+			assertThat(found.getToken()).isEqualTo(token);
+		});
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = ReadingRepository.class)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Reading.class);
+		}
+
+	}
+
+}
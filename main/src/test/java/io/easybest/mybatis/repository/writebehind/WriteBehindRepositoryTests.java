@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.repository.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.domain.writebehind.Memo;
+import io.easybest.mybatis.domain.writebehind.Note;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.config.EnableMybatisRepositories;
+import io.easybest.mybatis.repository.support.H2RepositoryConfiguration;
+import io.easybest.mybatis.writebehind.UnitOfWork;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for writes deferred to the end of the transaction.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = WriteBehindRepositoryTests.Config.class)
+@Sql("classpath:scripts/h2/writebehind.sql")
+public class WriteBehindRepositoryTests {
+
+	@Autowired
+	DefaultEntityManager entityManager;
+
+	@Autowired
+	MemoRepository repository;
+
+	@Autowired
+	NoteRepository noteRepository;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void flushesCoalescedWritesOnCommit() {
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+
+			Memo first = this.repository.insert(new Memo(1L, "draft"));
+			this.repository.insert(new Memo(2L, "draft"));
+			assertThat(this.unitOfWork().hasPending()).isTrue();
+
+			first.setText("edited");
+			this.repository.update(first);
+			first.setText("final");
+			this.repository.update(first);
+		});
+
+		assertThat(this.count("select count(*) from memo")).isEqualTo(2);
+		assertThat(this.count("select count(*) from memo where text = 'final'")).isEqualTo(1);
+	}
+
+	@Test
+	void flushesInsertsOfParentsBeforeTheirChildren() {
+
+		this.jdbcTemplate.update("insert into memo (id, text) values (1, 'existing')");
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+
+			this.noteRepository.insert(new Note(10L, "first", new Memo(1L, "existing")));
+			Memo memo = this.repository.insert(new Memo(2L, "draft"));
+			this.noteRepository.insert(new Note(11L, "second", memo));
+		});
+
+		assertThat(this.count("select count(*) from note")).isEqualTo(2);
+		assertThat(this.count("select memo_id from note where id = 11")).isEqualTo(2);
+	}
+
+	@Test
+	void increasesVersionsOfFlushedUpdates() {
+
+		Note note = this.transactionTemplate.execute(status -> {
+
+			Memo memo = this.repository.insert(new Memo(1L, "memo"));
+			Note inserted = this.noteRepository.insert(new Note(10L, "draft", memo));
+			inserted.setText("edited");
+			this.noteRepository.update(inserted);
+			inserted.setText("final");
+			return this.noteRepository.update(inserted);
+		});
+
+		assertThat(note.getVersion()).isEqualTo(1L);
+		assertThat(this.count("select version from note where id = 10")).isEqualTo(1);
+
+		note.setText("again");
+		this.transactionTemplate.executeWithoutResult(status -> this.noteRepository.update(note));
+
+		assertThat(note.getVersion()).isEqualTo(2L);
+		assertThat(this.count("select count(*) from note where text = 'again'")).isEqualTo(1);
+	}
+
+	@Test
+	void flushesBeforeDependentQuery() {
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+
+			this.repository.insert(new Memo(1L, "draft"));
+
+			assertThat(this.repository.findById(1L)).isPresent();
+			assertThat(this.unitOfWork().hasPending()).isFalse();
+		});
+	}
+
+	@Test
+	void discardsWritesOnRollback() {
+
+		this.transactionTemplate.executeWithoutResult(status -> {
+
+			this.repository.insert(new Memo(1L, "draft"));
+			status.setRollbackOnly();
+		});
+
+		assertThat(this.count("select count(*) from memo")).isZero();
+	}
+
+	@Test
+	void reportsMissingDeletedEntityOnFlush() {
+
+		assertThatThrownBy(() -> this.transactionTemplate
+				.executeWithoutResult(status -> this.repository.delete(new Memo(9L, "missing"))))
+						.isInstanceOf(EmptyResultDataAccessException.class);
+	}
+
+	@Test
+	void writesAtOnceWithoutTransaction() {
+
+		this.repository.insert(new Memo(1L, "draft"));
+
+		assertThat(this.count("select count(*) from memo")).isEqualTo(1);
+	}
+
+	private UnitOfWork unitOfWork() {
+		return this.entityManager.getWriteBehind().getUnitOfWork(false);
+	}
+
+	private int count(String sql) {
+		return this.jdbcTemplate.queryForObject(sql, Integer.class);
+	}
+
+	@Configuration
+	@EnableMybatisRepositories(basePackageClasses = MemoRepository.class, enableDefaultTransactions = false)
+	static class Config extends H2RepositoryConfiguration {
+
+		Config() {
+			super(Memo.class, Note.class);
+		}
+
+		@Override
+		protected void configure(DefaultEntityManager entityManager) {
+			entityManager.setWriteBehindEnabled(true);
+		}
+
+	}
+
+}
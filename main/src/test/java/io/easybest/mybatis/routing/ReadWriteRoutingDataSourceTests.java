@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.routing;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.easybest.mybatis.repository.support.CountingDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ReadWriteRoutingDataSource}.
+ *
+ * @author Jarvis Song
+ */
+public class ReadWriteRoutingDataSourceTests {
+
+	EmbeddedDatabase database;
+
+	CountingDataSource primary;
+
+	CountingDataSource first;
+
+	CountingDataSource second;
+
+	@BeforeEach
+	void setUp() {
+
+		this.database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		this.primary = new CountingDataSource(this.database);
+		this.first = new CountingDataSource(this.database);
+		this.second = new CountingDataSource(this.database);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.database.shutdown();
+	}
+
+	@Test
+	void usesReplicaInReadOnlyTransaction() {
+
+		this.inTransaction(this.routing(ReplicaSelection.ROUND_ROBIN), true);
+
+		assertThat(this.primary.getConnections()).isZero();
+		assertThat(this.first.getConnections() + this.second.getConnections()).isEqualTo(1);
+	}
+
+	@Test
+	void usesPrimaryInReadWriteTransaction() {
+
+		this.inTransaction(this.routing(ReplicaSelection.ROUND_ROBIN), false);
+
+		assertThat(this.primary.getConnections()).isEqualTo(1);
+		assertThat(this.first.getConnections() + this.second.getConnections()).isZero();
+	}
+
+	@Test
+	void usesReplicaForMarkedReadOutsideOfTransaction() throws Throwable {
+
+		ReadWriteRoutingDataSource routing = this.routing(ReplicaSelection.ROUND_ROBIN);
+		ReadWriteRoutingDataSource.read(() -> {
+			routing.getConnection().close();
+			return null;
+		});
+
+		assertThat(this.primary.getConnections()).isZero();
+		assertThat(this.first.getConnections()).isEqualTo(1);
+	}
+
+	@Test
+	void usesPrimaryOutsideOfTransaction() throws SQLException {
+
+		this.routing(ReplicaSelection.ROUND_ROBIN).getConnection().close();
+
+		assertThat(this.primary.getConnections()).isEqualTo(1);
+		assertThat(this.first.getConnections() + this.second.getConnections()).isZero();
+	}
+
+	@Test
+	void alternatesReplicasInTurn() throws Throwable {
+
+		ReadWriteRoutingDataSource routing = this.routing(ReplicaSelection.ROUND_ROBIN);
+		try (Connection held = ReadWriteRoutingDataSource.read(routing::getConnection)) {
+			for (int i = 0; i < 2; i++) {
+				ReadWriteRoutingDataSource.read(routing::getConnection).close();
+			}
+		}
+
+		assertThat(this.first.getConnections()).isEqualTo(2);
+		assertThat(this.second.getConnections()).isEqualTo(1);
+	}
+
+	@Test
+	void selectsLeastLoadedReplicaWhileConnectionIsHeld() throws Throwable {
+
+		ReadWriteRoutingDataSource routing = this.routing(ReplicaSelection.LEAST_LOADED);
+		try (Connection held = ReadWriteRoutingDataSource.read(routing::getConnection)) {
+			assertThat(this.first.getConnections()).isEqualTo(1);
+
+			// the turn of the first replica is skipped, it still serves the held connection
+			for (int i = 0; i < 2; i++) {
+				ReadWriteRoutingDataSource.read(routing::getConnection).close();
+			}
+			assertThat(this.first.getConnections()).isEqualTo(1);
+			assertThat(this.second.getConnections()).isEqualTo(2);
+		}
+
+		// closing the held connection releases the first replica
+		ReadWriteRoutingDataSource.read(routing::getConnection).close();
+		ReadWriteRoutingDataSource.read(routing::getConnection).close();
+		assertThat(this.first.getConnections()).isEqualTo(2);
+		assertThat(this.second.getConnections()).isEqualTo(3);
+	}
+
+	private ReadWriteRoutingDataSource routing(ReplicaSelection selection) {
+		return new ReadWriteRoutingDataSource(this.primary, Arrays.asList(this.first, this.second), selection);
+	}
+
+	private void inTransaction(DataSource routing, boolean readOnly) {
+
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+		dataSource.setTargetDataSource(routing);
+		// known defaults, the proxy would otherwise fetch a connection to look them up
+		dataSource.setDefaultAutoCommit(true);
+		dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		dataSource.afterPropertiesSet();
+
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transactionTemplate.setReadOnly(readOnly);
+		transactionTemplate.executeWithoutResult(
+				status -> new JdbcTemplate(dataSource).queryForObject("select 1", Integer.class));
+	}
+
+}
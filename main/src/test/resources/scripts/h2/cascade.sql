@@ -0,0 +1,30 @@
+drop all objects;
+
+create table purchase_order
+(
+	id   bigint auto_increment,
+	code varchar(32),
+	primary key (id)
+);
+
+create table order_line
+(
+	id                bigint auto_increment,
+	product           varchar(32),
+	version           bigint,
+	purchase_order_id bigint references purchase_order (id),
+	primary key (id)
+);
+
+create table label
+(
+	id   bigint auto_increment,
+	name varchar(32),
+	primary key (id)
+);
+
+create table purchase_order_label
+(
+	order_id bigint references purchase_order (id),
+	label_id bigint references label (id)
+);
@@ -0,0 +1,12 @@
+drop all objects;
+
+create table profile
+(
+	id   bigint not null,
+	name varchar(32),
+	city varchar(32),
+	primary key (id)
+);
+
+insert into profile
+values (1, 'alice', 'paris');
@@ -0,0 +1,17 @@
+drop all objects;
+
+create table invoice
+(
+	id       bigint auto_increment,
+	number   varchar(16),
+	status   varchar(16) default 'draft',
+	revision integer     default 1,
+	primary key (id)
+);
+
+create table receipt
+(
+	id     bigint not null,
+	status varchar(16) default 'issued',
+	primary key (id)
+);
@@ -0,0 +1,15 @@
+drop all objects;
+
+create table event
+(
+	id   bigint not null,
+	name varchar(64),
+	primary key (id)
+);
+
+create table token
+(
+	id   uuid not null,
+	name varchar(64),
+	primary key (id)
+);
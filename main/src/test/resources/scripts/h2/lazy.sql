@@ -0,0 +1,18 @@
+drop all objects;
+
+create table note
+(
+	id     bigint not null,
+	title  varchar(64),
+	rating integer,
+	primary key (id)
+);
+
+insert into note
+values
+	(1, 'note 1', 1),
+	(2, 'note 2', 2),
+	(3, 'note 3', 3),
+	(4, 'note 4', 4),
+	(5, 'note 5', 5),
+	(6, 'note 6', 5);
@@ -0,0 +1,25 @@
+drop all objects;
+
+create table orders_202609
+(
+	id         bigint not null,
+	ordered_on date,
+	item       varchar(64),
+	primary key (id)
+);
+
+create table orders_202610
+(
+	id         bigint not null,
+	ordered_on date,
+	item       varchar(64),
+	primary key (id)
+);
+
+create table orders_202611
+(
+	id         bigint not null,
+	ordered_on date,
+	item       varchar(64),
+	primary key (id)
+);
@@ -0,0 +1,45 @@
+drop all objects;
+
+create table memo
+(
+	id      bigint not null,
+	body    varchar(64),
+	deleted integer,
+	primary key (id)
+);
+
+create table memo_archive
+(
+	id      bigint not null,
+	body    varchar(64),
+	deleted integer,
+	primary key (id)
+);
+
+create table draft
+(
+	id      bigint not null,
+	body    varchar(64),
+	deleted integer,
+	primary key (id)
+);
+
+insert into memo
+values
+	(1, 'memo 1', 1),
+	(2, 'memo 2', 0),
+	(3, 'memo 3', 1),
+	(4, 'memo 4', 0),
+	(5, 'memo 5', 1),
+	(6, 'memo 6', 0),
+	(7, 'memo 7', 1);
+
+insert into draft
+values
+	(1, 'draft 1', 1),
+	(2, 'draft 2', 0),
+	(3, 'draft 3', 1),
+	(4, 'draft 4', 0),
+	(5, 'draft 5', 1),
+	(6, 'draft 6', 0),
+	(7, 'draft 7', 1);
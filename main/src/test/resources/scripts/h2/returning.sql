@@ -0,0 +1,27 @@
+drop all objects;
+
+create table ticket
+(
+	id     bigint not null,
+	title  varchar(64),
+	status varchar(16),
+	primary key (id)
+);
+
+create table card
+(
+	id      bigint not null,
+	title   varchar(64),
+	deleted integer,
+	primary key (id)
+);
+
+insert into ticket
+values (1, 'one', 'open'),
+	   (2, 'two', 'open'),
+	   (3, 'three', 'done');
+
+insert into card
+values (1, 'a', 0),
+	   (2, 'a', 0),
+	   (3, 'b', 0);
@@ -0,0 +1,11 @@
+drop all objects;
+
+create table article
+(
+	id    bigint not null,
+	title varchar(64),
+	primary key (id)
+);
+
+insert into article (id, title)
+values (1, 'replicated');
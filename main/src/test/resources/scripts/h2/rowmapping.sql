@@ -0,0 +1,34 @@
+drop all objects;
+
+create table measurement
+(
+	id       bigint not null,
+	name     varchar(64),
+	amount   integer,
+	level    integer,
+	ratio    double,
+	taken_at timestamp,
+	token    uuid,
+	unit     varchar(16),
+	primary key (id)
+);
+
+create table sensor
+(
+	id        bigint not null,
+	name      varchar(64),
+	threshold integer,
+	primary key (id)
+);
+
+insert into measurement (id, name, amount, level, ratio, taken_at, token, unit)
+values (1, 'weight', 12, 3, 0.5, '2022-03-04 05:06:07.123', '0f14d0ab-9605-4a62-a9e4-5ed26688389b', 'GRAM');
+insert into measurement (id, name, amount, level, ratio, taken_at, token, unit)
+values (2, 'length', 7, 1, 1.25, '2022-03-05 08:00:00', 'b4f1e2c8-3d6a-4f0e-9a51-2c7d8e9f0a1b', 'METRE');
+insert into measurement (id)
+values (3);
+
+insert into sensor (id, name, threshold)
+values (1, 'north', 10);
+insert into sensor (id, name, threshold)
+values (2, 'south', null);
@@ -0,0 +1,20 @@
+drop all objects;
+
+create sequence seq_entry start with 1 increment by 10;
+
+create table entry
+(
+	id       bigint not null,
+	memo     varchar(64),
+	signedBy varchar(64),
+	primary key (id)
+);
+
+create sequence seq_journal start with 1 increment by 1;
+
+create table journal
+(
+	id   bigint not null,
+	memo varchar(64),
+	primary key (id)
+);
@@ -0,0 +1,9 @@
+drop all objects;
+
+create table ticket
+(
+	id          bigint not null,
+	customer_id integer,
+	subject     varchar(64),
+	primary key (id)
+);
@@ -0,0 +1,9 @@
+drop all objects;
+
+create table note
+(
+	tenant_id varchar(16) not null,
+	id        bigint      not null,
+	title     varchar(64),
+	primary key (tenant_id, id)
+);
@@ -0,0 +1,13 @@
+drop all objects;
+
+create table reading
+(
+	id          bigint not null,
+	taken_at    timestamp,
+	day         date,
+	hour        time,
+	recorded_at timestamp with time zone,
+	reference   char(36),
+	token       binary(16),
+	primary key (id)
+);
@@ -0,0 +1,17 @@
+drop all objects;
+
+create table memo
+(
+	id   bigint not null,
+	text varchar(32),
+	primary key (id)
+);
+
+create table note
+(
+	id      bigint not null,
+	text    varchar(32),
+	version bigint,
+	memo_id bigint references memo (id),
+	primary key (id)
+);
@@ -0,0 +1,30 @@
+drop schema public cascade@@
+
+create table book
+(
+	id     bigint not null,
+	title  varchar(64),
+	author varchar(64),
+	primary key (id)
+)@@
+
+insert into book
+values
+	(1, 'book 1', 'alice'),
+	(2, 'book 2', 'bob'),
+	(3, 'book 3', 'alice'),
+	(4, 'book 4', 'alice')@@
+
+create procedure count_books(in p_author varchar(64), out p_total integer)
+	reads sql data
+begin atomic
+	set p_total = (select count(*) from book where author = p_author);
+end@@
+
+create procedure find_books(in p_author varchar(64))
+	reads sql data
+	dynamic result sets 1
+begin atomic
+	declare books cursor with return for select * from book where author = p_author order by id for read only;
+	open books;
+end@@
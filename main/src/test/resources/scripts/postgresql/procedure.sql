@@ -0,0 +1,22 @@
+drop table if exists book@@
+
+create table book
+(
+	id     bigint not null,
+	title  varchar(64),
+	author varchar(64),
+	primary key (id)
+)@@
+
+insert into book
+values
+	(1, 'book 1', 'alice'),
+	(2, 'book 2', 'bob'),
+	(3, 'book 3', 'alice'),
+	(4, 'book 4', 'alice')@@
+
+create or replace function open_books(p_author varchar, out p_books refcursor) language plpgsql as $$
+begin
+	open p_books for select * from book where author = p_author order by id;
+end
+$$@@
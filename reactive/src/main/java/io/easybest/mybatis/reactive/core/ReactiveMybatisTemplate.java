@@ -0,0 +1,582 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.core;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.EnumOrdinalTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.UnknownTypeHandler;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.r2dbc.connection.ConnectionFactoryUtils;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarker;
+import org.springframework.r2dbc.core.binding.BindMarkers;
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+import org.springframework.r2dbc.core.binding.BindMarkersFactoryResolver;
+import org.springframework.r2dbc.core.binding.BindTarget;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.easybest.mybatis.annotation.TablePartition;
+import io.easybest.mybatis.id.IdGenerator;
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.mapping.MybatisPersistentPropertyImpl;
+import io.easybest.mybatis.mapping.handler.BinaryUUIDTypeHandler;
+import io.easybest.mybatis.mapping.handler.UUIDTypeHandler;
+import io.easybest.mybatis.repository.query.DeferredStatements;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+/**
+ * Executes the mapped statements of the MyBatis {@link Configuration} of an
+ * {@link EntityManager} on R2DBC. The SQL is rendered by MyBatis from the precompiled
+ * statements, its {@code ?} placeholders are rewritten to the bind markers of the
+ * database and rows are read as they are requested.
+ * <p>
+ * Statements do not pass through the MyBatis {@link org.apache.ibatis.plugin.Interceptor}s
+ * the {@link EntityManager} registers. Ids of entities with an {@link IdGenerator} are
+ * assigned here before inserts. Statements of entities scoped to a tenant or partitioned
+ * across tables are rejected, and so are inserts without an id of entities whose ids
+ * come from a pooled sequence.
+ *
+ * @author Jarvis Song
+ */
+public class ReactiveMybatisTemplate {
+
+	private final EntityManager entityManager;
+
+	private final Configuration configuration;
+
+	private final DatabaseClient databaseClient;
+
+	private final BindMarkersFactory bindMarkersFactory;
+
+	private final Map<String, RowReader> readers = new ConcurrentHashMap<>();
+
+	/**
+	 * Why the statements of an entity cannot run here, by namespace.
+	 */
+	private final Map<String, String> unsupported = new HashMap<>();
+
+	/**
+	 * Entities whose ids are assigned before the insert.
+	 */
+	private final Map<Class<?>, MybatisPersistentEntityImpl<?>> assignedIds = new HashMap<>();
+
+	private int fetchSize;
+
+	public ReactiveMybatisTemplate(EntityManager entityManager, DatabaseClient databaseClient) {
+
+		Assert.notNull(entityManager, "EntityManager must not be null!");
+		Assert.notNull(databaseClient, "DatabaseClient must not be null!");
+
+		this.entityManager = entityManager;
+		this.configuration = entityManager.getSqlSessionTemplate().getConfiguration();
+		this.databaseClient = databaseClient;
+		this.bindMarkersFactory = BindMarkersFactoryResolver.resolve(databaseClient.getConnectionFactory());
+
+		for (MybatisPersistentEntityImpl<?> entity : entityManager.getPersistentEntities()) {
+			if (entity.getTenantColumn().isPresent()) {
+				this.unsupported.put(entity.getType().getName(), "is scoped to a tenant");
+			}
+			else if (entity.isAnnotationPresent(TablePartition.class)) {
+				this.unsupported.put(entity.getType().getName(), "is partitioned across tables");
+			}
+			else {
+				String property = this.findUnconvertibleProperty(entity);
+				if (null != property) {
+					this.unsupported.put(entity.getType().getName(), "binds " + property);
+				}
+			}
+			if (null != entity.getIdGenerator() || entity.getSequenceAllocationSize() > 1) {
+				this.assignedIds.put(entity.getType(), entity);
+			}
+		}
+	}
+
+	public <T> Flux<T> selectList(String statement, @Nullable Object parameter) {
+
+		MappedStatement ms = DeferredStatements.resolve(this.configuration.getMappedStatement(statement));
+
+		return this.databaseClient.inConnectionMany(connection -> {
+			this.prepare(ms, parameter);
+			return this.query(connection, ms, parameter, this.getReader(ms));
+		}).filter(Optional::isPresent).map(this::unwrap);
+	}
+
+	public <T> Mono<T> selectOne(String statement, @Nullable Object parameter) {
+
+		// requesting a second row is enough to detect a non unique result
+		return this.<T>selectList(statement, parameter).buffer(2).next()
+				.flatMap(rows -> rows.size() > 1
+						? Mono.<T>error(new IncorrectResultSizeDataAccessException(1, rows.size()))
+						: Mono.just(rows.get(0)));
+	}
+
+	/**
+	 * Execute an insert, update or delete statement, populating the keys of its
+	 * {@link KeyGenerator} on the parameter.
+	 * @param statement statement id
+	 * @param parameter parameter
+	 * @return affected rows
+	 */
+	public Mono<Integer> update(String statement, @Nullable Object parameter) {
+
+		MappedStatement ms = DeferredStatements.resolve(this.configuration.getMappedStatement(statement));
+		KeyGenerator keyGenerator = ms.getKeyGenerator();
+		boolean hasSelectKey = keyGenerator instanceof SelectKeyGenerator && null != parameter;
+		boolean before = hasSelectKey
+				&& Boolean.TRUE.equals(SystemMetaObject.forObject(keyGenerator).getValue("executeBefore"));
+
+		// keys of select key statements must be read on the connection of the insert
+		return this.databaseClient.inConnection(connection -> {
+
+			this.prepare(ms, parameter);
+			Mono<Integer> execution = Mono.defer(() -> this.execute(connection, ms, parameter));
+			if (before) {
+				return this.selectKey(connection, ms, parameter).then(execution);
+			}
+			if (hasSelectKey) {
+				return execution.flatMap(count -> this.selectKey(connection, ms, parameter).thenReturn(count));
+			}
+			return execution;
+		});
+	}
+
+	public EntityManager getEntityManager() {
+		return this.entityManager;
+	}
+
+	/**
+	 * Number of rows fetched per round trip by select statements without a fetch size
+	 * of their own, {@code 0} to leave it to the driver.
+	 * @param fetchSize fetch size
+	 */
+	public void setFetchSize(int fetchSize) {
+
+		Assert.isTrue(fetchSize >= 0, "Fetch size must not be negative!");
+
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Do what the interceptors of the {@link EntityManager} do before the statement runs,
+	 * or reject it if that needs a MyBatis executor.
+	 */
+	private void prepare(MappedStatement ms, @Nullable Object parameter) {
+
+		int idx = ms.getId().lastIndexOf('.');
+		String reason = idx < 0 ? null : this.unsupported.get(ms.getId().substring(0, idx));
+		if (null != reason) {
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Statement %s cannot run on R2DBC, its entity %s; use a MyBatis repository instead!", ms.getId(),
+					reason));
+		}
+
+		if (ms.getSqlCommandType() == SqlCommandType.INSERT && parameter instanceof MybatisContext) {
+			this.assignId((MybatisContext<?, ?>) parameter);
+		}
+	}
+
+	private void assignId(MybatisContext<?, ?> context) {
+
+		MybatisPersistentEntityImpl<?> entity = null == context.getDomainType() ? null
+				: this.assignedIds.get(context.getDomainType());
+		if (null == entity || null == context.getInstance()) {
+			return;
+		}
+
+		MybatisPersistentPropertyImpl idProperty = entity.getRequiredIdProperty();
+		PersistentPropertyAccessor<?> accessor = entity.getPropertyAccessor(context.getInstance());
+		if (null != accessor.getProperty(idProperty)) {
+			return;
+		}
+
+		IdGenerator generator = entity.getIdGenerator();
+		if (null == generator) {
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Ids of %s are allocated from the pooled sequence %s, which needs a MyBatis executor; "
+							+ "assign the id before inserting on R2DBC!",
+					entity.getEntityName(), entity.getSequenceName()));
+		}
+		accessor.setProperty(idProperty,
+				DefaultConversionService.getSharedInstance().convert(generator.generate(), idProperty.getType()));
+	}
+
+	private Flux<Optional<Object>> query(Connection connection, MappedStatement ms, @Nullable Object parameter,
+			RowReader reader) {
+
+		BoundStatement bound = this.bind(connection, ms, parameter);
+		return Flux.from(bound.statement.execute()).concatMap(result -> result.map(reader::read))
+				.onErrorMap(R2dbcException.class, ex -> ConnectionFactoryUtils.convertR2dbcException(ms.getId(),
+						bound.sql, ex));
+	}
+
+	private Mono<Integer> execute(Connection connection, MappedStatement ms, @Nullable Object parameter) {
+
+		BoundStatement bound = this.bind(connection, ms, parameter);
+
+		Flux<Integer> counts;
+		if (ms.getKeyGenerator() instanceof Jdbc3KeyGenerator && null != ms.getKeyProperties() && null != parameter) {
+			bound.statement.returnGeneratedValues(null == ms.getKeyColumns() ? new String[0] : ms.getKeyColumns());
+			counts = Flux.from(bound.statement.execute()).concatMap(result -> result.map((row, metadata) -> {
+				String[] keyProperties = ms.getKeyProperties();
+				MetaObject meta = this.configuration.newMetaObject(parameter);
+				for (int i = 0; i < keyProperties.length; i++) {
+					this.assignKey(meta, keyProperties[i], row.get(i));
+				}
+				return 1;
+			}));
+		}
+		else {
+			counts = Flux.from(bound.statement.execute()).concatMap(Result::getRowsUpdated).map(Number::intValue);
+		}
+
+		return counts.reduce(0, Integer::sum).onErrorMap(R2dbcException.class,
+				ex -> ConnectionFactoryUtils.convertR2dbcException(ms.getId(), bound.sql, ex));
+	}
+
+	private Mono<Void> selectKey(Connection connection, MappedStatement ms, Object parameter) {
+
+		MappedStatement keyStatement = this.configuration
+				.getMappedStatement(ms.getId() + SelectKeyGenerator.SELECT_KEY_SUFFIX);
+		String[] keyProperties = keyStatement.getKeyProperties();
+		String[] keyColumns = keyStatement.getKeyColumns();
+
+		return this.query(connection, keyStatement, parameter, this.getReader(keyStatement)).next()
+				.filter(Optional::isPresent).map(Optional::get).doOnNext(value -> {
+					MetaObject meta = this.configuration.newMetaObject(parameter);
+					if (keyProperties.length == 1) {
+						this.assignKey(meta, keyProperties[0], value);
+						return;
+					}
+					MetaObject result = this.configuration.newMetaObject(value);
+					for (int i = 0; i < keyProperties.length; i++) {
+						this.assignKey(meta, keyProperties[i],
+								result.getValue(null == keyColumns ? keyProperties[i] : keyColumns[i]));
+					}
+				}).then();
+	}
+
+	private void assignKey(MetaObject meta, String property, @Nullable Object value) {
+
+		meta.setValue(property, null == value ? null : RowReader.convert(value, meta.getSetterType(property)));
+	}
+
+	private BoundStatement bind(Connection connection, MappedStatement ms, @Nullable Object parameter) {
+
+		BoundSql boundSql = ms.getBoundSql(parameter);
+		List<ParameterMapping> mappings = boundSql.getParameterMappings();
+		BindMarkers markers = this.bindMarkersFactory.create();
+		List<BindMarker> bindMarkers = new ArrayList<>(mappings.size());
+
+		String sql = rewritePlaceholders(boundSql.getSql(), () -> {
+			BindMarker marker = markers.next();
+			bindMarkers.add(marker);
+			return marker.getPlaceholder();
+		});
+		if (bindMarkers.size() != mappings.size()) {
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Statement %s has %d placeholders but %d parameter mappings!", ms.getId(), bindMarkers.size(),
+					mappings.size()));
+		}
+
+		Statement statement = connection.createStatement(sql);
+		int statementFetchSize = null != ms.getFetchSize() ? ms.getFetchSize() : this.fetchSize;
+		if (ms.getSqlCommandType() == SqlCommandType.SELECT && statementFetchSize > 0) {
+			statement.fetchSize(statementFetchSize);
+		}
+
+		StatementBindTarget target = new StatementBindTarget(statement);
+		MetaObject meta = null == parameter ? null : this.configuration.newMetaObject(parameter);
+		for (int i = 0; i < mappings.size(); i++) {
+			ParameterMapping mapping = mappings.get(i);
+			Object value = this.getParameterValue(boundSql, mapping, parameter, meta);
+			if (null == value) {
+				bindMarkers.get(i).bindNull(target, this.getNullType(mapping, meta));
+			}
+			else {
+				TypeHandler<?> typeHandler = this.getTypeHandler(mapping, value);
+				if (null != typeHandler && !RowReader.isConvertible(typeHandler.getClass())) {
+					throw new InvalidDataAccessApiUsageException(String.format(
+							"Statement %s cannot run on R2DBC, it binds %s with the type handler %s;"
+									+ " use a MyBatis repository instead!",
+							ms.getId(), mapping.getProperty(), typeHandler.getClass().getName()));
+				}
+				bindMarkers.get(i).bind(target, toDriverValue(value, typeHandler));
+			}
+		}
+
+		return new BoundStatement(sql, statement);
+	}
+
+	@Nullable
+	private Object getParameterValue(BoundSql boundSql, ParameterMapping mapping, @Nullable Object parameter,
+			@Nullable MetaObject meta) {
+
+		// the same resolution as org.apache.ibatis.scripting.defaults.DefaultParameterHandler
+		String property = mapping.getProperty();
+		if (boundSql.hasAdditionalParameter(property)) {
+			return boundSql.getAdditionalParameter(property);
+		}
+		if (null == parameter || null == meta) {
+			return null;
+		}
+		if (this.configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+			return parameter;
+		}
+		return meta.getValue(property);
+	}
+
+	/**
+	 * The type handler MyBatis would bind the value with, resolved by the type of the
+	 * value if the mapping leaves it to runtime.
+	 */
+	@Nullable
+	private TypeHandler<?> getTypeHandler(ParameterMapping mapping, Object value) {
+
+		if (!(mapping.getTypeHandler() instanceof UnknownTypeHandler)) {
+			return mapping.getTypeHandler();
+		}
+		return this.configuration.getTypeHandlerRegistry().getTypeHandler(value.getClass(), mapping.getJdbcType());
+	}
+
+	/**
+	 * Find a property of the entity, or of its embeddables, bound by a type handler whose
+	 * conversion cannot be done on R2DBC.
+	 * @return description of the property, {@literal null} if there is none
+	 */
+	@Nullable
+	private String findUnconvertibleProperty(MybatisPersistentEntityImpl<?> entity) {
+
+		for (MybatisPersistentPropertyImpl property : entity) {
+
+			if (property.isAssociation()) {
+				continue;
+			}
+			if (property.isEmbeddable()) {
+				String embedded = this.findUnconvertibleProperty(
+						this.entityManager.getRequiredPersistentEntity(property.getActualType()));
+				if (null != embedded) {
+					return embedded;
+				}
+				continue;
+			}
+
+			Class<?> typeHandler = property.getTypeHandler();
+			if (null == typeHandler) {
+				// left to the type handlers registered in the configuration
+				JdbcType jdbcType = property.getJdbcType() == JdbcType.UNDEFINED ? null : property.getJdbcType();
+				TypeHandler<?> registered = this.configuration.getTypeHandlerRegistry()
+						.getTypeHandler(property.getType(), jdbcType);
+				typeHandler = null == registered ? null : registered.getClass();
+			}
+			if (!RowReader.isConvertible(typeHandler)) {
+				return "property " + property.getName() + " with the type handler " + typeHandler.getName();
+			}
+		}
+		return null;
+	}
+
+	private Class<?> getNullType(ParameterMapping mapping, @Nullable MetaObject meta) {
+
+		Class<?> type = mapping.getJavaType();
+		if ((null == type || Object.class == type) && null != meta && meta.hasGetter(mapping.getProperty())) {
+			type = meta.getGetterType(mapping.getProperty());
+		}
+		if (null == type) {
+			return Object.class;
+		}
+		if (type.isEnum()) {
+			return mapping.getTypeHandler() instanceof EnumOrdinalTypeHandler ? Integer.class : String.class;
+		}
+		if (UUID.class == type && mapping.getTypeHandler() instanceof UUIDTypeHandler) {
+			return String.class;
+		}
+		if (UUID.class == type && mapping.getTypeHandler() instanceof BinaryUUIDTypeHandler) {
+			return ByteBuffer.class;
+		}
+		if (java.sql.Date.class == type) {
+			return LocalDate.class;
+		}
+		if (java.sql.Time.class == type) {
+			return LocalTime.class;
+		}
+		if (Date.class.isAssignableFrom(type)) {
+			return LocalDateTime.class;
+		}
+		if (Character.class == type || char.class == type) {
+			return String.class;
+		}
+		return ClassUtils.resolvePrimitiveIfNecessary(type);
+	}
+
+	/**
+	 * Convert a parameter to a value R2DBC drivers understand, honoring the encoding
+	 * chosen by the MyBatis type handler where it matters.
+	 */
+	private static Object toDriverValue(Object value, @Nullable TypeHandler<?> typeHandler) {
+
+		if (value instanceof Enum) {
+			return typeHandler instanceof EnumOrdinalTypeHandler ? ((Enum<?>) value).ordinal()
+					: ((Enum<?>) value).name();
+		}
+		if (value instanceof UUID && typeHandler instanceof UUIDTypeHandler) {
+			return value.toString();
+		}
+		if (value instanceof UUID && typeHandler instanceof BinaryUUIDTypeHandler) {
+			UUID uuid = (UUID) value;
+			return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits())
+					.putLong(uuid.getLeastSignificantBits()).flip();
+		}
+		if (value instanceof java.sql.Timestamp) {
+			return ((java.sql.Timestamp) value).toLocalDateTime();
+		}
+		if (value instanceof java.sql.Date) {
+			return ((java.sql.Date) value).toLocalDate();
+		}
+		if (value instanceof java.sql.Time) {
+			return ((java.sql.Time) value).toLocalTime();
+		}
+		if (value instanceof Date) {
+			return LocalDateTime.ofInstant(((Date) value).toInstant(), ZoneId.systemDefault());
+		}
+		if (value instanceof Character) {
+			return value.toString();
+		}
+		return value;
+	}
+
+	/**
+	 * Replace the JDBC {@code ?} placeholders outside of quoted literals and
+	 * identifiers.
+	 */
+	static String rewritePlaceholders(String sql, Supplier<String> placeholders) {
+
+		StringBuilder builder = new StringBuilder(sql.length() + 16);
+		char quote = 0;
+		for (int i = 0; i < sql.length(); i++) {
+			char c = sql.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+				builder.append(c);
+			}
+			else if (c == '\'' || c == '"' || c == '`') {
+				quote = c;
+				builder.append(c);
+			}
+			else if (c == '?') {
+				builder.append(placeholders.get());
+			}
+			else {
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+	private RowReader getReader(MappedStatement ms) {
+
+		return this.readers.computeIfAbsent(ms.getId(), id -> RowReader.of(this.entityManager, ms));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T unwrap(Optional<Object> value) {
+		return (T) value.get();
+	}
+
+	private static final class BoundStatement {
+
+		private final String sql;
+
+		private final Statement statement;
+
+		private BoundStatement(String sql, Statement statement) {
+			this.sql = sql;
+			this.statement = statement;
+		}
+
+	}
+
+	private static final class StatementBindTarget implements BindTarget {
+
+		private final Statement statement;
+
+		private StatementBindTarget(Statement statement) {
+			this.statement = statement;
+		}
+
+		@Override
+		public void bind(String identifier, Object value) {
+			this.statement.bind(identifier, value);
+		}
+
+		@Override
+		public void bind(int index, Object value) {
+			this.statement.bind(index, value);
+		}
+
+		@Override
+		public void bindNull(String identifier, Class<?> type) {
+			this.statement.bindNull(identifier, type);
+		}
+
+		@Override
+		public void bindNull(int index, Class<?> type) {
+			this.statement.bindNull(index, type);
+		}
+
+	}
+
+}
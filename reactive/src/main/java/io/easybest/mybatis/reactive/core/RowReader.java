@@ -0,0 +1,319 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.core;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.AutoMappingBehavior;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.convert.Jsr310Converters;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.handler.BinaryUUIDTypeHandler;
+import io.easybest.mybatis.mapping.handler.NativeUUIDTypeHandler;
+import io.easybest.mybatis.mapping.handler.UUIDTypeHandler;
+
+/**
+ * Reads the rows of a mapped statement according to its result map. Flat property
+ * mappings and auto-mapped columns are supported, nested result maps and nested
+ * selects are not loaded.
+ *
+ * @author Jarvis Song
+ */
+final class RowReader {
+
+	private static final DefaultConversionService CONVERSION_SERVICE;
+
+	static {
+
+		DefaultConversionService conversionService = new DefaultConversionService();
+		Jsr310Converters.getConvertersToRegister().forEach(conversionService::addConverter);
+		conversionService.addConverter(Number.class, Boolean.class,
+				(Converter<Number, Boolean>) source -> source.intValue() != 0);
+		conversionService.addConverter(ByteBuffer.class, byte[].class, (Converter<ByteBuffer, byte[]>) source -> {
+			byte[] bytes = new byte[source.remaining()];
+			source.duplicate().get(bytes);
+			return bytes;
+		});
+		conversionService.addConverter(ByteBuffer.class, UUID.class, (Converter<ByteBuffer, UUID>) source -> {
+			ByteBuffer buffer = source.duplicate();
+			return new UUID(buffer.getLong(), buffer.getLong());
+		});
+
+		CONVERSION_SERVICE = conversionService;
+	}
+
+	private final Configuration configuration;
+
+	private final String statement;
+
+	private final Kind kind;
+
+	private final Class<?> type;
+
+	private final List<ResultMapping> mappings;
+
+	private final boolean autoMapping;
+
+	private volatile Plan plan;
+
+	private RowReader(Configuration configuration, String statement, Kind kind, Class<?> type,
+			List<ResultMapping> mappings, boolean autoMapping) {
+
+		this.configuration = configuration;
+		this.statement = statement;
+		this.kind = kind;
+		this.type = type;
+		this.mappings = mappings;
+		this.autoMapping = autoMapping;
+	}
+
+	static RowReader of(EntityManager entityManager, MappedStatement ms) {
+
+		Configuration configuration = entityManager.getSqlSessionTemplate().getConfiguration();
+		if (ms.getResultMaps().isEmpty()) {
+			return new RowReader(configuration, ms.getId(), Kind.SCALAR, Object.class, new ArrayList<>(), false);
+		}
+
+		ResultMap resultMap = ms.getResultMaps().get(0);
+		Class<?> type = resultMap.getType();
+		if (Map.class.isAssignableFrom(type)) {
+			return new RowReader(configuration, ms.getId(), Kind.MAP, type, new ArrayList<>(), false);
+		}
+		if (resultMap.getPropertyResultMappings().isEmpty()
+				&& configuration.getTypeHandlerRegistry().hasTypeHandler(type)) {
+			assertConvertible(ms.getId(), type.getName(), configuration.getTypeHandlerRegistry().getTypeHandler(type));
+			return new RowReader(configuration, ms.getId(), Kind.SCALAR, ClassUtils.resolvePrimitiveIfNecessary(type),
+					new ArrayList<>(), false);
+		}
+
+		List<ResultMapping> mappings = new ArrayList<>();
+		for (ResultMapping mapping : resultMap.getPropertyResultMappings()) {
+			if (null == mapping.getNestedQueryId() && null == mapping.getNestedResultMapId()
+					&& null != mapping.getColumn()) {
+				assertConvertible(ms.getId(), mapping.getProperty(), mapping.getTypeHandler());
+				mappings.add(mapping);
+			}
+		}
+		boolean autoMapping = null != resultMap.getAutoMapping() ? resultMap.getAutoMapping()
+				: configuration.getAutoMappingBehavior() != AutoMappingBehavior.NONE
+						&& !resultMap.hasNestedResultMaps();
+
+		return new RowReader(configuration, ms.getId(), Kind.BEAN, type, mappings, autoMapping);
+	}
+
+	/**
+	 * Read a row, empty if MyBatis would have mapped it to {@code null}.
+	 * @param row row
+	 * @param metadata row metadata
+	 * @return value
+	 */
+	Optional<Object> read(Row row, RowMetadata metadata) {
+
+		switch (this.kind) {
+		case SCALAR:
+			return Optional.ofNullable(row.get(0)).map(value -> convert(value, this.type));
+		case MAP:
+			return Optional.of(this.readMap(row, metadata));
+		default:
+			return this.readBean(row, metadata);
+		}
+	}
+
+	private Map<String, Object> readMap(Row row, RowMetadata metadata) {
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> map = (Map<String, Object>) this.configuration.getObjectFactory().create(this.type);
+		List<? extends ColumnMetadata> columns = metadata.getColumnMetadatas();
+		for (int i = 0; i < columns.size(); i++) {
+			map.put(columns.get(i).getName(), row.get(i));
+		}
+		return map;
+	}
+
+	private Optional<Object> readBean(Row row, RowMetadata metadata) {
+
+		Plan plan = this.getPlan(metadata);
+
+		Object instance = null;
+		MetaObject meta = null;
+		for (int i = 0; i < plan.indexes.length; i++) {
+			Object value = row.get(plan.indexes[i]);
+			if (null == value) {
+				continue;
+			}
+			if (null == instance) {
+				instance = this.configuration.getObjectFactory().create(this.type);
+				meta = this.configuration.newMetaObject(instance);
+			}
+			meta.setValue(plan.properties[i], convert(value, plan.types[i]));
+		}
+
+		if (null == instance && this.configuration.isReturnInstanceForEmptyRow()) {
+			instance = this.configuration.getObjectFactory().create(this.type);
+		}
+		return Optional.ofNullable(instance);
+	}
+
+	/**
+	 * Resolve the column index and target type of every mapped property, once per
+	 * {@link RowMetadata} instance.
+	 */
+	private Plan getPlan(RowMetadata metadata) {
+
+		Plan plan = this.plan;
+		if (null != plan && plan.metadata == metadata) {
+			return plan;
+		}
+
+		List<? extends ColumnMetadata> columns = metadata.getColumnMetadatas();
+		Map<String, Integer> indexes = new HashMap<>(columns.size() * 2);
+		for (int i = columns.size() - 1; i >= 0; i--) {
+			indexes.put(columns.get(i).getName().toUpperCase(Locale.ENGLISH), i);
+		}
+
+		MetaClass metaClass = MetaClass.forClass(this.type, this.configuration.getReflectorFactory());
+		List<Integer> planIndexes = new ArrayList<>();
+		List<String> properties = new ArrayList<>();
+		for (ResultMapping mapping : this.mappings) {
+			Integer index = indexes.remove(mapping.getColumn().toUpperCase(Locale.ENGLISH));
+			if (null != index) {
+				planIndexes.add(index);
+				properties.add(mapping.getProperty());
+			}
+		}
+		if (this.autoMapping) {
+			indexes.forEach((column, index) -> {
+				String property = metaClass.findProperty(column, this.configuration.isMapUnderscoreToCamelCase());
+				if (null != property && metaClass.hasSetter(property) && !properties.contains(property)) {
+					Class<?> setterType = metaClass.getSetterType(property);
+					assertConvertible(this.statement, property,
+							this.configuration.getTypeHandlerRegistry().getTypeHandler(setterType));
+					planIndexes.add(index);
+					properties.add(property);
+				}
+			});
+		}
+
+		plan = new Plan(metadata, planIndexes.size());
+		for (int i = 0; i < plan.indexes.length; i++) {
+			plan.indexes[i] = planIndexes.get(i);
+			plan.properties[i] = properties.get(i);
+			plan.types[i] = ClassUtils.resolvePrimitiveIfNecessary(metaClass.getSetterType(properties.get(i)));
+		}
+		this.plan = plan;
+		return plan;
+	}
+
+	/**
+	 * Whether the values of a type handler are converted the same way by this reader and
+	 * the {@link ReactiveMybatisTemplate}, which is the case for the type handlers of
+	 * MyBatis and the UUID type handlers of the dialects. Any other type handler works on
+	 * JDBC statements and result sets only.
+	 * @param typeHandler type handler
+	 * @return {@literal true} if the type handler can be skipped on R2DBC
+	 */
+	static boolean isConvertible(@Nullable Class<?> typeHandler) {
+
+		if (null == typeHandler
+				|| ClassUtils.getPackageName(TypeHandler.class).equals(ClassUtils.getPackageName(typeHandler))) {
+			return true;
+		}
+		return UUIDTypeHandler.class == typeHandler || BinaryUUIDTypeHandler.class == typeHandler
+				|| NativeUUIDTypeHandler.class == typeHandler;
+	}
+
+	private static void assertConvertible(String statement, String property, @Nullable TypeHandler<?> typeHandler) {
+
+		if (null != typeHandler && !isConvertible(typeHandler.getClass())) {
+			throw new InvalidDataAccessApiUsageException(String.format(
+					"Statement %s cannot run on R2DBC, it reads %s with the type handler %s;"
+							+ " use a MyBatis repository instead!",
+					statement, property, typeHandler.getClass().getName()));
+		}
+	}
+
+	@Nullable
+	static Object convert(@Nullable Object value, Class<?> type) {
+
+		if (null == value || Object.class == type || ClassUtils.isAssignableValue(type, value)) {
+			return value;
+		}
+		if (type.isEnum() && value instanceof Number) {
+			return type.getEnumConstants()[((Number) value).intValue()];
+		}
+		return CONVERSION_SERVICE.convert(value, type);
+	}
+
+	private enum Kind {
+
+		/**
+		 * Single column value.
+		 */
+		SCALAR,
+		/**
+		 * Column name to value.
+		 */
+		MAP,
+		/**
+		 * Entity or other java bean.
+		 */
+		BEAN
+
+	}
+
+	private static final class Plan {
+
+		private final RowMetadata metadata;
+
+		private final int[] indexes;
+
+		private final String[] properties;
+
+		private final Class<?>[] types;
+
+		private Plan(RowMetadata metadata, int size) {
+			this.metadata = metadata;
+			this.indexes = new int[size];
+			this.properties = new String[size];
+			this.types = new Class<?>[size];
+		}
+
+	}
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * MyBatis specific extension of {@link ReactiveSortingRepository}, executing the
+ * precompiled statements of the entity over R2DBC.
+ *
+ * @author Jarvis Song
+ * @param <T> entity type
+ * @param <ID> primary key
+ */
+@NoRepositoryBean
+public interface ReactiveMybatisRepository<T, ID> extends ReactiveSortingRepository<T, ID> {
+
+	<S extends T> Mono<S> insert(S entity);
+
+	<S extends T> Mono<S> update(S entity);
+
+}
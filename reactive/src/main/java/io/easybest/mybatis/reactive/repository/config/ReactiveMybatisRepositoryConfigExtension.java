@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository.config;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import javax.persistence.Entity;
+import javax.persistence.MappedSuperclass;
+
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.data.repository.config.RepositoryConfigurationExtensionSupport;
+import org.springframework.data.repository.config.RepositoryConfigurationSource;
+import org.springframework.data.repository.core.RepositoryMetadata;
+
+import io.easybest.mybatis.reactive.repository.ReactiveMybatisRepository;
+import io.easybest.mybatis.reactive.repository.support.ReactiveMybatisRepositoryFactoryBean;
+
+/**
+ * Reactive MyBatis specific
+ * {@link org.springframework.data.repository.config.RepositoryConfigurationExtension}.
+ *
+ * @author Jarvis Song
+ */
+public class ReactiveMybatisRepositoryConfigExtension extends RepositoryConfigurationExtensionSupport {
+
+	@Override
+	public String getModuleName() {
+		return "Reactive MyBatis";
+	}
+
+	@Override
+	protected String getModulePrefix() {
+		return "mybatis";
+	}
+
+	@Override
+	public String getRepositoryFactoryBeanClassName() {
+		return ReactiveMybatisRepositoryFactoryBean.class.getName();
+	}
+
+	@Override
+	protected Collection<Class<? extends Annotation>> getIdentifyingAnnotations() {
+		return Arrays.asList(Entity.class, MappedSuperclass.class);
+	}
+
+	@Override
+	protected Collection<Class<?>> getIdentifyingTypes() {
+		return Collections.singleton(ReactiveMybatisRepository.class);
+	}
+
+	@Override
+	public void postProcess(BeanDefinitionBuilder builder, RepositoryConfigurationSource source) {
+
+		builder.addPropertyReference("entityManager", source.getAttribute("entityManagerRef").orElse("entityManager"));
+		builder.addPropertyReference("databaseClient",
+				source.getAttribute("databaseClientRef").orElse("databaseClient"));
+	}
+
+	@Override
+	protected boolean useRepositoryConfiguration(RepositoryMetadata metadata) {
+		return metadata.isReactiveRepository();
+	}
+
+}
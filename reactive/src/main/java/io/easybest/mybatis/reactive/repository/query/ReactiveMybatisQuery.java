@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository.query;
+
+import java.lang.reflect.Method;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.data.repository.query.ResultProcessor;
+import org.springframework.data.repository.util.ReactiveWrappers;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+
+import io.easybest.mybatis.reactive.core.ReactiveMybatisTemplate;
+import io.easybest.mybatis.repository.query.AbstractMybatisQuery;
+import io.easybest.mybatis.repository.query.MybatisParametersParameterAccessor;
+import io.easybest.mybatis.repository.query.MybatisQueryMethod;
+import io.easybest.mybatis.repository.query.PartTreeMybatisQuery;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+/**
+ * Executes the statement compiled for a query method through a
+ * {@link ReactiveMybatisTemplate}. The SQL is the one the blocking repository uses,
+ * only the execution is reactive.
+ *
+ * @author Jarvis Song
+ */
+public class ReactiveMybatisQuery implements RepositoryQuery {
+
+	private final AbstractMybatisQuery delegate;
+
+	private final ReactiveMybatisTemplate template;
+
+	private final boolean multiValue;
+
+	private final Class<?> valueType;
+
+	private final boolean modifying;
+
+	public ReactiveMybatisQuery(AbstractMybatisQuery delegate, ReactiveMybatisTemplate template, Method method) {
+
+		Assert.notNull(delegate, "AbstractMybatisQuery must not be null!");
+		Assert.notNull(template, "ReactiveMybatisTemplate must not be null!");
+		Assert.isTrue(ReactiveWrappers.supports(method.getReturnType()),
+				String.format("Reactive query method must return a reactive wrapper type! Offending method: %s",
+						method));
+
+		this.delegate = delegate;
+		this.template = template;
+		this.multiValue = ReactiveWrappers.isMultiValueType(method.getReturnType());
+
+		TypeInformation<?> componentType = ClassTypeInformation.fromReturnTypeOf(method).getComponentType();
+		this.valueType = ClassUtils
+				.resolvePrimitiveIfNecessary(null == componentType ? Object.class : componentType.getType());
+		this.modifying = delegate.getQueryMethod().isModifyingQuery()
+				|| delegate instanceof PartTreeMybatisQuery && ((PartTreeMybatisQuery) delegate).isDeleteQuery();
+
+		Assert.isTrue(!this.modifying || !this.multiValue,
+				String.format("Modifying query method must return a Mono! Offending method: %s", method));
+	}
+
+	@Override
+	public Object execute(Object[] parameters) {
+
+		MybatisQueryMethod method = this.delegate.getQueryMethod();
+		MybatisParametersParameterAccessor accessor = new MybatisParametersParameterAccessor(method.getParameters(),
+				parameters);
+		String statementId = method.getStatementId();
+		Mono<MybatisContext<?, ?>> context = Mono.fromSupplier(() -> this.delegate.createContext(accessor));
+
+		Object result;
+		if (this.modifying) {
+			result = context.flatMap(c -> this.template.update(statementId, c)).flatMap(this::convert);
+		}
+		else if (this.multiValue) {
+			result = context.flatMapMany(c -> this.template.selectList(statementId, c));
+		}
+		else {
+			result = context.flatMap(c -> this.template.selectOne(statementId, c)).flatMap(this::convert);
+		}
+
+		ResultProcessor processor = method.getResultProcessor().withDynamicProjection(accessor);
+		return processor.processResult(result);
+	}
+
+	private Mono<Object> convert(Object value) {
+
+		if (Void.class == this.valueType) {
+			return Mono.empty();
+		}
+		if (this.valueType.isInstance(value)
+				|| !DefaultConversionService.getSharedInstance().canConvert(value.getClass(), this.valueType)) {
+			// projections are applied by the result processor
+			return Mono.just(value);
+		}
+		return Mono.justOrEmpty(DefaultConversionService.getSharedInstance().convert(value, this.valueType));
+	}
+
+	@Override
+	public QueryMethod getQueryMethod() {
+		return this.delegate.getQueryMethod();
+	}
+
+}
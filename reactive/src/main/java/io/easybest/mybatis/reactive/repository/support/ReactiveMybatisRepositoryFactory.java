@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository.support;
+
+import java.util.Optional;
+
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.PersistentEntityInformation;
+import org.springframework.data.repository.core.support.ReactiveRepositoryFactorySupport;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.MybatisPersistentEntityImpl;
+import io.easybest.mybatis.reactive.core.ReactiveMybatisTemplate;
+import io.easybest.mybatis.reactive.repository.query.ReactiveMybatisQuery;
+import io.easybest.mybatis.repository.query.AbstractMybatisQuery;
+import io.easybest.mybatis.repository.query.MybatisQueryIntendListener;
+import io.easybest.mybatis.repository.query.MybatisQueryLookupStrategy;
+import io.easybest.mybatis.repository.query.ProcedureMybatisQuery;
+
+/**
+ * Factory to create reactive MyBatis repositories. Query methods are resolved and
+ * compiled like the blocking ones and executed through a
+ * {@link ReactiveMybatisTemplate}.
+ *
+ * @author Jarvis Song
+ */
+public class ReactiveMybatisRepositoryFactory extends ReactiveRepositoryFactorySupport {
+
+	private final ReactiveMybatisTemplate template;
+
+	private final EntityManager entityManager;
+
+	public ReactiveMybatisRepositoryFactory(ReactiveMybatisTemplate template) {
+
+		Assert.notNull(template, "ReactiveMybatisTemplate must not be null!");
+
+		this.template = template;
+		this.entityManager = template.getEntityManager();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T, ID> EntityInformation<T, ID> getEntityInformation(Class<T> domainClass) {
+
+		MybatisPersistentEntityImpl<?> entity = this.entityManager.getRequiredPersistentEntity(domainClass);
+
+		return (EntityInformation<T, ID>) new PersistentEntityInformation<>(entity);
+	}
+
+	@Override
+	protected Object getTargetRepository(RepositoryInformation metadata) {
+
+		MybatisPersistentEntityImpl<?> persistentEntity = this.entityManager
+				.getRequiredPersistentEntity(metadata.getDomainType());
+		return this.getTargetRepositoryViaReflection(metadata, this.template, persistentEntity);
+	}
+
+	@Override
+	protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+		return SimpleReactiveMybatisRepository.class;
+	}
+
+	@Override
+	protected Optional<QueryLookupStrategy> getQueryLookupStrategy(QueryLookupStrategy.Key key,
+			QueryMethodEvaluationContextProvider evaluationContextProvider) {
+
+		QueryLookupStrategy strategy = MybatisQueryLookupStrategy.create(this.entityManager, key,
+				evaluationContextProvider);
+
+		return Optional.of((method, metadata, factory, namedQueries) -> {
+
+			RepositoryQuery query = strategy.resolveQuery(method, metadata, factory, namedQueries);
+
+			if (!(query instanceof AbstractMybatisQuery) || query instanceof ProcedureMybatisQuery) {
+				throw new UnsupportedOperationException(
+						String.format("Unsupported reactive query %s, %s", query.getClass(), method));
+			}
+
+			// compile the statement as the blocking repositories do
+			MybatisQueryIntendListener.INSTANCE.onCreation(query);
+
+			return new ReactiveMybatisQuery((AbstractMybatisQuery) query, this.template, method);
+		});
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository.support;
+
+import java.io.Serializable;
+
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.reactive.core.ReactiveMybatisTemplate;
+
+/**
+ * {@link org.springframework.beans.factory.FactoryBean} to create reactive MyBatis
+ * repositories.
+ *
+ * @author Jarvis Song
+ * @param <T> repository
+ * @param <S> entity type
+ * @param <ID> primary key
+ */
+public class ReactiveMybatisRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable>
+		extends RepositoryFactoryBeanSupport<T, S, ID> {
+
+	private EntityManager entityManager;
+
+	private DatabaseClient databaseClient;
+
+	public ReactiveMybatisRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+		super(repositoryInterface);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+
+		Assert.state(null != this.entityManager, "EntityManager must not be null!");
+		Assert.state(null != this.databaseClient, "DatabaseClient must not be null!");
+
+		super.afterPropertiesSet();
+	}
+
+	@Override
+	protected RepositoryFactorySupport createRepositoryFactory() {
+
+		return new ReactiveMybatisRepositoryFactory(
+				new ReactiveMybatisTemplate(this.entityManager, this.databaseClient));
+	}
+
+	public void setEntityManager(EntityManager entityManager) {
+
+		this.entityManager = entityManager;
+
+		this.setMappingContext(entityManager);
+	}
+
+	public void setDatabaseClient(DatabaseClient databaseClient) {
+		this.databaseClient = databaseClient;
+	}
+
+}
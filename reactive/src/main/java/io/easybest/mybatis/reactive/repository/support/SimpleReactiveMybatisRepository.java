@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository.support;
+
+import org.reactivestreams.Publisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.easybest.mybatis.mapping.MybatisPersistentEntity;
+import io.easybest.mybatis.reactive.core.ReactiveMybatisTemplate;
+import io.easybest.mybatis.reactive.repository.ReactiveMybatisRepository;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.COUNT_ALL;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_BY_ENTITY;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DELETE_BY_ID;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.EXISTS_BY_ID;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_ALL;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_ALL_WITH_SORT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_BY_ID;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_BY_IDS;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.INSERT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.UPDATE;
+
+/**
+ * Default implementation of {@link ReactiveMybatisRepository}, running the resident
+ * statements of the entity through a {@link ReactiveMybatisTemplate}.
+ *
+ * @author Jarvis Song
+ * @param <T> entity type
+ * @param <ID> primary key
+ */
+public class SimpleReactiveMybatisRepository<T, ID> implements ReactiveMybatisRepository<T, ID> {
+
+	private static final String ENTITY_MUST_NOT_BE_NULL = "Entity must not be null!";
+
+	private static final String ID_MUST_NOT_BE_NULL = "The given id must not be null!";
+
+	private final ReactiveMybatisTemplate template;
+
+	private final MybatisPersistentEntity<T> persistentEntity;
+
+	private final boolean basic;
+
+	public SimpleReactiveMybatisRepository(ReactiveMybatisTemplate template, MybatisPersistentEntity<T> entity) {
+
+		Assert.notNull(template, "ReactiveMybatisTemplate must not be null.");
+		Assert.notNull(entity, "Entity must not be null.");
+
+		this.template = template;
+		this.persistentEntity = entity;
+		this.basic = entity.isBasic();
+	}
+
+	@Override
+	public <S extends T> Mono<S> insert(S entity) {
+
+		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+
+		return Mono.defer(() -> {
+
+			if (this.persistentEntity.hasVersionProperty()) {
+				this.persistentEntity.getPropertyAccessor(entity)
+						.setProperty(this.persistentEntity.getRequiredVersionProperty(), 0);
+			}
+
+			return this.template.update(this.getStatementName(INSERT), this.context(null, entity))
+					.thenReturn(entity);
+		});
+	}
+
+	@Override
+	public <S extends T> Mono<S> update(S entity) {
+
+		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+
+		return this.template.update(this.getStatementName(UPDATE), this.context(null, entity)).thenReturn(entity);
+	}
+
+	@Override
+	public <S extends T> Mono<S> save(S entity) {
+
+		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+
+		return this.persistentEntity.isNew(entity) ? this.insert(entity) : this.update(entity);
+	}
+
+	@Override
+	public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+
+		Assert.notNull(entities, "The given Iterable of entities must not be null!");
+
+		return Flux.fromIterable(entities).concatMap(this::save);
+	}
+
+	@Override
+	public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+
+		Assert.notNull(entityStream, "The given Publisher of entities must not be null!");
+
+		return Flux.from(entityStream).concatMap(this::save);
+	}
+
+	@Override
+	public Mono<T> findById(ID id) {
+
+		Assert.notNull(id, ID_MUST_NOT_BE_NULL);
+
+		return this.template.selectOne(this.getStatementName(FIND_BY_ID), this.context(id, null));
+	}
+
+	@Override
+	public Mono<T> findById(Publisher<ID> id) {
+
+		return Mono.from(id).flatMap(this::findById);
+	}
+
+	@Override
+	public Mono<Boolean> existsById(ID id) {
+
+		Assert.notNull(id, ID_MUST_NOT_BE_NULL);
+
+		return this.template.selectOne(this.getStatementName(EXISTS_BY_ID), this.context(id, null));
+	}
+
+	@Override
+	public Mono<Boolean> existsById(Publisher<ID> id) {
+
+		return Mono.from(id).flatMap(this::existsById);
+	}
+
+	@Override
+	public Flux<T> findAll() {
+
+		return this.template.selectList(this.getStatementName(FIND_ALL), null);
+	}
+
+	@Override
+	public Flux<T> findAll(Sort sort) {
+
+		Assert.notNull(sort, "Sort must not be null!");
+
+		if (sort.isUnsorted()) {
+			return this.findAll();
+		}
+
+		return this.template.selectList(this.getStatementName(FIND_ALL_WITH_SORT),
+				new MybatisContext<>(null, null, this.persistentEntity.getType(), sort,
+						this.template.getEntityManager(), this.basic));
+	}
+
+	@Override
+	public Flux<T> findAllById(Iterable<ID> ids) {
+
+		Assert.notNull(ids, "The given Iterable of ids must not be null!");
+
+		if (!ids.iterator().hasNext()) {
+			return Flux.empty();
+		}
+
+		return this.template.selectList(this.getStatementName(FIND_BY_IDS), this.context(ids, null));
+	}
+
+	@Override
+	public Flux<T> findAllById(Publisher<ID> idStream) {
+
+		Assert.notNull(idStream, "The given Publisher of ids must not be null!");
+
+		return Flux.from(idStream).collectList().flatMapMany(this::findAllById);
+	}
+
+	@Override
+	public Mono<Long> count() {
+
+		return this.template.selectOne(this.getStatementName(COUNT_ALL), null);
+	}
+
+	@Override
+	public Mono<Void> deleteById(ID id) {
+
+		Assert.notNull(id, ID_MUST_NOT_BE_NULL);
+
+		if (this.persistentEntity.hasVersionProperty()) {
+			return this.findById(id).flatMap(this::delete);
+		}
+
+		return this.delete(DELETE_BY_ID, this.context(id, null), id);
+	}
+
+	@Override
+	public Mono<Void> deleteById(Publisher<ID> id) {
+
+		return Mono.from(id).flatMap(this::deleteById);
+	}
+
+	@Override
+	public Mono<Void> delete(T entity) {
+
+		Assert.notNull(entity, ENTITY_MUST_NOT_BE_NULL);
+
+		if (this.persistentEntity.isNew(entity)) {
+			return Mono.empty();
+		}
+
+		return this.delete(DELETE_BY_ENTITY, this.context(null, entity),
+				this.persistentEntity.getIdentifierAccessor(entity).getIdentifier());
+	}
+
+	@Override
+	public Mono<Void> deleteAllById(Iterable<? extends ID> ids) {
+
+		Assert.notNull(ids, "The given Iterable of ids must not be null!");
+
+		return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+	}
+
+	@Override
+	public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+
+		Assert.notNull(entities, "The given Iterable of entities must not be null!");
+
+		return Flux.fromIterable(entities).concatMap(this::delete).then();
+	}
+
+	@Override
+	public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+
+		Assert.notNull(entityStream, "The given Publisher of entities must not be null!");
+
+		return Flux.from(entityStream).concatMap(this::delete).then();
+	}
+
+	@Override
+	public Mono<Void> deleteAll() {
+
+		// collect first, the connection is busy until the cursor is drained
+		return this.findAll().collectList().flatMapMany(Flux::fromIterable).concatMap(this::delete).then();
+	}
+
+	private Mono<Void> delete(String statement, MybatisContext<?, ?> context, Object id) {
+
+		return this.template.update(this.getStatementName(statement), context).flatMap(affectRows -> affectRows == 0
+				? Mono.<Void>error(new EmptyResultDataAccessException(
+						String.format("No %s entity with id %s exists!", this.persistentEntity.getType(), id), 1))
+				: Mono.<Void>empty());
+	}
+
+	private MybatisContext<Object, Object> context(Object id, Object instance) {
+
+		return new MybatisContext<>(id, instance, this.persistentEntity.getType(), this.basic);
+	}
+
+	private String getStatementName(String statement) {
+		return this.persistentEntity.getType().getName() + '.' + statement;
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.core;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.test.StepVerifier;
+
+import io.easybest.mybatis.dialect.H2Dialect;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.repository.support.MybatisContext;
+
+import static io.easybest.mybatis.repository.support.ResidentStatementName.DOT;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_ALL;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.FIND_BY_ID;
+import static io.easybest.mybatis.repository.support.ResidentStatementName.INSERT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the statements {@link ReactiveMybatisTemplate} runs without the
+ * interceptors of the entity manager.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration
+class ReactiveMybatisTemplateTests {
+
+	@Autowired
+	ReactiveMybatisTemplate template;
+
+	@Autowired
+	DatabaseClient databaseClient;
+
+	@BeforeEach
+	void setUp() {
+
+		this.databaseClient.sql("create table if not exists ticket (id bigint not null, name varchar(64), "
+				+ "primary key (id))").then()
+				.then(this.databaseClient.sql("create table if not exists voucher (id bigint not null, "
+						+ "code varchar(64), primary key (id))").then())
+				.block();
+	}
+
+	@Test
+	void assignsGeneratedIdsBeforeInsert() {
+
+		Ticket ticket = new Ticket("gate");
+		StepVerifier.create(this.template.update(Ticket.class.getName() + DOT + INSERT, this.context(null, ticket)))
+				.expectNext(1).verifyComplete();
+
+		assertThat(ticket.getId()).isNotNull();
+		StepVerifier.create(this.template.<Ticket>selectOne(Ticket.class.getName() + DOT + FIND_BY_ID,
+				this.context(ticket.getId(), null)).map(Ticket::getName)).expectNext("gate").verifyComplete();
+	}
+
+	@Test
+	void rejectsInsertsWithoutIdFromPooledSequence() {
+
+		StepVerifier.create(this.template.update(Voucher.class.getName() + DOT + INSERT,
+				this.context(null, new Voucher(null, "spring"))))
+				.expectErrorSatisfies(ex -> assertThat(ex).isInstanceOf(InvalidDataAccessApiUsageException.class)
+						.hasMessageContaining("pooled sequence seq_voucher"))
+				.verify();
+
+		StepVerifier.create(this.template.update(Voucher.class.getName() + DOT + INSERT,
+				this.context(null, new Voucher(7L, "summer")))).expectNext(1).verifyComplete();
+	}
+
+	@Test
+	void rejectsTenantScopedEntities() {
+
+		StepVerifier.create(this.template.selectList(Account.class.getName() + DOT + FIND_ALL, null))
+				.expectErrorSatisfies(ex -> assertThat(ex).isInstanceOf(InvalidDataAccessApiUsageException.class)
+						.hasMessageContaining("scoped to a tenant"))
+				.verify();
+	}
+
+	@Test
+	void rejectsPartitionedEntities() {
+
+		StepVerifier.create(this.template.selectList(Shipment.class.getName() + DOT + FIND_ALL, null))
+				.expectErrorSatisfies(ex -> assertThat(ex).isInstanceOf(InvalidDataAccessApiUsageException.class)
+						.hasMessageContaining("partitioned"))
+				.verify();
+	}
+
+	@Test
+	void rejectsEntitiesWithCustomTypeHandlers() {
+
+		StepVerifier.create(this.template.update(Label.class.getName() + DOT + INSERT,
+				this.context(null, new Label(1L, "fragile"))))
+				.expectErrorSatisfies(ex -> assertThat(ex).isInstanceOf(InvalidDataAccessApiUsageException.class)
+						.hasMessageContaining("property text with the type handler "
+								+ UpperCaseTypeHandler.class.getName()))
+				.verify();
+	}
+
+	private MybatisContext<Object, Object> context(Object id, Object instance) {
+
+		Class<?> domainType = null != instance ? instance.getClass() : Ticket.class;
+		return new MybatisContext<>(id, instance, domainType, false);
+	}
+
+	@org.springframework.context.annotation.Configuration
+	static class Config {
+
+		@Bean
+		ConnectionFactory connectionFactory() {
+			return H2ConnectionFactory.inMemory("reactive-mybatis-template");
+		}
+
+		@Bean
+		DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+			return DatabaseClient.create(connectionFactory);
+		}
+
+		@Bean
+		SqlSessionTemplate sqlSessionTemplate() {
+			return new SqlSessionTemplate(new SqlSessionFactoryBuilder().build(new Configuration()));
+		}
+
+		@Bean
+		DefaultEntityManager entityManager(SqlSessionTemplate sqlSessionTemplate) {
+
+			DefaultEntityManager entityManager = new DefaultEntityManager(sqlSessionTemplate);
+			entityManager.setDialect(new H2Dialect());
+			entityManager.setEntityPackages(new String[] { Shipment.class.getPackage().getName() });
+			entityManager.setTenantResolver(() -> "acme");
+			return entityManager;
+		}
+
+		@Bean
+		ReactiveMybatisTemplate reactiveMybatisTemplate(DefaultEntityManager entityManager,
+				DatabaseClient databaseClient) {
+			return new ReactiveMybatisTemplate(entityManager, databaseClient);
+		}
+
+	}
+
+}
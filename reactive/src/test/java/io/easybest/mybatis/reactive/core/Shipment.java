@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.core;
+
+import java.time.LocalDate;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.Data;
+
+import io.easybest.mybatis.annotation.TablePartition;
+
+/**
+ * Sample domain class spread over monthly tables.
+ *
+ * @author Jarvis Song
+ */
+@Entity
+@Data
+@TablePartition(property = "shippedOn")
+public class Shipment {
+
+	@Id
+	private Long id;
+
+	private LocalDate shippedOn;
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.core;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import io.easybest.mybatis.annotation.PooledAllocation;
+
+/**
+ * Sample domain class with ids allocated in blocks of a sequence.
+ *
+ * @author Jarvis Song
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Voucher {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "voucher_generator")
+	@SequenceGenerator(name = "voucher_generator", sequenceName = "seq_voucher", allocationSize = 10)
+	@PooledAllocation
+	private Long id;
+
+	private String code;
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import io.easybest.mybatis.reactive.domain.Person;
+
+/**
+ * Reactive repository for {@link Person}.
+ *
+ * @author Jarvis Song
+ */
+public interface PersonRepository extends ReactiveMybatisRepository<Person, Long> {
+
+	Flux<Person> findByLastnameOrderByFirstnameAsc(String lastname);
+
+	Mono<Person> findByFirstname(String firstname);
+
+	Mono<Long> countByLastname(String lastname);
+
+	Mono<Integer> deleteByLastname(String lastname);
+
+}
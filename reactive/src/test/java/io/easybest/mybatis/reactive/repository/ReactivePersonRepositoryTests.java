@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.reactive.repository;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import io.easybest.mybatis.dialect.H2Dialect;
+import io.easybest.mybatis.mapping.DefaultEntityManager;
+import io.easybest.mybatis.reactive.domain.Person;
+import io.easybest.mybatis.reactive.repository.config.EnableReactiveMybatisRepositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for reactive repositories on r2dbc-h2.
+ *
+ * @author Jarvis Song
+ */
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration
+class ReactivePersonRepositoryTests {
+
+	@Autowired
+	PersonRepository repository;
+
+	@Autowired
+	DatabaseClient databaseClient;
+
+	@BeforeEach
+	void setUp() {
+
+		this.databaseClient.sql("create table if not exists person (id bigint not null, firstname varchar(255), "
+				+ "lastname varchar(255), age integer, primary key (id))").then()
+				.then(this.databaseClient.sql("delete from person").then()).block();
+
+		Flux.just(new Person(1L, "Dave", "Matthews", 42), new Person(2L, "Carter", "Beauford", 49),
+				new Person(3L, "Boyd", "Tinsley", 45), new Person(4L, "Stefan", "Lessard", 42),
+				new Person(5L, "Leroi", "Moore", 41)).concatMap(this.repository::insert).then().block();
+	}
+
+	@Test
+	void findsById() {
+
+		StepVerifier.create(this.repository.findById(1L))
+				.assertNext(person -> assertThat(person.getFirstname()).isEqualTo("Dave"))
+				.verifyComplete();
+		StepVerifier.create(this.repository.findById(99L)).verifyComplete();
+	}
+
+	@Test
+	void streamsAllEntitiesSorted() {
+
+		StepVerifier.create(this.repository.findAll(Sort.by("age", "firstname")).map(Person::getFirstname))
+				.expectNext("Leroi", "Dave", "Stefan", "Boyd", "Carter").verifyComplete();
+		StepVerifier.create(this.repository.count()).expectNext(5L).verifyComplete();
+	}
+
+	@Test
+	void executesDerivedQueries() {
+
+		StepVerifier.create(this.repository.findByFirstname("Boyd").map(Person::getLastname)).expectNext("Tinsley")
+				.verifyComplete();
+		StepVerifier.create(this.repository.countByLastname("Moore")).expectNext(1L).verifyComplete();
+
+		this.repository.insert(new Person(6L, "Adam", "Moore", 30)).block();
+
+		StepVerifier.create(this.repository.findByLastnameOrderByFirstnameAsc("Moore").map(Person::getFirstname))
+				.expectNext("Adam", "Leroi").verifyComplete();
+		StepVerifier.create(this.repository.deleteByLastname("Moore")).expectNext(2).verifyComplete();
+		StepVerifier.create(this.repository.count()).expectNext(4L).verifyComplete();
+	}
+
+	@Test
+	void updatesAndDeletes() {
+
+		Person dave = this.repository.findById(1L).block();
+		dave.setAge(43);
+
+		StepVerifier.create(this.repository.save(dave).then(this.repository.findById(1L)).map(Person::getAge))
+				.expectNext(43).verifyComplete();
+		StepVerifier.create(this.repository.deleteById(1L).then(this.repository.existsById(1L))).expectNext(false)
+				.verifyComplete();
+	}
+
+	@org.springframework.context.annotation.Configuration
+	@EnableReactiveMybatisRepositories
+	static class Config {
+
+		@Bean
+		ConnectionFactory connectionFactory() {
+			return H2ConnectionFactory.inMemory("reactive-mybatis");
+		}
+
+		@Bean
+		DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+			return DatabaseClient.create(connectionFactory);
+		}
+
+		@Bean
+		SqlSessionTemplate sqlSessionTemplate() {
+			return new SqlSessionTemplate(new SqlSessionFactoryBuilder().build(new Configuration()));
+		}
+
+		@Bean
+		DefaultEntityManager entityManager(SqlSessionTemplate sqlSessionTemplate) {
+
+			DefaultEntityManager entityManager = new DefaultEntityManager(sqlSessionTemplate);
+			entityManager.setDialect(new H2Dialect());
+			entityManager.setEntityPackages(new String[] { Person.class.getPackage().getName() });
+			return entityManager;
+		}
+
+	}
+
+}
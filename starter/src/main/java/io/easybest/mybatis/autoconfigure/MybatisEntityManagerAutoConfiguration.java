@@ -16,12 +16,19 @@
 
 package io.easybest.mybatis.autoconfigure;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 
 import javax.sql.DataSource;
 
 import org.mybatis.spring.SqlSessionTemplate;
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryUtils;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -32,12 +39,16 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.easybest.mybatis.id.IdGenerator;
+import io.easybest.mybatis.id.SnowflakeIdGenerator;
 import io.easybest.mybatis.mapping.DefaultEntityManager;
 import io.easybest.mybatis.mapping.EntityManager;
 import io.easybest.mybatis.mapping.NamingStrategy;
+import io.easybest.mybatis.metrics.MybatisMetrics;
 import io.easybest.mybatis.repository.MybatisRepository;
 import io.easybest.mybatis.repository.config.MybatisRepositoryConfigExtension;
 import io.easybest.mybatis.repository.support.MybatisRepositoryFactoryBean;
+import io.easybest.mybatis.tenant.TenantResolver;
 
 /**
  * .
@@ -53,6 +64,11 @@ import io.easybest.mybatis.repository.support.MybatisRepositoryFactoryBean;
 @EnableConfigurationProperties(SpringDataMybatisProperties.class)
 public class MybatisEntityManagerAutoConfiguration {
 
+	/**
+	 * Name of the {@link Executor} bean that runs asynchronous query methods.
+	 */
+	public static final String ASYNC_EXECUTOR_BEAN_NAME = "mybatisAsyncExecutor";
+
 	private final SpringDataMybatisProperties properties;
 
 	public MybatisEntityManagerAutoConfiguration(SpringDataMybatisProperties properties) {
@@ -61,7 +77,10 @@ public class MybatisEntityManagerAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	public EntityManager entityManager(BeanFactory beanFactory, SqlSessionTemplate sqlSessionTemplate) {
+	public EntityManager entityManager(BeanFactory beanFactory, SqlSessionTemplate sqlSessionTemplate,
+			ObjectProvider<MybatisMetrics> metrics,
+			@Qualifier(ASYNC_EXECUTOR_BEAN_NAME) ObjectProvider<Executor> asyncExecutor,
+			ObjectProvider<TenantResolver> tenantResolver) {
 
 		DefaultEntityManager entityManager = new DefaultEntityManager(sqlSessionTemplate);
 
@@ -94,6 +113,28 @@ public class MybatisEntityManagerAutoConfiguration {
 			entityManager.setUniformTablePrefix(this.properties.getUniformTablePrefix());
 		}
 
+		if (null != this.properties.getQueryCompilationMode()) {
+			entityManager.setQueryCompilationMode(this.properties.getQueryCompilationMode());
+		}
+
+		entityManager.setGeneratedRowMapping(this.properties.isGeneratedRowMapping());
+		entityManager.setWriteBehindEnabled(this.properties.isWriteBehind());
+
+		// id generator beans are registered by their bean names
+		Map<String, IdGenerator> idGenerators = new HashMap<>();
+		if (null != this.properties.getSnowflakeNodeId()) {
+			idGenerators.put(IdGenerator.SNOWFLAKE, new SnowflakeIdGenerator(this.properties.getSnowflakeNodeId()));
+		}
+		if (beanFactory instanceof ListableBeanFactory) {
+			idGenerators.putAll(BeanFactoryUtils
+					.beansOfTypeIncludingAncestors((ListableBeanFactory) beanFactory, IdGenerator.class));
+		}
+		entityManager.setIdGenerators(idGenerators);
+
+		metrics.ifAvailable(entityManager::setMetrics);
+		asyncExecutor.ifAvailable(entityManager::setAsyncExecutor);
+		tenantResolver.ifAvailable(entityManager::setTenantResolver);
+
 		return entityManager;
 	}
 
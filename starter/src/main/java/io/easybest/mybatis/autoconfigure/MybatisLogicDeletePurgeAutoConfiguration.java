@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.autoconfigure;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.purge.LogicDeletePurgeScheduler;
+import io.easybest.mybatis.purge.LogicDeletePurger;
+import io.easybest.mybatis.repository.MybatisRepository;
+
+/**
+ * Purges the logically deleted rows of the entities on the configured schedule.
+ *
+ * @author Jarvis Song
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MybatisRepository.class)
+@ConditionalOnBean(EntityManager.class)
+@ConditionalOnProperty(prefix = SpringDataMybatisProperties.PREFIX, name = "purge.enabled", havingValue = "true")
+@EnableConfigurationProperties(SpringDataMybatisProperties.class)
+@AutoConfigureAfter(MybatisEntityManagerAutoConfiguration.class)
+public class MybatisLogicDeletePurgeAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public LogicDeletePurger logicDeletePurger(EntityManager entityManager, SpringDataMybatisProperties properties,
+			ObjectProvider<PlatformTransactionManager> transactionManager) {
+
+		LogicDeletePurger purger = new LogicDeletePurger(entityManager);
+		purger.setChunkSize(properties.getPurge().getChunkSize());
+		purger.setPause(properties.getPurge().getPause());
+		transactionManager.ifUnique(purger::setTransactionManager);
+		return purger;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public LogicDeletePurgeScheduler logicDeletePurgeScheduler(LogicDeletePurger purger,
+			SpringDataMybatisProperties properties) {
+		return new LogicDeletePurgeScheduler(purger, properties.getPurge().getCron());
+	}
+
+}
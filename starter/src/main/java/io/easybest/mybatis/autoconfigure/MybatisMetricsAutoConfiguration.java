@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.autoconfigure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.easybest.mybatis.metrics.MicrometerMybatisMetrics;
+import io.easybest.mybatis.metrics.MybatisMetrics;
+import io.easybest.mybatis.repository.MybatisRepository;
+
+/**
+ * Records repository metrics with Micrometer when a {@link MeterRegistry} is available.
+ *
+ * @author Jarvis Song
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ MybatisRepository.class, MeterRegistry.class })
+@ConditionalOnBean(MeterRegistry.class)
+@ConditionalOnProperty(prefix = SpringDataMybatisProperties.PREFIX, name = "metrics.enabled", havingValue = "true",
+		matchIfMissing = true)
+@EnableConfigurationProperties(SpringDataMybatisProperties.class)
+@AutoConfigureAfter(
+		name = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@AutoConfigureBefore(MybatisEntityManagerAutoConfiguration.class)
+public class MybatisMetricsAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public MybatisMetrics mybatisMetrics(MeterRegistry meterRegistry, SpringDataMybatisProperties properties) {
+		return new MicrometerMybatisMetrics(meterRegistry, properties.getMetrics().getPrefix());
+	}
+
+}
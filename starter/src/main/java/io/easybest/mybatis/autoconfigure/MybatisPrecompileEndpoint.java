@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.autoconfigure;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import io.easybest.mybatis.mapping.EntityManager;
+import io.easybest.mybatis.mapping.precompile.PrecompileReport;
+
+/**
+ * Exposes the {@link PrecompileReport} of the {@link EntityManager}, slowest first.
+ *
+ * @author Jarvis Song
+ */
+@Endpoint(id = "mybatis")
+public class MybatisPrecompileEndpoint {
+
+	private final EntityManager entityManager;
+
+	public MybatisPrecompileEndpoint(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@ReadOperation
+	public Map<String, Object> precompile() {
+
+		PrecompileReport report = this.entityManager.getPrecompileReport();
+
+		Map<String, Object> totals = new LinkedHashMap<>();
+		report.getTotals().forEach((phase, nanos) -> totals.put(phase.name().toLowerCase(), millis(nanos)));
+
+		List<Map<String, Object>> entries = report.getEntries().stream()
+				.sorted((e1, e2) -> Long.compare(e2.getTotalNanos(), e1.getTotalNanos())).map(entry -> {
+					Map<String, Object> descriptor = new LinkedHashMap<>();
+					descriptor.put("kind", entry.getKind());
+					descriptor.put("name", entry.getName());
+					descriptor.put("total", millis(entry.getTotalNanos()));
+					for (PrecompileReport.Phase phase : PrecompileReport.Phase.values()) {
+						descriptor.put(phase.name().toLowerCase(), millis(entry.getNanos(phase)));
+					}
+					return descriptor;
+				}).collect(Collectors.toList());
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("unit", "ms");
+		result.put("totals", totals);
+		result.put("entries", entries);
+		return result;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.autoconfigure;
+
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.easybest.mybatis.mapping.EntityManager;
+
+/**
+ * .
+ *
+ * @author Jarvis Song
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ EntityManager.class, Endpoint.class })
+@ConditionalOnAvailableEndpoint(endpoint = MybatisPrecompileEndpoint.class)
+@AutoConfigureAfter(MybatisEntityManagerAutoConfiguration.class)
+public class MybatisPrecompileEndpointAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(EntityManager.class)
+	public MybatisPrecompileEndpoint mybatisPrecompileEndpoint(EntityManager entityManager) {
+		return new MybatisPrecompileEndpoint(entityManager);
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.easybest.mybatis.autoconfigure;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.Assert;
+
+import io.easybest.mybatis.repository.MybatisRepository;
+import io.easybest.mybatis.routing.ReadWriteRoutingDataSource;
+import io.easybest.mybatis.routing.ReadWriteRoutingInterceptor;
+
+/**
+ * Replaces the {@code spring.datasource} data source with a
+ * {@link ReadWriteRoutingDataSource} over it and the configured replicas.
+ *
+ * @author Jarvis Song
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({ MybatisRepository.class, LazyConnectionDataSourceProxy.class })
+@ConditionalOnProperty(prefix = SpringDataMybatisProperties.PREFIX, name = "routing.enabled", havingValue = "true")
+@EnableConfigurationProperties({ SpringDataMybatisProperties.class, DataSourceProperties.class })
+@AutoConfigureBefore(DataSourceAutoConfiguration.class)
+public class MybatisReadWriteRoutingAutoConfiguration {
+
+	@Bean
+	@Primary
+	public DataSource dataSource(DataSourceProperties dataSourceProperties, SpringDataMybatisProperties properties) {
+
+		SpringDataMybatisProperties.Routing routing = properties.getRouting();
+		Assert.notEmpty(routing.getReplicas(), "Read/write routing requires at least one replica!");
+
+		DataSource primary = dataSourceProperties.initializeDataSourceBuilder().build();
+		List<DataSource> replicas = routing.getReplicas().stream()
+				.map(MybatisReadWriteRoutingAutoConfiguration::createReplica).collect(Collectors.toList());
+
+		return new RoutingDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas, routing.getSelection()));
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = SpringDataMybatisProperties.PREFIX, name = "routing.non-transactional-reads",
+			havingValue = "true", matchIfMissing = true)
+	public ReadWriteRoutingInterceptor readWriteRoutingInterceptor() {
+		return new ReadWriteRoutingInterceptor();
+	}
+
+	private static DataSource createReplica(SpringDataMybatisProperties.Replica replica) {
+
+		Assert.hasText(replica.getUrl(), "Replica url must not be empty!");
+
+		// unset properties are left to the builder, it derives the driver from the url
+		DataSourceBuilder<?> builder = DataSourceBuilder.create().url(replica.getUrl());
+		if (null != replica.getUsername()) {
+			builder.username(replica.getUsername());
+		}
+		if (null != replica.getPassword()) {
+			builder.password(replica.getPassword());
+		}
+		if (null != replica.getDriverClassName()) {
+			builder.driverClassName(replica.getDriverClassName());
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Defers fetching the connection until the transaction is marked read-only, and closes
+	 * the pools on shutdown.
+	 */
+	static class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+		private final ReadWriteRoutingDataSource routingDataSource;
+
+		RoutingDataSourceProxy(ReadWriteRoutingDataSource routingDataSource) {
+
+			super(routingDataSource);
+
+			this.routingDataSource = routingDataSource;
+		}
+
+		@Override
+		public void destroy() {
+			this.routingDataSource.close();
+		}
+
+	}
+
+}
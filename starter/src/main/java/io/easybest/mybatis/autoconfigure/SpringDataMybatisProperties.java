@@ -16,9 +16,17 @@
 
 package io.easybest.mybatis.autoconfigure;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import io.easybest.mybatis.purge.LogicDeletePurger;
+import io.easybest.mybatis.repository.query.QueryCompilationMode;
+import io.easybest.mybatis.routing.ReplicaSelection;
+
 /**
  * .
  *
@@ -41,6 +49,23 @@ public class SpringDataMybatisProperties {
 
 	private String uniformTablePrefix;
 
+	private QueryCompilationMode queryCompilationMode;
+
+	private boolean generatedRowMapping;
+
+	private Integer snowflakeNodeId;
+
+	/**
+	 * Defer the writes of repositories in a transaction and flush them as JDBC batches.
+	 */
+	private boolean writeBehind;
+
+	private Metrics metrics = new Metrics();
+
+	private Routing routing = new Routing();
+
+	private Purge purge = new Purge();
+
 	public enum NamingStrategyType {
 
 		/**
@@ -54,4 +79,95 @@ public class SpringDataMybatisProperties {
 
 	}
 
+	@Data
+	public static class Metrics {
+
+		/**
+		 * Whether to record repository metrics when Micrometer is available.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Prefix of the recorded meter names.
+		 */
+		private String prefix = "spring.data.mybatis";
+
+	}
+
+	@Data
+	public static class Routing {
+
+		/**
+		 * Whether to send read-only transactions to the replicas.
+		 */
+		private boolean enabled;
+
+		/**
+		 * How the replica of a read is picked.
+		 */
+		private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+		/**
+		 * Whether selects executed outside of a transaction are sent to the replicas as
+		 * well.
+		 */
+		private boolean nonTransactionalReads = true;
+
+		/**
+		 * Replica data sources, the primary is configured by {@code spring.datasource}.
+		 */
+		private List<Replica> replicas = new ArrayList<>();
+
+	}
+
+	@Data
+	public static class Purge {
+
+		/**
+		 * Whether to purge logically deleted rows on a schedule.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Cron expression of the purge schedule.
+		 */
+		private String cron = "0 0 3 * * *";
+
+		/**
+		 * Rows deleted per chunk.
+		 */
+		private int chunkSize = LogicDeletePurger.DEFAULT_CHUNK_SIZE;
+
+		/**
+		 * Pause between two chunks.
+		 */
+		private Duration pause = Duration.ZERO;
+
+	}
+
+	@Data
+	public static class Replica {
+
+		/**
+		 * JDBC URL of the replica.
+		 */
+		private String url;
+
+		/**
+		 * Login username of the replica.
+		 */
+		private String username;
+
+		/**
+		 * Login password of the replica.
+		 */
+		private String password;
+
+		/**
+		 * Fully qualified name of the JDBC driver, detected from the URL by default.
+		 */
+		private String driverClassName;
+
+	}
+
 }